@@ -0,0 +1,188 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.api.okhttpgson;
+
+import com.google.gson.Gson;
+import io.perforator.sdk.api.okhttpgson.invoker.ApiCallback;
+import io.perforator.sdk.api.okhttpgson.invoker.ApiClient;
+import io.perforator.sdk.api.okhttpgson.invoker.ApiException;
+import io.perforator.sdk.api.okhttpgson.invoker.Pair;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEventsSubmissionResult;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.Call;
+import okhttp3.Request;
+
+/**
+ * Streaming alternative to the generated
+ * {@link io.perforator.sdk.api.okhttpgson.operations.BrowserCloudsApi#sendAnalyticsEvents}.
+ * <br>
+ * Generated operation serializes the whole batch into a String before
+ * sending it, while this one writes events straight to the connection via
+ * {@link StreamingJsonRequestBody}, optionally compressing them on the fly.
+ * <br>
+ * Events can be also sent asynchronously via
+ * {@link #sendAnalyticsEventsAsync}, so no thread is blocked while the
+ * request is in progress.
+ */
+public class AnalyticsEventsSender {
+
+    private static final String[] AUTH_NAMES = new String[]{"OAuth"};
+
+    private final ApiClient apiClient;
+    private final boolean gzipEnabled;
+
+    public AnalyticsEventsSender(ApiClient apiClient) {
+        this(apiClient, false);
+    }
+
+    public AnalyticsEventsSender(ApiClient apiClient, boolean gzipEnabled) {
+        if (apiClient == null) {
+            throw new IllegalArgumentException("apiClient is required");
+        }
+
+        this.apiClient = apiClient;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public AnalyticsEventsSubmissionResult sendAnalyticsEvents(String projectKey, String executionKey, String browserCloudKey, List<AnalyticsEvent> events) throws ApiException {
+        return sendAnalyticsEvents(
+                projectKey,
+                executionKey,
+                browserCloudKey,
+                events,
+                apiClient.getJSON().getGson(),
+                AnalyticsEvent.class
+        );
+    }
+
+    /**
+     * Sends events of any type which is written by the specified Gson
+     * instance in the same JSON format as {@link AnalyticsEvent}, so callers
+     * can keep events in a more compact form until they are serialized.
+     */
+    public <T> AnalyticsEventsSubmissionResult sendAnalyticsEvents(String projectKey, String executionKey, String browserCloudKey, List<T> events, Gson gson, Type eventType) throws ApiException {
+        Call call = buildCall(projectKey, executionKey, browserCloudKey, events, gson, eventType);
+        return apiClient.<AnalyticsEventsSubmissionResult>execute(
+                call,
+                AnalyticsEventsSubmissionResult.class
+        ).getData();
+    }
+
+    /**
+     * Same as {@link #sendAnalyticsEvents(String, String, String, List, Gson, Type)},
+     * but the request is enqueued to the HTTP client and the result is
+     * completed by its dispatcher once the response arrives.
+     *
+     * @return submission result, completed exceptionally with
+     * {@link ApiException} if events can't be sent
+     */
+    public <T> CompletableFuture<AnalyticsEventsSubmissionResult> sendAnalyticsEventsAsync(String projectKey, String executionKey, String browserCloudKey, List<T> events, Gson gson, Type eventType) {
+        CompletableFuture<AnalyticsEventsSubmissionResult> result = new CompletableFuture<>();
+
+        Call call;
+        try {
+            call = buildCall(projectKey, executionKey, browserCloudKey, events, gson, eventType);
+        } catch (ApiException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        apiClient.executeAsync(
+                call,
+                AnalyticsEventsSubmissionResult.class,
+                new ApiCallback<AnalyticsEventsSubmissionResult>() {
+                    @Override
+                    public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+                        result.completeExceptionally(e);
+                    }
+
+                    @Override
+                    public void onSuccess(AnalyticsEventsSubmissionResult submissionResult, int statusCode, Map<String, List<String>> responseHeaders) {
+                        result.complete(submissionResult);
+                    }
+
+                    @Override
+                    public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+                    }
+
+                    @Override
+                    public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+                    }
+                }
+        );
+
+        return result;
+    }
+
+    private <T> Call buildCall(String projectKey, String executionKey, String browserCloudKey, List<T> events, Gson gson, Type eventType) throws ApiException {
+        if (gson == null) {
+            throw new IllegalArgumentException("gson is required");
+        }
+        if (eventType == null) {
+            throw new IllegalArgumentException("eventType is required");
+        }
+        if (projectKey == null) {
+            throw new ApiException("Missing the required parameter 'projectKey' when calling sendAnalyticsEvents");
+        }
+        if (executionKey == null) {
+            throw new ApiException("Missing the required parameter 'executionKey' when calling sendAnalyticsEvents");
+        }
+        if (browserCloudKey == null) {
+            throw new ApiException("Missing the required parameter 'browserCloudKey' when calling sendAnalyticsEvents");
+        }
+
+        String path = "/v1/projects/" + apiClient.escapeString(projectKey)
+                + "/executions/" + apiClient.escapeString(executionKey)
+                + "/browser_clouds/" + apiClient.escapeString(browserCloudKey)
+                + "/analytics_events";
+
+        StreamingJsonRequestBody<T> body = new StreamingJsonRequestBody<>(
+                gson,
+                eventType,
+                events == null ? Collections.<T>emptyList() : events,
+                gzipEnabled
+        );
+
+        List<Pair> queryParams = new ArrayList<>();
+        Map<String, String> headerParams = new HashMap<>();
+        Map<String, String> cookieParams = new HashMap<>();
+        headerParams.put("Accept", "application/json");
+        // GzipRequestInterceptor leaves requests with Content-Encoding
+        // untouched, so the body is never buffered before sending
+        headerParams.put("Content-Encoding", body.getContentEncoding());
+
+        String url = apiClient.buildUrl(null, path, queryParams, Collections.emptyList());
+        apiClient.updateParamsForAuth(
+                AUTH_NAMES,
+                queryParams,
+                headerParams,
+                cookieParams,
+                null,
+                "POST",
+                URI.create(url)
+        );
+
+        Request.Builder requestBuilder = new Request.Builder().url(url).post(body);
+        apiClient.processHeaderParams(headerParams, requestBuilder);
+        apiClient.processCookieParams(cookieParams, requestBuilder);
+
+        return apiClient.getHttpClient().newCall(requestBuilder.build());
+    }
+
+}
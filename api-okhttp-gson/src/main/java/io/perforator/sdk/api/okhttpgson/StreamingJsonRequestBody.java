@@ -0,0 +1,101 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.api.okhttpgson;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Request body writing a collection of items as JSON array straight to the
+ * connection, item by item, without building the whole payload in memory.
+ * <br>
+ * The body can be written more than once, so it is safe to use with
+ * interceptors retrying the request, e.g. after access token renewal.
+ */
+public class StreamingJsonRequestBody<T> extends RequestBody {
+
+    public static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
+
+    private final Gson gson;
+    private final Type itemType;
+    private final Collection<T> items;
+    private final boolean gzipEnabled;
+
+    public StreamingJsonRequestBody(Gson gson, Type itemType, Collection<T> items, boolean gzipEnabled) {
+        if (gson == null) {
+            throw new IllegalArgumentException("gson is required");
+        }
+        if (itemType == null) {
+            throw new IllegalArgumentException("itemType is required");
+        }
+        if (items == null) {
+            throw new IllegalArgumentException("items are required");
+        }
+
+        this.gson = gson;
+        this.itemType = itemType;
+        this.items = items;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    /**
+     * @return value for Content-Encoding header which should be sent along
+     * with this body
+     */
+    public String getContentEncoding() {
+        return gzipEnabled ? "gzip" : "identity";
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON_MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        if (gzipEnabled) {
+            try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                writeItems(gzipSink);
+            }
+        } else {
+            writeItems(sink);
+        }
+    }
+
+    private void writeItems(BufferedSink sink) throws IOException {
+        JsonWriter writer = new JsonWriter(
+                new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8)
+        );
+
+        writer.beginArray();
+        for (T item : items) {
+            gson.toJson(item, itemType, writer);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+}
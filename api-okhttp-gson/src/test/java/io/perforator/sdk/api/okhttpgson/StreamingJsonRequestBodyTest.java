@@ -0,0 +1,108 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.api.okhttpgson;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingJsonRequestBodyTest {
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void verifyPlainBody() throws Exception {
+        List<AnalyticsEvent> events = buildEvents(100);
+        StreamingJsonRequestBody<AnalyticsEvent> body = new StreamingJsonRequestBody<>(
+                GSON,
+                AnalyticsEvent.class,
+                events,
+                false
+        );
+
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+
+        assertEquals("identity", body.getContentEncoding());
+        assertEquals(GSON.toJson(events), buffer.readUtf8());
+    }
+
+    @Test
+    public void verifyGzipBody() throws Exception {
+        List<AnalyticsEvent> events = buildEvents(1000);
+        StreamingJsonRequestBody<AnalyticsEvent> body = new StreamingJsonRequestBody<>(
+                GSON,
+                AnalyticsEvent.class,
+                events,
+                true
+        );
+
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+
+        String expected = GSON.toJson(events);
+        assertEquals("gzip", body.getContentEncoding());
+        assertTrue(buffer.size() * 3 < expected.length());
+
+        String actual = Okio.buffer(new GzipSource(buffer)).readUtf8();
+        List<AnalyticsEvent> parsed = GSON.fromJson(
+                actual,
+                new TypeToken<List<AnalyticsEvent>>() {}.getType()
+        );
+        assertEquals(events, parsed);
+    }
+
+    @Test
+    public void verifyBodyIsRepeatable() throws Exception {
+        StreamingJsonRequestBody<AnalyticsEvent> body = new StreamingJsonRequestBody<>(
+                GSON,
+                AnalyticsEvent.class,
+                buildEvents(10),
+                false
+        );
+
+        Buffer first = new Buffer();
+        Buffer second = new Buffer();
+        body.writeTo(first);
+        body.writeTo(second);
+
+        assertEquals(first.readUtf8(), second.readUtf8());
+    }
+
+    private static List<AnalyticsEvent> buildEvents(int count) {
+        String parentTransactionId = UUID.randomUUID().toString();
+        List<AnalyticsEvent> result = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            AnalyticsEvent event = new AnalyticsEvent();
+            event.setTimestamp(System.currentTimeMillis());
+            event.setEventType("transaction_heartbeat");
+            event.setSuiteName("System stress test");
+            event.setTransactionId(UUID.randomUUID().toString());
+            event.setTransactionName("Visit documentation page");
+            event.setParentTransactionId(parentTransactionId);
+            event.setParentTransactionName("Visit public website");
+            result.add(event);
+        }
+
+        return result;
+    }
+
+}
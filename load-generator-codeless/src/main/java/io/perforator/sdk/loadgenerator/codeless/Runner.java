@@ -10,9 +10,15 @@
  */
 package io.perforator.sdk.loadgenerator.codeless;
 
+import io.perforator.sdk.loadgenerator.codeless.config.CodelessConfig;
+import io.perforator.sdk.loadgenerator.codeless.config.CodelessConfigFactory;
+import io.perforator.sdk.loadgenerator.codeless.config.CodelessSuiteConfigValidator;
+import io.perforator.sdk.loadgenerator.core.AgentLauncher;
+import io.perforator.sdk.loadgenerator.core.LoadGeneratorCoordinator;
 import java.io.FileNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 public class Runner {
 
@@ -26,7 +32,23 @@ public class Runner {
             throw new FileNotFoundException("Config located at " + configLocation + " is not found");
         }
 
-        new CodelessLoadGenerator(configLocation).run();
+        CodelessConfig config = CodelessConfigFactory.INSTANCE.getCodelessConfig(configLocation);
+        if (!LoadGeneratorCoordinator.isRequired(config.getLoadGeneratorConfig())) {
+            new CodelessLoadGenerator(config).run();
+            return;
+        }
+
+        new LoadGeneratorCoordinator(
+                config.getLoadGeneratorConfig(),
+                (List) CodelessSuiteConfigValidator.validate(
+                        config.getLoadGeneratorConfig(),
+                        config.getSuiteConfigs()
+                ),
+                AgentLauncher.forkJvm(
+                        Runner.class.getName(),
+                        configLocation.toAbsolutePath().toString()
+                )
+        ).run();
     }
 
 }
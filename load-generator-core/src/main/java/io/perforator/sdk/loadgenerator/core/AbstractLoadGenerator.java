@@ -11,6 +11,7 @@
 package io.perforator.sdk.loadgenerator.core;
 
 import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.LoadProfile;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
 import io.perforator.sdk.loadgenerator.core.context.SuiteConfigContext;
 import io.perforator.sdk.loadgenerator.core.context.SuiteInstanceContext;
@@ -27,7 +28,6 @@ import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class AbstractLoadGenerator implements Runnable, StatisticsService {
 
@@ -45,6 +45,9 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
             + "|                                                                                                                               |\n"
             + " -------------------------------------------------------------------------------------------------------------------------------\n";
 
+    private static final String WORKER_NAME_PREFIX = "perforator-worker-";
+    private static final long LOAD_PROFILE_CHECK_INTERVAL = 1000;
+
     static {
         System.setProperty("log4j.shutdownHookEnabled", "false");
     }
@@ -73,6 +76,12 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
         if(suiteConfigs == null || suiteConfigs.isEmpty()) {
             throw new RuntimeException("suiteConfigs is required");
         }
+
+        suiteConfigs = AgentShares.split(
+                suiteConfigs,
+                loadGeneratorConfig.getAgentIndex(),
+                loadGeneratorConfig.getAgentsCount()
+        );
         
         if (mediator == null) {
             try {
@@ -99,7 +108,12 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
         }
         this.loadGeneratorConfig = loadGeneratorConfig;
         this.suiteConfigs = copy(suiteConfigs);
-        this.executor = Executors.newCachedThreadPool(this::buildWorkerThread);
+        this.executor = WorkerExecutors.newWorkerExecutor(
+                loadGeneratorConfig.isVirtualThreads(),
+                WORKER_NAME_PREFIX,
+                this::onUncaughtException,
+                this::buildWorkerThread
+        );
     }
 
     protected static final <T> List<T> copy(List<?> items) {
@@ -136,15 +150,20 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
 
         List<Future> futures = new ArrayList<>();
         for (SuiteConfig suiteConfig : suiteConfigs) {
-            ReentrantLock preStartLock = new ReentrantLock();
             SuiteConfigContext suiteConfigContext = mediator.onSuiteConfigCreated(suiteConfig);
-            for (int i = 0; i < suiteConfig.getConcurrency(); i++) {
+            if (suiteConfig.getArrivalRate() > 0) {
                 futures.add(
                         executor.submit(
-                                new SuiteRunner(preStartLock, suiteConfigContext, i)
+                                new ArrivalDispatcher(suiteConfigContext)
                         )
                 );
+                continue;
             }
+            futures.add(
+                    executor.submit(
+                            new WorkerLauncher(suiteConfigContext)
+                    )
+            );
         }
 
         try {
@@ -221,6 +240,51 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
         return mediator.getActiveSessionsCount();
     }
 
+    @Override
+    public long getDroppedArrivalsCount() {
+        return mediator.getDroppedArrivalsCount();
+    }
+
+    @Override
+    public long getLateArrivalsCount() {
+        return mediator.getLateArrivalsCount();
+    }
+
+    @Override
+    public long getRawTransactionLatency(String transactionName, double percentile) {
+        return mediator.getRawTransactionLatency(transactionName, percentile);
+    }
+
+    @Override
+    public long getCorrectedTransactionLatency(String transactionName, double percentile) {
+        return mediator.getCorrectedTransactionLatency(transactionName, percentile);
+    }
+
+    @Override
+    public long getEventsBufferDepth() {
+        return mediator.getEventsBufferDepth();
+    }
+
+    @Override
+    public long getEventsSpilledBytes() {
+        return mediator.getEventsSpilledBytes();
+    }
+
+    @Override
+    public long getEventsReplayLag() {
+        return mediator.getEventsReplayLag();
+    }
+
+    @Override
+    public long getEventsRetryQueueDepth() {
+        return mediator.getEventsRetryQueueDepth();
+    }
+
+    @Override
+    public String getEventsFlusherState() {
+        return mediator.getEventsFlusherState();
+    }
+
     protected final boolean shouldBeFinished() {
         return finished.get() || cancelled.get() || Threaded.isInterrupted();
     }
@@ -347,58 +411,225 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
     }
 
     private Thread buildWorkerThread(Runnable runnable) {
-        Thread thread = new Thread(runnable);
-        thread.setName("perforator-worker-" + workerSequence.getAndIncrement());
-        thread.setUncaughtExceptionHandler((t, e) -> {
+        Thread thread = new Thread(
+                null,
+                runnable,
+                WORKER_NAME_PREFIX + workerSequence.getAndIncrement(),
+                loadGeneratorConfig.getWorkerStackSize()
+        );
+        thread.setDaemon(loadGeneratorConfig.isWorkerDaemon());
+        thread.setPriority(loadGeneratorConfig.getWorkerPriority());
+        thread.setUncaughtExceptionHandler(this::onUncaughtException);
+
+        return thread;
+    }
+
+    private void onUncaughtException(Thread thread, Throwable e) {
+        if (logger.isDebugEnabled()) {
+            logger.error("Unexpected issue happened", e);
+        }
+    }
+
+    /**
+     * Runs the suite instance on the current thread and reports its
+     * completion.
+     *
+     * @return slowdown before the next suite instance, or -1 when the
+     * worker should stop due to termination
+     */
+    private long executeSuiteInstance(int workerNumber, SuiteInstanceContext suiteInstanceContext) {
+        String suiteName = suiteInstanceContext.getSuiteConfigContext().getSuiteConfig().getName();
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "Worker {} has started processing suite {} using suite instance id {}",
+                    workerNumber,
+                    suiteName,
+                    suiteInstanceContext.getSuiteInstanceID()
+            );
+        }
+
+        try {
+            propagateConsumerContext(suiteInstanceContext);
+            runSuite(suiteInstanceContext);
+            long slowdown = mediator.onSuiteInstanceFinished(
+                    suiteInstanceContext,
+                    isCancelled() ? new RuntimeException(TERMINATION_EXCEPTION_MESSAGE) : null
+            );
+
             if (logger.isDebugEnabled()) {
-                logger.error("Unexpected issue happened", e);
+                logger.debug(
+                        "Worker {} has successfully completed processing suite {} using suite instance id {}",
+                        workerNumber,
+                        suiteName,
+                        suiteInstanceContext.getSuiteInstanceID()
+                );
             }
-        });
 
-        return thread;
+            return slowdown;
+        } catch (RuntimeException e) {
+            if (!isCancelled() && logger.isDebugEnabled()) {
+                logger.error(
+                        "Worker {} has failed processing suite {} using suite instance id {}",
+                        workerNumber,
+                        suiteName,
+                        suiteInstanceContext.getSuiteInstanceID(),
+                        e
+                );
+            }
+
+            if (shouldBeFinished()) {
+                mediator.onSuiteInstanceFinished(
+                        suiteInstanceContext,
+                        new RuntimeException(TERMINATION_EXCEPTION_MESSAGE)
+                );
+                return -1;
+            } else {
+                return mediator.onSuiteInstanceFinished(
+                        suiteInstanceContext,
+                        e
+                );
+            }
+        } finally {
+            cleanupConsumerContext();
+        }
     }
 
-    private class SuiteRunner implements Runnable {
+    /**
+     * Starts workers of the suite one by one when they are due according to
+     * the ramp-up or the load profile of the suite, so worker threads are
+     * created only once workers become active instead of sleeping out
+     * their start offsets.
+     */
+    private class WorkerLauncher implements Runnable {
 
-        private final ReentrantLock preStartLock;
-        private final int workerNumber;
         private final SuiteConfigContext suiteConfigContext;
 
-        public SuiteRunner(ReentrantLock preStartLock, SuiteConfigContext suiteConfigContext, int workerNumber) {
-            this.preStartLock = preStartLock;
+        public WorkerLauncher(SuiteConfigContext suiteConfigContext) {
             this.suiteConfigContext = suiteConfigContext;
-            this.workerNumber = workerNumber;
         }
 
         @Override
         public void run() {
+            List<Future<?>> workers = new ArrayList<>();
+            try {
+                launch(workers);
+            } finally {
+                mediator.leaveClock();
+                await(workers);
+            }
+        }
+
+        private void launch(List<Future<?>> workers) {
             SuiteConfig suiteConfig = suiteConfigContext.getSuiteConfig();
-            long startTime = System.currentTimeMillis();
+            long startTime = mediator.getCurrentTime();
             long endTime = startTime + suiteConfig.getDuration().toMillis() - suiteConfig.getRampDown().toMillis();
-            long delay = suiteConfig.getDelay().toMillis() + (suiteConfig.getRampUp().toMillis() / suiteConfig.getConcurrency()) * workerNumber;
+            long workersStartTime = startTime + suiteConfig.getDelay().toMillis();
+
+            int workerNumber = 0;
+            while (workerNumber < suiteConfig.getConcurrency() && !shouldBeFinished()) {
+                long currentTime = mediator.getCurrentTime();
+                if (currentTime >= endTime) {
+                    return;
+                }
+
+                long scheduledAt = toWorkerStartTime(suiteConfig, workersStartTime, workerNumber, currentTime);
+                if (scheduledAt > currentTime) {
+                    mediator.sleep(Math.min(scheduledAt, endTime) - currentTime);
+                    continue;
+                }
 
-            if (delay > 0) {
                 if (logger.isDebugEnabled()) {
                     logger.debug(
-                            "Sleeping {}ms for the worker {} processing suite {}",
-                            delay,
+                            "Starting the worker {} processing suite {}",
                             workerNumber,
                             suiteConfig.getName()
                     );
                 }
-                Threaded.sleep(delay);
+
+                try {
+                    workers.add(
+                            executor.submit(
+                                    new SuiteRunner(suiteConfigContext, workerNumber, endTime)
+                            )
+                    );
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+                workerNumber++;
             }
+        }
 
+        private void await(List<Future<?>> workers) {
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(TERMINATION_EXCEPTION_MESSAGE, e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+
+    }
+
+    /**
+     * @return time when the worker with the specified number is due, i.e.
+     * its offset within the ramp-up, or the next check of the load profile
+     * if the profile doesn't need the worker yet
+     */
+    private static long toWorkerStartTime(SuiteConfig suiteConfig, long workersStartTime, int workerNumber, long currentTime) {
+        if (currentTime < workersStartTime) {
+            return workersStartTime;
+        }
+
+        LoadProfile loadProfile = suiteConfig.getLoadProfile();
+        if (loadProfile == null) {
+            return workersStartTime + (suiteConfig.getRampUp().toMillis() / suiteConfig.getConcurrency()) * workerNumber;
+        }
+
+        if (workerNumber < loadProfile.getConcurrency(currentTime - workersStartTime)) {
+            return currentTime;
+        }
+
+        return currentTime + LOAD_PROFILE_CHECK_INTERVAL;
+    }
+
+    private class SuiteRunner implements Runnable {
+
+        private final int workerNumber;
+        private final SuiteConfigContext suiteConfigContext;
+        private final long endTime;
+
+        public SuiteRunner(SuiteConfigContext suiteConfigContext, int workerNumber, long endTime) {
+            this.suiteConfigContext = suiteConfigContext;
+            this.workerNumber = workerNumber;
+            this.endTime = endTime;
+        }
+
+        @Override
+        public void run() {
+            mediator.enterClock();
+            try {
+                runSuiteInstances();
+            } finally {
+                mediator.leaveClock();
+            }
+        }
+
+        private void runSuiteInstances() {
             long slowdown = 0;
             while (!shouldBeFinished()) {
-                long remainingTime = endTime - System.currentTimeMillis();
+                long remainingTime = endTime - mediator.getCurrentTime();
                 if(remainingTime <= 0) {
                     return;
                 }
                 
                 if (slowdown > 0) {
                     slowdown = Math.min(slowdown, remainingTime);
-                    Threaded.sleep(slowdown);
+                    mediator.sleep(slowdown);
                     slowdown = 0;
                 }
                 
@@ -408,129 +639,222 @@ public abstract class AbstractLoadGenerator implements Runnable, StatisticsServi
                     return;
                 }
                 
-                if(preStartContext.delay > 0) {
-                    Threaded.sleep(delay);
-                }
-                
-                if(preStartContext.suiteInstanceContext == null) {
+                if(preStartContext.throttled) {
+                    mediator.awaitSuiteInstancePermit(
+                            suiteConfigContext,
+                            remainingTime
+                    );
                     continue;
                 }
                 
-                final SuiteInstanceContext suiteInstanceContext = preStartContext.suiteInstanceContext;
+                slowdown = executeSuiteInstance(
+                        workerNumber,
+                        preStartContext.suiteInstanceContext
+                );
 
-                if (logger.isDebugEnabled()) {
-                    logger.debug(
-                            "Worker {} has started processing suite {} using suite instance id {}",
+                if (slowdown < 0) {
+                    return;
+                }
+            }
+        }
+        
+        private PreStartSuiteInstanceContext preStart(SuiteConfigContext suiteConfigContext) {
+            if (shouldBeFinished()) {
+                return new PreStartSuiteInstanceContext(
+                        null,
+                        false,
+                        false
+                );
+            }
+
+            long iterationNumber = mediator.tryAcquireSuiteInstancePermit(
+                    suiteConfigContext
+            );
+
+            if (iterationNumber == IntegrationService.SUITE_INSTANCE_PERMIT_EXHAUSTED) {
+                return new PreStartSuiteInstanceContext(
+                        null,
+                        false,
+                        false
+                );
+            }
+
+            if (iterationNumber == IntegrationService.SUITE_INSTANCE_PERMIT_THROTTLED) {
+                return new PreStartSuiteInstanceContext(
+                        null,
+                        !shouldBeFinished(),
+                        true
+                );
+            }
+
+            return new PreStartSuiteInstanceContext(
+                    mediator.onSuiteInstanceStarted(
                             workerNumber,
-                            suiteConfig.getName(),
-                            suiteInstanceContext.getSuiteInstanceID()
-                    );
+                            suiteConfigContext,
+                            iterationNumber
+                    ),
+                    true,
+                    false
+            );
+        }
+
+    }
+    
+    /**
+     * Launches suite instances on schedule following
+     * {@link SuiteConfig#getArrivalRate()}, regardless of how long previous
+     * suite instances take.
+     * <br>
+     * Every suite instance runs on its own thread taken from the elastic
+     * worker pool, while {@link SuiteConfig#getConcurrency()} caps how many
+     * of them are active at the same time - arrivals exceeding the cap are
+     * dropped rather than queued, so they don't pile up behind a slow system.
+     */
+    private class ArrivalDispatcher implements Runnable {
+
+        private final SuiteConfigContext suiteConfigContext;
+        private final AtomicInteger activeInstances = new AtomicInteger(0);
+        private final Object activeInstancesMonitor = new Object();
+
+        public ArrivalDispatcher(SuiteConfigContext suiteConfigContext) {
+            this.suiteConfigContext = suiteConfigContext;
+        }
+
+        @Override
+        public void run() {
+            try {
+                dispatch();
+            } finally {
+                mediator.leaveClock();
+                awaitActiveInstances();
+            }
+        }
+
+        private void dispatch() {
+            SuiteConfig suiteConfig = suiteConfigContext.getSuiteConfig();
+            long startTime = mediator.getCurrentTime();
+            long endTime = startTime + suiteConfig.getDuration().toMillis() - suiteConfig.getRampDown().toMillis();
+            long arrivalsStartTime = startTime + suiteConfig.getDelay().toMillis();
+            long lateThreshold = suiteConfig.getArrivalLateThreshold().toMillis();
+            double rampUp = suiteConfig.getRampUp().toMillis();
+            double rate = suiteConfig.getArrivalRate() / 1000;
+
+            long arrivalNumber = 0;
+            while (!shouldBeFinished()) {
+                long scheduledAt = arrivalsStartTime + toArrivalOffset(arrivalNumber, rate, rampUp);
+                if (scheduledAt >= endTime) {
+                    return;
                 }
 
-                try {
-                    propagateConsumerContext(suiteInstanceContext);
-                    runSuite(suiteInstanceContext);
-                    slowdown = mediator.onSuiteInstanceFinished(
-                            suiteInstanceContext,
-                            isCancelled() ? new RuntimeException(TERMINATION_EXCEPTION_MESSAGE) : null
-                    );
+                long currentTime = mediator.getCurrentTime();
+                if (scheduledAt > currentTime) {
+                    mediator.sleep(scheduledAt - currentTime);
+                    continue;
+                }
 
-                    if (logger.isDebugEnabled()) {
-                        logger.debug(
-                                "Worker {} has successfully completed processing suite {} using suite instance id {}",
-                                workerNumber,
-                                suiteConfig.getName(),
-                                suiteInstanceContext.getSuiteInstanceID()
-                        );
-                    }
+                arrivalNumber++;
 
-                } catch (RuntimeException e) {
-                    if (!isCancelled() && logger.isDebugEnabled()) {
-                        logger.error(
-                                "Worker {} has failed processing suite {} using suite instance id {}",
-                                workerNumber,
-                                suiteConfig.getName(),
-                                suiteInstanceContext.getSuiteInstanceID(),
-                                e
-                        );
-                    }
+                long iterationNumber = mediator.tryAcquireSuiteInstancePermit(
+                        suiteConfigContext
+                );
 
-                    if (shouldBeFinished()) {
-                        mediator.onSuiteInstanceFinished(
-                                suiteInstanceContext,
-                                new RuntimeException(TERMINATION_EXCEPTION_MESSAGE)
-                        );
-                        return;
-                    } else {
-                        slowdown = mediator.onSuiteInstanceFinished(
-                                suiteInstanceContext,
-                                e
-                        );
-                    }
-                } finally {
-                    cleanupConsumerContext();
+                if (iterationNumber == IntegrationService.SUITE_INSTANCE_PERMIT_EXHAUSTED) {
+                    return;
+                }
+
+                if (iterationNumber == IntegrationService.SUITE_INSTANCE_PERMIT_THROTTLED) {
+                    mediator.onSuiteArrivalDropped(suiteConfigContext);
+                    continue;
+                }
+
+                if (currentTime - scheduledAt > lateThreshold) {
+                    mediator.onSuiteArrivalLate(suiteConfigContext);
+                }
+
+                if (!launch(iterationNumber)) {
+                    return;
                 }
             }
         }
-        
-        private PreStartSuiteInstanceContext preStart(SuiteConfigContext suiteConfigContext) {
-            preStartLock.lock();
 
+        private boolean launch(long iterationNumber) {
+            int workerNumber = (int) (iterationNumber % Integer.MAX_VALUE);
+            SuiteInstanceContext suiteInstanceContext = mediator.onSuiteInstanceStarted(
+                    workerNumber,
+                    suiteConfigContext,
+                    iterationNumber
+            );
+
+            activeInstances.incrementAndGet();
             try {
-                int currentConcurrency = mediator.getCurrentConcurrency(suiteConfigContext);
-                int desiredConcurrency = mediator.getDesiredConcurrency(suiteConfigContext);
-                int maxConcurrency = mediator.getMaxConcurrency(suiteConfigContext);
-                long iterationsCounter = mediator.getIterationsCounter(suiteConfigContext);
-                long iterationsMax = mediator.getIterationsMax(suiteConfigContext);
-
-                if (iterationsCounter >= iterationsMax || shouldBeFinished()) {
-                    return new PreStartSuiteInstanceContext(
-                            null,
-                            false,
-                            0
-                    );
+                executor.execute(() -> {
+                    mediator.enterClock();
+                    try {
+                        executeSuiteInstance(workerNumber, suiteInstanceContext);
+                    } finally {
+                        mediator.leaveClock();
+                        onInstanceCompleted();
+                    }
+                });
+                return true;
+            } catch (RejectedExecutionException e) {
+                onInstanceCompleted();
+                mediator.onSuiteInstanceFinished(
+                        suiteInstanceContext,
+                        new RuntimeException(TERMINATION_EXCEPTION_MESSAGE)
+                );
+                return false;
+            }
+        }
+
+        private void onInstanceCompleted() {
+            if (activeInstances.decrementAndGet() == 0) {
+                synchronized (activeInstancesMonitor) {
+                    activeInstancesMonitor.notifyAll();
                 }
-                
-                if(currentConcurrency >= desiredConcurrency) {
-                    double delta = maxConcurrency - desiredConcurrency;
-                    double multiplier = delta / maxConcurrency;
-                    long delay = Math.max(
-                            1,
-                            (long) (multiplier * 250)
-                    );
-                    
-                    return new PreStartSuiteInstanceContext(
-                            null,
-                            !shouldBeFinished(),
-                            delay
-                    );
+            }
+        }
+
+        private void awaitActiveInstances() {
+            synchronized (activeInstancesMonitor) {
+                while (activeInstances.get() > 0) {
+                    try {
+                        activeInstancesMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
                 }
-                
-                return new PreStartSuiteInstanceContext(
-                        mediator.onSuiteInstanceStarted(
-                                workerNumber,
-                                suiteConfigContext
-                        ),
-                        true,
-                        0
-                );
-            } finally {
-                preStartLock.unlock();
             }
         }
 
     }
-    
+
+    /**
+     * @return offset in milliseconds from the start of arrivals when the
+     * arrival with the specified number is due, considering that the rate
+     * grows linearly from 0 during rampUp and stays constant afterwards
+     */
+    static long toArrivalOffset(long arrivalNumber, double ratePerMillisecond, double rampUp) {
+        double rampUpArrivals = ratePerMillisecond * rampUp / 2;
+
+        if (arrivalNumber < rampUpArrivals) {
+            return (long) Math.sqrt(2 * rampUp * arrivalNumber / ratePerMillisecond);
+        }
+
+        return (long) (arrivalNumber / ratePerMillisecond + rampUp / 2);
+    }
+
     private static final class PreStartSuiteInstanceContext {
         
         private final SuiteInstanceContext suiteInstanceContext;
         private final boolean iterationAllowed;
-        private final long delay;
+        private final boolean throttled;
 
-        public PreStartSuiteInstanceContext(SuiteInstanceContext suiteInstanceContext, boolean iterationAllowed, long delay) {
+        public PreStartSuiteInstanceContext(SuiteInstanceContext suiteInstanceContext, boolean iterationAllowed, boolean throttled) {
             this.suiteInstanceContext = suiteInstanceContext;
             this.iterationAllowed = iterationAllowed;
-            this.delay = delay;
+            this.throttled = throttled;
         }
         
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Starts agent processes of a distributed run on behalf of
+ * {@link LoadGeneratorCoordinator}.
+ * <br>
+ * Every agent should run the same load generator with the same configs as
+ * the coordinator, while the agent properties should be applied on top of
+ * them, e.g. as system properties picked up by
+ * {@link io.perforator.sdk.loadgenerator.core.configs.ConfigBuilder#buildWithDefaults()}.
+ */
+@FunctionalInterface
+public interface AgentLauncher {
+
+    /**
+     * @param agentIndex zero-based index of the agent
+     * @param agentProperties config properties the agent should use, keyed
+     * by their fully qualified names like <b>loadGenerator.agentIndex</b>
+     * @return started agent process
+     */
+    Process launch(int agentIndex, Map<String, String> agentProperties) throws IOException;
+
+    /**
+     * Launcher forking agents as local JVM processes sharing the classpath
+     * of the current one, while agent properties are passed as system
+     * properties, except secrets passed as environment variables the same
+     * way {@link #forkJvm(List, String, String...)} does.
+     *
+     * @param mainClass main class of the agents
+     * @param args command line arguments of the agents
+     */
+    static AgentLauncher forkJvm(String mainClass, String... args) {
+        return forkJvm(
+                List.of(System.getProperty("java.class.path").split(File.pathSeparator)),
+                mainClass,
+                args
+        );
+    }
+
+    /**
+     * Launcher forking agents as local JVM processes with the given
+     * classpath, e.g. when the current classpath is the one of a build tool
+     * rather than of the load generator, while agent properties are passed
+     * as system properties.
+     * <br>
+     * Secrets, like <b>loadGenerator.coordinatorToken</b>, are passed as
+     * environment variables like <b>LOADGENERATOR_COORDINATORTOKEN</b>
+     * instead, so they aren't exposed via the command line of agents to
+     * other users of the host.
+     *
+     * @param classPath classpath elements of the agents
+     * @param mainClass main class of the agents
+     * @param args command line arguments of the agents
+     */
+    static AgentLauncher forkJvm(List<String> classPath, String mainClass, String... args) {
+        return (agentIndex, agentProperties) -> {
+            List<String> command = new ArrayList<>();
+            command.add(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"
+            );
+            command.add("-cp");
+            command.add(String.join(File.pathSeparator, classPath));
+
+            Map<String, String> environment = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : agentProperties.entrySet()) {
+                if (isSecret(entry.getKey())) {
+                    environment.put(toEnvironmentName(entry.getKey()), entry.getValue());
+                } else {
+                    command.add("-D" + entry.getKey() + "=" + entry.getValue());
+                }
+            }
+            command.add(mainClass);
+            command.addAll(List.of(args));
+
+            ProcessBuilder processBuilder = new ProcessBuilder(command).inheritIO();
+            processBuilder.environment().putAll(environment);
+            return processBuilder.start();
+        };
+    }
+
+    private static boolean isSecret(String propertyName) {
+        return propertyName.toLowerCase(Locale.ROOT).endsWith("token");
+    }
+
+    private static String toEnvironmentName(String propertyName) {
+        return propertyName.replace('.', '_').toUpperCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits suites load between agents of a distributed run, so together
+ * they produce the same load as a single load generator would.
+ * <br>
+ * Concurrency, iterations and web driver concurrency are divided as evenly
+ * as possible with the remainder going to the first agents, while arrival
+ * rate and load profile are scaled proportionally to the concurrency share.
+ * Suites without a share for the agent are omitted.
+ */
+final class AgentShares {
+
+    private AgentShares() {
+    }
+
+    public static List<SuiteConfig> split(List<SuiteConfig> suiteConfigs, int agentIndex, int agentsCount) {
+        if (agentsCount <= 1) {
+            return suiteConfigs;
+        }
+
+        List<SuiteConfig> result = new ArrayList<>();
+        for (SuiteConfig suiteConfig : suiteConfigs) {
+            int concurrency = suiteConfig.getConcurrency();
+            int concurrencyShare = (int) share(concurrency, agentIndex, agentsCount);
+            if (concurrencyShare <= 0) {
+                continue;
+            }
+
+            double factor = (double) concurrencyShare / concurrency;
+            SuiteConfig.SuiteConfigBuilder<?, ?> builder = suiteConfig.toBuilder()
+                    .concurrency(concurrencyShare)
+                    .iterations(share(suiteConfig.getIterations(), agentIndex, agentsCount))
+                    .arrivalRate(suiteConfig.getArrivalRate() * factor);
+
+            if (suiteConfig.getLoadProfile() != null) {
+                builder.loadProfile(suiteConfig.getLoadProfile().scale(factor));
+            }
+
+            if (suiteConfig.getWebDriverConcurrency() != null) {
+                builder.webDriverConcurrency(
+                        Math.max(1, (int) share(suiteConfig.getWebDriverConcurrency(), agentIndex, agentsCount))
+                );
+            }
+
+            result.add(builder.build());
+        }
+
+        return result;
+    }
+
+    private static long share(long total, int agentIndex, int agentsCount) {
+        return total / agentsCount + (agentIndex < total % agentsCount ? 1 : 0);
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+/**
+ * Strategy of concurrency auto adjustment of a suite, selected via
+ * {@link io.perforator.sdk.loadgenerator.core.configs.SuiteConfig#getConcurrencyController()}.
+ * <br>
+ * A separate controller instance is created for every suite, and it's
+ * invoked once per
+ * {@link io.perforator.sdk.loadgenerator.core.configs.SuiteConfig#getConcurrencyRecalcPeriod()},
+ * so implementations may keep state between periods without
+ * synchronization.
+ */
+@FunctionalInterface
+public interface ConcurrencyController {
+
+    /**
+     * @param snapshot statistics of the suite collected since the previous
+     * invocation
+     * @return concurrency the suite should run at during the next period,
+     * it's capped by {@link ConcurrencySnapshot#getMinConcurrency()} and
+     * {@link ConcurrencySnapshot#getMaxConcurrency()}
+     */
+    int computeDesiredConcurrency(ConcurrencySnapshot snapshot);
+
+    /**
+     * @param snapshot statistics the concurrency has been just reduced for
+     * @return human readable reason of the reduction, which is logged along
+     * with it
+     */
+    default String getReductionReason(ConcurrencySnapshot snapshot) {
+        return String.format(
+                "%d suite fails out of %d during last %dms",
+                snapshot.getFailedSuiteInstances(),
+                snapshot.getFailedSuiteInstances() + snapshot.getSuccessfulSuiteInstances(),
+                snapshot.getWindowDuration()
+        );
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import java.util.function.DoubleToLongFunction;
+
+/**
+ * Statistics of a suite collected for a single concurrency recalculation.
+ * <br>
+ * Suite instances are counted over the sliding window of
+ * concurrencyStatisticsWindow, while transactions and session creation
+ * failures are counted since the previous recalculation.
+ */
+public final class ConcurrencySnapshot {
+
+    private final String suiteName;
+    private final long windowDuration;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final int currentConcurrency;
+    private final int desiredConcurrency;
+    private final long successfulSuiteInstances;
+    private final long failedSuiteInstances;
+    private final long successfulTransactions;
+    private final long failedTransactions;
+    private final long sessionCreationFailures;
+    private final DoubleToLongFunction transactionLatencies;
+
+    public ConcurrencySnapshot(
+            String suiteName,
+            long windowDuration,
+            int minConcurrency,
+            int maxConcurrency,
+            int currentConcurrency,
+            int desiredConcurrency,
+            long successfulSuiteInstances,
+            long failedSuiteInstances,
+            long successfulTransactions,
+            long failedTransactions,
+            long sessionCreationFailures,
+            DoubleToLongFunction transactionLatencies
+    ) {
+        this.suiteName = suiteName;
+        this.windowDuration = windowDuration;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.currentConcurrency = currentConcurrency;
+        this.desiredConcurrency = desiredConcurrency;
+        this.successfulSuiteInstances = successfulSuiteInstances;
+        this.failedSuiteInstances = failedSuiteInstances;
+        this.successfulTransactions = successfulTransactions;
+        this.failedTransactions = failedTransactions;
+        this.sessionCreationFailures = sessionCreationFailures;
+        this.transactionLatencies = transactionLatencies;
+    }
+
+    public String getSuiteName() {
+        return suiteName;
+    }
+
+    /**
+     * @return duration in milliseconds of the window suite instances are
+     * counted over
+     */
+    public long getWindowDuration() {
+        return windowDuration;
+    }
+
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return amount of suite instances running at the moment of the snapshot
+     */
+    public int getCurrentConcurrency() {
+        return currentConcurrency;
+    }
+
+    /**
+     * @return concurrency the suite was supposed to run at before the
+     * recalculation
+     */
+    public int getDesiredConcurrency() {
+        return desiredConcurrency;
+    }
+
+    public long getSuccessfulSuiteInstances() {
+        return successfulSuiteInstances;
+    }
+
+    public long getFailedSuiteInstances() {
+        return failedSuiteInstances;
+    }
+
+    public long getSuccessfulTransactions() {
+        return successfulTransactions;
+    }
+
+    public long getFailedTransactions() {
+        return failedTransactions;
+    }
+
+    /**
+     * @return how many times browser sessions couldn't be created
+     */
+    public long getSessionCreationFailures() {
+        return sessionCreationFailures;
+    }
+
+    /**
+     * @return finished suite instances per second
+     */
+    public double getThroughput() {
+        if (windowDuration <= 0) {
+            return 0;
+        }
+
+        return (successfulSuiteInstances + failedSuiteInstances) * 1000d / windowDuration;
+    }
+
+    /**
+     * @return percent(0-100) of failed suite instances
+     */
+    public double getFailureRate() {
+        long total = successfulSuiteInstances + failedSuiteInstances;
+        if (total == 0) {
+            return 0;
+        }
+
+        return failedSuiteInstances * 100d / total;
+    }
+
+    /**
+     * @param percentile percentile in the range from 0 to 100
+     * @return latency in milliseconds of transactions finished since the
+     * previous recalculation at the specified percentile, or -1 if none were
+     * finished
+     */
+    public long getTransactionLatency(double percentile) {
+        return transactionLatencies.applyAsLong(percentile);
+    }
+
+}
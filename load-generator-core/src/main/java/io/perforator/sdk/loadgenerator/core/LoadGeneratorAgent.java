@@ -0,0 +1,138 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.ConfigBuilder;
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Main class of agents forked by a coordinator on behalf of tools which
+ * resolve configs from plain string properties, e.g. by maven plugin.
+ * <br>
+ * Arguments are the load generator class, its config class, suite config
+ * class and the location of the properties file holding:
+ * <ul>
+ * <li>load generator and suite defaults keyed by field names</li>
+ * <li>properties of the suite with index <b>i</b> keyed by field names
+ * prefixed with <b>suites.i.</b></li>
+ * <li>system properties of the coordinator keyed by their names prefixed
+ * with <b>systemProperties.</b></li>
+ * </ul>
+ * Configs are built the same way the tool builds them, while system
+ * properties given to the agent, like the ones passed by
+ * {@link AgentLauncher#forkJvm(List, String, String...)}, take precedence
+ * over the system properties of the coordinator.
+ */
+public final class LoadGeneratorAgent {
+
+    public static final String SUITES_PREFIX = "suites.";
+    public static final String SYSTEM_PROPERTIES_PREFIX = "systemProperties.";
+
+    private LoadGeneratorAgent() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        if (args == null || args.length != 4) {
+            throw new RuntimeException(
+                    "Load generator class, load generator config class, "
+                    + "suite config class and properties location are required"
+            );
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(args[3]), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        Map<String, String> defaults = new HashMap<>();
+        Map<Integer, Map<String, String>> suites = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+
+            if (key.startsWith(SYSTEM_PROPERTIES_PREFIX)) {
+                String name = key.substring(SYSTEM_PROPERTIES_PREFIX.length());
+                if (System.getProperty(name) == null) {
+                    System.setProperty(name, value);
+                }
+            } else if (key.startsWith(SUITES_PREFIX)) {
+                int separator = key.indexOf('.', SUITES_PREFIX.length());
+                suites.computeIfAbsent(
+                        Integer.parseInt(key.substring(SUITES_PREFIX.length(), separator)),
+                        i -> new HashMap<>()
+                ).put(key.substring(separator + 1), value);
+            } else {
+                defaults.put(key, value);
+            }
+        }
+
+        ClassLoader classLoader = LoadGeneratorAgent.class.getClassLoader();
+        Class<?> loadGeneratorClass = classLoader.loadClass(args[0]);
+        Class<?> loadGeneratorConfigClass = classLoader.loadClass(args[1]);
+        Class<?> suiteConfigClass = classLoader.loadClass(args[2]);
+
+        LoadGeneratorConfig loadGeneratorConfig = (LoadGeneratorConfig) buildConfig(
+                loadGeneratorConfigClass,
+                List.of(System::getProperty, System::getenv, defaults::get)
+        );
+
+        List<Object> suiteConfigs = new ArrayList<>();
+        if (suites.isEmpty()) {
+            suiteConfigs.add(
+                    buildConfig(
+                            suiteConfigClass,
+                            List.of(System::getProperty, System::getenv, defaults::get)
+                    )
+            );
+        } else {
+            for (int i = 0; suites.containsKey(i); i++) {
+                suiteConfigs.add(
+                        buildConfig(
+                                suiteConfigClass,
+                                List.of(suites.get(i)::get, System::getProperty, System::getenv, defaults::get)
+                        )
+                );
+            }
+        }
+
+        Runnable loadGenerator;
+        try {
+            loadGenerator = (Runnable) loadGeneratorClass.getConstructor(
+                    loadGeneratorConfigClass,
+                    List.class
+            ).newInstance(
+                    loadGeneratorConfig,
+                    suiteConfigs
+            );
+        } catch (InvocationTargetException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+
+        loadGenerator.run();
+    }
+
+    private static Object buildConfig(Class<?> configClass, List<Function<String, String>> providers) throws ReflectiveOperationException {
+        ConfigBuilder<?, ?> builder = (ConfigBuilder<?, ?>) configClass.getMethod("builder").invoke(null);
+        return builder.buildWithDefaults(providers);
+    }
+
+}
@@ -74,6 +74,75 @@ final class LoadGeneratorConfigValidator {
             }
         }
 
+        if (loadGeneratorConfig.getWorkerStackSize() < 0) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.workerStackSize + "' field value. "
+                    + "It should be >= 0"
+            );
+        }
+
+        if (loadGeneratorConfig.getWorkerPriority() < Thread.MIN_PRIORITY || loadGeneratorConfig.getWorkerPriority() > Thread.MAX_PRIORITY) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.workerPriority + "' field value. "
+                    + "It should be >= " + Thread.MIN_PRIORITY + " and <= " + Thread.MAX_PRIORITY
+            );
+        }
+
+        if (loadGeneratorConfig.getAgentsCount() < 1) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.agentsCount + "' field value. "
+                    + "It should be >= 1"
+            );
+        }
+
+        if (loadGeneratorConfig.getAgentIndex() < 0 || loadGeneratorConfig.getAgentIndex() >= loadGeneratorConfig.getAgentsCount()) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.agentIndex + "' field value. "
+                    + "It should be >= 0 and < " + LoadGeneratorConfig.Fields.agentsCount
+            );
+        }
+
+        if (loadGeneratorConfig.getConcurrencyBudget() < 0) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.concurrencyBudget + "' field value. "
+                    + "It should be >= 0"
+            );
+        }
+
+        if (loadGeneratorConfig.getWebDriverSessionRate() < 0) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.webDriverSessionRate + "' field value. "
+                    + "It should be >= 0"
+            );
+        }
+
+        if (loadGeneratorConfig.getWebDriverSessionBurst() < 1) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.webDriverSessionBurst + "' field value. "
+                    + "It should be >= 1"
+            );
+        }
+
+        String browserCloudKey = loadGeneratorConfig.getBrowserCloudKey();
+        String executionKey = loadGeneratorConfig.getExecutionKey();
+        if (browserCloudKey != null && !browserCloudKey.isBlank() && (executionKey == null || executionKey.isBlank())) {
+            throw new RuntimeException(
+                    "Bad '" + LoadGeneratorConfig.Fields.browserCloudKey + "' field value. "
+                    + "It requires '" + LoadGeneratorConfig.Fields.executionKey + "' to be specified"
+            );
+        }
+
+        String coordinatorAddress = loadGeneratorConfig.getCoordinatorAddress();
+        if (coordinatorAddress != null && !coordinatorAddress.isBlank()) {
+            int separator = coordinatorAddress.lastIndexOf(':');
+            if (separator <= 0 || !coordinatorAddress.substring(separator + 1).matches("\\d{1,5}")) {
+                throw new RuntimeException(
+                        "Bad '" + LoadGeneratorConfig.Fields.coordinatorAddress + "' field format. "
+                        + "The address '" + coordinatorAddress + "' should look like host:port"
+                );
+            }
+        }
+
         return loadGeneratorConfig;
     }
 }
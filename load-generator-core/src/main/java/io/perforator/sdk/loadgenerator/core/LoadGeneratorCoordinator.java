@@ -0,0 +1,97 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.service.CoordinatorService;
+import io.perforator.sdk.loadgenerator.core.service.StatisticsService;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+/**
+ * Runs load generation split between
+ * {@link LoadGeneratorConfig#getAgentsCount()} agent processes.
+ * <br>
+ * Coordinator creates the execution and the browser cloud shared by all
+ * agents, launches agents via {@link AgentLauncher}, reports statistics
+ * streamed by them to
+ * {@link LoadGeneratorConfig#getCoordinatorAddress()} and terminates the
+ * browser cloud once all agents are finished. Every agent runs its own
+ * share of each suite load.
+ */
+public final class LoadGeneratorCoordinator implements Runnable {
+
+    private final CoordinatorService coordinator;
+
+    public LoadGeneratorCoordinator(LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs, AgentLauncher agentLauncher) {
+        if (loadGeneratorConfig == null) {
+            throw new RuntimeException("loadGeneratorConfig is required");
+        }
+
+        LoadGeneratorConfigValidator.validate(loadGeneratorConfig);
+
+        if (suiteConfigs == null || suiteConfigs.isEmpty()) {
+            throw new RuntimeException("suiteConfigs is required");
+        }
+
+        if (agentLauncher == null) {
+            throw new RuntimeException("agentLauncher is required");
+        }
+
+        try {
+            Class<?> clazz = getClass().getClassLoader().loadClass(
+                    "io.perforator.sdk.loadgenerator.core.internal.CoordinatorImpl"
+            );
+            Constructor<?> constructor = clazz.getDeclaredConstructor(
+                    LoadGeneratorConfig.class,
+                    List.class,
+                    AgentLauncher.class
+            );
+            constructor.setAccessible(true);
+            this.coordinator = (CoordinatorService) constructor.newInstance(
+                    loadGeneratorConfig,
+                    suiteConfigs,
+                    agentLauncher
+            );
+            constructor.setAccessible(false);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Can't instantiate default coordinator", e);
+        }
+    }
+
+    /**
+     * @param loadGeneratorConfig config of the load generator to run
+     * @return true when the load is split between several agents, while the
+     * load generator isn't one of them, i.e. it isn't given the
+     * {@link LoadGeneratorConfig#getCoordinatorToken()} by a coordinator
+     */
+    public static boolean isRequired(LoadGeneratorConfig loadGeneratorConfig) {
+        return loadGeneratorConfig.getAgentsCount() > 1 && (
+                loadGeneratorConfig.getCoordinatorToken() == null
+                || loadGeneratorConfig.getCoordinatorToken().isBlank()
+        );
+    }
+
+    @Override
+    public void run() {
+        coordinator.run();
+    }
+
+    /**
+     * @return statistics merged from all agents of the run
+     */
+    public StatisticsService getStatistics() {
+        return coordinator.getStatisticsService();
+    }
+
+}
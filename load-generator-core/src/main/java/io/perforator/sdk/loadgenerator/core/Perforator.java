@@ -36,6 +36,12 @@ public final class Perforator {
      * session.
      */
     public static final String OPEN_WEB_DRIVER_TRANSACTION_NAME = "Open browser session";
+    /**
+     * Name of the transaction nested into 
+     * {@link #OPEN_WEB_DRIVER_TRANSACTION_NAME} which measures how long the 
+     * request creating a new session waits for the session rate limit.
+     */
+    public static final String OPEN_WEB_DRIVER_QUEUE_TRANSACTION_NAME = OPEN_WEB_DRIVER_TRANSACTION_NAME + " - queue";
     /**
      * Common name for the transaction which  
      * {@link org.openqa.selenium.remote.RemoteWebDriver#quit() terminates} 
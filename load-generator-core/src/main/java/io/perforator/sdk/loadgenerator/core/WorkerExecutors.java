@@ -0,0 +1,84 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factory of executors running suite workers.
+ * <br>
+ * Virtual threads are looked up via reflection, so the same build runs on
+ * JDK 17, where workers always fall back to platform threads, and benefits
+ * from virtual threads on JDK 21+.
+ */
+final class WorkerExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerExecutors.class);
+
+    private WorkerExecutors() {
+    }
+
+    /**
+     * @return executor starting a new virtual thread per task if virtual
+     * threads are requested and supported by the runtime, otherwise a cached
+     * pool of platform threads built by the specified factory
+     */
+    public static ExecutorService newWorkerExecutor(
+            boolean virtualThreads,
+            String namePrefix,
+            Thread.UncaughtExceptionHandler uncaughtExceptionHandler,
+            ThreadFactory platformThreadFactory
+    ) {
+        if (virtualThreads) {
+            try {
+                return newVirtualThreadPerTaskExecutor(namePrefix, uncaughtExceptionHandler);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.warn(
+                        "Virtual threads are not supported by Java {} - falling back to platform threads",
+                        System.getProperty("java.version")
+                );
+                LOGGER.debug("Virtual threads lookup failed", e);
+            }
+        }
+
+        return Executors.newCachedThreadPool(platformThreadFactory);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor(
+            String namePrefix,
+            Thread.UncaughtExceptionHandler uncaughtExceptionHandler
+    ) throws ReflectiveOperationException {
+        // Thread.ofVirtual().name(prefix, 0).uncaughtExceptionHandler(handler).factory()
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+        builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+        builder = builderClass.getMethod(
+                "uncaughtExceptionHandler",
+                Thread.UncaughtExceptionHandler.class
+        ).invoke(builder, uncaughtExceptionHandler);
+
+        ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        Method newThreadPerTaskExecutor = Executors.class.getMethod(
+                "newThreadPerTaskExecutor",
+                ThreadFactory.class
+        );
+
+        return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+    }
+
+}
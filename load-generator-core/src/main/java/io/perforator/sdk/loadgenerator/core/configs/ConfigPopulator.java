@@ -132,6 +132,11 @@ public final class ConfigPopulator {
                     instance,
                     StringConverter.toChromeMode(defaultValue)
             );
+        } else if (fieldType == LoadProfile.class) {
+            return method.invoke(
+                    instance,
+                    StringConverter.toLoadProfile(defaultValue)
+            );
         } else if (fieldType == Iterable.class) {
             return method.invoke(
                     instance,
@@ -154,6 +154,21 @@ public class LoadGeneratorConfig implements Config {
      */
     public static final Duration DEFAULT_EVENTS_FLUSH_INTERVAL = StringConverter.toDuration(DEFAULT_EVENTS_FLUSH_INTERVAL_S);
 
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#transactionHeartbeatInterval}</b>
+     * property.
+     */
+    public static final String DEFAULT_TRANSACTION_HEARTBEAT_INTERVAL_S = "0.25s";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_TRANSACTION_HEARTBEAT_INTERVAL_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#transactionHeartbeatInterval}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_TRANSACTION_HEARTBEAT_INTERVAL = StringConverter.toDuration(DEFAULT_TRANSACTION_HEARTBEAT_INTERVAL_S);
+
     /**
      * String representation of default value for 
      * <b>{@link LoadGeneratorConfig#eventsFlushThreshold}</b>
@@ -169,6 +184,201 @@ public class LoadGeneratorConfig implements Config {
      */
     public static final int DEFAULT_EVENTS_FLUSH_THRESHOLD = StringConverter.toInt(DEFAULT_EVENTS_FLUSH_THRESHOLD_S);
 
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMinThreshold}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_MIN_THRESHOLD_S = "50";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_MIN_THRESHOLD_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMinThreshold}</b>
+     * property.
+     */
+    public static final int DEFAULT_EVENTS_FLUSH_MIN_THRESHOLD = StringConverter.toInt(DEFAULT_EVENTS_FLUSH_MIN_THRESHOLD_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMinParallelism}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM_S = "1";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMinParallelism}</b>
+     * property.
+     */
+    public static final int DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM = StringConverter.toInt(DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMaxParallelism}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_MAX_PARALLELISM_S = "16";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_MAX_PARALLELISM_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMaxParallelism}</b>
+     * property.
+     */
+    public static final int DEFAULT_EVENTS_FLUSH_MAX_PARALLELISM = StringConverter.toInt(DEFAULT_EVENTS_FLUSH_MAX_PARALLELISM_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushLatencyTarget}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_LATENCY_TARGET_S = "1s";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_LATENCY_TARGET_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushLatencyTarget}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_EVENTS_FLUSH_LATENCY_TARGET = StringConverter.toDuration(DEFAULT_EVENTS_FLUSH_LATENCY_TARGET_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMaxBackoff}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_MAX_BACKOFF_S = "60s";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_MAX_BACKOFF_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMaxBackoff}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_EVENTS_FLUSH_MAX_BACKOFF = StringConverter.toDuration(DEFAULT_EVENTS_FLUSH_MAX_BACKOFF_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushFailureThreshold}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD_S = "5";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushFailureThreshold}</b>
+     * property.
+     */
+    public static final int DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD = StringConverter.toInt(DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMaxAttempts}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_FLUSH_MAX_ATTEMPTS_S = "20";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_FLUSH_MAX_ATTEMPTS_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsFlushMaxAttempts}</b>
+     * property.
+     */
+    public static final int DEFAULT_EVENTS_FLUSH_MAX_ATTEMPTS = StringConverter.toInt(DEFAULT_EVENTS_FLUSH_MAX_ATTEMPTS_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsBufferCapacity}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_BUFFER_CAPACITY_S = "250000";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_BUFFER_CAPACITY_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsBufferCapacity}</b>
+     * property.
+     */
+    public static final int DEFAULT_EVENTS_BUFFER_CAPACITY = StringConverter.toInt(DEFAULT_EVENTS_BUFFER_CAPACITY_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsDrainTimeout}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_DRAIN_TIMEOUT_S = "60s";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_DRAIN_TIMEOUT_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsDrainTimeout}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_EVENTS_DRAIN_TIMEOUT = StringConverter.toDuration(DEFAULT_EVENTS_DRAIN_TIMEOUT_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsLogEnabled}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_LOG_ENABLED_S = "false";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_LOG_ENABLED_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsLogEnabled}</b>
+     * property.
+     */
+    public static final boolean DEFAULT_EVENTS_LOG_ENABLED = StringConverter.toBoolean(DEFAULT_EVENTS_LOG_ENABLED_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#eventsGzipEnabled}</b>
+     * property.
+     */
+    public static final String DEFAULT_EVENTS_GZIP_ENABLED_S = "false";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_EVENTS_GZIP_ENABLED_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#eventsGzipEnabled}</b>
+     * property.
+     */
+    public static final boolean DEFAULT_EVENTS_GZIP_ENABLED = StringConverter.toBoolean(DEFAULT_EVENTS_GZIP_ENABLED_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#failureMessageMaxDepth}</b>
+     * property.
+     */
+    public static final String DEFAULT_FAILURE_MESSAGE_MAX_DEPTH_S = "50";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_FAILURE_MESSAGE_MAX_DEPTH_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#failureMessageMaxDepth}</b>
+     * property.
+     */
+    public static final int DEFAULT_FAILURE_MESSAGE_MAX_DEPTH = StringConverter.toInt(DEFAULT_FAILURE_MESSAGE_MAX_DEPTH_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#failureMessageMaxLength}</b>
+     * property.
+     */
+    public static final String DEFAULT_FAILURE_MESSAGE_MAX_LENGTH_S = "65000";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_FAILURE_MESSAGE_MAX_LENGTH_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#failureMessageMaxLength}</b>
+     * property.
+     */
+    public static final int DEFAULT_FAILURE_MESSAGE_MAX_LENGTH = StringConverter.toInt(DEFAULT_FAILURE_MESSAGE_MAX_LENGTH_S);
+
     /**
      * String representation of default value for 
      * <b>{@link LoadGeneratorConfig#reportingInterval}</b>
@@ -198,6 +408,156 @@ public class LoadGeneratorConfig implements Config {
      * property.
      */
     public static final boolean DEFAULT_FAIL_ON_SUITE_ERRORS = StringConverter.toBoolean(DEFAULT_FAIL_ON_SUITE_ERRORS_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#virtualThreads}</b>
+     * property.
+     */
+    public static final String DEFAULT_VIRTUAL_THREADS_S = "false";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_VIRTUAL_THREADS_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#virtualThreads}</b>
+     * property.
+     */
+    public static final boolean DEFAULT_VIRTUAL_THREADS = StringConverter.toBoolean(DEFAULT_VIRTUAL_THREADS_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#workerStackSize}</b>
+     * property.
+     */
+    public static final String DEFAULT_WORKER_STACK_SIZE_S = "0";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_WORKER_STACK_SIZE_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#workerStackSize}</b>
+     * property.
+     */
+    public static final long DEFAULT_WORKER_STACK_SIZE = StringConverter.toLong(DEFAULT_WORKER_STACK_SIZE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#workerDaemon}</b>
+     * property.
+     */
+    public static final String DEFAULT_WORKER_DAEMON_S = "false";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_WORKER_DAEMON_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#workerDaemon}</b>
+     * property.
+     */
+    public static final boolean DEFAULT_WORKER_DAEMON = StringConverter.toBoolean(DEFAULT_WORKER_DAEMON_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#workerPriority}</b>
+     * property.
+     */
+    public static final String DEFAULT_WORKER_PRIORITY_S = "5";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_WORKER_PRIORITY_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#workerPriority}</b>
+     * property.
+     */
+    public static final int DEFAULT_WORKER_PRIORITY = StringConverter.toInt(DEFAULT_WORKER_PRIORITY_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#virtualTime}</b>
+     * property.
+     */
+    public static final String DEFAULT_VIRTUAL_TIME_S = "false";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_VIRTUAL_TIME_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#virtualTime}</b>
+     * property.
+     */
+    public static final boolean DEFAULT_VIRTUAL_TIME = StringConverter.toBoolean(DEFAULT_VIRTUAL_TIME_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#agentIndex}</b>
+     * property.
+     */
+    public static final String DEFAULT_AGENT_INDEX_S = "0";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_AGENT_INDEX_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#agentIndex}</b>
+     * property.
+     */
+    public static final int DEFAULT_AGENT_INDEX = StringConverter.toInt(DEFAULT_AGENT_INDEX_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#agentsCount}</b>
+     * property.
+     */
+    public static final String DEFAULT_AGENTS_COUNT_S = "1";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_AGENTS_COUNT_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#agentsCount}</b>
+     * property.
+     */
+    public static final int DEFAULT_AGENTS_COUNT = StringConverter.toInt(DEFAULT_AGENTS_COUNT_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#concurrencyBudget}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_BUDGET_S = "0";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_CONCURRENCY_BUDGET_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#concurrencyBudget}</b>
+     * property.
+     */
+    public static final int DEFAULT_CONCURRENCY_BUDGET = StringConverter.toInt(DEFAULT_CONCURRENCY_BUDGET_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#webDriverSessionRate}</b>
+     * property.
+     */
+    public static final String DEFAULT_WEB_DRIVER_SESSION_RATE_S = "0.0";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_WEB_DRIVER_SESSION_RATE_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#webDriverSessionRate}</b>
+     * property.
+     */
+    public static final double DEFAULT_WEB_DRIVER_SESSION_RATE = StringConverter.toDouble(DEFAULT_WEB_DRIVER_SESSION_RATE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link LoadGeneratorConfig#webDriverSessionBurst}</b>
+     * property.
+     */
+    public static final String DEFAULT_WEB_DRIVER_SESSION_BURST_S = "10";
+    
+    /**
+     * Default value(<b>{@value LoadGeneratorConfig#DEFAULT_WEB_DRIVER_SESSION_BURST_S}</b>) 
+     * for 
+     * <b>{@link LoadGeneratorConfig#webDriverSessionBurst}</b>
+     * property.
+     */
+    public static final int DEFAULT_WEB_DRIVER_SESSION_BURST = StringConverter.toInt(DEFAULT_WEB_DRIVER_SESSION_BURST_S);
     
     /**
      * String representation of default value for 
@@ -380,7 +740,17 @@ public class LoadGeneratorConfig implements Config {
     Duration eventsFlushInterval = DEFAULT_EVENTS_FLUSH_INTERVAL;
 
     /**
-     * How many transaction events should be sent to API per one request?
+     * Interval on how often to report every active transaction as still alive.
+     * <br>
+     * <b>Note</b>: heartbeats can't be sent more often than
+     * {@link LoadGeneratorConfig#eventsFlushInterval}.
+     */
+    @Default
+    Duration transactionHeartbeatInterval = DEFAULT_TRANSACTION_HEARTBEAT_INTERVAL;
+
+    /**
+     * How many transaction events at most should be sent to API per one
+     * request?
      * <br>
      * <b>Note</b>: this value might be as high as 2000, everything else on top 
      * will be rejected on API end.
@@ -388,6 +758,143 @@ public class LoadGeneratorConfig implements Config {
     @Default
     int eventsFlushThreshold = DEFAULT_EVENTS_FLUSH_THRESHOLD;
 
+    /**
+     * The smallest amount of transaction events per one request to API.
+     * <br>
+     * Batch size is adjusted between this value and
+     * {@link LoadGeneratorConfig#eventsFlushThreshold} according to observed
+     * API latency and errors.
+     */
+    @Default
+    int eventsFlushMinThreshold = DEFAULT_EVENTS_FLUSH_MIN_THRESHOLD;
+
+    /**
+     * The smallest amount of parallel requests sending transaction events
+     * to API.
+     */
+    @Default
+    int eventsFlushMinParallelism = DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM;
+
+    /**
+     * The largest amount of parallel requests sending transaction events
+     * to API.
+     * <br>
+     * Amount of parallel requests is adjusted between
+     * {@link LoadGeneratorConfig#eventsFlushMinParallelism} and this value
+     * according to observed API latency and errors.
+     */
+    @Default
+    int eventsFlushMaxParallelism = DEFAULT_EVENTS_FLUSH_MAX_PARALLELISM;
+
+    /**
+     * Expected round trip of a request sending transaction events to API.
+     * <br>
+     * Slower responses reduce parallelism and batch size, while faster
+     * ones let them grow.
+     */
+    @Default
+    Duration eventsFlushLatencyTarget = DEFAULT_EVENTS_FLUSH_LATENCY_TARGET;
+
+    /**
+     * Upper bound of the pause before failed transaction events are
+     * resubmitted to API.
+     * <br>
+     * The pause starts from {@link LoadGeneratorConfig#eventsFlushInterval}
+     * and is doubled, with random jitter, after every failed attempt.
+     */
+    @Default
+    Duration eventsFlushMaxBackoff = DEFAULT_EVENTS_FLUSH_MAX_BACKOFF;
+
+    /**
+     * How many consecutive failed submissions of transaction events should
+     * pause flushing until API recovers?
+     * <br>
+     * Once the pause is over, a single request probes API before flushing
+     * is resumed.
+     */
+    @Default
+    int eventsFlushFailureThreshold = DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD;
+
+    /**
+     * How many times should a batch of transaction events be submitted
+     * before its events are dropped?
+     * <br>
+     * Batches waiting while flushing is paused don't spend their attempts.
+     */
+    @Default
+    int eventsFlushMaxAttempts = DEFAULT_EVENTS_FLUSH_MAX_ATTEMPTS;
+
+    /**
+     * How many transaction events can be kept in memory while awaiting
+     * submission to API?
+     * <br>
+     * Events on top of this limit are spilled to a local file and submitted
+     * later, so a slow or unavailable API doesn't exhaust the heap.
+     */
+    @Default
+    int eventsBufferCapacity = DEFAULT_EVENTS_BUFFER_CAPACITY;
+
+    /**
+     * Directory where transaction events are spilled once
+     * {@link LoadGeneratorConfig#eventsBufferCapacity} is exceeded, and
+     * where events still pending after
+     * {@link LoadGeneratorConfig#eventsDrainTimeout} are saved for the next
+     * run.
+     * <br>
+     * System temporary directory is used if it is not specified.
+     */
+    String eventsSpillDirectory;
+
+    /**
+     * How long to wait for pending transaction events to be sent to API
+     * when the load generator is finished?
+     * <br>
+     * Events which are still pending after this timeout are saved to
+     * {@link LoadGeneratorConfig#eventsSpillDirectory} and submitted by the
+     * next run.
+     */
+    @Default
+    Duration eventsDrainTimeout = DEFAULT_EVENTS_DRAIN_TIMEOUT;
+
+    /**
+     * Should transaction events be appended to a memory-mapped write-ahead
+     * log in {@link LoadGeneratorConfig#eventsSpillDirectory} before they are
+     * sent to API?
+     * <br>
+     * Events which weren't accepted by API before the process was killed
+     * are replayed by the next run of the same
+     * {@link LoadGeneratorConfig#executionKey}.
+     */
+    @Default
+    boolean eventsLogEnabled = DEFAULT_EVENTS_LOG_ENABLED;
+
+    /**
+     * Should batches of analytics events be compressed with gzip while
+     * they are sent to API?
+     * <br>
+     * Compression trades CPU of the load generator for network bandwidth, so
+     * it's worth enabling when API is reachable via slow network only.
+     * <br>
+     * It's disabled by default, since API has to accept gzip encoded
+     * requests.
+     */
+    @Default
+    boolean eventsGzipEnabled = DEFAULT_EVENTS_GZIP_ENABLED;
+
+    /**
+     * How many stack frames per exception should be included into failure
+     * message of transaction event?
+     */
+    @Default
+    int failureMessageMaxDepth = DEFAULT_FAILURE_MESSAGE_MAX_DEPTH;
+
+    /**
+     * Maximum length of failure message of transaction event - longer stack
+     * traces are truncated.
+     */
+    @Default
+    int failureMessageMaxLength = DEFAULT_FAILURE_MESSAGE_MAX_LENGTH;
+
     /**
      * How often progress statistics should be reported in the log? You can turn
      * off progress reporting by specifying this value as <b>0s</b>.
@@ -401,6 +908,137 @@ public class LoadGeneratorConfig implements Config {
      */
     @Default
     boolean failOnSuiteErrors = DEFAULT_FAIL_ON_SUITE_ERRORS;
+
+    /**
+     * Should every suite worker run on a virtual thread instead of a platform
+     * one?
+     * <br>
+     * <b>Note</b>: virtual threads require Java 21+, platform threads are used
+     * on older runtimes regardless of this flag.
+     */
+    @Default
+    boolean virtualThreads = DEFAULT_VIRTUAL_THREADS;
+
+    /**
+     * Stack size in bytes of platform threads running suite workers.
+     * <br>
+     * 0 means the default stack size of the JVM.
+     */
+    @Default
+    long workerStackSize = DEFAULT_WORKER_STACK_SIZE;
+
+    /**
+     * Should platform threads running suite workers be daemon threads?
+     */
+    @Default
+    boolean workerDaemon = DEFAULT_WORKER_DAEMON;
+
+    /**
+     * Priority(1-10) of platform threads running suite workers.
+     */
+    @Default
+    int workerPriority = DEFAULT_WORKER_PRIORITY;
+
+    /**
+     * Should the load generator run on a simulated clock instead of the wall
+     * clock?
+     * <br>
+     * Simulated time jumps straight to the next scheduled event whenever all
+     * workers are idle, so long load profiles against mocked browsers complete
+     * in seconds while ramp up, concurrency adjustment and heartbeats behave
+     * the same way they do in real time.
+     * <br>
+     * <b>Note</b>: intended for validating configurations, not for real load
+     * tests.
+     */
+    @Default
+    boolean virtualTime = DEFAULT_VIRTUAL_TIME;
+
+    /**
+     * Key of an already created browser cloud to use instead of creating a
+     * new one.
+     * <br>
+     * Requires {@link LoadGeneratorConfig#executionKey} of the execution the
+     * browser cloud belongs to. Such browser cloud is not terminated once the
+     * load generator is finished, since it's owned by whoever has created it,
+     * e.g. by a coordinator running several agents.
+     */
+    String browserCloudKey;
+
+    /**
+     * Address(host:port) of the coordinator which should receive statistics
+     * of this load generator running as one of its agents.
+     * <br>
+     * When it's specified for the coordinator itself, statistics of agents
+     * are accepted only on the host and port of this address, which is
+     * passed to agents as is, otherwise they are accepted on a random port
+     * of loopback interface.
+     */
+    String coordinatorAddress;
+
+    /**
+     * Zero based index of this load generator among agentsCount agents
+     * sharing the same load.
+     */
+    @Default
+    int agentIndex = DEFAULT_AGENT_INDEX;
+
+    /**
+     * How many agents share the load of every suite?
+     * <br>
+     * Every agent runs only its own share of concurrency, iterations and
+     * arrival rate of each suite, so all agents together produce the
+     * configured load.
+     */
+    @Default
+    int agentsCount = DEFAULT_AGENTS_COUNT;
+
+    /**
+     * Secret shared by the coordinator and its agents - statistics reports
+     * without it are rejected by the coordinator.
+     * <br>
+     * Coordinator generates a random token unless it's specified, and passes
+     * it to every agent it launches, so the load generator having this token
+     * runs as an agent rather than as a coordinator.
+     */
+    String coordinatorToken;
+
+    /**
+     * Maximum amount of suite instances, i.e. browsers, running concurrently
+     * across all suites, zero means unlimited.
+     * <br>
+     * The budget is shared between suites according to their
+     * concurrencyWeight, guaranteeing concurrencyMinShare to every suite
+     * which needs it, and never exceeding concurrency of any suite. Slots
+     * which a suite doesn't use, e.g. because its concurrency is reduced by
+     * auto adjustment or its load profile, are moved to other suites while
+     * the test is running, so a browser cloud sized to the budget stays
+     * fully utilised.
+     * <br>
+     * The browser cloud isn't created bigger than the budget.
+     */
+    @Default
+    int concurrencyBudget = DEFAULT_CONCURRENCY_BUDGET;
+
+    /**
+     * Sustained rate(per second) of requests creating new browser sessions
+     * sent to the selenium hub by all suites, zero means unlimited.
+     * <br>
+     * Requests above the rate are queued rather than sent, and the time they
+     * spend in the queue is reported as a separate transaction nested into
+     * <b>Open browser session</b>. The rate is reduced automatically once the
+     * hub responds with 429, honoring its Retry-After header, and is restored
+     * back gradually while sessions are created successfully.
+     */
+    @Default
+    double webDriverSessionRate = DEFAULT_WEB_DRIVER_SESSION_RATE;
+
+    /**
+     * Amount of requests creating new browser sessions which can be sent at
+     * once above webDriverSessionRate after a period of inactivity.
+     */
+    @Default
+    int webDriverSessionBurst = DEFAULT_WEB_DRIVER_SESSION_BURST;
     
     /**
      * Should a performance test fail at the end of the execution in case of any
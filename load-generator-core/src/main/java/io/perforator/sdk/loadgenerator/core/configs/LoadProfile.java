@@ -0,0 +1,408 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.configs;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declarative shape of suite concurrency over time.
+ * <br>
+ * The profile is a sequence of stages separated by commas, semicolons or
+ * new lines, and every stage starts from the concurrency level reached by
+ * the previous one(0 for the first stage):
+ * <ul>
+ * <li><b>stage(duration, target)</b> - changes concurrency linearly up to
+ * the target during the duration</li>
+ * <li><b>step(duration, target[, steps])</b> - changes concurrency up to
+ * the target in equal steps(1 by default) spread evenly over the
+ * duration</li>
+ * <li><b>spike(duration, target)</b> - jumps to the target for the duration
+ * and then returns to the previous level</li>
+ * <li><b>soak(duration)</b> - keeps the previous level for the duration</li>
+ * <li><b>sine(duration, min, max, period)</b> - oscillates between min and
+ * max with the specified period, starting from min</li>
+ * </ul>
+ * For example: <b>stage(5m, 100), soak(30m), spike(1m, 300), sine(1h, 50, 150, 10m), stage(5m, 0)</b>.
+ * <br>
+ * Concurrency of the last stage is kept once the profile is over.
+ */
+public final class LoadProfile {
+
+    private final String text;
+    private final List<Stage> stages;
+    private final long duration;
+
+    private LoadProfile(String text, List<Stage> stages) {
+        this.text = text;
+        this.stages = stages;
+
+        long totalDuration = 0;
+        for (Stage stage : stages) {
+            totalDuration += stage.duration;
+        }
+        this.duration = totalDuration;
+    }
+
+    /**
+     * Parses the profile from its string representation.
+     *
+     * @throws IllegalArgumentException if the profile is malformed
+     */
+    @JsonCreator
+    public static LoadProfile parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException(
+                    "Can't convert empty string to load profile"
+            );
+        }
+
+        List<Stage> stages = new ArrayList<>();
+        double level = 0;
+        for (String token : split(text)) {
+            Stage stage = parseStage(token.trim(), level);
+            stages.add(stage);
+            level = stage.getConcurrency(stage.duration);
+        }
+
+        return new LoadProfile(text.trim(), List.copyOf(stages));
+    }
+
+    /**
+     * @return total duration of all stages
+     */
+    public Duration getDuration() {
+        return Duration.ofMillis(duration);
+    }
+
+    /**
+     * @param elapsedMillis milliseconds passed since the beginning of the
+     * profile
+     * @return concurrency the suite should run at the specified moment
+     */
+    public int getConcurrency(long elapsedMillis) {
+        long offset = Math.max(0, elapsedMillis);
+
+        for (Stage stage : stages) {
+            if (offset < stage.duration) {
+                return (int) Math.round(stage.getConcurrency(offset));
+            }
+            offset -= stage.duration;
+        }
+
+        Stage lastStage = stages.get(stages.size() - 1);
+        return (int) Math.round(lastStage.getConcurrency(lastStage.duration));
+    }
+
+    /**
+     * @return max concurrency the profile reaches at any moment
+     */
+    public int getMaxConcurrency() {
+        double result = 0;
+        for (Stage stage : stages) {
+            result = Math.max(result, stage.getMaxConcurrency());
+        }
+        return (int) Math.round(result);
+    }
+
+    /**
+     * Builds the profile of the same shape with concurrency of every stage
+     * multiplied by the factor and rounded, which is used to split the load
+     * between multiple load generators.
+     *
+     * @param factor multiplier of concurrency levels, should be >= 0
+     */
+    public LoadProfile scale(double factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("factor should be >= 0");
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (Stage stage : stages) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(stage.type).append('(').append(toText(stage.duration));
+
+            switch (stage.type) {
+                case stage:
+                case spike:
+                    result.append(", ").append(Math.round(stage.to * factor));
+                    break;
+                case step:
+                    result.append(", ").append(Math.round(stage.to * factor));
+                    result.append(", ").append(stage.steps);
+                    break;
+                case sine:
+                    result.append(", ").append(Math.round(stage.from * factor));
+                    result.append(", ").append(Math.round(stage.to * factor));
+                    result.append(", ").append(toText(stage.period));
+                    break;
+                default:
+                    break;
+            }
+
+            result.append(')');
+        }
+
+        return parse(result.toString());
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof LoadProfile && text.equals(((LoadProfile) obj).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    private static List<String> split(String text) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+
+        for (char c : text.toCharArray()) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+
+            if (depth == 0 && (c == ',' || c == ';' || c == '\n' || c == '\r')) {
+                if (!current.toString().isBlank()) {
+                    result.add(current.toString());
+                }
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (depth != 0) {
+            throw new IllegalArgumentException(
+                    "Load profile '" + text.trim() + "' has unbalanced parentheses"
+            );
+        }
+
+        if (!current.toString().isBlank()) {
+            result.add(current.toString());
+        }
+
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Load profile '" + text.trim() + "' should have at least one stage"
+            );
+        }
+
+        return result;
+    }
+
+    private static Stage parseStage(String token, double previousLevel) {
+        int argsStart = token.indexOf('(');
+        if (argsStart <= 0 || !token.endsWith(")")) {
+            throw new IllegalArgumentException(
+                    "Load profile stage '" + token + "' should look like name(arguments)"
+            );
+        }
+
+        String name = token.substring(0, argsStart).trim().toLowerCase();
+        String[] args = token.substring(argsStart + 1, token.length() - 1).split(",");
+        for (int i = 0; i < args.length; i++) {
+            args[i] = args[i].trim();
+        }
+
+        switch (name) {
+            case "stage":
+                requireArgs(token, args, 2, 2);
+                return new Stage(
+                        StageType.stage,
+                        toDuration(token, args[0]),
+                        previousLevel,
+                        toConcurrency(token, args[1]),
+                        0,
+                        0
+                );
+            case "step":
+                requireArgs(token, args, 2, 3);
+                int steps = args.length == 3 ? toConcurrency(token, args[2]) : 1;
+                if (steps < 1) {
+                    throw new IllegalArgumentException(
+                            "Load profile stage '" + token + "' should have at least 1 step"
+                    );
+                }
+                return new Stage(
+                        StageType.step,
+                        toDuration(token, args[0]),
+                        previousLevel,
+                        toConcurrency(token, args[1]),
+                        0,
+                        steps
+                );
+            case "spike":
+                requireArgs(token, args, 2, 2);
+                return new Stage(
+                        StageType.spike,
+                        toDuration(token, args[0]),
+                        previousLevel,
+                        toConcurrency(token, args[1]),
+                        0,
+                        0
+                );
+            case "soak":
+                requireArgs(token, args, 1, 1);
+                return new Stage(
+                        StageType.soak,
+                        toDuration(token, args[0]),
+                        previousLevel,
+                        previousLevel,
+                        0,
+                        0
+                );
+            case "sine":
+                requireArgs(token, args, 4, 4);
+                int min = toConcurrency(token, args[1]);
+                int max = toConcurrency(token, args[2]);
+                if (min > max) {
+                    throw new IllegalArgumentException(
+                            "Load profile stage '" + token + "' min should not be > max"
+                    );
+                }
+                return new Stage(
+                        StageType.sine,
+                        toDuration(token, args[0]),
+                        min,
+                        max,
+                        toDuration(token, args[3]),
+                        0
+                );
+            default:
+                throw new IllegalArgumentException(
+                        "Load profile stage '" + token + "' is unknown - "
+                        + "expected one of stage, step, spike, soak, sine"
+                );
+        }
+    }
+
+    private static void requireArgs(String token, String[] args, int min, int max) {
+        if (args.length < min || args.length > max) {
+            throw new IllegalArgumentException(
+                    "Load profile stage '" + token + "' should have "
+                    + (min == max ? String.valueOf(min) : min + "-" + max)
+                    + " arguments"
+            );
+        }
+    }
+
+    private static long toDuration(String token, String value) {
+        Duration result;
+        try {
+            result = StringConverter.toDuration(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                    "Load profile stage '" + token + "' has invalid duration '" + value + "'",
+                    e
+            );
+        }
+
+        if (result.isNegative() || result.isZero()) {
+            throw new IllegalArgumentException(
+                    "Load profile stage '" + token + "' duration should be > 0"
+            );
+        }
+
+        return result.toMillis();
+    }
+
+    private static String toText(long millis) {
+        return BigDecimal.valueOf(millis, 3).stripTrailingZeros().toPlainString() + "s";
+    }
+
+    private static int toConcurrency(String token, String value) {
+        int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Load profile stage '" + token + "' has invalid number '" + value + "'",
+                    e
+            );
+        }
+
+        if (result < 0) {
+            throw new IllegalArgumentException(
+                    "Load profile stage '" + token + "' should not have negative numbers"
+            );
+        }
+
+        return result;
+    }
+
+    private enum StageType {
+        stage, step, spike, soak, sine
+    }
+
+    private static final class Stage {
+
+        private final StageType type;
+        private final long duration;
+        private final double from;
+        private final double to;
+        private final long period;
+        private final int steps;
+
+        private Stage(StageType type, long duration, double from, double to, long period, int steps) {
+            this.type = type;
+            this.duration = duration;
+            this.from = from;
+            this.to = to;
+            this.period = period;
+            this.steps = steps;
+        }
+
+        private double getConcurrency(long offset) {
+            switch (type) {
+                case stage:
+                    return from + (to - from) * offset / duration;
+                case step:
+                    long completedSteps = Math.min(steps, (offset * steps) / duration + 1);
+                    if (offset >= duration) {
+                        completedSteps = steps;
+                    }
+                    return from + (to - from) * completedSteps / steps;
+                case spike:
+                    return offset < duration ? to : from;
+                case sine:
+                    double phase = 2 * Math.PI * offset / period;
+                    return from + (to - from) * (1 - Math.cos(phase)) / 2;
+                default:
+                    return from;
+            }
+        }
+
+        private double getMaxConcurrency() {
+            return Math.max(from, to);
+        }
+
+    }
+
+}
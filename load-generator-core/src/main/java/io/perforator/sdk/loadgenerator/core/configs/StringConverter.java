@@ -217,6 +217,10 @@ public final class StringConverter {
         return toEnum(WebDriverMode.class, val);
     }
 
+    public static LoadProfile toLoadProfile(String val) {
+        return LoadProfile.parse(val);
+    }
+
     public static <T extends Enum<T>> T toEnum(Class<T> enumClass, String val) {
         if (enumClass == null) {
             throw new IllegalArgumentException(
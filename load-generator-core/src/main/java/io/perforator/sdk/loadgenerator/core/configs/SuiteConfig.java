@@ -111,6 +111,201 @@ public class SuiteConfig implements Config {
      * property.
      */
     public static final double DEFAULT_CONCURRENCY_SCALE_UP_MULTIPLIER = StringConverter.toDouble(DEFAULT_CONCURRENCY_SCALE_UP_MULTIPLIER_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyController}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_CONTROLLER_S = "step";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_CONTROLLER_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyController}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_CONTROLLER = StringConverter.toString(DEFAULT_CONCURRENCY_CONTROLLER_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyTargetErrorRate}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_TARGET_ERROR_RATE_S = "5.0";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_TARGET_ERROR_RATE_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyTargetErrorRate}</b>
+     * property.
+     */
+    public static final double DEFAULT_CONCURRENCY_TARGET_ERROR_RATE = StringConverter.toDouble(DEFAULT_CONCURRENCY_TARGET_ERROR_RATE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyTargetLatency}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_TARGET_LATENCY_S = "5s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_TARGET_LATENCY_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyTargetLatency}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_CONCURRENCY_TARGET_LATENCY = StringConverter.toDuration(DEFAULT_CONCURRENCY_TARGET_LATENCY_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyTargetLatencyPercentile}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_TARGET_LATENCY_PERCENTILE_S = "95.0";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_TARGET_LATENCY_PERCENTILE_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyTargetLatencyPercentile}</b>
+     * property.
+     */
+    public static final double DEFAULT_CONCURRENCY_TARGET_LATENCY_PERCENTILE = StringConverter.toDouble(DEFAULT_CONCURRENCY_TARGET_LATENCY_PERCENTILE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyStatisticsWindow}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_STATISTICS_WINDOW_S = "30s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_STATISTICS_WINDOW_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyStatisticsWindow}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_CONCURRENCY_STATISTICS_WINDOW = StringConverter.toDuration(DEFAULT_CONCURRENCY_STATISTICS_WINDOW_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyWeight}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_WEIGHT_S = "1.0";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_WEIGHT_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyWeight}</b>
+     * property.
+     */
+    public static final double DEFAULT_CONCURRENCY_WEIGHT = StringConverter.toDouble(DEFAULT_CONCURRENCY_WEIGHT_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyMinShare}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_MIN_SHARE_S = "0";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_MIN_SHARE_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyMinShare}</b>
+     * property.
+     */
+    public static final int DEFAULT_CONCURRENCY_MIN_SHARE = StringConverter.toInt(DEFAULT_CONCURRENCY_MIN_SHARE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#concurrencyMaxShare}</b>
+     * property.
+     */
+    public static final String DEFAULT_CONCURRENCY_MAX_SHARE_S = "0";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_CONCURRENCY_MAX_SHARE_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#concurrencyMaxShare}</b>
+     * property.
+     */
+    public static final int DEFAULT_CONCURRENCY_MAX_SHARE = StringConverter.toInt(DEFAULT_CONCURRENCY_MAX_SHARE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#slowdownSessionThrottling}</b>
+     * property.
+     */
+    public static final String DEFAULT_SLOWDOWN_SESSION_THROTTLING_S = "0s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_SLOWDOWN_SESSION_THROTTLING_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#slowdownSessionThrottling}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_SLOWDOWN_SESSION_THROTTLING = StringConverter.toDuration(DEFAULT_SLOWDOWN_SESSION_THROTTLING_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#slowdownHubError}</b>
+     * property.
+     */
+    public static final String DEFAULT_SLOWDOWN_HUB_ERROR_S = "0s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_SLOWDOWN_HUB_ERROR_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#slowdownHubError}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_SLOWDOWN_HUB_ERROR = StringConverter.toDuration(DEFAULT_SLOWDOWN_HUB_ERROR_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#slowdownWebDriverTimeout}</b>
+     * property.
+     */
+    public static final String DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT_S = "0s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#slowdownWebDriverTimeout}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT = StringConverter.toDuration(DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#slowdownApplicationError}</b>
+     * property.
+     */
+    public static final String DEFAULT_SLOWDOWN_APPLICATION_ERROR_S = "0s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_SLOWDOWN_APPLICATION_ERROR_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#slowdownApplicationError}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_SLOWDOWN_APPLICATION_ERROR = StringConverter.toDuration(DEFAULT_SLOWDOWN_APPLICATION_ERROR_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#slowdownMax}</b>
+     * property.
+     */
+    public static final String DEFAULT_SLOWDOWN_MAX_S = "30s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_SLOWDOWN_MAX_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#slowdownMax}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_SLOWDOWN_MAX = StringConverter.toDuration(DEFAULT_SLOWDOWN_MAX_S);
     
     /**
      * String representation of default value for 
@@ -187,6 +382,36 @@ public class SuiteConfig implements Config {
      */
     public static final Duration DEFAULT_RAMP_DOWN = StringConverter.toDuration(DEFAULT_RAMP_DOWN_S);
 
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#arrivalRate}</b>
+     * property.
+     */
+    public static final String DEFAULT_ARRIVAL_RATE_S = "0.0";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_ARRIVAL_RATE_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#arrivalRate}</b>
+     * property.
+     */
+    public static final double DEFAULT_ARRIVAL_RATE = StringConverter.toDouble(DEFAULT_ARRIVAL_RATE_S);
+
+    /**
+     * String representation of default value for 
+     * <b>{@link SuiteConfig#arrivalLateThreshold}</b>
+     * property.
+     */
+    public static final String DEFAULT_ARRIVAL_LATE_THRESHOLD_S = "1s";
+    
+    /**
+     * Default value(<b>{@value SuiteConfig#DEFAULT_ARRIVAL_LATE_THRESHOLD_S}</b>) 
+     * for 
+     * <b>{@link SuiteConfig#arrivalLateThreshold}</b>
+     * property.
+     */
+    public static final Duration DEFAULT_ARRIVAL_LATE_THRESHOLD = StringConverter.toDuration(DEFAULT_ARRIVAL_LATE_THRESHOLD_S);
+
     /**
      * String representation of default value for 
      * <b>{@link SuiteConfig#webDriverMode}</b>
@@ -558,6 +783,134 @@ public class SuiteConfig implements Config {
      */
     @Default
     double concurrencyScaleUpMultiplier = DEFAULT_CONCURRENCY_SCALE_UP_MULTIPLIER;
+
+    /**
+     * Strategy of concurrency auto adjustment:
+     * <ul>
+     * <li><b>step</b> - scales up by concurrencyScaleUpMultiplier while the
+     * failure rate is below concurrencyTargetErrorRate, and scales down by
+     * concurrencyScaleDownMultiplier otherwise</li>
+     * <li><b>aimd</b> - scales up additively the same way, but halves
+     * concurrency once the failure rate is above the target</li>
+     * <li><b>pid</b> - PID controller keeping the failure rate at
+     * concurrencyTargetErrorRate</li>
+     * <li><b>latency</b> - keeps latency of transactions at
+     * concurrencyTargetLatencyPercentile below concurrencyTargetLatency</li>
+     * </ul>
+     * Fully qualified name of a class implementing
+     * {@link io.perforator.sdk.loadgenerator.core.ConcurrencyController} with
+     * a public no-arg constructor can be used as well.
+     */
+    @Default
+    String concurrencyController = DEFAULT_CONCURRENCY_CONTROLLER;
+
+    /**
+     * Percent of failed suite instances concurrency auto adjustment should
+     * stay below.
+     */
+    @Default
+    double concurrencyTargetErrorRate = DEFAULT_CONCURRENCY_TARGET_ERROR_RATE;
+
+    /**
+     * Transactions latency the <b>latency</b> concurrency controller should
+     * stay below.
+     */
+    @Default
+    Duration concurrencyTargetLatency = DEFAULT_CONCURRENCY_TARGET_LATENCY;
+
+    /**
+     * Percentile(0-100) of transactions latency compared with
+     * concurrencyTargetLatency by the <b>latency</b> concurrency controller.
+     */
+    @Default
+    double concurrencyTargetLatencyPercentile = DEFAULT_CONCURRENCY_TARGET_LATENCY_PERCENTILE;
+
+    /**
+     * Sliding window of suite instances statistics used by concurrency auto
+     * adjustment, i.e. failure rate and throughput are calculated from suite
+     * instances finished during this window before every recalculation.
+     * <br>
+     * Statistics are kept with 1 second precision, and the window can't be
+     * longer than 1 hour.
+     */
+    @Default
+    Duration concurrencyStatisticsWindow = DEFAULT_CONCURRENCY_STATISTICS_WINDOW;
+
+    /**
+     * Relative share of concurrencyBudget this suite gets when suites
+     * compete for browsers, e.g. a suite with weight 2 gets twice as many
+     * browsers as a suite with weight 1.
+     */
+    @Default
+    double concurrencyWeight = DEFAULT_CONCURRENCY_WEIGHT;
+
+    /**
+     * Amount of concurrencyBudget slots guaranteed to this suite regardless
+     * of weights of other suites, as long as it needs them.
+     */
+    @Default
+    int concurrencyMinShare = DEFAULT_CONCURRENCY_MIN_SHARE;
+
+    /**
+     * Maximum amount of concurrencyBudget slots this suite can take even
+     * when other suites don't need them, so a suite can't monopolize the
+     * budget.
+     * <br>
+     * Zero means no limit other than the concurrency of the suite.
+     */
+    @Default
+    int concurrencyMaxShare = DEFAULT_CONCURRENCY_MAX_SHARE;
+
+    /**
+     * Base pause of a worker after its suite instance failed because the
+     * selenium hub throttled creation of browser sessions, i.e. responded
+     * with 429 or refused to create a session.
+     * <br>
+     * Consecutive failures of the same worker increase the pause using
+     * decorrelated jitter up to slowdownMax, while the first successful suite
+     * instance resets it.
+     * <br>
+     * Zero, which is the default, disables the pause, since
+     * concurrencyAutoAdjustment already lowers the load on failures.
+     */
+    @Default
+    Duration slowdownSessionThrottling = DEFAULT_SLOWDOWN_SESSION_THROTTLING;
+
+    /**
+     * Base pause of a worker after its suite instance failed because the
+     * selenium hub was unavailable, i.e. responded with 502, 503 or 504, or
+     * couldn't be reached.
+     * <br>
+     * Zero, which is the default, disables the pause.
+     */
+    @Default
+    Duration slowdownHubError = DEFAULT_SLOWDOWN_HUB_ERROR;
+
+    /**
+     * Base pause of a worker after its suite instance failed due to a
+     * WebDriver timeout, e.g. page load or script timeout.
+     * <br>
+     * Zero, which is the default, disables the pause.
+     */
+    @Default
+    Duration slowdownWebDriverTimeout = DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT;
+
+    /**
+     * Base pause of a worker after its suite instance failed due to any
+     * other error, e.g. failed assertion or script error, which is caused by
+     * the application under test rather than by the infrastructure.
+     * <br>
+     * Zero disables the pause.
+     */
+    @Default
+    Duration slowdownApplicationError = DEFAULT_SLOWDOWN_APPLICATION_ERROR;
+
+    /**
+     * Maximum pause of a worker after consecutive failures of its suite
+     * instances.
+     */
+    @Default
+    Duration slowdownMax = DEFAULT_SLOWDOWN_MAX;
     
     /**
      * Iterations count to execute this suite.
@@ -607,6 +960,42 @@ public class SuiteConfig implements Config {
     @Default
     Duration rampDown = DEFAULT_RAMP_DOWN;
 
+    /**
+     * Target arrival rate of new suite instances per second.
+     * <br>
+     * When it is > 0, suite instances are launched on schedule regardless of
+     * how long previous ones take (open model), instead of being processed back
+     * to back by a fixed set of workers. The rate grows linearly from 0 during
+     * rampUp period, and concurrency caps how many suite instances are allowed
+     * to run at the same time - arrivals exceeding the cap are dropped.
+     * <br>
+     * The value 0 keeps the closed model with concurrency workers.
+     */
+    @Default
+    double arrivalRate = DEFAULT_ARRIVAL_RATE;
+
+    /**
+     * How much later than scheduled a suite instance can be launched before
+     * its arrival is reported as late.
+     * <br>
+     * Applicable only when arrivalRate is > 0.
+     */
+    @Default
+    Duration arrivalLateThreshold = DEFAULT_ARRIVAL_LATE_THRESHOLD;
+
+    /**
+     * Shape of suite concurrency over time, e.g.
+     * <b>stage(5m, 100), soak(30m), spike(1m, 300), stage(5m, 0)</b>.
+     * <br>
+     * Desired concurrency follows the profile starting once the delay is
+     * elapsed, while concurrency stays the upper bound for any stage. The
+     * profile replaces the linear rampUp of workers.
+     * <br>
+     * See {@link LoadProfile} for all supported stages.
+     */
+    @Default
+    LoadProfile loadProfile = null;
+
     /**
      * The mode of launching browsers for the test suite.
      * <b>Available modes</b>:
@@ -10,7 +10,13 @@
  */
 package io.perforator.sdk.loadgenerator.core.context;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
 
 public interface RemoteWebDriverContext {
     
@@ -23,4 +29,28 @@ public interface RemoteWebDriverContext {
     String getBrowserVersion();
 
     RemoteWebDriver getRemoteWebDriver();
+
+    /**
+     * Sends the command to the browser without blocking the calling thread,
+     * so a few threads can drive many sessions at once, e.g.
+     * <b>executeAsync(new Command(getRemoteWebDriver().getSessionId(), DriverCommand.GET_TITLE))</b>.
+     * <br>
+     * Unlike {@link RemoteWebDriver}, errors reported by the browser are
+     * not thrown but returned as the status of the response.
+     * <br>
+     * By default the command is executed by the command executor of the
+     * driver on the common pool.
+     *
+     * @return future of the browser response, which fails on IO errors
+     */
+    default CompletableFuture<Response> executeAsync(Command command) {
+        CommandExecutor commandExecutor = getRemoteWebDriver().getCommandExecutor();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return commandExecutor.execute(command);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 }
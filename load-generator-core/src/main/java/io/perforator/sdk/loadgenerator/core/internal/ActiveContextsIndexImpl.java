@@ -0,0 +1,101 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live index of active transactions and sessions, maintained by
+ * {@link ActiveContextsManagerImpl} from the start/finish callbacks, so
+ * snapshots don't have to walk through all suite instances.
+ * <br>
+ * There is one index per suite and one for the whole load generator, while
+ * transactions are additionally grouped by their names.
+ */
+final class ActiveContextsIndexImpl {
+
+    private final Set<TransactionContextImpl> topLevelTransactions = ConcurrentHashMap.newKeySet();
+    private final Set<TransactionContextImpl> nestedTransactions = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Set<TransactionContextImpl>> transactionsByName = new ConcurrentHashMap<>();
+    private final Set<RemoteWebDriverContextImpl> sessions = ConcurrentHashMap.newKeySet();
+
+    public void addTransaction(TransactionContextImpl transaction) {
+        if (transaction.isNested()) {
+            nestedTransactions.add(transaction);
+        } else {
+            topLevelTransactions.add(transaction);
+        }
+
+        transactionsByName.compute(transaction.getTransactionName(), (name, transactions) -> {
+            if (transactions == null) {
+                transactions = ConcurrentHashMap.newKeySet();
+            }
+            transactions.add(transaction);
+            return transactions;
+        });
+    }
+
+    public void removeTransaction(TransactionContextImpl transaction) {
+        if (transaction.isNested()) {
+            nestedTransactions.remove(transaction);
+        } else {
+            topLevelTransactions.remove(transaction);
+        }
+
+        transactionsByName.computeIfPresent(transaction.getTransactionName(), (name, transactions) -> {
+            transactions.remove(transaction);
+            return transactions.isEmpty() ? null : transactions;
+        });
+    }
+
+    public void addSession(RemoteWebDriverContextImpl session) {
+        sessions.add(session);
+    }
+
+    public void removeSession(RemoteWebDriverContextImpl session) {
+        sessions.remove(session);
+    }
+
+    public long getTopLevelTransactionsCount() {
+        return topLevelTransactions.size();
+    }
+
+    public long getNestedTransactionsCount() {
+        return nestedTransactions.size();
+    }
+
+    public long getTransactionsCount() {
+        return topLevelTransactions.size() + nestedTransactions.size();
+    }
+
+    public long getTransactionsCount(String transactionName) {
+        Set<TransactionContextImpl> transactions = transactionsByName.get(transactionName);
+        return transactions == null ? 0 : transactions.size();
+    }
+
+    public long getSessionsCount() {
+        return sessions.size();
+    }
+
+    public Set<String> getTransactionNames() {
+        return Collections.unmodifiableSet(transactionsByName.keySet());
+    }
+
+    public boolean containsTransaction(TransactionContextImpl transaction) {
+        if (transaction.isNested()) {
+            return nestedTransactions.contains(transaction);
+        }
+        return topLevelTransactions.contains(transaction);
+    }
+
+}
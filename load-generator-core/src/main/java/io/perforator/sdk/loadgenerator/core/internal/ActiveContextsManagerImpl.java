@@ -0,0 +1,39 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+final class ActiveContextsManagerImpl implements ActiveContextsManager {
+
+    @Override
+    public void onTransactionStarted(long timestamp, TransactionContextImpl context) {
+        context.getLoadGeneratorContext().getActiveContextsIndex().addTransaction(context);
+        context.getSuiteContext().getSuiteConfigContext().getActiveContextsIndex().addTransaction(context);
+    }
+
+    @Override
+    public void onTransactionFinished(long timestamp, TransactionContextImpl context, Throwable error) {
+        context.getLoadGeneratorContext().getActiveContextsIndex().removeTransaction(context);
+        context.getSuiteContext().getSuiteConfigContext().getActiveContextsIndex().removeTransaction(context);
+    }
+
+    @Override
+    public void onRemoteWebDriverStarted(long timestamp, RemoteWebDriverContextImpl context) {
+        context.getLoadGeneratorContext().getActiveContextsIndex().addSession(context);
+        context.getSuiteInstanceContext().getSuiteConfigContext().getActiveContextsIndex().addSession(context);
+    }
+
+    @Override
+    public void onRemoteWebDriverFinished(long timestamp, RemoteWebDriverContextImpl context, Throwable error) {
+        context.getLoadGeneratorContext().getActiveContextsIndex().removeSession(context);
+        context.getSuiteInstanceContext().getSuiteConfigContext().getActiveContextsIndex().removeSession(context);
+    }
+
+}
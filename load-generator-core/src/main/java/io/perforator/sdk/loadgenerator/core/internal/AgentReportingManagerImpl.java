@@ -0,0 +1,174 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.Gson;
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams statistics counters of the load generator running as an agent to
+ * its coordinator on every heartbeat, so the coordinator can report merged
+ * statistics of all agents.
+ * <br>
+ * Reports are sent by a dedicated thread, so a slow or unreachable
+ * coordinator never delays the heartbeat. Since counters are cumulative,
+ * only the latest report not sent yet is kept, while the final report is
+ * awaited once the load generator is finished.
+ */
+final class AgentReportingManagerImpl implements AgentReportingManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentReportingManagerImpl.class);
+    private static final Gson GSON = new Gson();
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final int FINISH_TIMEOUT = 2 * CONNECT_TIMEOUT;
+
+    private final AtomicReference<AgentStatisticsReport> pendingReport = new AtomicReference<>();
+    private boolean reportingEnabled = false;
+    private ExecutorService reportingExecutor;
+    private String agentID;
+    private String coordinatorAddress;
+    private String coordinatorToken;
+    private Socket socket;
+    private Writer writer;
+
+    @Override
+    public synchronized void onLoadGeneratorStarted(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
+        LoadGeneratorConfig loadGeneratorConfig = loadGeneratorContext.getLoadGeneratorConfig();
+        coordinatorAddress = loadGeneratorConfig.getCoordinatorAddress();
+        coordinatorToken = loadGeneratorConfig.getCoordinatorToken();
+
+        if (coordinatorAddress == null || coordinatorAddress.isBlank()) {
+            reportingEnabled = false;
+            return;
+        }
+
+        reportingEnabled = true;
+        agentID = "agent-" + loadGeneratorConfig.getAgentIndex() + "/" + ProcessHandle.current().pid();
+        reportingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "perforator-agent-reporting");
+            thread.setDaemon(true);
+            return thread;
+        });
+        report(loadGeneratorContext, false);
+    }
+
+    @Override
+    public synchronized void onHeartbeat(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
+        if (reportingEnabled) {
+            report(loadGeneratorContext, false);
+        }
+    }
+
+    @Override
+    public synchronized void onLoadGeneratorFinished(long timestamp, LoadGeneratorContextImpl loadGeneratorContext, Throwable error) {
+        if (!reportingEnabled) {
+            return;
+        }
+
+        report(loadGeneratorContext, true);
+        reportingEnabled = false;
+        reportingExecutor.execute(this::disconnect);
+        reportingExecutor.shutdown();
+
+        try {
+            if (!reportingExecutor.awaitTermination(FINISH_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Can't report final statistics to coordinator {} in time", coordinatorAddress);
+                reportingExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reportingExecutor.shutdownNow();
+        }
+    }
+
+    private void report(LoadGeneratorContextImpl loadGeneratorContext, boolean finished) {
+        AgentStatisticsReport report = new AgentStatisticsReport(
+                coordinatorToken,
+                agentID,
+                finished,
+                loadGeneratorContext.getStatisticsContext().getCounters()
+        );
+
+        if (pendingReport.getAndSet(report) == null) {
+            reportingExecutor.execute(this::sendPendingReport);
+        }
+    }
+
+    private void sendPendingReport() {
+        AgentStatisticsReport report = pendingReport.getAndSet(null);
+        if (report == null) {
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                connect();
+            }
+            writer.write(GSON.toJson(report));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.error("Can't report statistics to coordinator {}", coordinatorAddress, e);
+            } else {
+                LOGGER.warn("Can't report statistics to coordinator {}", coordinatorAddress);
+            }
+            disconnect();
+        }
+    }
+
+    private void connect() throws IOException {
+        int separator = coordinatorAddress.lastIndexOf(':');
+        Socket newSocket = new Socket();
+        try {
+            newSocket.connect(
+                    new InetSocketAddress(
+                            coordinatorAddress.substring(0, separator),
+                            Integer.parseInt(coordinatorAddress.substring(separator + 1))
+                    ),
+                    CONNECT_TIMEOUT
+            );
+            writer = new BufferedWriter(
+                    new OutputStreamWriter(newSocket.getOutputStream(), StandardCharsets.UTF_8)
+            );
+            socket = newSocket;
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+    }
+
+    private void disconnect() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.debug("Can't close connection to coordinator {}", coordinatorAddress, e);
+            }
+        }
+        socket = null;
+        writer = null;
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.Map;
+
+/**
+ * Statistics counters sent by an agent to the coordinator as a single line
+ * of JSON.
+ */
+final class AgentStatisticsReport {
+
+    private final String token;
+    private final String agentID;
+    private final boolean finished;
+    private final Map<String, Long> counters;
+
+    AgentStatisticsReport(String token, String agentID, boolean finished, Map<String, Long> counters) {
+        this.token = token;
+        this.agentID = agentID;
+        this.finished = finished;
+        this.counters = counters;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getAgentID() {
+        return agentID;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+
+/**
+ * Additive increase, multiplicative decrease: concurrency grows by a fixed
+ * step while the failure rate is below the target, and is halved as soon
+ * as it's above, which converges to the saturation point the same way TCP
+ * congestion control does.
+ */
+final class AimdConcurrencyController implements ConcurrencyController {
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final double targetErrorRate;
+    private final double scaleUpMultiplier;
+
+    AimdConcurrencyController(double targetErrorRate, double scaleUpMultiplier) {
+        this.targetErrorRate = targetErrorRate;
+        this.scaleUpMultiplier = scaleUpMultiplier;
+    }
+
+    @Override
+    public int computeDesiredConcurrency(ConcurrencySnapshot snapshot) {
+        if (snapshot.getFailureRate() < targetErrorRate) {
+            return snapshot.getDesiredConcurrency() + Math.max(
+                    1,
+                    (int) (snapshot.getMaxConcurrency() * scaleUpMultiplier)
+            );
+        } else {
+            return (int) (snapshot.getDesiredConcurrency() * DECREASE_FACTOR);
+        }
+    }
+
+}
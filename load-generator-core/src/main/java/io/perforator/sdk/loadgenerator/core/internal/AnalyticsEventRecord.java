@@ -0,0 +1,158 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+
+/**
+ * Compact in-memory representation of analytics event.
+ * <br>
+ * Timestamps, flags and counters are kept as primitives, while transaction
+ * and session details are referenced from entries of
+ * {@link AnalyticsEventsDictionaryImpl} shared by all events of the same
+ * transaction or session. The event is converted to {@link AnalyticsEvent}
+ * only while it is being serialized.
+ */
+final class AnalyticsEventRecord {
+
+    private final long timestamp;
+    private final EventType eventType;
+    private final AnalyticsEventsDictionaryImpl.TransactionEntry transaction;
+    private final AnalyticsEventsDictionaryImpl.SessionEntry session;
+    private final boolean failed;
+    private final String failureMessage;
+    private final ConcurrencyEventsAggregatorImpl.ConcurrencyType concurrencyType;
+    private final int concurrencyValue;
+    private final String suiteName;
+
+    private AnalyticsEventRecord(
+            long timestamp,
+            EventType eventType,
+            AnalyticsEventsDictionaryImpl.TransactionEntry transaction,
+            AnalyticsEventsDictionaryImpl.SessionEntry session,
+            boolean failed,
+            String failureMessage,
+            ConcurrencyEventsAggregatorImpl.ConcurrencyType concurrencyType,
+            int concurrencyValue,
+            String suiteName
+    ) {
+        this.timestamp = timestamp;
+        this.eventType = eventType;
+        this.transaction = transaction;
+        this.session = session;
+        this.failed = failed;
+        this.failureMessage = failureMessage;
+        this.concurrencyType = concurrencyType;
+        this.concurrencyValue = concurrencyValue;
+        this.suiteName = suiteName;
+    }
+
+    static AnalyticsEventRecord transaction(
+            long timestamp,
+            EventType eventType,
+            AnalyticsEventsDictionaryImpl.TransactionEntry transaction,
+            AnalyticsEventsDictionaryImpl.SessionEntry session,
+            boolean failed,
+            String failureMessage
+    ) {
+        return new AnalyticsEventRecord(
+                timestamp,
+                eventType,
+                transaction,
+                session,
+                failed,
+                failureMessage,
+                null,
+                0,
+                transaction.suiteName
+        );
+    }
+
+    static AnalyticsEventRecord concurrency(
+            long timestamp,
+            ConcurrencyEventsAggregatorImpl.ConcurrencyType concurrencyType,
+            int concurrencyValue,
+            String suiteName
+    ) {
+        return new AnalyticsEventRecord(
+                timestamp,
+                EventType.concurrency,
+                null,
+                null,
+                false,
+                null,
+                concurrencyType,
+                concurrencyValue,
+                suiteName
+        );
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * @return identifier of the event built from its content, so it stays
+     * the same when the event is serialized and read back or returned by API
+     * as a retryable one
+     */
+    public String getEventId() {
+        if (eventType == EventType.concurrency) {
+            return eventType.name()
+                    + ':' + timestamp
+                    + ':' + suiteName
+                    + ':' + concurrencyType.name();
+        }
+
+        return eventType.name()
+                + ':' + timestamp
+                + ':' + transaction.transactionId
+                + ':' + (session == null ? null : session.sessionId);
+    }
+
+    public AnalyticsEvent toDto() {
+        AnalyticsEvent eventDto = new AnalyticsEvent();
+        eventDto.setTimestamp(timestamp);
+        eventDto.setEventType(eventType.name());
+        eventDto.setSuiteName(suiteName);
+
+        if (eventType == EventType.concurrency) {
+            eventDto.setConcurrencyType(concurrencyType.name());
+            eventDto.setConcurrencyValue(concurrencyValue);
+            return eventDto;
+        }
+
+        eventDto.setSuiteInstanceId(transaction.suiteInstanceId);
+        eventDto.setTransactionId(transaction.transactionId);
+        eventDto.setTransactionName(transaction.transactionName);
+        eventDto.setParentTransactionId(transaction.parentTransactionId);
+        eventDto.setParentTransactionName(transaction.parentTransactionName);
+
+        if (session != null) {
+            eventDto.setSessionId(session.sessionId);
+            eventDto.setBrowserName(session.browserName);
+            eventDto.setBrowserVersion(session.browserVersion);
+        }
+
+        eventDto.setFailed(failed);
+        eventDto.setFailureMessage(failureMessage);
+        return eventDto;
+    }
+
+}
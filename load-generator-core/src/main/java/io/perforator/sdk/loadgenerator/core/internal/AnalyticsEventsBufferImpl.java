@@ -0,0 +1,371 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded buffer of analytics events waiting to be flushed to API.
+ * <br>
+ * Up to {@code capacity} events are kept on heap, everything on top is
+ * appended to a local segment file and loaded back by
+ * {@link #replay()} as soon as the flusher frees up some room. Once events
+ * are spilled, newer events are spilled after them till the file is
+ * replayed, so events are always polled in the order they were added.
+ * <br>
+ * Every spilled record has a fixed header - payload length, events count
+ * and spill timestamp - followed by the JSON payload.
+ */
+final class AnalyticsEventsBufferImpl {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsEventsBufferImpl.class);
+    private static final Type EVENTS_TYPE = new TypeToken<List<AnalyticsEventRecord>>() {}.getType();
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final int capacity;
+    private final Gson gson;
+    private final Path spillDirectory;
+    private final LongSupplier clock;
+    private final Queue<List<AnalyticsEventRecord>> memoryBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger memoryDepth = new AtomicInteger(0);
+    private final AtomicInteger spilledDepth = new AtomicInteger(0);
+    private final AtomicLong spilledBytes = new AtomicLong(0);
+    private volatile AnalyticsEventsLogImpl eventsLog;
+
+    //guarded by this
+    private final Deque<Long> spillTimestamps = new ArrayDeque<>();
+    private Path spillFile;
+    private FileChannel spillChannel;
+    private long readPosition;
+    private long writePosition;
+    private boolean spillFailed;
+
+    AnalyticsEventsBufferImpl(int capacity, String spillDirectory, AnalyticsEventsDictionaryImpl dictionary) {
+        this(capacity, spillDirectory, dictionary, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock source of the current time for spill timestamps and the
+     * replay lag, so they follow the time of the load generator
+     */
+    AnalyticsEventsBufferImpl(int capacity, String spillDirectory, AnalyticsEventsDictionaryImpl dictionary, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be > 0");
+        }
+
+        this.capacity = capacity;
+        this.gson = dictionary.getGson();
+        this.spillDirectory = spillDirectory == null || spillDirectory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(spillDirectory);
+        this.clock = clock;
+    }
+
+    /**
+     * Adds events to the buffer.
+     *
+     * @return true if events are kept in memory and false if they have been
+     * spilled to disk.
+     */
+    public boolean add(List<AnalyticsEventRecord> events) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+
+        AnalyticsEventsLogImpl log = eventsLog;
+        if (log != null) {
+            log.append(events);
+        }
+
+        if (spilledDepth.get() == 0) {
+            if (memoryDepth.addAndGet(events.size()) <= capacity) {
+                memoryBuffer.add(events);
+                return true;
+            }
+            memoryDepth.addAndGet(-1 * events.size());
+        }
+
+        if (spill(events)) {
+            return false;
+        }
+
+        memoryDepth.addAndGet(events.size());
+        memoryBuffer.add(events);
+        return true;
+    }
+
+    public AnalyticsEventsLogImpl getEventsLog() {
+        return eventsLog;
+    }
+
+    /**
+     * Makes every added batch of events to be appended to the write-ahead
+     * log first.
+     */
+    public void setEventsLog(AnalyticsEventsLogImpl eventsLog) {
+        this.eventsLog = eventsLog;
+    }
+
+    public List<AnalyticsEventRecord> poll() {
+        List<AnalyticsEventRecord> events = memoryBuffer.poll();
+        if (events != null) {
+            memoryDepth.addAndGet(-1 * events.size());
+        }
+        return events;
+    }
+
+    /**
+     * Moves previously spilled events back to memory while there is a room
+     * for them, so replayed events never push the buffer over its capacity.
+     * <br>
+     * A record holding more events than the capacity is replayed only once
+     * the memory buffer is empty, otherwise it would never be replayed.
+     * Records which can't be parsed are logged and skipped.
+     *
+     * @return amount of replayed events
+     */
+    public synchronized int replay() {
+        if (spillChannel == null) {
+            return 0;
+        }
+
+        int replayed = 0;
+        try {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            while (readPosition < writePosition) {
+                header.clear();
+                readFully(header, readPosition);
+                header.flip();
+
+                int length = header.getInt();
+                int count = header.getInt();
+
+                if (length < 0 || count <= 0 || readPosition + RECORD_HEADER_SIZE + length > writePosition) {
+                    LOGGER.error(
+                            "Spilled analytics events record at {} of {} is corrupted - dropping {} spilled events",
+                            readPosition,
+                            spillFile,
+                            spilledDepth.get()
+                    );
+                    spilledBytes.addAndGet(-1 * (writePosition - readPosition));
+                    spilledDepth.set(0);
+                    spillTimestamps.clear();
+                    readPosition = writePosition;
+                    break;
+                }
+
+                if (!reserve(count)) {
+                    break;
+                }
+
+                List<AnalyticsEventRecord> events;
+                try {
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    readFully(payload, readPosition + RECORD_HEADER_SIZE);
+                    payload.flip();
+
+                    events = gson.fromJson(
+                            StandardCharsets.UTF_8.decode(payload).toString(),
+                            EVENTS_TYPE
+                    );
+                } catch (IOException e) {
+                    memoryDepth.addAndGet(-1 * count);
+                    throw e;
+                } catch (RuntimeException e) {
+                    LOGGER.error(
+                            "Can't parse {} spilled analytics events at {} of {} - skipping them",
+                            count,
+                            readPosition,
+                            spillFile,
+                            e
+                    );
+                    events = null;
+                }
+
+                if (events == null || events.isEmpty()) {
+                    memoryDepth.addAndGet(-1 * count);
+                } else {
+                    memoryDepth.addAndGet(events.size() - count);
+                    // replayed events go to memory before the spilled depth is
+                    // released, so new events can't overtake them in add()
+                    memoryBuffer.add(events);
+                    replayed += events.size();
+                }
+
+                readPosition += RECORD_HEADER_SIZE + length;
+                spilledBytes.addAndGet(-1 * (RECORD_HEADER_SIZE + length));
+                spilledDepth.addAndGet(-1 * count);
+                spillTimestamps.pollFirst();
+            }
+
+            if (readPosition >= writePosition) {
+                spillChannel.truncate(0);
+                readPosition = 0;
+                writePosition = 0;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Can't replay spilled analytics events from {}", spillFile, e);
+        }
+
+        return replayed;
+    }
+
+    public boolean isEmpty() {
+        return memoryDepth.get() <= 0 && spilledDepth.get() <= 0;
+    }
+
+    /**
+     * @return amount of events waiting for submission, including spilled
+     * ones.
+     */
+    public long getDepth() {
+        return memoryDepth.get() + spilledDepth.get();
+    }
+
+    /**
+     * @return amount of events kept in memory, including the room reserved
+     * for events being replayed.
+     */
+    public int getMemoryDepth() {
+        return memoryDepth.get();
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * @return how long the oldest spilled record is waiting for replay, in
+     * milliseconds.
+     */
+    public synchronized long getReplayLag() {
+        Long oldest = spillTimestamps.peekFirst();
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(0, clock.getAsLong() - oldest);
+    }
+
+    public synchronized void close() {
+        if (spillChannel == null) {
+            return;
+        }
+
+        try {
+            spillChannel.close();
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            LOGGER.warn("Can't remove analytics events spill file {}", spillFile, e);
+        } finally {
+            spillChannel = null;
+        }
+    }
+
+    private synchronized boolean spill(List<AnalyticsEventRecord> events) {
+        if (spillFailed) {
+            return false;
+        }
+
+        try {
+            if (spillChannel == null) {
+                Files.createDirectories(spillDirectory);
+                spillFile = Files.createTempFile(spillDirectory, "perforator-events-", ".spill");
+                spillFile.toFile().deleteOnExit();
+                spillChannel = FileChannel.open(
+                        spillFile,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE
+                );
+                LOGGER.warn(
+                        "Analytics events buffer is full({} events) - spilling events to {}",
+                        capacity,
+                        spillFile
+                );
+            }
+
+            byte[] payload = gson.toJson(events, EVENTS_TYPE).getBytes(StandardCharsets.UTF_8);
+            long timestamp = clock.getAsLong();
+
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+            record.putInt(payload.length);
+            record.putInt(events.size());
+            record.putLong(timestamp);
+            record.put(payload);
+            record.flip();
+
+            while (record.hasRemaining()) {
+                writePosition += spillChannel.write(record, writePosition);
+            }
+
+            spillTimestamps.addLast(timestamp);
+            spilledBytes.addAndGet(RECORD_HEADER_SIZE + payload.length);
+            spilledDepth.addAndGet(events.size());
+            return true;
+        } catch (IOException e) {
+            spillFailed = true;
+            LOGGER.error(
+                    "Can't spill analytics events to {} - keeping them in memory",
+                    spillDirectory,
+                    e
+            );
+            return false;
+        }
+    }
+
+    /**
+     * Reserves room for the specified amount of events in memory.
+     *
+     * @return true if the room is reserved
+     */
+    private boolean reserve(int count) {
+        while (true) {
+            int depth = memoryDepth.get();
+            if (depth > 0 && depth + count > capacity) {
+                return false;
+            }
+            if (memoryDepth.compareAndSet(depth, depth + count)) {
+                return true;
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = spillChannel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of spill file " + spillFile);
+            }
+            position += read;
+        }
+    }
+
+}
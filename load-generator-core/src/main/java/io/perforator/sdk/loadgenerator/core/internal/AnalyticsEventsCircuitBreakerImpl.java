@@ -0,0 +1,102 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+/**
+ * Circuit breaker guarding analytics events submission.
+ * <br>
+ * It opens after the configured amount of consecutive failed submissions or
+ * as soon as API asks to back off via <b>Retry-After</b>, so an outage
+ * doesn't turn into a tight retry loop. Once the pause is over, a single
+ * probe request is let through - its outcome either closes the circuit or
+ * opens it again for a longer pause.
+ */
+final class AnalyticsEventsCircuitBreakerImpl {
+
+    enum State {
+        closed, open, half_open
+    }
+
+    private final int failureThreshold;
+    private State state = State.closed;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probeInProgress;
+
+    AnalyticsEventsCircuitBreakerImpl(int failureThreshold) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold should be > 0");
+        }
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * @return true if a request can be sent right now - only one request is
+     * allowed while the circuit is {@link State#half_open}
+     */
+    public synchronized boolean tryAcquire(long timestamp) {
+        if (state == State.open && timestamp >= openUntil) {
+            state = State.half_open;
+            probeInProgress = false;
+        }
+
+        switch (state) {
+            case closed:
+                return true;
+            case half_open:
+                if (probeInProgress) {
+                    return false;
+                }
+                probeInProgress = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.closed;
+        consecutiveFailures = 0;
+        probeInProgress = false;
+    }
+
+    /**
+     * @param pauseDuration how long the circuit should stay open if this
+     * failure opens it
+     * @param retryAfter pause requested by API, or 0 if it wasn't requested
+     * @return true if this failure has opened the circuit
+     */
+    public synchronized boolean onFailure(long timestamp, long pauseDuration, long retryAfter) {
+        consecutiveFailures++;
+        probeInProgress = false;
+
+        if (state == State.half_open || consecutiveFailures >= failureThreshold || retryAfter > 0) {
+            openUntil = Math.max(
+                    state == State.open ? openUntil : 0,
+                    timestamp + Math.max(pauseDuration, retryAfter)
+            );
+            boolean opened = state != State.open;
+            state = State.open;
+            return opened;
+        }
+
+        return false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-run dictionary of values repeated across analytics events.
+ * <br>
+ * Names of suites, transactions and browsers are interned, while details
+ * of every transaction and session are kept in a single entry shared by
+ * all {@link AnalyticsEventRecord events} referring to them.
+ */
+final class AnalyticsEventsDictionaryImpl {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsEventsDictionaryImpl.class);
+    private static final Type EVENTS_TYPE = new TypeToken<List<AnalyticsEventRecord>>() {}.getType();
+
+    static final int MAX_INTERNED_VALUES = 64 * 1024;
+
+    private final Map<String, String> internedValues = new ConcurrentHashMap<>();
+    private final Gson gson;
+
+    AnalyticsEventsDictionaryImpl() {
+        RecordTypeAdapter recordAdapter = new RecordTypeAdapter(
+                this,
+                new Gson().getAdapter(AnalyticsEvent.class)
+        );
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(AnalyticsEventRecord.class, recordAdapter)
+                .registerTypeAdapter(EVENTS_TYPE, new RecordsTypeAdapter(recordAdapter))
+                .create();
+    }
+
+    /**
+     * @return Gson instance writing and reading {@link AnalyticsEventRecord}
+     * in the same JSON format as {@link AnalyticsEvent} - lists of records
+     * are read without events of unknown types
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * @return canonical instance of the value - values on top of
+     * {@link #MAX_INTERNED_VALUES} are returned as is
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String result = internedValues.get(value);
+        if (result != null) {
+            return result;
+        }
+
+        if (internedValues.size() >= MAX_INTERNED_VALUES) {
+            return value;
+        }
+
+        result = internedValues.putIfAbsent(value, value);
+        return result == null ? value : result;
+    }
+
+    public TransactionEntry createTransactionEntry(
+            String suiteName,
+            String suiteInstanceId,
+            String transactionId,
+            String transactionName,
+            TransactionEntry parent
+    ) {
+        return new TransactionEntry(
+                intern(suiteName),
+                suiteInstanceId,
+                transactionId,
+                intern(transactionName),
+                parent == null ? null : parent.transactionId,
+                parent == null ? null : parent.transactionName
+        );
+    }
+
+    public SessionEntry createSessionEntry(String sessionId, String browserName, String browserVersion) {
+        return new SessionEntry(
+                sessionId,
+                intern(browserName),
+                intern(browserVersion)
+        );
+    }
+
+    /**
+     * @return record of the event, or null if the event has a type unknown
+     * to this version of SDK, so such event can only be skipped
+     */
+    AnalyticsEventRecord fromDto(AnalyticsEvent event) {
+        EventType eventType = toEnum(EventType.class, event.getEventType());
+        if (eventType == null) {
+            LOGGER.warn("Skipping analytics event of unknown type {}", event.getEventType());
+            return null;
+        }
+
+        long timestamp = event.getTimestamp() == null ? 0 : event.getTimestamp();
+
+        if (eventType == EventType.concurrency) {
+            ConcurrencyEventsAggregatorImpl.ConcurrencyType concurrencyType = toEnum(
+                    ConcurrencyEventsAggregatorImpl.ConcurrencyType.class,
+                    event.getConcurrencyType()
+            );
+            if (concurrencyType == null) {
+                LOGGER.warn("Skipping concurrency event of unknown type {}", event.getConcurrencyType());
+                return null;
+            }
+
+            return AnalyticsEventRecord.concurrency(
+                    timestamp,
+                    concurrencyType,
+                    event.getConcurrencyValue() == null ? 0 : event.getConcurrencyValue(),
+                    intern(event.getSuiteName())
+            );
+        }
+
+        TransactionEntry transaction = new TransactionEntry(
+                intern(event.getSuiteName()),
+                event.getSuiteInstanceId(),
+                event.getTransactionId(),
+                intern(event.getTransactionName()),
+                event.getParentTransactionId(),
+                intern(event.getParentTransactionName())
+        );
+        SessionEntry session = event.getSessionId() == null && event.getBrowserName() == null
+                ? null
+                : createSessionEntry(event.getSessionId(), event.getBrowserName(), event.getBrowserVersion());
+
+        return AnalyticsEventRecord.transaction(
+                timestamp,
+                eventType,
+                transaction,
+                session,
+                Boolean.TRUE.equals(event.getFailed()),
+                event.getFailureMessage()
+        );
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String name) {
+        if (name == null) {
+            return null;
+        }
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static final class TransactionEntry {
+
+        final String suiteName;
+        final String suiteInstanceId;
+        final String transactionId;
+        final String transactionName;
+        final String parentTransactionId;
+        final String parentTransactionName;
+
+        private TransactionEntry(
+                String suiteName,
+                String suiteInstanceId,
+                String transactionId,
+                String transactionName,
+                String parentTransactionId,
+                String parentTransactionName
+        ) {
+            this.suiteName = suiteName;
+            this.suiteInstanceId = suiteInstanceId;
+            this.transactionId = transactionId;
+            this.transactionName = transactionName;
+            this.parentTransactionId = parentTransactionId;
+            this.parentTransactionName = parentTransactionName;
+        }
+
+    }
+
+    static final class SessionEntry {
+
+        final String sessionId;
+        final String browserName;
+        final String browserVersion;
+
+        private SessionEntry(String sessionId, String browserName, String browserVersion) {
+            this.sessionId = sessionId;
+            this.browserName = browserName;
+            this.browserVersion = browserVersion;
+        }
+
+    }
+
+    private static final class RecordTypeAdapter extends TypeAdapter<AnalyticsEventRecord> {
+
+        private final AnalyticsEventsDictionaryImpl dictionary;
+        private final TypeAdapter<AnalyticsEvent> dtoAdapter;
+
+        private RecordTypeAdapter(AnalyticsEventsDictionaryImpl dictionary, TypeAdapter<AnalyticsEvent> dtoAdapter) {
+            this.dictionary = dictionary;
+            this.dtoAdapter = dtoAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, AnalyticsEventRecord value) throws IOException {
+            dtoAdapter.write(out, value == null ? null : value.toDto());
+        }
+
+        @Override
+        public AnalyticsEventRecord read(JsonReader in) throws IOException {
+            AnalyticsEvent event = dtoAdapter.read(in);
+            return event == null ? null : dictionary.fromDto(event);
+        }
+
+    }
+
+    private static final class RecordsTypeAdapter extends TypeAdapter<List<AnalyticsEventRecord>> {
+
+        private final RecordTypeAdapter recordAdapter;
+
+        private RecordsTypeAdapter(RecordTypeAdapter recordAdapter) {
+            this.recordAdapter = recordAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, List<AnalyticsEventRecord> value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginArray();
+            for (AnalyticsEventRecord record : value) {
+                recordAdapter.write(out, record);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public List<AnalyticsEventRecord> read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            List<AnalyticsEventRecord> result = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                AnalyticsEventRecord record = recordAdapter.read(in);
+                if (record != null) {
+                    result.add(record);
+                }
+            }
+            in.endArray();
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD controller of analytics events submission.
+ * <br>
+ * Every response which arrives within the latency target additively grows
+ * the amount of parallel upload slots by roughly one slot per round trip and
+ * the batch size by a fixed step, while slow responses, retryable events and
+ * failures shrink them multiplicatively. Both values always stay within
+ * configured bounds.
+ * <br>
+ * Every upload request has to reserve a slot via {@link #tryAcquire()}
+ * before it is sent and free it via {@link #release()} once it is done.
+ */
+final class AnalyticsEventsFlushControllerImpl {
+
+    static final double CONGESTION_DECREASE_FACTOR = 0.75;
+    static final double FAILURE_DECREASE_FACTOR = 0.5;
+    static final int BATCH_SIZE_INCREASE_STEPS = 10;
+
+    private final int minSlots;
+    private final int maxSlots;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long latencyTarget;
+    private final int batchSizeIncrease;
+    private final AtomicInteger inflightRequests = new AtomicInteger(0);
+
+    private double slots;
+    private double batchSize;
+    private long lastLatency;
+
+    AnalyticsEventsFlushControllerImpl(
+            int minSlots,
+            int maxSlots,
+            int initialSlots,
+            int minBatchSize,
+            int maxBatchSize,
+            long latencyTarget
+    ) {
+        if (minSlots <= 0) {
+            throw new IllegalArgumentException("minSlots should be > 0");
+        }
+        if (maxSlots < minSlots) {
+            throw new IllegalArgumentException("maxSlots should be >= minSlots");
+        }
+        if (minBatchSize <= 0) {
+            throw new IllegalArgumentException("minBatchSize should be > 0");
+        }
+        if (maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("maxBatchSize should be >= minBatchSize");
+        }
+        if (latencyTarget <= 0) {
+            throw new IllegalArgumentException("latencyTarget should be > 0");
+        }
+
+        this.minSlots = minSlots;
+        this.maxSlots = maxSlots;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.latencyTarget = latencyTarget;
+        this.batchSizeIncrease = Math.max(1, (maxBatchSize - minBatchSize) / BATCH_SIZE_INCREASE_STEPS);
+        this.slots = Math.min(maxSlots, Math.max(minSlots, initialSlots));
+        this.batchSize = maxBatchSize;
+    }
+
+    /**
+     * Registers successful submission.
+     *
+     * @param latency round trip of the request in milliseconds
+     * @param congested true if API has asked to resubmit some events later
+     */
+    public synchronized void onResponse(long latency, boolean congested) {
+        lastLatency = latency;
+
+        if (congested || latency > latencyTarget) {
+            decrease(CONGESTION_DECREASE_FACTOR);
+        } else {
+            slots = Math.min(maxSlots, slots + 1 / slots);
+            batchSize = Math.min(maxBatchSize, batchSize + batchSizeIncrease);
+        }
+    }
+
+    /**
+     * Registers failed submission.
+     */
+    public synchronized void onFailure() {
+        decrease(FAILURE_DECREASE_FACTOR);
+    }
+
+    private void decrease(double factor) {
+        slots = Math.max(minSlots, slots * factor);
+        batchSize = Math.max(minBatchSize, batchSize * factor);
+    }
+
+    /**
+     * @return how many upload requests can be in progress at once
+     */
+    public synchronized int getSlots() {
+        return (int) slots;
+    }
+
+    /**
+     * @return how many events should be sent per one request
+     */
+    public synchronized int getBatchSize() {
+        return (int) batchSize;
+    }
+
+    public synchronized long getLastLatency() {
+        return lastLatency;
+    }
+
+    /**
+     * Reserves an upload slot.
+     *
+     * @return false if all slots are taken by requests in progress
+     */
+    public boolean tryAcquire() {
+        int limit = getSlots();
+
+        while (true) {
+            int current = inflightRequests.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflightRequests.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserves an upload slot even if all slots are taken - it is meant for
+     * probe requests only.
+     */
+    public void acquire() {
+        inflightRequests.incrementAndGet();
+    }
+
+    /**
+     * Frees the upload slot reserved by {@link #tryAcquire()} or
+     * {@link #acquire()}.
+     */
+    public void release() {
+        inflightRequests.decrementAndGet();
+    }
+
+    /**
+     * @return how many upload requests are in progress
+     */
+    public int getInflightRequests() {
+        return inflightRequests.get();
+    }
+
+}
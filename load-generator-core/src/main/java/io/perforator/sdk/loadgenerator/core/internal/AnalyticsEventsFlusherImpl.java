@@ -14,132 +14,750 @@ import com.google.gson.Gson;
 import io.perforator.sdk.api.okhttpgson.invoker.ApiException;
 import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
 import io.perforator.sdk.api.okhttpgson.model.AnalyticsEventsSubmissionResult;
-import io.perforator.sdk.loadgenerator.core.Threaded;
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 final class AnalyticsEventsFlusherImpl implements AnalyticsEventsFlusher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsEventsFlusherImpl.class);
     private static final Gson GSON = new Gson();
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
 
+    private final TimeProvider timeProvider;
     private final AtomicInteger inflightEvents = new AtomicInteger(0);
-    private ExecutorService executor;
+    private final AtomicLong sentEvents = new AtomicLong(0);
+    private final AtomicLong droppedEvents = new AtomicLong(0);
+    private volatile boolean drainExpired;
+    private AnalyticsEventsLeftoversImpl leftovers;
+    // leftovers files of previous runs, which have no batch in progress
+    private final Queue<AnalyticsEventsLeftoversImpl.Submission> leftoversSubmissions = new ConcurrentLinkedQueue<>();
+    private AnalyticsEventsFlushControllerImpl controller;
+    private int maxInflightEvents;
+    // polled from the buffer by heartbeats, but not sent yet
+    private volatile List<AnalyticsEventRecord> carriedEvents;
+    private long minBackoff;
+    private long maxBackoff;
+
+    AnalyticsEventsFlusherImpl(TimeProvider timeProvider) {
+        this.timeProvider = timeProvider;
+    }
 
     @Override
     public void onLoadGeneratorStarted(long timestamp, LoadGeneratorContextImpl context) {
+        LoadGeneratorConfig loadGeneratorConfig = context.getLoadGeneratorConfig();
         int concurrency = context.getSuiteConfigContexts().stream().mapToInt(c -> c.getSuiteConfig().getConcurrency()).sum();
-        int flusherThreads = concurrency * 4 / context.getLoadGeneratorConfig().getEventsFlushThreshold() + 1;
+        int maxThreshold = loadGeneratorConfig.getEventsFlushThreshold();
+        int minThreshold = getMinThreshold(loadGeneratorConfig);
+        int minParallelism = getMinParallelism(loadGeneratorConfig);
+        int maxParallelism = getMaxParallelism(loadGeneratorConfig, minParallelism);
+
+        controller = new AnalyticsEventsFlushControllerImpl(
+                minParallelism,
+                maxParallelism,
+                concurrency * 4 / maxThreshold + 1,
+                minThreshold,
+                maxThreshold,
+                getLatencyTarget(loadGeneratorConfig)
+        );
+
+        // every upload slot has one batch in progress and one more awaiting
+        // retry, everything else stays in the events buffer and spills to
+        // disk when it is full
+        maxInflightEvents = maxParallelism * maxThreshold * 2;
+
+        minBackoff = Math.max(1, loadGeneratorConfig.getEventsFlushInterval().toMillis());
+        maxBackoff = loadGeneratorConfig.getEventsFlushMaxBackoff() == null
+                ? 0
+                : loadGeneratorConfig.getEventsFlushMaxBackoff().toMillis();
+        if (maxBackoff < minBackoff) {
+            LOGGER.warn(
+                    "{}.{} should be >= {}.{} - defaulting it to {}ms",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushMaxBackoff,
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushInterval,
+                    minBackoff
+            );
+            maxBackoff = minBackoff;
+        }
+
+        int failureThreshold = loadGeneratorConfig.getEventsFlushFailureThreshold();
+        if (failureThreshold <= 0) {
+            LOGGER.warn(
+                    "{}.{} should be > 0 - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushFailureThreshold,
+                    LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD
+            );
+            failureThreshold = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD;
+        }
+        context.setEventsCircuitBreaker(new AnalyticsEventsCircuitBreakerImpl(failureThreshold));
+
+        leftovers = new AnalyticsEventsLeftoversImpl(
+                loadGeneratorConfig.getEventsSpillDirectory(),
+                context.getEventsDictionary()
+        );
+        if (!context.isLocalOnly() && context.getAnalyticsEventsSender() != null) {
+            for (Path file : leftovers.find()) {
+                openLeftovers(file);
+            }
+        }
+
+        if (loadGeneratorConfig.isEventsLogEnabled() && context.getBrowserCloudContext() != null) {
+            AnalyticsEventsLogImpl eventsLog = new AnalyticsEventsLogImpl(
+                    loadGeneratorConfig.getEventsSpillDirectory(),
+                    context.getBrowserCloudContext().getExecutionKey(),
+                    timestamp,
+                    context.getEventsDictionary()
+            );
+            context.getEventsBuffer().setEventsLog(eventsLog);
+            eventsLog.replay(context.getEventsBuffer()::add);
+        }
+    }
+
+    private void openLeftovers(Path file) {
+        try {
+            AnalyticsEventsLeftoversImpl.Submission submission = leftovers.open(file);
+            if (submission != null) {
+                leftoversSubmissions.add(submission);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Can't submit analytical events left by previous run from {}", file, e);
+        }
+    }
+
+    /**
+     * Sends the next batch of the leftovers file using the upload slot which
+     * has been already reserved for it - the submission is queued again once
+     * the batch is accepted, so every file has at most one batch in progress.
+     */
+    private void submitLeftovers(LoadGeneratorContextImpl context, AnalyticsEventsLeftoversImpl.Submission submission, int batchSize) {
+        List<AnalyticsEventRecord> batch;
+        try {
+            batch = submission.nextBatch(batchSize);
+        } catch (RuntimeException e) {
+            controller.release();
+            LOGGER.warn("Can't submit analytical events left by previous run from {}", submission.getFile(), e);
+            submission.close();
+            return;
+        }
+
+        if (batch == null) {
+            controller.release();
+            submission.close();
+            LOGGER.info(
+                    "{} analytical events left by previous run were submitted from {}",
+                    submission.getSubmitted(),
+                    submission.getFile()
+            );
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        context.getAnalyticsEventsSender().sendAnalyticsEventsAsync(
+                submission.getProjectKey(),
+                submission.getExecutionKey(),
+                submission.getBrowserCloudKey(),
+                batch,
+                context.getEventsDictionary().getGson(),
+                AnalyticsEventRecord.class
+        ).whenComplete((result, error) -> {
+            controller.release();
+
+            if (error != null) {
+                controller.onFailure();
+                LOGGER.warn(
+                        "Can't submit analytical events left by previous run from {}",
+                        submission.getFile(),
+                        error
+                );
+                submission.close();
+                return;
+            }
+
+            controller.onResponse(
+                    System.currentTimeMillis() - startedAt,
+                    result != null && result.getRetryableEvents() != null && !result.getRetryableEvents().isEmpty()
+            );
+
+            try {
+                if (submission.onSubmitted(batch, result)) {
+                    leftoversSubmissions.add(submission);
+                } else {
+                    submission.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Can't submit analytical events left by previous run from {}", submission.getFile(), e);
+                submission.close();
+            }
+        });
+    }
+
+    private static int getMinThreshold(LoadGeneratorConfig loadGeneratorConfig) {
+        int minThreshold = loadGeneratorConfig.getEventsFlushMinThreshold();
+        int maxThreshold = loadGeneratorConfig.getEventsFlushThreshold();
+
+        if (minThreshold <= 0 || minThreshold > maxThreshold) {
+            LOGGER.warn(
+                    "{}.{} should be > 0 and <= {}.{} - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushMinThreshold,
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushThreshold,
+                    maxThreshold
+            );
+            return maxThreshold;
+        }
+
+        return minThreshold;
+    }
+
+    private static int getMinParallelism(LoadGeneratorConfig loadGeneratorConfig) {
+        if (loadGeneratorConfig.getEventsFlushMinParallelism() <= 0) {
+            LOGGER.warn(
+                    "{}.{} should be > 0 - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushMinParallelism,
+                    LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM
+            );
+            return LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM;
+        }
 
-        executor = Executors.newFixedThreadPool(flusherThreads);
+        return loadGeneratorConfig.getEventsFlushMinParallelism();
+    }
+
+    private static int getMaxParallelism(LoadGeneratorConfig loadGeneratorConfig, int minParallelism) {
+        if (loadGeneratorConfig.getEventsFlushMaxParallelism() < minParallelism) {
+            LOGGER.warn(
+                    "{}.{} should be >= {}.{} - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushMaxParallelism,
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushMinParallelism,
+                    minParallelism
+            );
+            return minParallelism;
+        }
+
+        return loadGeneratorConfig.getEventsFlushMaxParallelism();
+    }
+
+    private static long getLatencyTarget(LoadGeneratorConfig loadGeneratorConfig) {
+        Duration latencyTarget = loadGeneratorConfig.getEventsFlushLatencyTarget();
+
+        if (latencyTarget == null || latencyTarget.toMillis() <= 0) {
+            LOGGER.warn(
+                    "{}.{} should be > 0 - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushLatencyTarget,
+                    LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_LATENCY_TARGET_S
+            );
+            return LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_LATENCY_TARGET.toMillis();
+        }
+
+        return latencyTarget.toMillis();
     }
 
     @Override
     public void onLoadGeneratorFinished(long timestamp, LoadGeneratorContextImpl context, Throwable error) {
-        if (executor == null) {
+        if (controller == null) {
             return;
         }
 
+        long flushInterval = context.getLoadGeneratorConfig().getEventsFlushInterval().toMillis();
+        long deadline = timeProvider.getCurrentTime() + getDrainTimeout(context.getLoadGeneratorConfig());
         long lastReporting = 0;
-        while (!context.getEventsBuffer().isEmpty() || inflightEvents.get() > 0) {
-            if (lastReporting + 1000 <= System.currentTimeMillis()) {
-                LOGGER.info("Please wait - there are still {} analytical events to be flushed",
-                        context.getEventsBuffer().stream().mapToInt(List::size).sum() + inflightEvents.get()
+
+        while (getPendingEvents(context) > 0 && timeProvider.getCurrentTime() < deadline) {
+            if (lastReporting + 1000 <= timeProvider.getCurrentTime()) {
+                LOGGER.info("Please wait - there are still {} analytical events to be flushed, giving up in {}s",
+                        getPendingEvents(context),
+                        Math.max(0, deadline - timeProvider.getCurrentTime()) / 1000
                 );
-                lastReporting = System.currentTimeMillis();
+                lastReporting = timeProvider.getCurrentTime();
             }
 
-            Threaded.sleep(
-                    context.getLoadGeneratorConfig().getEventsFlushInterval().toMillis()
+            timeProvider.sleep(
+                    Math.max(1, Math.min(flushInterval, deadline - timeProvider.getCurrentTime()))
             );
         }
 
-        executor.shutdown();
+        drainExpired = true;
+
+        // requests in progress are given one more flush interval, so their
+        // events are either acknowledged or queued for retry before the
+        // pending events are saved
+        long requestsDeadline = timeProvider.getCurrentTime() + flushInterval;
+        while (controller.getInflightRequests() > 0 && timeProvider.getCurrentTime() < requestsDeadline) {
+            timeProvider.sleep(1);
+        }
+
+        for (AnalyticsEventsLeftoversImpl.Submission submission; (submission = leftoversSubmissions.poll()) != null; ) {
+            submission.close();
+        }
+
+        long persistedEvents = 0;
+        boolean persistenceFailed = false;
+        if (getPendingEvents(context) > 0) {
+            try {
+                persistedEvents = persistLeftovers(context);
+            } catch (IOException e) {
+                LOGGER.error("Can't save analytical events for the next run", e);
+                persistenceFailed = true;
+            }
+        }
+
+        long sent = sentEvents.get();
+        long dropped = droppedEvents.get() + Math.max(0, getPendingEvents(context));
+        if (sent + dropped + persistedEvents > 0) {
+            LOGGER.info(
+                    "Analytical events drain report => {} sent, {} dropped, {} saved for the next run",
+                    sent,
+                    dropped,
+                    persistedEvents
+            );
+        }
+
+        // pending events are kept in the log only if they couldn't be saved
+        // for the next run in any other way
+        AnalyticsEventsLogImpl eventsLog = context.getEventsBuffer().getEventsLog();
+        if (eventsLog != null && !persistenceFailed) {
+            eventsLog.close();
+        }
+
+        context.getEventsBuffer().close();
+    }
+
+    private static long getDrainTimeout(LoadGeneratorConfig loadGeneratorConfig) {
+        Duration drainTimeout = loadGeneratorConfig.getEventsDrainTimeout();
+
+        if (drainTimeout == null || drainTimeout.isNegative()) {
+            LOGGER.warn(
+                    "{}.{} should be >= 0 - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsDrainTimeout,
+                    LoadGeneratorConfig.DEFAULT_EVENTS_DRAIN_TIMEOUT_S
+            );
+            return LoadGeneratorConfig.DEFAULT_EVENTS_DRAIN_TIMEOUT.toMillis();
+        }
+
+        return drainTimeout.toMillis();
+    }
+
+    /**
+     * @return amount of events which are neither submitted nor dropped yet,
+     * including buffered, spilled, in-flight and awaiting retry ones
+     */
+    private long getPendingEvents(LoadGeneratorContextImpl context) {
+        return context.getEventsBuffer().getDepth() + inflightEvents.get();
+    }
+
+    private long persistLeftovers(LoadGeneratorContextImpl context) throws IOException {
+        if (context.getBrowserCloudContext() == null) {
+            return 0;
+        }
+
+        AnalyticsEventsBufferImpl buffer = context.getEventsBuffer();
+        AnalyticsEventsRetryQueueImpl retryQueue = context.getEventsRetryQueue();
+
+        return leftovers.persist(context.getBrowserCloudContext(), () -> {
+            AnalyticsEventsRetryQueueImpl.RetryBatch retryBatch = retryQueue.pollDue(Long.MAX_VALUE);
+            if (retryBatch != null) {
+                inflightEvents.addAndGet(-1 * retryBatch.getEvents().size());
+                return retryBatch.getEvents();
+            }
+
+            List<AnalyticsEventRecord> carried = carriedEvents;
+            if (carried != null) {
+                carriedEvents = null;
+                inflightEvents.addAndGet(-1 * carried.size());
+                return carried;
+            }
+
+            List<AnalyticsEventRecord> events = buffer.poll();
+            if (events == null && buffer.replay() > 0) {
+                events = buffer.poll();
+            }
+            return events;
+        });
     }
 
     @Override
     public void onHeartbeat(long timestamp, LoadGeneratorContextImpl context) {
-        int threshold = context.getLoadGeneratorConfig().getEventsFlushThreshold();
-        List<AnalyticsEvent> batch = new ArrayList<>(threshold);
-        List<AnalyticsEvent> events = null;
-
-        while ((events = context.getEventsBuffer().poll()) != null) {
-            for (AnalyticsEvent event : events) {
-                inflightEvents.addAndGet(1);
-                batch.add(event);
-                if (batch.size() >= threshold) {
-                    submitEventsToExecutor(context, batch);
-                    batch = new ArrayList<>(threshold);
-                }
+        if (drainExpired) {
+            return;
+        }
+
+        AnalyticsEventsCircuitBreakerImpl circuitBreaker = context.getEventsCircuitBreaker();
+        AnalyticsEventsRetryQueueImpl retryQueue = context.getEventsRetryQueue();
+        long now = timeProvider.getCurrentTime();
+
+        context.getEventsBuffer().replay();
+
+        if (!circuitBreaker.tryAcquire(now)) {
+            return;
+        }
+
+        if (circuitBreaker.getState() == AnalyticsEventsCircuitBreakerImpl.State.half_open) {
+            submitProbe(context, now);
+            return;
+        }
+
+        // every request reserves its slot before anything is polled, so
+        // there are never more requests in progress than the controller allows
+        while (controller.tryAcquire()) {
+            AnalyticsEventsRetryQueueImpl.RetryBatch retryBatch = retryQueue.pollDue(now);
+            if (retryBatch == null) {
+                controller.release();
+                break;
             }
+            submitEvents(context, retryBatch.getEvents(), retryBatch.getAttempt());
         }
 
-        if (!batch.isEmpty()) {
-            submitEventsToExecutor(context, batch);
+        int batchSize = controller.getBatchSize();
+
+        // leftovers of previous runs share upload slots with events of this
+        // run, so they never add requests over the controller limit
+        while (!leftoversSubmissions.isEmpty() && controller.tryAcquire()) {
+            AnalyticsEventsLeftoversImpl.Submission submission = leftoversSubmissions.poll();
+            if (submission == null) {
+                controller.release();
+                break;
+            }
+            submitLeftovers(context, submission, batchSize);
+        }
+
+        while (inflightEvents.get() < maxInflightEvents && controller.tryAcquire()) {
+            List<AnalyticsEventRecord> batch = pollBatch(context.getEventsBuffer(), batchSize);
+            if (batch.isEmpty()) {
+                controller.release();
+                break;
+            }
+            submitEvents(context, batch, 1);
         }
     }
 
-    private void submitEventsToExecutor(LoadGeneratorContextImpl context, List<AnalyticsEvent> batch) {
-        CompletableFuture.supplyAsync(
-                () -> sendAnalyticalEvents(context, batch),
-                executor
-        ).whenComplete((retryableEvents, error) -> {
+    /**
+     * @return up to batchSize buffered events - events of the last polled
+     * list which don't fit into the batch are carried over to the next one
+     */
+    private List<AnalyticsEventRecord> pollBatch(AnalyticsEventsBufferImpl buffer, int batchSize) {
+        List<AnalyticsEventRecord> batch = new ArrayList<>(batchSize);
+        List<AnalyticsEventRecord> events = carriedEvents;
+        carriedEvents = null;
+
+        if (events == null) {
+            events = pollBuffer(buffer);
+        }
+
+        while (events != null) {
+            int room = batchSize - batch.size();
+            if (events.size() > room) {
+                batch.addAll(events.subList(0, room));
+                carriedEvents = new ArrayList<>(events.subList(room, events.size()));
+                break;
+            }
+
+            batch.addAll(events);
+            if (batch.size() >= batchSize) {
+                break;
+            }
+            events = pollBuffer(buffer);
+        }
+
+        return batch;
+    }
+
+    private List<AnalyticsEventRecord> pollBuffer(AnalyticsEventsBufferImpl buffer) {
+        List<AnalyticsEventRecord> events = buffer.poll();
+        if (events != null) {
+            inflightEvents.addAndGet(events.size());
+        }
+        return events;
+    }
+
+    private void submitProbe(LoadGeneratorContextImpl context, long timestamp) {
+        AnalyticsEventsRetryQueueImpl.RetryBatch retryBatch = context.getEventsRetryQueue().pollDue(Long.MAX_VALUE);
+        if (retryBatch != null) {
+            controller.acquire();
+            submitEvents(context, retryBatch.getEvents(), retryBatch.getAttempt());
+            return;
+        }
+
+        List<AnalyticsEventRecord> events = context.getEventsBuffer().poll();
+        if (events != null && !events.isEmpty()) {
+            inflightEvents.addAndGet(events.size());
+            controller.acquire();
+            submitEvents(context, events, 1);
+        } else {
+            // nothing to probe with, so there is no reason to keep
+            // flushing paused
+            context.getEventsCircuitBreaker().onSuccess();
+        }
+    }
+
+    /**
+     * Sends the batch asynchronously using the upload slot which has been
+     * already reserved for it, so no thread is blocked while the request is
+     * in progress.
+     */
+    private void submitEvents(LoadGeneratorContextImpl context, List<AnalyticsEventRecord> batch, int attempt) {
+        long startedAt = System.currentTimeMillis();
+        sendAnalyticalEvents(context, batch).thenApply(result -> {
+            List<AnalyticsEventRecord> retryableEvents = processSubmissionResult(context, batch, result);
+            controller.onResponse(
+                    System.currentTimeMillis() - startedAt,
+                    !retryableEvents.isEmpty()
+            );
+            return retryableEvents;
+        }).whenComplete((retryableEvents, error) -> {
+            controller.release();
+            long now = timeProvider.getCurrentTime();
+            AnalyticsEventsCircuitBreakerImpl circuitBreaker = context.getEventsCircuitBreaker();
+            List<AnalyticsEventRecord> eventsToRetry;
+
             if (error != null) {
-                context.getEventsBuffer().add(batch);
-            } else if (retryableEvents != null && !retryableEvents.isEmpty()) {
-                context.getEventsBuffer().add(retryableEvents);
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                long retryAfter = getRetryAfter(cause, System.currentTimeMillis());
+                long backoff = Math.max(getBackoff(attempt), retryAfter);
+                controller.onFailure();
+
+                if (circuitBreaker.onFailure(now, getBackoff(circuitBreaker.getConsecutiveFailures() + 1), retryAfter)) {
+                    LOGGER.warn(
+                            "Can't send analytical events to API - pausing events flushing after {} consecutive failures",
+                            circuitBreaker.getConsecutiveFailures()
+                    );
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.error("Can't send events - attempt {} will be made in {}ms", attempt + 1, backoff, cause);
+                }
+
+                eventsToRetry = retry(context, batch, attempt + 1, now + backoff);
+            } else {
+                if (circuitBreaker.getState() != AnalyticsEventsCircuitBreakerImpl.State.closed) {
+                    LOGGER.info("Analytical events flushing is resumed");
+                }
+                circuitBreaker.onSuccess();
+
+                acknowledgeEvents(context, batch, retryableEvents);
+
+                eventsToRetry = retry(context, retryableEvents, attempt + 1, now + getBackoff(attempt));
             }
 
-            inflightEvents.addAndGet(-1 * batch.size());
+            inflightEvents.addAndGet(-1 * (batch.size() - (eventsToRetry == null ? 0 : eventsToRetry.size())));
         });
     }
 
-    private List<AnalyticsEvent> sendAnalyticalEvents(LoadGeneratorContextImpl context, List<AnalyticsEvent> events) {
-        List<AnalyticsEvent> retryableEvents = new ArrayList<>();
+    /**
+     * Puts the events into the retry queue, or drops them if they have used
+     * up their attempts - dropped events are acknowledged in the log, so
+     * they aren't replayed by the next run either.
+     *
+     * @return events awaiting the retry, or null if they have been dropped
+     */
+    private List<AnalyticsEventRecord> retry(
+            LoadGeneratorContextImpl context,
+            List<AnalyticsEventRecord> events,
+            int attempt,
+            long notBefore
+    ) {
+        if (events == null || events.isEmpty()) {
+            return events;
+        }
+
+        if (context.getEventsRetryQueue().add(events, attempt, notBefore)) {
+            return events;
+        }
+
+        LOGGER.warn(
+                "{} analytical events were dropped after {} failed attempts",
+                events.size(),
+                attempt - 1
+        );
+        droppedEvents.addAndGet(events.size());
+
+        AnalyticsEventsLogImpl eventsLog = context.getEventsBuffer().getEventsLog();
+        if (eventsLog != null) {
+            eventsLog.acknowledge(events);
+        }
+        return null;
+    }
+
+    /**
+     * Acknowledges events of the batch in the log, except the ones which are
+     * going to be resubmitted - both accepted and rejected events are not
+     * going to be submitted anymore.
+     */
+    private static void acknowledgeEvents(
+            LoadGeneratorContextImpl context,
+            List<AnalyticsEventRecord> batch,
+            List<AnalyticsEventRecord> retryableEvents
+    ) {
+        AnalyticsEventsLogImpl eventsLog = context.getEventsBuffer().getEventsLog();
+        if (eventsLog == null) {
+            return;
+        }
+
+        if (retryableEvents.isEmpty()) {
+            eventsLog.acknowledge(batch);
+            return;
+        }
+
+        Set<String> retryableIds = new HashSet<>(retryableEvents.size() * 2);
+        for (AnalyticsEventRecord event : retryableEvents) {
+            retryableIds.add(event.getEventId());
+        }
+
+        List<AnalyticsEventRecord> processedEvents = new ArrayList<>(batch.size());
+        for (AnalyticsEventRecord event : batch) {
+            if (!retryableIds.remove(event.getEventId())) {
+                processedEvents.add(event);
+            }
+        }
+        eventsLog.acknowledge(processedEvents);
+    }
+
+    /**
+     * @return jittered exponential pause before the next attempt - it is
+     * picked randomly from the upper half of the exponentially growing range,
+     * so batches failed at once don't come back at once
+     */
+    private long getBackoff(int attempt) {
+        long ceiling = minBackoff << Math.min(Math.max(attempt - 1, 0), 30);
+        if (ceiling <= 0 || ceiling > maxBackoff) {
+            ceiling = maxBackoff;
+        }
+
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    /**
+     * @return pause requested by API via <b>Retry-After</b> header in
+     * milliseconds, or 0 if it wasn't requested
+     */
+    private static long getRetryAfter(Throwable error, long timestamp) {
+        if (!(error instanceof ApiException)) {
+            return 0;
+        }
+
+        Map<String, List<String>> headers = ((ApiException) error).getResponseHeaders();
+        if (headers == null) {
+            return 0;
+        }
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!RETRY_AFTER_HEADER.equalsIgnoreCase(header.getKey())
+                    || header.getValue() == null
+                    || header.getValue().isEmpty()) {
+                continue;
+            }
+
+            String value = header.getValue().get(0).trim();
+            try {
+                return Math.max(0, Long.parseLong(value) * 1000);
+            } catch (NumberFormatException e) {
+                // Retry-After can also be an HTTP-date
+            }
+
+            try {
+                long retryAt = ZonedDateTime.parse(
+                        value,
+                        DateTimeFormatter.RFC_1123_DATE_TIME
+                ).toInstant().toEpochMilli();
+                return Math.max(0, retryAt - timestamp);
+            } catch (DateTimeParseException e) {
+                LOGGER.debug("Can't parse {} header => {}", RETRY_AFTER_HEADER, value);
+            }
+        }
+
+        return 0;
+    }
+
+    private static CompletableFuture<AnalyticsEventsSubmissionResult> sendAnalyticalEvents(LoadGeneratorContextImpl context, List<AnalyticsEventRecord> events) {
+        LOGGER.debug("Sending {} events for processing", events.size());
 
         try {
-            LOGGER.debug("Sending {} events for processing", events.size());
-            AnalyticsEventsSubmissionResult result = context.getBrowserCloudsApi().sendAnalyticsEvents(
+            return context.getAnalyticsEventsSender().sendAnalyticsEventsAsync(
                     context.getBrowserCloudContext().getProjectKey(),
                     context.getBrowserCloudContext().getExecutionKey(),
                     context.getBrowserCloudContext().getBrowserCloudKey(),
-                    events
+                    events,
+                    context.getEventsDictionary().getGson(),
+                    AnalyticsEventRecord.class
             );
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            LOGGER.debug(
-                    "{} events were submitted for processing => {} rejected and {} retryable",
-                    events.size(),
-                    result.getRejectedEvents() == null ? 0 : result.getRejectedEvents().size(),
-                    result.getRetryableEvents() == null ? 0 : result.getRetryableEvents().size()
-            );
+    /**
+     * @return retryable events of the batch
+     */
+    private List<AnalyticsEventRecord> processSubmissionResult(
+            LoadGeneratorContextImpl context,
+            List<AnalyticsEventRecord> events,
+            AnalyticsEventsSubmissionResult result
+    ) {
+        List<AnalyticsEventRecord> retryableEvents = new ArrayList<>();
+        if (result == null) {
+            sentEvents.addAndGet(events.size());
+            return retryableEvents;
+        }
 
-            if (result.getRejectedEvents() != null && !result.getRejectedEvents().isEmpty()) {
-                LOGGER.warn(
-                        "{} events were rejected => {}",
-                        result.getRejectedEvents().size(),
-                        GSON.toJson(result.getRejectedEvents())
-                );
-            }
+        LOGGER.debug(
+                "{} events were submitted for processing => {} rejected and {} retryable",
+                events.size(),
+                result.getRejectedEvents() == null ? 0 : result.getRejectedEvents().size(),
+                result.getRetryableEvents() == null ? 0 : result.getRetryableEvents().size()
+        );
 
-            if (result.getRetryableEvents() != null && !result.getRetryableEvents().isEmpty()) {
-                LOGGER.warn(
-                        "{} events have to be resubmitted later",
-                        result.getRetryableEvents().size()
-                );
-                retryableEvents.addAll(result.getRetryableEvents());
-            }
-        } catch (ApiException e) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.error("Can't send events", e);
+        int rejected = result.getRejectedEvents() == null ? 0 : result.getRejectedEvents().size();
+        int retryable = result.getRetryableEvents() == null ? 0 : result.getRetryableEvents().size();
+        droppedEvents.addAndGet(rejected);
+        sentEvents.addAndGet(Math.max(0, events.size() - rejected - retryable));
+
+        if (result.getRejectedEvents() != null && !result.getRejectedEvents().isEmpty()) {
+            LOGGER.warn(
+                    "{} events were rejected => {}",
+                    result.getRejectedEvents().size(),
+                    GSON.toJson(result.getRejectedEvents())
+            );
+        }
+
+        if (result.getRetryableEvents() != null && !result.getRetryableEvents().isEmpty()) {
+            LOGGER.warn(
+                    "{} events have to be resubmitted later",
+                    result.getRetryableEvents().size()
+            );
+            for (AnalyticsEvent event : result.getRetryableEvents()) {
+                AnalyticsEventRecord record = context.getEventsDictionary().fromDto(event);
+                if (record != null) {
+                    retryableEvents.add(record);
+                }
             }
-            retryableEvents.addAll(events);
         }
 
         return retryableEvents;
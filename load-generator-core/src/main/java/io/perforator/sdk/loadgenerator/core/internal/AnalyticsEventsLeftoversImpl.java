@@ -0,0 +1,447 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEventsSubmissionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Local storage of analytics events which couldn't be submitted before the
+ * drain deadline.
+ * <br>
+ * Every leftovers file starts with a line holding project, execution and
+ * browser cloud keys, followed by one JSON array of events per line, so
+ * a later run can submit them to the execution they belong to.
+ * <br>
+ * Files being submitted are renamed to {@code <name>.<pid>.claimed}, and
+ * claimed files are picked up again once their process is not running.
+ */
+final class AnalyticsEventsLeftoversImpl {
+
+    static final String FILE_PREFIX = "perforator-events-";
+    static final String FILE_SUFFIX = ".pending";
+    static final String CLAIMED_SUFFIX = ".claimed";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsEventsLeftoversImpl.class);
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final Type EVENTS_TYPE = new TypeToken<List<AnalyticsEventRecord>>() {}.getType();
+    private static final long OWNER = ProcessHandle.current().pid();
+
+    private final Path directory;
+    private final AnalyticsEventsDictionaryImpl dictionary;
+    private final Gson gson;
+
+    AnalyticsEventsLeftoversImpl(String directory, AnalyticsEventsDictionaryImpl dictionary) {
+        this.directory = directory == null || directory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(directory);
+        this.dictionary = dictionary;
+        this.gson = dictionary.getGson();
+    }
+
+    /**
+     * Writes all events provided by the supplier into a new leftovers file.
+     *
+     * @param events supplier of events, returning null once there is nothing
+     * left
+     * @return amount of persisted events
+     */
+    public long persist(BrowserCloudContextImpl browserCloudContext, Supplier<List<AnalyticsEventRecord>> events) throws IOException {
+        List<AnalyticsEventRecord> batch = events.get();
+        if (batch == null) {
+            return 0;
+        }
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve(
+                FILE_PREFIX
+                + browserCloudContext.getExecutionKey()
+                + "-"
+                + System.currentTimeMillis()
+                + FILE_SUFFIX
+        );
+
+        // the file gets its final name only once it is complete, so other
+        // runs never pick it up halfway written
+        Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+
+        long persisted = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW)) {
+            writer.write(gson.toJson(new Header(browserCloudContext)));
+            writer.newLine();
+
+            for (; batch != null; batch = events.get()) {
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                writer.write(gson.toJson(batch, EVENTS_TYPE));
+                writer.newLine();
+                persisted += batch.size();
+            }
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+
+        LOGGER.warn(
+                "{} analytical events were saved to {} - they will be submitted by the next run",
+                persisted,
+                file
+        );
+        return persisted;
+    }
+
+    /**
+     * @return leftovers files of previous runs, including the ones claimed
+     * by processes which are not running anymore
+     */
+    public List<Path> find() {
+        List<Path> result = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            files.forEach(result::add);
+        } catch (IOException e) {
+            LOGGER.warn("Can't look for analytical events leftovers in {}", directory, e);
+        }
+
+        String claimedPattern = FILE_PREFIX + "*" + FILE_SUFFIX + ".*" + CLAIMED_SUFFIX;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, claimedPattern)) {
+            for (Path file : files) {
+                if (!isOwnerAlive(file)) {
+                    result.add(file);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Can't look for claimed analytical events leftovers in {}", directory, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Opens the leftovers file for submission to the execution it belongs
+     * to.
+     * <br>
+     * The file is claimed first by renaming it, so concurrent runs never
+     * submit the same file.
+     *
+     * @return submission of the file, or null if the file has been claimed
+     * by another run
+     */
+    public Submission open(Path file) throws IOException {
+        Path pendingFile = directory.resolve(getPendingFileName(file));
+        Path claimedFile = claim(file, pendingFile);
+        if (claimedFile == null) {
+            LOGGER.debug("Leftovers file {} has been claimed by another run", file);
+            return null;
+        }
+
+        try {
+            return new Submission(file, claimedFile, pendingFile);
+        } catch (IOException | RuntimeException e) {
+            release(claimedFile, pendingFile);
+            throw e;
+        }
+    }
+
+    private static Path claim(Path file, Path pendingFile) throws IOException {
+        Path claimedFile = pendingFile.resolveSibling(pendingFile.getFileName() + "." + OWNER + CLAIMED_SUFFIX);
+        if (file.equals(claimedFile)) {
+            return claimedFile;
+        }
+
+        try {
+            Files.move(file, claimedFile, StandardCopyOption.ATOMIC_MOVE);
+            return claimedFile;
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            return null;
+        }
+    }
+
+    private static void release(Path claimedFile, Path pendingFile) {
+        try {
+            Files.move(claimedFile, pendingFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Can't release analytical events leftovers file {}", claimedFile, e);
+        }
+    }
+
+    private static String getPendingFileName(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf(FILE_SUFFIX) + FILE_SUFFIX.length());
+    }
+
+    private static boolean isOwnerAlive(Path claimedFile) {
+        String name = claimedFile.getFileName().toString();
+        String owner = name.substring(
+                name.lastIndexOf(FILE_SUFFIX) + FILE_SUFFIX.length() + 1,
+                name.length() - CLAIMED_SUFFIX.length()
+        );
+
+        try {
+            return isProcessAlive(Long.parseLong(owner));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static boolean isProcessAlive(long pid) {
+        return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    private static List<Integer> getLineStarts(byte[] content) {
+        List<Integer> result = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                result.add(lineStart);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < content.length) {
+            result.add(lineStart);
+        }
+        return result;
+    }
+
+    private static String getLine(byte[] content, List<Integer> lineStarts, int line) {
+        int start = lineStarts.get(line);
+        int end = line + 1 < lineStarts.size() ? lineStarts.get(line + 1) : content.length;
+        return new String(content, start, end - start, StandardCharsets.UTF_8).trim();
+    }
+
+    private void truncate(FileChannel channel, long position, List<AnalyticsEventRecord> events) throws IOException {
+        channel.truncate(position);
+        if (!events.isEmpty()) {
+            ByteBuffer line = ByteBuffer.wrap(
+                    (gson.toJson(events, EVENTS_TYPE) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)
+            );
+            while (line.hasRemaining()) {
+                position += channel.write(line, position);
+            }
+        }
+        channel.force(false);
+    }
+
+    /**
+     * @return retryable events of the batch
+     */
+    private List<AnalyticsEventRecord> getRetryableEvents(AnalyticsEventsSubmissionResult result) {
+        if (result == null) {
+            return Collections.emptyList();
+        }
+
+        if (result.getRejectedEvents() != null && !result.getRejectedEvents().isEmpty()) {
+            LOGGER.warn(
+                    "{} analytical events left by previous run were rejected => {}",
+                    result.getRejectedEvents().size(),
+                    gson.toJson(result.getRejectedEvents())
+            );
+        }
+
+        if (result.getRetryableEvents() == null || result.getRetryableEvents().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<AnalyticsEventRecord> retryableEvents = new ArrayList<>(result.getRetryableEvents().size());
+        for (AnalyticsEvent event : result.getRetryableEvents()) {
+            AnalyticsEventRecord record = dictionary.fromDto(event);
+            if (record != null) {
+                retryableEvents.add(record);
+            }
+        }
+        return retryableEvents;
+    }
+
+    /**
+     * Submission of the claimed leftovers file, which is sent batch by batch
+     * by the caller, so every batch can wait for a free upload slot.
+     * <br>
+     * Events are submitted starting from the end of the file, and the file
+     * is truncated after every accepted batch, so only events which are not
+     * submitted yet are left there if the run fails partway. Rejected events
+     * are dropped, while retryable events are written back and the file is
+     * released for the next run.
+     */
+    final class Submission {
+
+        private final Path file;
+        private final Path claimedFile;
+        private final Path pendingFile;
+        private final byte[] content;
+        private final List<Integer> lineStarts;
+        private final Header header;
+        private final FileChannel channel;
+        private List<AnalyticsEventRecord> events = new ArrayList<>();
+        private int line;
+        private long submitted;
+        private boolean completed;
+        private boolean closed;
+
+        private Submission(Path file, Path claimedFile, Path pendingFile) throws IOException {
+            this.file = file;
+            this.claimedFile = claimedFile;
+            this.pendingFile = pendingFile;
+            this.content = Files.readAllBytes(claimedFile);
+            this.lineStarts = getLineStarts(content);
+            if (lineStarts.isEmpty()) {
+                throw new IOException("Leftovers file " + file + " has no header");
+            }
+
+            this.header = gson.fromJson(getLine(content, lineStarts, 0), Header.class);
+            if (header == null || header.executionKey == null) {
+                throw new IOException("Leftovers file " + file + " has no header");
+            }
+
+            this.line = lineStarts.size();
+            this.channel = FileChannel.open(claimedFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getProjectKey() {
+            return header.projectKey;
+        }
+
+        public String getExecutionKey() {
+            return header.executionKey;
+        }
+
+        public String getBrowserCloudKey() {
+            return header.browserCloudKey;
+        }
+
+        /**
+         * @return amount of events accepted by API so far
+         */
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        /**
+         * @return up to batchSize events to be submitted next, or null if
+         * all events of the file have been submitted
+         */
+        public List<AnalyticsEventRecord> nextBatch(int batchSize) {
+            while (events.isEmpty()) {
+                if (line <= 1) {
+                    completed = true;
+                    return null;
+                }
+
+                String text = getLine(content, lineStarts, --line);
+                if (!text.isBlank()) {
+                    events = new ArrayList<>(gson.fromJson(text, EVENTS_TYPE));
+                }
+            }
+
+            int from = Math.max(0, events.size() - batchSize);
+            return new ArrayList<>(events.subList(from, events.size()));
+        }
+
+        /**
+         * Removes the batch returned by {@link #nextBatch(int)} from the
+         * file, except its retryable events.
+         *
+         * @return false if some events have to be resubmitted by the next
+         * run, so the submission should be closed
+         */
+        public boolean onSubmitted(List<AnalyticsEventRecord> batch, AnalyticsEventsSubmissionResult result) throws IOException {
+            List<AnalyticsEventRecord> retryableEvents = getRetryableEvents(result);
+
+            events.subList(events.size() - batch.size(), events.size()).clear();
+            events.addAll(retryableEvents);
+            submitted += batch.size() - retryableEvents.size();
+            truncate(channel, lineStarts.get(line), events);
+
+            if (!retryableEvents.isEmpty()) {
+                LOGGER.warn(
+                        "{} analytical events from {} have to be resubmitted by the next run",
+                        retryableEvents.size(),
+                        file
+                );
+                return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Removes the file if all its events have been submitted, or
+         * releases it for the next run otherwise.
+         */
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Can't close analytical events leftovers file {}", claimedFile, e);
+            }
+
+            if (!completed) {
+                release(claimedFile, pendingFile);
+                return;
+            }
+
+            try {
+                Files.deleteIfExists(claimedFile);
+            } catch (IOException e) {
+                LOGGER.warn("Can't remove analytical events leftovers file {}", claimedFile, e);
+            }
+        }
+
+    }
+
+    private static final class Header {
+
+        private String projectKey;
+        private String executionKey;
+        private String browserCloudKey;
+
+        private Header(BrowserCloudContextImpl browserCloudContext) {
+            this.projectKey = browserCloudContext.getProjectKey();
+            this.executionKey = browserCloudContext.getExecutionKey();
+            this.browserCloudKey = browserCloudContext.getBrowserCloudKey();
+        }
+
+    }
+
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only write-ahead log of analytics events backed by memory-mapped
+ * segment files.
+ * <br>
+ * Every record has a fixed header - payload length, events count and
+ * acknowledgement flag - followed by the JSON payload. The payload is
+ * written before the header and the length goes last, so a record torn by
+ * a crash ends the segment on replay. Records are flagged as acknowledged
+ * once all their events are accepted by API, and segments without pending
+ * records are removed, so after a crash only unacknowledged records are
+ * replayed by the next run of the same execution.
+ * <br>
+ * Segment names include the pid of the process writing them, since agents
+ * of the same execution share its key and can run on the same host.
+ * Segments are replayed only once their process is not running anymore,
+ * and they are claimed first by renaming them to
+ * {@code <name>.<pid>.claimed}, so concurrent runs never replay the same
+ * segment.
+ * <br>
+ * Acknowledgement is tracked by {@link AnalyticsEventRecord#getEventId()},
+ * so it isn't affected by events being spilled to disk and read back or
+ * resubmitted as retryable ones. Events should be acknowledged once they are
+ * either accepted by API or dropped for good.
+ */
+final class AnalyticsEventsLogImpl {
+
+    static final String FILE_PREFIX = "perforator-events-";
+    static final String FILE_SUFFIX = ".wal";
+    static final String CLAIMED_SUFFIX = ".claimed";
+    static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsEventsLogImpl.class);
+    private static final Type EVENTS_TYPE = new TypeToken<List<AnalyticsEventRecord>>() {}.getType();
+    private static final int ACKNOWLEDGED_OFFSET = Integer.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final String executionKey;
+    private final long owner;
+    private final long startedAt;
+    private final int segmentSize;
+    private final Gson gson;
+
+    //guarded by this
+    private final Map<String, PendingEvent> pendingEvents = new HashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment currentSegment;
+    private int segmentsCreated;
+    private boolean failed;
+
+    AnalyticsEventsLogImpl(String directory, String executionKey, long startedAt, AnalyticsEventsDictionaryImpl dictionary) {
+        this(directory, executionKey, ProcessHandle.current().pid(), startedAt, dictionary, SEGMENT_SIZE);
+    }
+
+    AnalyticsEventsLogImpl(String directory, String executionKey, long owner, long startedAt, AnalyticsEventsDictionaryImpl dictionary, int segmentSize) {
+        if (executionKey == null || executionKey.isBlank()) {
+            throw new IllegalArgumentException("executionKey is required");
+        }
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize should be > " + RECORD_HEADER_SIZE);
+        }
+
+        this.directory = directory == null || directory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(directory);
+        this.executionKey = executionKey;
+        this.owner = owner;
+        this.startedAt = startedAt;
+        this.segmentSize = segmentSize;
+        this.gson = dictionary.getGson();
+    }
+
+    /**
+     * Passes unacknowledged events left by previous runs of the same
+     * execution to the consumer and removes their segments.
+     * <br>
+     * Segments of running processes, including agents of the same execution,
+     * are left untouched.
+     *
+     * @return amount of replayed events
+     */
+    public long replay(Consumer<List<AnalyticsEventRecord>> consumer) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        long replayed = 0;
+        for (Path file : findAbandonedSegments()) {
+            Path claimedFile;
+            try {
+                claimedFile = claim(file);
+            } catch (IOException e) {
+                LOGGER.debug("Analytical events log segment {} has been claimed by another run", file);
+                continue;
+            }
+
+            try {
+                replayed += replay(claimedFile, consumer);
+                Files.deleteIfExists(claimedFile);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Can't replay analytical events log segment {}", claimedFile, e);
+            }
+        }
+
+        if (replayed > 0) {
+            LOGGER.info("{} analytical events left by previous run of execution {} were replayed", replayed, executionKey);
+        }
+
+        return replayed;
+    }
+
+    /**
+     * @return segments of the execution written by processes which are not
+     * running anymore, including the segments claimed by such processes
+     */
+    private List<Path> findAbandonedSegments() {
+        List<Path> result = new ArrayList<>();
+        String prefix = FILE_PREFIX + executionKey + "-";
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String[] parts = name.substring(prefix.length(), name.length() - FILE_SUFFIX.length()).split("-");
+                if (parts.length != 3 || !isRunning(parts[0])) {
+                    result.add(file);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Can't look for analytical events log segments in {}", directory, e);
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + FILE_SUFFIX + ".*" + CLAIMED_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String claimedBy = name.substring(
+                        name.lastIndexOf(FILE_SUFFIX) + FILE_SUFFIX.length() + 1,
+                        name.length() - CLAIMED_SUFFIX.length()
+                );
+                if (!isRunning(claimedBy)) {
+                    result.add(file);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Can't look for claimed analytical events log segments in {}", directory, e);
+        }
+
+        return result;
+    }
+
+    private boolean isRunning(String pid) {
+        try {
+            long value = Long.parseLong(pid);
+            return value == owner || AnalyticsEventsLeftoversImpl.isProcessAlive(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private Path claim(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String segmentName = name.substring(0, name.lastIndexOf(FILE_SUFFIX) + FILE_SUFFIX.length());
+        Path claimedFile = file.resolveSibling(segmentName + "." + owner + CLAIMED_SUFFIX);
+
+        Files.move(file, claimedFile, StandardCopyOption.ATOMIC_MOVE);
+        return claimedFile;
+    }
+
+    /**
+     * Replays records of the segment till the first one, which is not
+     * complete or can't be parsed, since it could only be torn by a crash.
+     */
+    private long replay(Path file, Consumer<List<AnalyticsEventRecord>> consumer) throws IOException {
+        long replayed = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int length = buffer.getInt();
+                int count = buffer.getInt();
+                int acknowledged = buffer.getInt();
+
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+
+                if (acknowledged == 0 && count > 0) {
+                    List<AnalyticsEventRecord> events;
+                    try {
+                        events = gson.fromJson(
+                                new String(payload, StandardCharsets.UTF_8),
+                                EVENTS_TYPE
+                        );
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Analytical events log segment {} has a torn record - replaying it up to the record", file, e);
+                        break;
+                    }
+
+                    if (events != null && !events.isEmpty()) {
+                        consumer.accept(events);
+                        replayed += events.size();
+                    }
+                }
+            }
+        }
+
+        return replayed;
+    }
+
+    /**
+     * Appends events to the log before they are handed over for submission.
+     */
+    public void append(List<AnalyticsEventRecord> events) {
+        if (failed || events == null || events.isEmpty()) {
+            return;
+        }
+
+        byte[] payload = gson.toJson(events, EVENTS_TYPE).getBytes(StandardCharsets.UTF_8);
+        String[] eventIds = new String[events.size()];
+        for (int i = 0; i < eventIds.length; i++) {
+            eventIds[i] = events.get(i).getEventId();
+        }
+
+        synchronized (this) {
+            append(payload, eventIds);
+        }
+    }
+
+    //guarded by this
+    private void append(byte[] payload, String[] eventIds) {
+        if (failed) {
+            return;
+        }
+
+        try {
+            if (currentSegment == null || currentSegment.buffer.remaining() < RECORD_HEADER_SIZE + payload.length) {
+                currentSegment = createSegment(RECORD_HEADER_SIZE + payload.length);
+            }
+        } catch (IOException e) {
+            failed = true;
+            LOGGER.error(
+                    "Can't create analytical events log segment in {} - events are not logged anymore",
+                    directory,
+                    e
+            );
+            return;
+        }
+
+        MappedByteBuffer buffer = currentSegment.buffer;
+        int position = buffer.position();
+        Record record = new Record(currentSegment, position, eventIds.length);
+
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(position + Integer.BYTES, eventIds.length);
+        buffer.putInt(position + ACKNOWLEDGED_OFFSET, 0);
+        buffer.putInt(position, payload.length);
+        buffer.position(position + RECORD_HEADER_SIZE + payload.length);
+
+        currentSegment.pendingRecords++;
+        for (String eventId : eventIds) {
+            pendingEvents.put(eventId, new PendingEvent(record, pendingEvents.get(eventId)));
+        }
+    }
+
+    /**
+     * Flags records of the specified events as acknowledged once all their
+     * events are either accepted by API or dropped.
+     */
+    public void acknowledge(Collection<AnalyticsEventRecord> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        String[] eventIds = new String[events.size()];
+        int i = 0;
+        for (AnalyticsEventRecord event : events) {
+            eventIds[i++] = event.getEventId();
+        }
+
+        synchronized (this) {
+            for (String eventId : eventIds) {
+                acknowledge(eventId);
+            }
+        }
+    }
+
+    //guarded by this
+    private void acknowledge(String eventId) {
+        PendingEvent pendingEvent = pendingEvents.remove(eventId);
+        if (pendingEvent == null) {
+            return;
+        }
+        if (pendingEvent.next != null) {
+            pendingEvents.put(eventId, pendingEvent.next);
+        }
+
+        Record record = pendingEvent.record;
+        if (--record.pendingEvents > 0) {
+            return;
+        }
+
+        Segment segment = record.segment;
+        if (segment.buffer != null) {
+            segment.buffer.putInt(record.position + ACKNOWLEDGED_OFFSET, 1);
+        }
+
+        if (--segment.pendingRecords <= 0 && segment != currentSegment) {
+            removeSegment(segment);
+        }
+    }
+
+    /**
+     * @return amount of events which are appended, but not acknowledged yet
+     */
+    synchronized int getPendingEvents() {
+        int result = 0;
+        for (PendingEvent pendingEvent : pendingEvents.values()) {
+            for (PendingEvent e = pendingEvent; e != null; e = e.next) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return amount of segment files which are not removed yet
+     */
+    synchronized int getSegmentsCount() {
+        return segments.size();
+    }
+
+    /**
+     * Removes all segments - should be called once all events are either
+     * submitted or saved elsewhere.
+     */
+    public synchronized void close() {
+        for (Segment segment : new ArrayList<>(segments)) {
+            removeSegment(segment);
+        }
+        pendingEvents.clear();
+        currentSegment = null;
+    }
+
+    private Segment createSegment(int minSize) throws IOException {
+        Files.createDirectories(directory);
+
+        Path file = directory.resolve(
+                FILE_PREFIX
+                + executionKey
+                + "-"
+                + owner
+                + "-"
+                + startedAt
+                + "-"
+                + segmentsCreated++
+                + FILE_SUFFIX
+        );
+
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        )) {
+            Segment segment = new Segment(
+                    file,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, minSize))
+            );
+            segments.add(segment);
+
+            if (currentSegment != null && currentSegment.pendingRecords <= 0) {
+                removeSegment(currentSegment);
+            }
+
+            return segment;
+        }
+    }
+
+    private void removeSegment(Segment segment) {
+        segments.remove(segment);
+        segment.buffer = null;
+
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            LOGGER.warn("Can't remove analytical events log segment {}", segment.file, e);
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private MappedByteBuffer buffer;
+        private int pendingRecords;
+
+        private Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+    }
+
+    /**
+     * Pending record of the event - events with the same id, which are
+     * appended several times, are chained.
+     */
+    private static final class PendingEvent {
+
+        private final Record record;
+        private final PendingEvent next;
+
+        private PendingEvent(Record record, PendingEvent next) {
+            this.record = record;
+            this.next = next;
+        }
+
+    }
+
+    private static final class Record {
+
+        private final Segment segment;
+        private final int position;
+        private int pendingEvents;
+
+        private Record(Segment segment, int position, int pendingEvents) {
+            this.segment = segment;
+            this.position = position;
+            this.pendingEvents = pendingEvents;
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Batches of analytics events awaiting resubmission, ordered by the time
+ * they become due.
+ * <br>
+ * Batches which have used up their attempts aren't accepted, so an outage
+ * of API can't keep events in memory forever.
+ */
+final class AnalyticsEventsRetryQueueImpl {
+
+    private final int maxAttempts;
+    private final PriorityQueue<RetryBatch> batches = new PriorityQueue<>(
+            Comparator.comparingLong(RetryBatch::getNotBefore)
+    );
+    private long depth;
+
+    AnalyticsEventsRetryQueueImpl(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts should be > 0");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @param attempt number of the attempt the events are going to be
+     * submitted with
+     * @return false if the attempt exceeds the max amount of attempts, so
+     * the events should be dropped
+     */
+    public synchronized boolean add(List<AnalyticsEventRecord> events, int attempt, long notBefore) {
+        if (events == null || events.isEmpty()) {
+            return true;
+        }
+
+        if (attempt > maxAttempts) {
+            return false;
+        }
+
+        batches.add(new RetryBatch(events, attempt, notBefore));
+        depth += events.size();
+        return true;
+    }
+
+    /**
+     * @return the earliest batch which is due at the specified timestamp, or
+     * null if there is no such batch
+     */
+    public synchronized RetryBatch pollDue(long timestamp) {
+        RetryBatch batch = batches.peek();
+        if (batch == null || batch.getNotBefore() > timestamp) {
+            return null;
+        }
+
+        batches.poll();
+        depth -= batch.getEvents().size();
+        return batch;
+    }
+
+    public synchronized boolean isEmpty() {
+        return batches.isEmpty();
+    }
+
+    /**
+     * @return amount of events awaiting resubmission
+     */
+    public synchronized long getDepth() {
+        return depth;
+    }
+
+    static final class RetryBatch {
+
+        private final List<AnalyticsEventRecord> events;
+        private final int attempt;
+        private final long notBefore;
+
+        private RetryBatch(List<AnalyticsEventRecord> events, int attempt, long notBefore) {
+            this.events = events;
+            this.attempt = attempt;
+            this.notBefore = notBefore;
+        }
+
+        public List<AnalyticsEventRecord> getEvents() {
+            return events;
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+
+        public long getNotBefore() {
+            return notBefore;
+        }
+
+    }
+
+}
@@ -10,6 +10,7 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import io.perforator.sdk.api.okhttpgson.AnalyticsEventsSender;
 import io.perforator.sdk.api.okhttpgson.ApiClientBuilder;
 import io.perforator.sdk.api.okhttpgson.ApiClientParams;
 import io.perforator.sdk.api.okhttpgson.invoker.ApiException;
@@ -19,6 +20,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.time.Duration;
+import okhttp3.Dispatcher;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 
 final class ApiClientManagerImpl implements ApiClientManager {
@@ -59,6 +61,21 @@ final class ApiClientManagerImpl implements ApiClientManager {
         loadGeneratorContext.setBrowserCloudsApi(
                 apiClientBuilder.getApi(BrowserCloudsApi.class)
         );
+        loadGeneratorContext.setAnalyticsEventsSender(
+                new AnalyticsEventsSender(
+                        apiClientBuilder.getApiClient(),
+                        loadGeneratorConfig.isEventsGzipEnabled()
+                )
+        );
+
+        // analytics events are sent asynchronously, so the dispatcher should
+        // let through as many parallel uploads as the flusher may run, plus
+        // other API calls
+        Dispatcher dispatcher = apiClientBuilder.getApiClient().getHttpClient().dispatcher();
+        dispatcher.setMaxRequestsPerHost(Math.max(
+                dispatcher.getMaxRequestsPerHost(),
+                loadGeneratorConfig.getEventsFlushMaxParallelism() + 1
+        ));
         loadGeneratorContext.setApiClientParams(
                 apiClientBuilder.getApiClientParams()
         );
@@ -0,0 +1,143 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pauses workers of a suite after failed suite instances depending on
+ * the category of the error.
+ * <br>
+ * Consecutive failures of the same worker escalate its pause using
+ * decorrelated jitter, i.e. the next pause is random between the base one
+ * and 3x of the previous one, capped by slowdownMax, so workers hitting
+ * the same overloaded hub back off quickly without synchronizing their
+ * retries. A successful suite instance resets the escalation.
+ * <br>
+ * Escalation is tracked per concurrency slot of the suite, i.e. per worker
+ * ID modulo concurrency, so its state stays bounded even when worker IDs
+ * are iteration numbers of arrivals.
+ */
+final class BackoffPolicyImpl {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackoffPolicyImpl.class);
+
+    private final Map<SuiteErrorCategory, Long> baseBackoffs;
+    private final long maxBackoff;
+    private final AtomicLongArray previousBackoffs;
+
+    BackoffPolicyImpl(SuiteConfig suiteConfig) {
+        this.baseBackoffs = new EnumMap<>(SuiteErrorCategory.class);
+        this.baseBackoffs.put(
+                SuiteErrorCategory.SESSION_THROTTLING,
+                toMillis(
+                        suiteConfig.getName(),
+                        SuiteConfig.Fields.slowdownSessionThrottling,
+                        suiteConfig.getSlowdownSessionThrottling(),
+                        SuiteConfig.DEFAULT_SLOWDOWN_SESSION_THROTTLING_S,
+                        SuiteConfig.DEFAULT_SLOWDOWN_SESSION_THROTTLING
+                )
+        );
+        this.baseBackoffs.put(
+                SuiteErrorCategory.HUB_ERROR,
+                toMillis(
+                        suiteConfig.getName(),
+                        SuiteConfig.Fields.slowdownHubError,
+                        suiteConfig.getSlowdownHubError(),
+                        SuiteConfig.DEFAULT_SLOWDOWN_HUB_ERROR_S,
+                        SuiteConfig.DEFAULT_SLOWDOWN_HUB_ERROR
+                )
+        );
+        this.baseBackoffs.put(
+                SuiteErrorCategory.WEB_DRIVER_TIMEOUT,
+                toMillis(
+                        suiteConfig.getName(),
+                        SuiteConfig.Fields.slowdownWebDriverTimeout,
+                        suiteConfig.getSlowdownWebDriverTimeout(),
+                        SuiteConfig.DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT_S,
+                        SuiteConfig.DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT
+                )
+        );
+        this.baseBackoffs.put(
+                SuiteErrorCategory.APPLICATION_ERROR,
+                toMillis(
+                        suiteConfig.getName(),
+                        SuiteConfig.Fields.slowdownApplicationError,
+                        suiteConfig.getSlowdownApplicationError(),
+                        SuiteConfig.DEFAULT_SLOWDOWN_APPLICATION_ERROR_S,
+                        SuiteConfig.DEFAULT_SLOWDOWN_APPLICATION_ERROR
+                )
+        );
+        this.maxBackoff = toMillis(
+                suiteConfig.getName(),
+                SuiteConfig.Fields.slowdownMax,
+                suiteConfig.getSlowdownMax(),
+                SuiteConfig.DEFAULT_SLOWDOWN_MAX_S,
+                SuiteConfig.DEFAULT_SLOWDOWN_MAX
+        );
+        this.previousBackoffs = new AtomicLongArray(Math.max(1, suiteConfig.getConcurrency()));
+    }
+
+    private static long toMillis(String suiteName, String field, Duration value, String defaultValueS, Duration defaultValue) {
+        if (value == null || value.isNegative()) {
+            LOGGER.warn(
+                    "Suite '{}' - {}.{} should be >= 0 - defaulting it to {}",
+                    suiteName,
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX,
+                    field,
+                    defaultValueS
+            );
+            return defaultValue.toMillis();
+        }
+
+        return value.toMillis();
+    }
+
+    /**
+     * @return pause in milliseconds the worker should make after the
+     * failure of the specified category
+     */
+    public long nextBackoff(int workerID, SuiteErrorCategory category) {
+        long baseBackoff = Math.min(maxBackoff, baseBackoffs.get(category));
+        if (baseBackoff <= 0) {
+            return 0;
+        }
+
+        int slot = toSlot(workerID);
+        long upperBound = Math.max(baseBackoff, previousBackoffs.get(slot)) * 3;
+        long result = Math.min(
+                maxBackoff,
+                ThreadLocalRandom.current().nextLong(baseBackoff, upperBound + 1)
+        );
+
+        previousBackoffs.set(slot, result);
+        return result;
+    }
+
+    /**
+     * Resets escalation of the worker's pauses.
+     */
+    public void reset(int workerID) {
+        previousBackoffs.set(toSlot(workerID), 0);
+    }
+
+    private int toSlot(int workerID) {
+        return Math.floorMod(workerID, previousBackoffs.length());
+    }
+
+}
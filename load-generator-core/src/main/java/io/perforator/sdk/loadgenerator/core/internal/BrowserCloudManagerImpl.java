@@ -25,15 +25,14 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static io.perforator.sdk.loadgenerator.core.Threaded.sleep;
-
 final class BrowserCloudManagerImpl implements BrowserCloudManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BrowserCloudManagerImpl.class);
 
     private final TimeProvider timeProvider;
     private final Runnable shutdownHook;
-    private Timer timer;
+    private TimeProvider.ScheduledTask statusCheckTask;
+    private boolean browserCloudOwned;
 
     public BrowserCloudManagerImpl(TimeProvider timeProvider, Runnable shutdownHook) {
         this.timeProvider = timeProvider;
@@ -58,6 +57,27 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
 
         LoadGeneratorConfig loadGeneratorConfig = loadGeneratorContext.getLoadGeneratorConfig();
 
+        String existingBrowserCloudKey = loadGeneratorConfig.getBrowserCloudKey();
+        if (existingBrowserCloudKey != null && !existingBrowserCloudKey.isBlank()) {
+            browserCloudOwned = false;
+            verifyProjectExists(loadGeneratorContext, loadGeneratorConfig.getProjectKey());
+            verifyExecutionExists(
+                    loadGeneratorContext,
+                    loadGeneratorConfig.getProjectKey(),
+                    loadGeneratorConfig.getExecutionKey()
+            );
+            LOGGER.info("Using existing browser cloud {}", existingBrowserCloudKey);
+            watchBrowserCloud(
+                    loadGeneratorContext,
+                    loadGeneratorConfig.getProjectKey(),
+                    loadGeneratorConfig.getExecutionKey(),
+                    existingBrowserCloudKey
+            );
+            return;
+        }
+
+        browserCloudOwned = true;
+
         List<SuiteConfig> suiteConfigs = new ArrayList<>();
         int concurrency = 0;
         int requiredDuration = 0;
@@ -79,6 +99,17 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
             suiteConfigs.add(suiteConfig);
         }
 
+        if (loadGeneratorConfig.getConcurrencyBudget() > 0 && loadGeneratorConfig.getConcurrencyBudget() < concurrency) {
+            LOGGER.info(
+                    "Browser cloud concurrency is limited to {}.{}({}) instead of {} required by suites",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.concurrencyBudget,
+                    loadGeneratorConfig.getConcurrencyBudget(),
+                    concurrency
+            );
+            concurrency = loadGeneratorConfig.getConcurrencyBudget();
+        }
+
         if (concurrency <= 0) {
             throw new RuntimeException(
                     "Browser cloud should have concurrency greater than 0"
@@ -201,27 +232,38 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
             );
         }
 
+        watchBrowserCloud(loadGeneratorContext, projectKey, executionKey, browserCloudKey);
+    }
+
+    private void watchBrowserCloud(LoadGeneratorContextImpl loadGeneratorContext, String projectKey, String executionKey, String browserCloudKey) {
+        LoadGeneratorConfig loadGeneratorConfig = loadGeneratorContext.getLoadGeneratorConfig();
+
         loadGeneratorContext.setBrowserCloudContext(
                 new BrowserCloudContextImpl(projectKey, executionKey, browserCloudKey)
         );
 
         Duration statusCheckInterval = loadGeneratorContext.getLoadGeneratorConfig().getBrowserCloudStatusPollInterval();
-        BrowserCloudDetails browserCloudDetails = awaitBrowserCloud(
-                loadGeneratorContext,
-                projectKey,
-                executionKey,
-                browserCloudKey,
-                loadGeneratorConfig.getBrowserCloudAwaitQueued(),
-                loadGeneratorConfig.getBrowserCloudAwaitProvisioning(),
-                statusCheckInterval
-        );
+        BrowserCloudDetails browserCloudDetails;
+        try {
+            browserCloudDetails = awaitBrowserCloud(
+                    loadGeneratorContext,
+                    projectKey,
+                    executionKey,
+                    browserCloudKey,
+                    loadGeneratorConfig.getBrowserCloudAwaitQueued(),
+                    loadGeneratorConfig.getBrowserCloudAwaitProvisioning(),
+                    statusCheckInterval
+            );
+        } finally {
+            // the starting thread waits for workers outside of the clock
+            timeProvider.leave();
+        }
 
         loadGeneratorContext.setBrowserCloudContext(
                 new BrowserCloudContextImpl(projectKey, executionKey, browserCloudDetails)
         );
 
-        timer = new Timer();
-        timer.schedule(
+        statusCheckTask = timeProvider.schedule(
                 new StatusChecker(loadGeneratorContext),
                 0,
                 statusCheckInterval.toMillis()
@@ -260,19 +302,21 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
         if (loadGeneratorContext.isLocalOnly()) {
             return;
         }
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (statusCheckTask != null) {
+            statusCheckTask.cancel();
+            statusCheckTask = null;
+        }
+        if (browserCloudOwned) {
+            cleanup(loadGeneratorContext);
         }
-        cleanup(loadGeneratorContext);
     }
 
     private BrowserCloudDetails awaitBrowserCloud(LoadGeneratorContextImpl loadGeneratorContext, String projectKey, String executionKey, String browserCloudUuid, Duration awaitQueuedDuration, Duration awaitProvisioningDuration, Duration statusCheckInterval) {
-        long start = System.currentTimeMillis();
+        long start = timeProvider.getCurrentTime();
         long waitMillis = awaitQueuedDuration.toMillis();
         String browserCloudLastStatus = "queued";
 
-        while (start + waitMillis > System.currentTimeMillis()) {
+        while (start + waitMillis > timeProvider.getCurrentTime()) {
             try {
                 BrowserCloudDetails details = getBrowserCloudDetails(
                         loadGeneratorContext,
@@ -309,7 +353,7 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
                     if (details.getStatus().equalsIgnoreCase("provisioning") &&
                             browserCloudLastStatus.equalsIgnoreCase("queued")
                     ) {
-                        start = System.currentTimeMillis();
+                        start = timeProvider.getCurrentTime();
                         waitMillis = awaitProvisioningDuration.toMillis();
                     }
                     LOGGER.info(
@@ -335,7 +379,7 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
                 }
             }
 
-            sleep(statusCheckInterval.toMillis());
+            timeProvider.sleep(statusCheckInterval.toMillis());
         }
 
         try {
@@ -572,7 +616,7 @@ final class BrowserCloudManagerImpl implements BrowserCloudManager {
         void run() throws ApiException;
     }
 
-    private class StatusChecker extends TimerTask {
+    private class StatusChecker implements Runnable {
 
         private final LoadGeneratorContextImpl loadGeneratorContext;
 
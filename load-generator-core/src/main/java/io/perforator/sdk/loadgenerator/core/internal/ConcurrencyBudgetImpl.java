@@ -0,0 +1,177 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.util.List;
+
+/**
+ * Run-level limit of concurrently running suite instances shared between
+ * suites using weighted max-min fairness.
+ * <br>
+ * Every suite is first given its min share, as long as it needs it, then
+ * the rest of the budget is spread proportionally to weights among suites
+ * needing more, while slots a suite doesn't need are passed to others.
+ * Slots left once every demand is satisfied are spread the same way up to
+ * the concurrency suites are allowed to run at, so newly started workers
+ * don't wait for the next rebalancing.
+ * <br>
+ * A suite never gets more than its max share, if it has one, even when
+ * slots are left idle.
+ */
+final class ConcurrencyBudgetImpl {
+
+    private final int budget;
+    private final List<SuiteConfigContextImpl> suiteConfigContexts;
+    private final int[] minShares;
+    private final int[] maxShares;
+    private final double[] weights;
+    private final int[] demands;
+    private final int[] limits;
+
+    /**
+     * @param budget budget of this load generator, i.e. its own part of
+     * concurrencyBudget when it runs as one of several agents
+     */
+    ConcurrencyBudgetImpl(int budget, List<SuiteConfigContextImpl> suiteConfigContexts) {
+        this.budget = budget;
+        this.suiteConfigContexts = suiteConfigContexts;
+        this.minShares = new int[suiteConfigContexts.size()];
+        this.maxShares = new int[suiteConfigContexts.size()];
+        this.weights = new double[suiteConfigContexts.size()];
+        this.demands = new int[suiteConfigContexts.size()];
+        this.limits = new int[suiteConfigContexts.size()];
+
+        for (int i = 0; i < suiteConfigContexts.size(); i++) {
+            SuiteConfig suiteConfig = suiteConfigContexts.get(i).getSuiteConfig();
+            minShares[i] = Math.max(0, suiteConfig.getConcurrencyMinShare());
+            maxShares[i] = Math.max(0, suiteConfig.getConcurrencyMaxShare());
+            weights[i] = suiteConfig.getConcurrencyWeight() > 0 ? suiteConfig.getConcurrencyWeight() : 1;
+        }
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Recalculates shares of suites according to their current demand and
+     * applies them as budget concurrency of every suite.
+     */
+    public synchronized void rebalance() {
+        for (int i = 0; i < suiteConfigContexts.size(); i++) {
+            SuiteConfigContextImpl suiteConfigContext = suiteConfigContexts.get(i);
+            ConcurrencyContextImpl concurrencyContext = suiteConfigContext.getConcurrencyContext();
+            int limit = concurrencyContext.getUnbudgetedConcurrency();
+
+            limits[i] = limit;
+            if (suiteConfigContext.getSuiteConfig().getArrivalRate() > 0) {
+                demands[i] = limit;
+            } else {
+                demands[i] = Math.min(
+                        limit,
+                        concurrencyContext.getCurrentConcurrency() + concurrencyContext.getPermitWaiters()
+                );
+            }
+        }
+
+        int[] shares = allocate(budget, minShares, maxShares, weights, demands, limits);
+        for (int i = 0; i < suiteConfigContexts.size(); i++) {
+            suiteConfigContexts.get(i).getConcurrencyContext().setBudgetConcurrency(shares[i]);
+        }
+    }
+
+    /**
+     * @param budget total amount of slots
+     * @param minShares slots guaranteed to every suite
+     * @param maxShares slots every suite can take at most, or 0 if it's
+     * not limited
+     * @param weights relative shares of suites
+     * @param demands slots every suite needs right now
+     * @param limits slots every suite is allowed to use
+     * @return slots every suite is given
+     */
+    static int[] allocate(int budget, int[] minShares, int[] maxShares, double[] weights, int[] demands, int[] limits) {
+        int[] shares = new int[weights.length];
+        int[] guarantees = new int[weights.length];
+        int[] needs = new int[weights.length];
+        int[] caps = new int[weights.length];
+        long guaranteed = 0;
+
+        for (int i = 0; i < weights.length; i++) {
+            caps[i] = maxShares[i] > 0 ? Math.min(limits[i], maxShares[i]) : limits[i];
+            needs[i] = Math.max(0, Math.min(demands[i], caps[i]));
+            guarantees[i] = Math.min(minShares[i], needs[i]);
+            guaranteed += guarantees[i];
+        }
+
+        if (guaranteed > budget) {
+            fill(budget, shares, guarantees, weights);
+            return shares;
+        }
+
+        System.arraycopy(guarantees, 0, shares, 0, shares.length);
+        int remaining = fill((int) (budget - guaranteed), shares, needs, weights);
+        fill(remaining, shares, caps, weights);
+        return shares;
+    }
+
+    /**
+     * Spreads slots proportionally to weights among suites whose shares are
+     * below their caps.
+     *
+     * @return slots left once all shares have reached their caps
+     */
+    private static int fill(int remaining, int[] shares, int[] caps, double[] weights) {
+        while (remaining > 0) {
+            double totalWeight = 0;
+            for (int i = 0; i < shares.length; i++) {
+                if (shares[i] < caps[i]) {
+                    totalWeight += weights[i];
+                }
+            }
+
+            if (totalWeight == 0) {
+                return remaining;
+            }
+
+            int given = 0;
+            for (int i = 0; i < shares.length; i++) {
+                if (shares[i] < caps[i]) {
+                    int slots = (int) Math.min(
+                            caps[i] - shares[i],
+                            Math.floor(remaining * weights[i] / totalWeight)
+                    );
+                    shares[i] += slots;
+                    given += slots;
+                }
+            }
+
+            if (given == 0) {
+                // fewer slots than suites needing them - give them one by
+                // one to suites having the smallest share per weight
+                int next = -1;
+                for (int i = 0; i < shares.length; i++) {
+                    if (shares[i] < caps[i] && (next < 0 || shares[i] / weights[i] < shares[next] / weights[next])) {
+                        next = i;
+                    }
+                }
+                shares[next]++;
+                given = 1;
+            }
+
+            remaining -= given;
+        }
+
+        return 0;
+    }
+
+}
@@ -10,10 +10,17 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+import io.perforator.sdk.loadgenerator.core.configs.LoadProfile;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.service.IntegrationService;
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 final class ConcurrencyContextImpl {
 
@@ -25,13 +32,25 @@ final class ConcurrencyContextImpl {
 
     private final AtomicInteger currentConcurrency;
     private final AtomicInteger desiredConcurrency;
-    private final AtomicInteger failedSuitesCounter;
-    private final AtomicInteger successfulSuitesCounter;
     private final AtomicLong nextRecalcTimestamp;
     private final AtomicLong iterationsCounter;
+    private final AtomicInteger profileConcurrency;
+    private final AtomicInteger budgetConcurrency;
+    private final AtomicLong profileStartTimestamp;
+    private final LoadProfile loadProfile;
+    private final ReentrantLock permitLock;
+    private final Condition permitAvailable;
+    private final AtomicInteger permitWaiters;
     private final int minConcurrency;
     private final int maxConcurrency;
     private final long maxIterations;
+    private final ConcurrencyController concurrencyController;
+    private final Duration concurrencyStatisticsWindow;
+    private final AtomicReference<SlidingWindowCounterImpl> suiteInstancesWindow;
+    private final AtomicLong periodSuccessfulTransactions;
+    private final AtomicLong periodFailedTransactions;
+    private final AtomicLong periodSessionCreationFailures;
+    private final AtomicReference<LatencyHistogramImpl> periodTransactionLatencies;
 
     public ConcurrencyContextImpl(
             SuiteConfig suiteConfig, 
@@ -56,11 +75,31 @@ final class ConcurrencyContextImpl {
         this.minConcurrency = determineMinConcurrency(maxConcurrency);
         this.currentConcurrency = new AtomicInteger(0);
         this.desiredConcurrency = new AtomicInteger(maxConcurrency);
-        this.failedSuitesCounter = new AtomicInteger(0);
-        this.successfulSuitesCounter = new AtomicInteger(0);
         this.iterationsCounter = new AtomicLong(0);
         this.maxIterations = suiteConfig.getIterations();
         this.nextRecalcTimestamp = new AtomicLong(nextRecalcTimestamp);
+        this.loadProfile = suiteConfig.getLoadProfile();
+        this.profileStartTimestamp = new AtomicLong(Long.MAX_VALUE);
+        this.permitLock = new ReentrantLock();
+        this.permitAvailable = permitLock.newCondition();
+        this.permitWaiters = new AtomicInteger(0);
+        this.profileConcurrency = new AtomicInteger(
+                loadProfile == null ? maxConcurrency : Math.min(maxConcurrency, loadProfile.getConcurrency(0))
+        );
+        this.budgetConcurrency = new AtomicInteger(maxConcurrency);
+        this.concurrencyController = ConcurrencyControllers.create(
+                suiteConfig,
+                this.concurrencyScaleDownMultiplier,
+                this.concurrencyScaleUpMultiplier
+        );
+        this.concurrencyStatisticsWindow = determineConcurrencyStatisticsWindow(
+                suiteConfig.getConcurrencyStatisticsWindow()
+        );
+        this.suiteInstancesWindow = new AtomicReference<>(null);
+        this.periodSuccessfulTransactions = new AtomicLong(0);
+        this.periodFailedTransactions = new AtomicLong(0);
+        this.periodSessionCreationFailures = new AtomicLong(0);
+        this.periodTransactionLatencies = new AtomicReference<>(new LatencyHistogramImpl());
     }
     
     private static Duration determineConcurrencyRecalcPeriod(Duration concurrencyRecalcPeriod) {
@@ -73,6 +112,18 @@ final class ConcurrencyContextImpl {
         }
     }
     
+    private static Duration determineConcurrencyStatisticsWindow(Duration concurrencyStatisticsWindow) {
+        if(concurrencyStatisticsWindow == null) {
+            return SuiteConfig.DEFAULT_CONCURRENCY_STATISTICS_WINDOW;
+        } else if(concurrencyStatisticsWindow.compareTo(Duration.ofSeconds(1)) < 0) {
+            return Duration.ofSeconds(1);
+        } else if(concurrencyStatisticsWindow.compareTo(Duration.ofHours(1)) > 0) {
+            return Duration.ofHours(1);
+        } else {
+            return concurrencyStatisticsWindow;
+        }
+    }
+    
     private static double determineConcurrencyScaleDownMultiplier(double concurrencyScaleDownMultiplier) {
         if(concurrencyScaleDownMultiplier < 0) {
             return 0;
@@ -121,9 +172,122 @@ final class ConcurrencyContextImpl {
         return currentConcurrency.get();
     }
     
-    public long getAndIncrementIterationsCounter() {
+    /**
+     * Atomically reserves a concurrency slot and the next iteration number
+     * without taking any locks, so workers of the same suite never wait
+     * for each other before starting a new suite instance.
+     * <br>
+     * Reserved slot should be returned via {@link #releasePermit()} once
+     * the suite instance is finished.
+     *
+     * @return reserved iteration number,
+     * {@link IntegrationService#SUITE_INSTANCE_PERMIT_THROTTLED} or
+     * {@link IntegrationService#SUITE_INSTANCE_PERMIT_EXHAUSTED}
+     */
+    public long tryAcquirePermit() {
+        while (true) {
+            if (iterationsCounter.get() >= maxIterations) {
+                return IntegrationService.SUITE_INSTANCE_PERMIT_EXHAUSTED;
+            }
+
+            int current = currentConcurrency.get();
+            if (current >= getTargetConcurrency()) {
+                return IntegrationService.SUITE_INSTANCE_PERMIT_THROTTLED;
+            }
+
+            if (!currentConcurrency.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            long iteration = reserveIteration();
+            if (iteration < 0) {
+                currentConcurrency.decrementAndGet();
+                return IntegrationService.SUITE_INSTANCE_PERMIT_EXHAUSTED;
+            }
+
+            return iteration;
+        }
+    }
+
+    /**
+     * Reserves a concurrency slot and the next iteration number regardless
+     * of desired concurrency and max iterations.
+     *
+     * @return reserved iteration number
+     */
+    public long acquirePermit() {
+        currentConcurrency.incrementAndGet();
         return iterationsCounter.getAndIncrement();
     }
+
+    public void releasePermit() {
+        currentConcurrency.decrementAndGet();
+        signalPermitAvailable(false);
+    }
+
+    /**
+     * Parks the current thread till {@link #tryAcquirePermit()} might
+     * succeed, i.e. a permit is released or target concurrency is increased,
+     * but no longer than the specified timeout.
+     * <br>
+     * Waiters are registered before checking the state, while state changes
+     * are made before checking for waiters, so a wake-up can't be lost
+     * between the check and parking.
+     * <br>
+     * The timeout is measured by the time provider, so with virtual time the
+     * thread blocks till the virtual deadline rather than polling.
+     */
+    public void awaitPermit(TimeProvider timeProvider, long timeoutMillis) throws InterruptedException {
+        if (timeoutMillis <= 0) {
+            return;
+        }
+
+        permitWaiters.incrementAndGet();
+        permitLock.lock();
+        try {
+            long remainingMillis = timeoutMillis;
+            while (remainingMillis > 0 && !isPermitAvailable()) {
+                remainingMillis = timeProvider.await(permitLock, permitAvailable, remainingMillis);
+            }
+        } finally {
+            permitLock.unlock();
+            permitWaiters.decrementAndGet();
+        }
+    }
+
+    private boolean isPermitAvailable() {
+        return iterationsCounter.get() >= maxIterations
+                || currentConcurrency.get() < getTargetConcurrency();
+    }
+
+    private void signalPermitAvailable(boolean all) {
+        if (permitWaiters.get() == 0) {
+            return;
+        }
+
+        permitLock.lock();
+        try {
+            if (all) {
+                permitAvailable.signalAll();
+            } else {
+                permitAvailable.signal();
+            }
+        } finally {
+            permitLock.unlock();
+        }
+    }
+
+    private long reserveIteration() {
+        while (true) {
+            long iteration = iterationsCounter.get();
+            if (iteration >= maxIterations) {
+                return -1;
+            }
+            if (iterationsCounter.compareAndSet(iteration, iteration + 1)) {
+                return iteration;
+            }
+        }
+    }
     
     public long getIterationsCounter() {
         return iterationsCounter.get();
@@ -134,7 +298,7 @@ final class ConcurrencyContextImpl {
     }
 
     public int updateDesiredConcurrency(int delta) {
-        return desiredConcurrency.accumulateAndGet(delta, (result, d) -> {
+        int newValue = desiredConcurrency.accumulateAndGet(delta, (result, d) -> {
             result = result + d;
 
             if (result > maxConcurrency) {
@@ -145,6 +309,12 @@ final class ConcurrencyContextImpl {
                 return result;
             }
         });
+
+        if (delta > 0) {
+            signalPermitAvailable(true);
+        }
+
+        return newValue;
     }
 
     public void setDesiredConcurrency(int newValue) {
@@ -155,12 +325,83 @@ final class ConcurrencyContextImpl {
         } else {
             desiredConcurrency.set(newValue);
         }
+
+        signalPermitAvailable(true);
     }
 
     public int getDesiredConcurrency() {
         return desiredConcurrency.get();
     }
 
+    public LoadProfile getLoadProfile() {
+        return loadProfile;
+    }
+
+    /**
+     * Sets concurrency the suite should run at according to its load
+     * profile, which limits desired concurrency without affecting its
+     * automatic adjustment.
+     */
+    public void setProfileConcurrency(int newValue) {
+        int oldValue = profileConcurrency.getAndSet(
+                Math.max(0, Math.min(maxConcurrency, newValue))
+        );
+
+        if (newValue > oldValue) {
+            signalPermitAvailable(true);
+        }
+    }
+
+    public int getProfileConcurrency() {
+        return profileConcurrency.get();
+    }
+
+    public void setProfileStartTimestamp(long profileStartTimestamp) {
+        this.profileStartTimestamp.set(profileStartTimestamp);
+    }
+
+    public long getProfileStartTimestamp() {
+        return profileStartTimestamp.get();
+    }
+
+    /**
+     * Sets concurrency the suite should run at according to its share of
+     * the run-level concurrency budget.
+     */
+    public void setBudgetConcurrency(int newValue) {
+        int oldValue = budgetConcurrency.getAndSet(
+                Math.max(0, Math.min(maxConcurrency, newValue))
+        );
+
+        if (newValue > oldValue) {
+            signalPermitAvailable(true);
+        }
+    }
+
+    public int getBudgetConcurrency() {
+        return budgetConcurrency.get();
+    }
+
+    public int getPermitWaiters() {
+        return permitWaiters.get();
+    }
+
+    /**
+     * @return concurrency the suite is allowed to run at, considering
+     * desired concurrency, the load profile and the concurrency budget
+     */
+    public int getTargetConcurrency() {
+        return Math.min(getUnbudgetedConcurrency(), budgetConcurrency.get());
+    }
+
+    /**
+     * @return concurrency the suite would be allowed to run at without the
+     * concurrency budget
+     */
+    public int getUnbudgetedConcurrency() {
+        return Math.min(desiredConcurrency.get(), profileConcurrency.get());
+    }
+
     public SuiteConfig getSuiteConfig() {
         return suiteConfig;
     }
@@ -189,28 +430,87 @@ final class ConcurrencyContextImpl {
         return nextRecalcTimestamp.get();
     }
 
-    public int updateFailedSuitesCounter(int delta) {
-        return failedSuitesCounter.addAndGet(delta);
+    public ConcurrencyController getConcurrencyController() {
+        return concurrencyController;
     }
 
-    public void setFailedSuitesCounter(int newValue) {
-        failedSuitesCounter.set(newValue);
+    public void recordTransaction(long latency, boolean failed) {
+        periodTransactionLatencies.get().record(latency);
+        if (failed) {
+            periodFailedTransactions.incrementAndGet();
+        } else {
+            periodSuccessfulTransactions.incrementAndGet();
+        }
     }
 
-    public int getFailedSuitesCounter() {
-        return failedSuitesCounter.get();
+    public Duration getConcurrencyStatisticsWindow() {
+        return concurrencyStatisticsWindow;
     }
 
-    public int updateSuccessfulSuitesCounter(int delta) {
-        return successfulSuitesCounter.addAndGet(delta);
+    /**
+     * Starts collecting suite instances statistics over the sliding window,
+     * suite instances finished before are ignored.
+     */
+    public void startStatistics(long timestamp) {
+        suiteInstancesWindow.compareAndSet(
+                null,
+                new SlidingWindowCounterImpl(timestamp, concurrencyStatisticsWindow.toMillis())
+        );
     }
 
-    public void setSuccessfulSuitesCounter(int newValue) {
-        successfulSuitesCounter.set(newValue);
+    public void recordSuiteInstance(long timestamp, boolean failed) {
+        SlidingWindowCounterImpl window = suiteInstancesWindow.get();
+        if (window != null) {
+            window.record(timestamp, failed);
+        }
     }
 
-    public int getSuccessfulSuitesCounter() {
-        return successfulSuitesCounter.get();
+    /**
+     * @return amount of suite instances finished during the sliding window
+     * ending at the timestamp
+     */
+    public long getWindowSuiteInstances(long timestamp) {
+        SlidingWindowCounterImpl window = suiteInstancesWindow.get();
+        if (window == null) {
+            return 0;
+        }
+
+        return window.getSuccesses(timestamp) + window.getFailures(timestamp);
+    }
+
+    public void recordSessionCreationFailure() {
+        periodSessionCreationFailures.incrementAndGet();
+    }
+
+    /**
+     * Collects suite instances statistics over the sliding window ending at
+     * the timestamp, and statistics of transactions finished during the
+     * current recalculation period, starting the next period.
+     */
+    public ConcurrencySnapshot takeSnapshot(long timestamp) {
+        SlidingWindowCounterImpl window = suiteInstancesWindow.get();
+        long successfulSuites = window == null ? 0 : window.getSuccesses(timestamp);
+        long failedSuites = window == null ? 0 : window.getFailures(timestamp);
+        long windowDuration = window == null ? 0 : window.getCoveredDuration(timestamp);
+
+        LatencyHistogramImpl transactionLatencies = periodTransactionLatencies.getAndSet(
+                new LatencyHistogramImpl()
+        );
+
+        return new ConcurrencySnapshot(
+                suiteConfig.getName(),
+                windowDuration,
+                minConcurrency,
+                maxConcurrency,
+                currentConcurrency.get(),
+                desiredConcurrency.get(),
+                successfulSuites,
+                failedSuites,
+                periodSuccessfulTransactions.getAndSet(0),
+                periodFailedTransactions.getAndSet(0),
+                periodSessionCreationFailures.getAndSet(0),
+                transactionLatencies::getValueAtPercentile
+        );
     }
 
 }
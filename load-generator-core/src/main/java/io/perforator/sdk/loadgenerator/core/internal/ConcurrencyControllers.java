@@ -0,0 +1,78 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ConcurrencyControllers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyControllers.class);
+
+    private ConcurrencyControllers() {
+    }
+
+    /**
+     * @return new controller selected by
+     * {@link SuiteConfig#getConcurrencyController()}, or the step one if the
+     * selected controller can't be instantiated
+     */
+    public static ConcurrencyController create(SuiteConfig suiteConfig, double scaleDownMultiplier, double scaleUpMultiplier) {
+        String name = suiteConfig.getConcurrencyController();
+        double targetErrorRate = suiteConfig.getConcurrencyTargetErrorRate();
+
+        if (name == null || name.isBlank()) {
+            return new StepConcurrencyController(targetErrorRate, scaleUpMultiplier, scaleDownMultiplier);
+        }
+
+        switch (name.trim().toLowerCase()) {
+            case "step":
+                return new StepConcurrencyController(targetErrorRate, scaleUpMultiplier, scaleDownMultiplier);
+            case "aimd":
+                return new AimdConcurrencyController(targetErrorRate, scaleUpMultiplier);
+            case "pid":
+                return new PidConcurrencyController(targetErrorRate);
+            case "latency":
+                return new LatencyTargetConcurrencyController(
+                        suiteConfig.getConcurrencyTargetLatency() == null
+                        ? SuiteConfig.DEFAULT_CONCURRENCY_TARGET_LATENCY.toMillis()
+                        : suiteConfig.getConcurrencyTargetLatency().toMillis(),
+                        suiteConfig.getConcurrencyTargetLatencyPercentile(),
+                        targetErrorRate,
+                        scaleUpMultiplier
+                );
+            default:
+                break;
+        }
+
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = ConcurrencyControllers.class.getClassLoader();
+            }
+            Class<?> clazz = Class.forName(name.trim(), true, classLoader);
+            return (ConcurrencyController) clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+            LOGGER.warn(
+                    "Suite '{}' - {}.{} '{}' can't be instantiated - defaulting it to step",
+                    suiteConfig.getName(),
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX,
+                    SuiteConfig.Fields.concurrencyController,
+                    name
+            );
+            LOGGER.debug("Concurrency controller instantiation failed", e);
+            return new StepConcurrencyController(targetErrorRate, scaleUpMultiplier, scaleDownMultiplier);
+        }
+    }
+
+}
@@ -10,8 +10,6 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
-import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,17 +21,17 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
             return;
         }
         
-        List<AnalyticsEvent> events = new ArrayList<>();
+        List<AnalyticsEventRecord> events = new ArrayList<>();
 
         for (SuiteConfigContextImpl suiteConfigContext : loadGeneratorContext.getSuiteConfigContexts()) {
             String suiteName = suiteConfigContext.getSuiteConfig().getName();
-            StatisticsContextImpl statisticsContext = suiteConfigContext.getStatisticsContext();
+            ActiveContextsIndexImpl activeContextsIndex = suiteConfigContext.getActiveContextsIndex();
 
             events.add(
                     createConcurrencyEvent(
                             timestamp,
                             ConcurrencyType.concurrent_top_level_transactions,
-                            statisticsContext.getTopLevelTransactionsInProgress(),
+                            activeContextsIndex.getTopLevelTransactionsCount(),
                             suiteName
                     )
             );
@@ -41,7 +39,7 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
                     createConcurrencyEvent(
                             timestamp,
                             ConcurrencyType.concurrent_nested_transactions,
-                            statisticsContext.getNestedTransactionsInProgress(),
+                            activeContextsIndex.getNestedTransactionsCount(),
                             suiteName
                     )
             );
@@ -49,7 +47,7 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
                     createConcurrencyEvent(
                             timestamp,
                             ConcurrencyType.concurrent_transactions,
-                            statisticsContext.getTransactionsInProgress(),
+                            activeContextsIndex.getTransactionsCount(),
                             suiteName
                     )
             );
@@ -57,19 +55,19 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
                     createConcurrencyEvent(
                             timestamp,
                             ConcurrencyType.concurrent_sessions,
-                            statisticsContext.getSessionsInProgress(),
+                            activeContextsIndex.getSessionsCount(),
                             suiteName
                     )
             );
         }
 
-        StatisticsContextImpl loadGeneratorStatisticsContext = loadGeneratorContext.getStatisticsContext();
+        ActiveContextsIndexImpl loadGeneratorActiveContextsIndex = loadGeneratorContext.getActiveContextsIndex();
         
         events.add(
                 createConcurrencyEvent(
                         timestamp,
                         ConcurrencyType.concurrent_top_level_transactions,
-                        loadGeneratorStatisticsContext.getTopLevelTransactionsInProgress(),
+                        loadGeneratorActiveContextsIndex.getTopLevelTransactionsCount(),
                         null
                 )
         );
@@ -77,7 +75,7 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
                 createConcurrencyEvent(
                         timestamp,
                         ConcurrencyType.concurrent_nested_transactions,
-                        loadGeneratorStatisticsContext.getNestedTransactionsInProgress(),
+                        loadGeneratorActiveContextsIndex.getNestedTransactionsCount(),
                         null
                 )
         );
@@ -85,7 +83,7 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
                 createConcurrencyEvent(
                         timestamp,
                         ConcurrencyType.concurrent_transactions,
-                        loadGeneratorStatisticsContext.getTransactionsInProgress(),
+                        loadGeneratorActiveContextsIndex.getTransactionsCount(),
                         null
                 )
         );
@@ -93,7 +91,7 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
                 createConcurrencyEvent(
                         timestamp,
                         ConcurrencyType.concurrent_sessions,
-                        loadGeneratorStatisticsContext.getSessionsInProgress(),
+                        loadGeneratorActiveContextsIndex.getSessionsCount(),
                         null
                 )
         );
@@ -103,19 +101,18 @@ final class ConcurrencyEventsAggregatorImpl implements ConcurrencyEventsAggregat
         }
     }
 
-    private AnalyticsEvent createConcurrencyEvent(
+    private AnalyticsEventRecord createConcurrencyEvent(
             long timestamp,
             ConcurrencyType concurrencyType,
             long concurrencyValue,
             String suiteName
     ) {
-        AnalyticsEvent eventDto = new AnalyticsEvent();
-        eventDto.setTimestamp(timestamp);
-        eventDto.setConcurrencyType(concurrencyType.name());
-        eventDto.setConcurrencyValue((int) concurrencyValue);
-        eventDto.setEventType(EventType.concurrency.name());
-        eventDto.setSuiteName(suiteName);
-        return eventDto;
+        return AnalyticsEventRecord.concurrency(
+                timestamp,
+                concurrencyType,
+                (int) concurrencyValue,
+                suiteName
+        );
     }
 
     enum ConcurrencyType {
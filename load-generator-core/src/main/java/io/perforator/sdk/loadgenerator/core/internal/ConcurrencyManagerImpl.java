@@ -10,6 +10,9 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+import io.perforator.sdk.loadgenerator.core.configs.LoadProfile;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +20,43 @@ final class ConcurrencyManagerImpl implements ConcurrencyManager<SuiteConfigCont
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyManagerImpl.class);
 
+    @Override
+    public void onLoadGeneratorStarted(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
+        ConcurrencyBudgetImpl concurrencyBudget = loadGeneratorContext.getConcurrencyBudget();
+        if (concurrencyBudget != null) {
+            concurrencyBudget.rebalance();
+        }
+
+        for (SuiteConfigContextImpl suiteConfigContext : loadGeneratorContext.getSuiteConfigContexts()) {
+            ConcurrencyContextImpl concurrencyContext = suiteConfigContext.getConcurrencyContext();
+            concurrencyContext.startStatistics(timestamp);
+
+            LoadProfile loadProfile = concurrencyContext.getLoadProfile();
+            if (loadProfile == null) {
+                continue;
+            }
+
+            SuiteConfig suiteConfig = suiteConfigContext.getSuiteConfig();
+            if (loadProfile.getMaxConcurrency() > concurrencyContext.getMaxConcurrency()) {
+                LOGGER.warn(
+                        "Suite '{}' - {}.{} reaches concurrency {} which is > {}.{}({}) - capping it to {}",
+                        suiteConfig.getName(),
+                        SuiteConfig.DEFAULTS_FIELD_PREFIX,
+                        SuiteConfig.Fields.loadProfile,
+                        loadProfile.getMaxConcurrency(),
+                        SuiteConfig.DEFAULTS_FIELD_PREFIX,
+                        SuiteConfig.Fields.concurrency,
+                        concurrencyContext.getMaxConcurrency(),
+                        concurrencyContext.getMaxConcurrency()
+                );
+            }
+
+            concurrencyContext.setProfileStartTimestamp(
+                    timestamp + suiteConfig.getDelay().toMillis()
+            );
+        }
+    }
+
     @Override
     public void onLoadGeneratorFinished(long timestamp, LoadGeneratorContextImpl loadGeneratorContext, Throwable error) {
         for (SuiteConfigContextImpl suiteConfigContext : loadGeneratorContext.getSuiteConfigContexts()) {
@@ -28,6 +68,8 @@ final class ConcurrencyManagerImpl implements ConcurrencyManager<SuiteConfigCont
     public void onHeartbeat(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
         for (SuiteConfigContextImpl suiteConfigContext : loadGeneratorContext.getSuiteConfigContexts()) {
             ConcurrencyContextImpl concurrencyContext = suiteConfigContext.getConcurrencyContext();
+            followLoadProfile(timestamp, suiteConfigContext);
+
             if (!concurrencyContext.isConcurrencyAutoAdjustmentEnabled()) {
                 continue;
             }
@@ -37,78 +79,106 @@ final class ConcurrencyManagerImpl implements ConcurrencyManager<SuiteConfigCont
             }
 
             long recalcPeriod = concurrencyContext.getConcurrencyRecalcPeriod().toMillis();
-            int successfulSuites = concurrencyContext.getSuccessfulSuitesCounter();
-            int failedSuites = concurrencyContext.getFailedSuitesCounter();
-            int totalSuites = successfulSuites + failedSuites;
-            int recalcThreshold = Math.max(25, concurrencyContext.getMaxConcurrency() / 20);
+            long windowSuites = concurrencyContext.getWindowSuiteInstances(timestamp);
+            int recalcThreshold = Math.max(1, Math.min(25, concurrencyContext.getMaxConcurrency()));
 
-            if (totalSuites < recalcThreshold) {
+            if (windowSuites < recalcThreshold) {
                 continue;
             }
 
-            float failedPercentage = failedSuites * 100f / totalSuites;
-
-            concurrencyContext.updateFailedSuitesCounter(-1 * failedSuites);
-            concurrencyContext.updateSuccessfulSuitesCounter(-1 * successfulSuites);
             concurrencyContext.setNextRecalcTimestamp(timestamp + recalcPeriod);
+            ConcurrencySnapshot snapshot = concurrencyContext.takeSnapshot(timestamp);
+
+            int newDesiredConcurrency;
+            try {
+                newDesiredConcurrency = concurrencyContext.getConcurrencyController().computeDesiredConcurrency(
+                        snapshot
+                );
+            } catch (RuntimeException e) {
+                LOGGER.error(
+                        "Suite '{}' - concurrency controller failed, keeping desired concurrency",
+                        suiteConfigContext.getSuiteConfig().getName(),
+                        e
+                );
+                continue;
+            }
 
-            if (failedPercentage < 5) {
-                int scaleUpAdjustment = Math.max(
-                        1, 
-                        (int)(concurrencyContext.getMaxConcurrency() * concurrencyContext.getConcurrencyScaleUpMultiplier())
+            int oldDesiredConcurrency = concurrencyContext.getDesiredConcurrency();
+            newDesiredConcurrency = concurrencyContext.updateDesiredConcurrency(
+                    newDesiredConcurrency - oldDesiredConcurrency
+            );
+
+            if (newDesiredConcurrency > oldDesiredConcurrency) {
+                LOGGER.info(
+                        "Suite '{}' - increasing desired concurrency from {} to {}",
+                        suiteConfigContext.getSuiteConfig().getName(),
+                        oldDesiredConcurrency,
+                        newDesiredConcurrency
                 );
-                int oldDesiredConcurrency = concurrencyContext.getDesiredConcurrency();
-                int newDesiredConcurrency = concurrencyContext.updateDesiredConcurrency(scaleUpAdjustment);
-
-                if (newDesiredConcurrency > oldDesiredConcurrency) {
-                    LOGGER.info(
-                            "Suite '{}' - increasing desired concurrency from {} to {}",
-                            suiteConfigContext.getSuiteConfig().getName(),
-                            oldDesiredConcurrency,
-                            newDesiredConcurrency
-                    );
-                }
-            } else {
-                int scaleDownAdjustment = Math.max(
-                        1, 
-                        (int)(concurrencyContext.getMaxConcurrency() * concurrencyContext.getConcurrencyScaleDownMultiplier())
+            } else if (newDesiredConcurrency < oldDesiredConcurrency) {
+                LOGGER.warn(
+                        "Suite '{}' - reducing desired concurrency from {} to {} due to {}",
+                        suiteConfigContext.getSuiteConfig().getName(),
+                        oldDesiredConcurrency,
+                        newDesiredConcurrency,
+                        concurrencyContext.getConcurrencyController().getReductionReason(snapshot)
                 );
-                int oldDesiredConcurrency = concurrencyContext.getDesiredConcurrency();
-                int newDesiredConcurrency = concurrencyContext.updateDesiredConcurrency(-1 * scaleDownAdjustment);
-
-                if (newDesiredConcurrency < oldDesiredConcurrency) {
-                    LOGGER.warn(
-                            "Suite '{}' - reducing desired concurrency from {} to {} due to {} suite fails out of {} recent",
-                            suiteConfigContext.getSuiteConfig().getName(),
-                            oldDesiredConcurrency,
-                            newDesiredConcurrency,
-                            failedSuites,
-                            totalSuites
-                    );
-                }
             }
         }
+
+        ConcurrencyBudgetImpl concurrencyBudget = loadGeneratorContext.getConcurrencyBudget();
+        if (concurrencyBudget != null) {
+            concurrencyBudget.rebalance();
+        }
     }
 
-    @Override
-    public void onSuiteInstanceStarted(long timestamp, SuiteInstanceContextImpl suiteContext) {
-        suiteContext.getSuiteConfigContext().getConcurrencyContext().updateCurrentConcurrency(1);
+    private static void followLoadProfile(long timestamp, SuiteConfigContextImpl suiteConfigContext) {
+        ConcurrencyContextImpl concurrencyContext = suiteConfigContext.getConcurrencyContext();
+        LoadProfile loadProfile = concurrencyContext.getLoadProfile();
+        if (loadProfile == null) {
+            return;
+        }
+
+        int oldProfileConcurrency = concurrencyContext.getProfileConcurrency();
+        concurrencyContext.setProfileConcurrency(
+                loadProfile.getConcurrency(
+                        timestamp - concurrencyContext.getProfileStartTimestamp()
+                )
+        );
+        int newProfileConcurrency = concurrencyContext.getProfileConcurrency();
+
+        if (newProfileConcurrency != oldProfileConcurrency && LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                    "Suite '{}' - load profile changes concurrency from {} to {}",
+                    suiteConfigContext.getSuiteConfig().getName(),
+                    oldProfileConcurrency,
+                    newProfileConcurrency
+            );
+        }
     }
 
     @Override
     public void onSuiteInstanceFinished(long timestamp, SuiteInstanceContextImpl suiteContext, Throwable error) {
         ConcurrencyContextImpl concurrencyContext = suiteContext.getSuiteConfigContext().getConcurrencyContext();
 
-        concurrencyContext.updateCurrentConcurrency(-1);
+        concurrencyContext.releasePermit();
 
         if (!concurrencyContext.isConcurrencyAutoAdjustmentEnabled()) {
             return;
         }
 
-        if (error == null) {
-            concurrencyContext.updateSuccessfulSuitesCounter(1);
-        } else {
-            concurrencyContext.updateFailedSuitesCounter(1);
+        concurrencyContext.recordSuiteInstance(timestamp, error != null);
+    }
+
+    @Override
+    public void onTransactionFinished(long timestamp, TransactionContextImpl context, Throwable error) {
+        ConcurrencyContextImpl concurrencyContext = context.getSuiteContext().getSuiteConfigContext().getConcurrencyContext();
+
+        if (concurrencyContext.isConcurrencyAutoAdjustmentEnabled()) {
+            concurrencyContext.recordTransaction(
+                    timestamp - context.getStartedAt(),
+                    error != null
+            );
         }
     }
 
@@ -124,7 +194,7 @@ final class ConcurrencyManagerImpl implements ConcurrencyManager<SuiteConfigCont
 
     @Override
     public int getDesiredConcurrency(SuiteConfigContextImpl suiteConfigContext) {
-        return suiteConfigContext.getConcurrencyContext().getDesiredConcurrency();
+        return suiteConfigContext.getConcurrencyContext().getTargetConcurrency();
     }
 
     @Override
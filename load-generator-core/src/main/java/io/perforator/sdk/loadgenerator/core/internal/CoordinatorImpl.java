@@ -0,0 +1,370 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.perforator.sdk.loadgenerator.core.AgentLauncher;
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.service.CoordinatorService;
+import io.perforator.sdk.loadgenerator.core.service.StatisticsService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coordinator of a distributed run accepting statistics of agents it
+ * launches.
+ * <br>
+ * Statistics are accepted only on the configured coordinator address, or
+ * on loopback interface when it isn't specified, from connections
+ * presenting the coordinator token, while every connection is served by a
+ * thread of a pool bounded by the amount of agents.
+ */
+final class CoordinatorImpl implements CoordinatorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoordinatorImpl.class);
+    private static final Gson GSON = new Gson();
+    private static final String PROPERTY_PREFIX = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + ".";
+    private static final int TOKEN_SIZE = 32;
+    private static final int CONNECTION_BACKLOG = 50;
+    private static final int CONNECTIONS_PER_AGENT = 2;
+    private static final int READ_TIMEOUT_HEARTBEATS = 10;
+    private static final long REPORTS_TIMEOUT = 10000;
+
+    private final LoadGeneratorConfig loadGeneratorConfig;
+    private final String coordinatorToken;
+    private final AgentLauncher agentLauncher;
+    private final MediatingIntegrationServiceImpl mediator;
+    private final Map<String, Map<String, Long>> agentCounters = new ConcurrentHashMap<>();
+    private final List<Process> agents = new ArrayList<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    CoordinatorImpl(LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs, AgentLauncher agentLauncher) {
+        this.loadGeneratorConfig = loadGeneratorConfig;
+        this.agentLauncher = agentLauncher;
+        this.coordinatorToken = buildCoordinatorToken(loadGeneratorConfig);
+        this.mediator = new MediatingIntegrationServiceImpl(
+                loadGeneratorConfig.toBuilder()
+                        .coordinatorAddress(null)
+                        .coordinatorToken(null)
+                        .agentIndex(0)
+                        .agentsCount(1)
+                        .build(),
+                suiteConfigs,
+                this::cancel
+        );
+    }
+
+    @Override
+    public StatisticsService getStatisticsService() {
+        return mediator;
+    }
+
+    @Override
+    public void run() {
+        if (started.getAndSet(true)) {
+            throw new RuntimeException(
+                    "Can't run the same coordinator multiple times"
+            );
+        }
+
+        ThreadPoolExecutor readers = new ThreadPoolExecutor(
+                0,
+                loadGeneratorConfig.getAgentsCount() * CONNECTIONS_PER_AGENT,
+                1,
+                TimeUnit.MINUTES,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread reader = new Thread(runnable, "perforator-coordinator-reader");
+                    reader.setDaemon(true);
+                    return reader;
+                }
+        );
+
+        try (ServerSocket serverSocket = openServerSocket()) {
+            String coordinatorAddress = buildCoordinatorAddress(serverSocket);
+            Thread acceptor = new Thread(() -> acceptAgents(serverSocket, readers), "perforator-coordinator");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            mediator.onLoadGeneratorStarted();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::cancel));
+
+            Throwable error = null;
+            int failedAgents = 0;
+            try {
+                launchAgents(coordinatorAddress);
+                failedAgents = awaitAgents();
+                awaitReports(readers);
+            } catch (RuntimeException e) {
+                error = e;
+                cancel();
+                throw e;
+            } finally {
+                mediator.onLoadGeneratorFinished(error);
+            }
+
+            if (failedAgents > 0) {
+                throw new RuntimeException(
+                        "There are " + failedAgents + " failed agents"
+                );
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Can't start coordinator", e);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private static String buildCoordinatorToken(LoadGeneratorConfig loadGeneratorConfig) {
+        String coordinatorToken = loadGeneratorConfig.getCoordinatorToken();
+        if (coordinatorToken != null && !coordinatorToken.isBlank()) {
+            return coordinatorToken;
+        }
+
+        byte[] token = new byte[TOKEN_SIZE];
+        new SecureRandom().nextBytes(token);
+        return HexFormat.of().formatHex(token);
+    }
+
+    private ServerSocket openServerSocket() throws IOException {
+        String coordinatorAddress = loadGeneratorConfig.getCoordinatorAddress();
+        if (coordinatorAddress == null || coordinatorAddress.isBlank()) {
+            return new ServerSocket(0, CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+        }
+
+        int separator = coordinatorAddress.lastIndexOf(':');
+        ServerSocket serverSocket = new ServerSocket();
+        try {
+            serverSocket.bind(
+                    new InetSocketAddress(
+                            coordinatorAddress.substring(0, separator),
+                            Integer.parseInt(coordinatorAddress.substring(separator + 1))
+                    ),
+                    CONNECTION_BACKLOG
+            );
+        } catch (IOException | RuntimeException e) {
+            serverSocket.close();
+            throw e;
+        }
+
+        return serverSocket;
+    }
+
+    private String buildCoordinatorAddress(ServerSocket serverSocket) {
+        String coordinatorAddress = loadGeneratorConfig.getCoordinatorAddress();
+        if (coordinatorAddress == null || coordinatorAddress.isBlank()) {
+            return InetAddress.getLoopbackAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+        }
+
+        return coordinatorAddress.substring(0, coordinatorAddress.lastIndexOf(':'))
+                + ":" + serverSocket.getLocalPort();
+    }
+
+    private void launchAgents(String coordinatorAddress) {
+        BrowserCloudContextImpl browserCloudContext = mediator.getLoadGeneratorContext().getBrowserCloudContext();
+
+        for (int i = 0; i < loadGeneratorConfig.getAgentsCount(); i++) {
+            Map<String, String> agentProperties = new LinkedHashMap<>();
+            agentProperties.put(PROPERTY_PREFIX + LoadGeneratorConfig.Fields.coordinatorAddress, coordinatorAddress);
+            agentProperties.put(PROPERTY_PREFIX + LoadGeneratorConfig.Fields.coordinatorToken, coordinatorToken);
+            agentProperties.put(PROPERTY_PREFIX + LoadGeneratorConfig.Fields.agentIndex, String.valueOf(i));
+            agentProperties.put(PROPERTY_PREFIX + LoadGeneratorConfig.Fields.agentsCount, String.valueOf(loadGeneratorConfig.getAgentsCount()));
+
+            if (browserCloudContext != null && browserCloudContext.getBrowserCloudKey() != null) {
+                agentProperties.put(PROPERTY_PREFIX + LoadGeneratorConfig.Fields.executionKey, browserCloudContext.getExecutionKey());
+                agentProperties.put(PROPERTY_PREFIX + LoadGeneratorConfig.Fields.browserCloudKey, browserCloudContext.getBrowserCloudKey());
+            }
+
+            synchronized (agents) {
+                if (cancelled.get()) {
+                    throw new RuntimeException("Coordinator is cancelled");
+                }
+
+                try {
+                    agents.add(agentLauncher.launch(i, agentProperties));
+                } catch (IOException e) {
+                    throw new RuntimeException("Can't launch agent " + i, e);
+                }
+            }
+
+            LOGGER.info("Agent {} of {} is launched", i, loadGeneratorConfig.getAgentsCount());
+        }
+    }
+
+    private int awaitAgents() {
+        int failedAgents = 0;
+
+        for (int i = 0; i < agents.size(); i++) {
+            int exitCode;
+            try {
+                exitCode = agents.get(i).waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Coordinator is interrupted", e);
+            }
+
+            if (exitCode != 0) {
+                LOGGER.error("Agent {} is finished with exit code {}", i, exitCode);
+                failedAgents++;
+            }
+        }
+
+        return failedAgents;
+    }
+
+    private static void awaitReports(ThreadPoolExecutor readers) {
+        readers.shutdown();
+
+        try {
+            if (!readers.awaitTermination(REPORTS_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Not all reports of agents are received in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Coordinator is interrupted", e);
+        }
+    }
+
+    private void cancel() {
+        if (cancelled.getAndSet(true)) {
+            return;
+        }
+
+        synchronized (agents) {
+            for (Process agent : agents) {
+                agent.destroy();
+            }
+        }
+    }
+
+    private void acceptAgents(ServerSocket serverSocket, ThreadPoolExecutor readers) {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.debug("Can't accept agent connection", e);
+                }
+                continue;
+            }
+
+            try {
+                readers.execute(() -> readReports(socket));
+            } catch (RejectedExecutionException e) {
+                if (!readers.isShutdown()) {
+                    LOGGER.warn(
+                            "Too many agent connections - rejecting connection from {}",
+                            socket.getRemoteSocketAddress()
+                    );
+                }
+                close(socket);
+            }
+        }
+    }
+
+    private void readReports(Socket socket) {
+        try (socket; BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+        )) {
+            socket.setSoTimeout(
+                    (int) Math.min(
+                            Integer.MAX_VALUE,
+                            loadGeneratorConfig.getEventsFlushInterval().toMillis() * READ_TIMEOUT_HEARTBEATS
+                    )
+            );
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AgentStatisticsReport report;
+                try {
+                    report = GSON.fromJson(line, AgentStatisticsReport.class);
+                } catch (JsonParseException e) {
+                    LOGGER.warn("Can't parse agent report {}", line);
+                    continue;
+                }
+
+                if (report == null || !isAuthorized(report.getToken())) {
+                    LOGGER.warn(
+                            "Agent connection from {} is rejected due to invalid {}",
+                            socket.getRemoteSocketAddress(),
+                            LoadGeneratorConfig.Fields.coordinatorToken
+                    );
+                    return;
+                }
+
+                if (report.getAgentID() == null || report.getCounters() == null) {
+                    continue;
+                }
+
+                agentCounters.put(report.getAgentID(), report.getCounters());
+                mergeCounters();
+            }
+        } catch (SocketTimeoutException e) {
+            LOGGER.warn("Agent connection from {} is idle for too long", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            LOGGER.debug("Agent connection is closed", e);
+        }
+    }
+
+    private boolean isAuthorized(String token) {
+        return token != null && MessageDigest.isEqual(
+                coordinatorToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.debug("Can't close agent connection", e);
+        }
+    }
+
+    private synchronized void mergeCounters() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map<String, Long> counters : agentCounters.values()) {
+            counters.forEach((name, value) -> {
+                if (value != null) {
+                    result.merge(name, value, Long::sum);
+                }
+            });
+        }
+        mediator.getLoadGeneratorContext().getStatisticsContext().setCounters(result);
+    }
+
+}
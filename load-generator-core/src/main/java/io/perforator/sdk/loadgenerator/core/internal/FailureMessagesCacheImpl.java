@@ -0,0 +1,192 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of rendered failure messages.
+ * <br>
+ * Failures are fingerprinted by exception class, the first line of its
+ * message and top stack frames, so thousands of transactions failing the
+ * same way share a single rendered stack trace instead of printing it again
+ * for every event. Only the first line of every message is rendered, since
+ * the rest of it, like session details of Selenium exceptions, is not
+ * covered by the fingerprint and would leak from one failure to another.
+ */
+final class FailureMessagesCacheImpl {
+
+    static final int FINGERPRINT_FRAMES = 8;
+
+    private final int maxDepth;
+    private final int maxLength;
+    private final Map<FailureFingerprint, String> cache;
+
+    FailureMessagesCacheImpl(int maxEntries, int maxDepth, int maxLength) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries should be > 0");
+        }
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("maxDepth should be > 0");
+        }
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength should be > 0");
+        }
+
+        this.maxDepth = maxDepth;
+        this.maxLength = maxLength;
+        this.cache = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<FailureFingerprint, String> eldest) {
+                        return size() > maxEntries;
+                    }
+                }
+        );
+    }
+
+    public String getFailureMessage(Throwable error) {
+        if (error == null) {
+            return null;
+        }
+
+        FailureFingerprint fingerprint = new FailureFingerprint(error);
+        String result = cache.get(fingerprint);
+
+        if (result == null) {
+            result = render(error);
+            cache.put(fingerprint, result);
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private String render(Throwable error) {
+        StringBuilder result = new StringBuilder();
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        StackTraceElement[] enclosingTrace = null;
+        Throwable current = error;
+
+        while (current != null && visited.add(current) && result.length() < maxLength) {
+            if (enclosingTrace != null) {
+                result.append("\nCaused by: ");
+            }
+            result.append(current.getClass().getName());
+            String message = firstLine(current.getLocalizedMessage());
+            if (message != null) {
+                result.append(": ").append(message);
+            }
+
+            StackTraceElement[] trace = current.getStackTrace();
+            int framesInCommon = enclosingTrace == null ? 0 : countFramesInCommon(trace, enclosingTrace);
+            int framesToRender = Math.min(trace.length - framesInCommon, maxDepth);
+
+            for (int i = 0; i < framesToRender; i++) {
+                result.append("\n\tat ").append(trace[i]);
+            }
+
+            int framesSkipped = trace.length - framesToRender;
+            if (framesSkipped > 0) {
+                result.append("\n\t... ").append(framesSkipped).append(" more");
+            }
+
+            enclosingTrace = trace;
+            current = current.getCause();
+        }
+
+        if (result.length() > maxLength) {
+            result.setLength(maxLength);
+        }
+
+        return result.toString().trim();
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return null;
+        }
+
+        int lineBreak = message.indexOf('\n');
+        return lineBreak < 0 ? message : message.substring(0, lineBreak);
+    }
+
+    private static int countFramesInCommon(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+        int m = trace.length - 1;
+        int n = enclosingTrace.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+            m--;
+            n--;
+        }
+        return trace.length - 1 - m;
+    }
+
+    private static final class FailureFingerprint {
+
+        private final Class<?> errorClass;
+        private final String message;
+        private final StackTraceElement[] topFrames;
+        private final FailureFingerprint cause;
+        private final int hash;
+
+        FailureFingerprint(Throwable error) {
+            this(error, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+
+        private FailureFingerprint(Throwable error, Set<Throwable> visited) {
+            visited.add(error);
+
+            StackTraceElement[] trace = error.getStackTrace();
+            this.errorClass = error.getClass();
+            this.message = firstLine(error.getLocalizedMessage());
+            this.topFrames = Arrays.copyOf(trace, Math.min(trace.length, FINGERPRINT_FRAMES));
+            this.cause = error.getCause() == null || visited.contains(error.getCause())
+                    ? null
+                    : new FailureFingerprint(error.getCause(), visited);
+            this.hash = Objects.hash(errorClass, message, Arrays.hashCode(topFrames), cause);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            final FailureFingerprint other = (FailureFingerprint) obj;
+            return hash == other.hash
+                    && errorClass == other.errorClass
+                    && Objects.equals(message, other.message)
+                    && Arrays.equals(topFrames, other.topFrames)
+                    && Objects.equals(cause, other.cause);
+        }
+
+    }
+
+}
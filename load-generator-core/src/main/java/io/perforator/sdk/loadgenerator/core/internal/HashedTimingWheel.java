@@ -0,0 +1,165 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel of periodic timeouts.
+ * <br>
+ * Timeouts are placed into buckets by their deadline, so every
+ * {@link #advance(long, Consumer)} only visits buckets of elapsed ticks instead of
+ * all scheduled items. Expired timeouts are rescheduled one period ahead
+ * until they are cancelled.
+ * <br>
+ * {@link #schedule(Object, long)} and {@link Timeout#cancel()} can be called
+ * from any thread, while {@link #advance(long, Consumer)} should always be called from
+ * the same single thread.
+ */
+final class HashedTimingWheel<T> {
+
+    private final long startedAt;
+    private final long tickDuration;
+    private final long period;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private long lastTick = -1;
+
+    HashedTimingWheel(long startedAt, long tickDuration, long period) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration should be > 0");
+        }
+        if (period < tickDuration) {
+            throw new IllegalArgumentException("period should be >= tickDuration");
+        }
+
+        int wheelSize = Integer.highestOneBit((int) Math.min(period / tickDuration, 1 << 16)) << 2;
+
+        this.startedAt = startedAt;
+        this.tickDuration = tickDuration;
+        this.period = period;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    public Timeout<T> schedule(T item, long deadline) {
+        Timeout<T> timeout = new Timeout<>(item, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel up to the specified timestamp and passes items with
+     * expired timeouts to the consumer.
+     *
+     * @return amount of expired timeouts
+     */
+    public int advance(long timestamp, Consumer<T> consumer) {
+        long currentTick = toTick(timestamp);
+        if (currentTick <= lastTick) {
+            return 0;
+        }
+
+        long fromTick = Math.max(lastTick + 1, currentTick - mask);
+        transferPendingTimeouts(currentTick);
+
+        int expired = 0;
+        List<Timeout<T>> rescheduled = new ArrayList<>();
+
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            Iterator<Timeout<T>> iterator = buckets[(int) (tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout<T> timeout = iterator.next();
+
+                if (timeout.cancelled) {
+                    iterator.remove();
+                    continue;
+                }
+
+                if (timeout.deadline > timestamp) {
+                    continue;
+                }
+
+                iterator.remove();
+                consumer.accept(timeout.item);
+                expired++;
+
+                timeout.deadline += period;
+                if (timeout.deadline <= timestamp) {
+                    timeout.deadline = timestamp + period;
+                }
+                rescheduled.add(timeout);
+            }
+        }
+
+        for (Timeout<T> timeout : rescheduled) {
+            buckets[(int) (toDeadlineTick(timeout.deadline) & mask)].add(timeout);
+        }
+
+        lastTick = currentTick;
+        return expired;
+    }
+
+    private void transferPendingTimeouts(long currentTick) {
+        Timeout<T> timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+
+            long tick = Math.max(toDeadlineTick(timeout.deadline), currentTick - mask);
+            if (tick <= lastTick) {
+                tick = currentTick;
+            }
+            buckets[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    private long toTick(long timestamp) {
+        return Math.max(0, timestamp - startedAt) / tickDuration;
+    }
+
+    /**
+     * @return the first tick which starts at or after the deadline, so the
+     * timeout is expired whenever its bucket is visited
+     */
+    private long toDeadlineTick(long deadline) {
+        return (Math.max(0, deadline - startedAt) + tickDuration - 1) / tickDuration;
+    }
+
+    static final class Timeout<T> {
+
+        private final T item;
+        private volatile boolean cancelled;
+        private long deadline;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+    }
+
+}
@@ -10,25 +10,21 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 final class HeartbeatManagerImpl implements HeartbeatManager {
 
     private final TimeProvider timeProvider;
     private final EventsRouter eventsRouter;
-    private final Timer heartbeatTimer;
+    private TimeProvider.ScheduledTask heartbeatTask;
 
     public HeartbeatManagerImpl(TimeProvider timeProvider, EventsRouter eventsRouter) {
         this.timeProvider = timeProvider;
         this.eventsRouter = eventsRouter;
-        this.heartbeatTimer = new Timer();
     }
 
     @Override
     public void onLoadGeneratorStarted(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
         long delay = loadGeneratorContext.getLoadGeneratorConfig().getEventsFlushInterval().toMillis();
-        heartbeatTimer.schedule(
+        heartbeatTask = timeProvider.schedule(
                 new HeartbeatTask(loadGeneratorContext),
                 delay,
                 delay
@@ -37,10 +33,13 @@ final class HeartbeatManagerImpl implements HeartbeatManager {
 
     @Override
     public void onLoadGeneratorFinished(long timestamp, LoadGeneratorContextImpl loadGeneratorContext, Throwable error) {
-        heartbeatTimer.cancel();
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel();
+            heartbeatTask = null;
+        }
     }
 
-    private class HeartbeatTask extends TimerTask {
+    private class HeartbeatTask implements Runnable {
 
         private final LoadGeneratorContextImpl loadGeneratorContext;
 
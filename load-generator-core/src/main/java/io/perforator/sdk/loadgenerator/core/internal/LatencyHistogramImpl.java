@@ -0,0 +1,161 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of latencies in milliseconds.
+ * <br>
+ * Values below {@link #SUB_BUCKET_COUNT} are counted exactly, while bigger
+ * ones are placed into power of two buckets split into
+ * {@link #SUB_BUCKET_HALF_COUNT} linear sub-buckets, so any recorded value
+ * is reported with less than 2% error using a fixed amount of memory.
+ */
+final class LatencyHistogramImpl {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_SHIFT = 34;
+    private static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BUCKET_BITS)) - 1;
+    private static final int MAX_CORRECTIONS = 1_000_000;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong(0);
+    private final AtomicLong totalSum = new AtomicLong(0);
+    private final AtomicLong maxValue = new AtomicLong(0);
+
+    LatencyHistogramImpl() {
+        this.counts = new AtomicLongArray(SUB_BUCKET_COUNT + MAX_SHIFT * SUB_BUCKET_HALF_COUNT);
+    }
+
+    public void record(long value) {
+        long normalized = Math.max(0, Math.min(MAX_VALUE, value));
+
+        counts.incrementAndGet(toIndex(normalized));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(normalized);
+        maxValue.accumulateAndGet(normalized, Math::max);
+    }
+
+    /**
+     * Records the value and back-fills values for requests which should have
+     * been issued every expectedInterval while the recorded one was in
+     * progress, the same way HdrHistogram corrects coordinated omission.
+     * <br>
+     * Back-filled values form an arithmetic progression, so they are added
+     * to every bucket they fall into at once rather than one by one.
+     */
+    public void recordWithExpectedInterval(long value, long expectedInterval) {
+        record(value);
+
+        if (expectedInterval <= 0) {
+            return;
+        }
+
+        long normalized = Math.max(0, Math.min(MAX_VALUE, value));
+        long missingCount = Math.min(MAX_CORRECTIONS, normalized / expectedInterval - 1);
+        if (missingCount <= 0) {
+            return;
+        }
+
+        long highestMissingValue = normalized - expectedInterval;
+        long lowestMissingValue = normalized - missingCount * expectedInterval;
+        int highestIndex = toIndex(highestMissingValue);
+        for (int index = toIndex(lowestMissingValue); index <= highestIndex; index++) {
+            long from = Math.max(lowestMissingValue, toLowestEquivalentValue(index));
+            long to = Math.min(highestMissingValue, toHighestEquivalentValue(index));
+            long count = (highestMissingValue - from) / expectedInterval
+                    - (highestMissingValue - to + expectedInterval - 1) / expectedInterval
+                    + 1;
+            if (count > 0) {
+                counts.addAndGet(index, count);
+            }
+        }
+
+        totalCount.addAndGet(missingCount);
+        totalSum.addAndGet(
+                missingCount * highestMissingValue
+                - expectedInterval * (missingCount * (missingCount - 1) / 2)
+        );
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalSum.get() / count;
+    }
+
+    /**
+     * @param percentile percentile in the range from 0 to 100
+     * @return the highest value which is equivalent to the one at the
+     * specified percentile, or -1 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return -1;
+        }
+
+        double normalized = Math.max(0, Math.min(100, percentile));
+        long countAtPercentile = Math.max(1, (long) Math.ceil(normalized / 100 * count));
+
+        long runningCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            runningCount += counts.get(i);
+            if (runningCount >= countAtPercentile) {
+                return Math.min(maxValue.get(), toHighestEquivalentValue(i));
+            }
+        }
+
+        return maxValue.get();
+    }
+
+    private static int toIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    private static long toLowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return subBucket << shift;
+    }
+
+    private static long toHighestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+import java.math.BigDecimal;
+
+/**
+ * Keeps latency of transactions at the percentile below the target.
+ * <br>
+ * Concurrency grows by a fixed step while the latency is within the target
+ * and the failure rate is below its target, otherwise it's reduced
+ * proportionally to how much the target latency is exceeded, but no more
+ * than by half at once.
+ */
+final class LatencyTargetConcurrencyController implements ConcurrencyController {
+
+    private static final double MAX_DECREASE_FACTOR = 0.5;
+
+    private final long targetLatency;
+    private final double percentile;
+    private final double targetErrorRate;
+    private final double scaleUpMultiplier;
+
+    LatencyTargetConcurrencyController(long targetLatency, double percentile, double targetErrorRate, double scaleUpMultiplier) {
+        this.targetLatency = targetLatency;
+        this.percentile = percentile;
+        this.targetErrorRate = targetErrorRate;
+        this.scaleUpMultiplier = scaleUpMultiplier;
+    }
+
+    @Override
+    public int computeDesiredConcurrency(ConcurrencySnapshot snapshot) {
+        long latency = snapshot.getTransactionLatency(percentile);
+        if (latency < 0) {
+            return snapshot.getDesiredConcurrency();
+        }
+
+        if (latency <= targetLatency && snapshot.getFailureRate() < targetErrorRate) {
+            return snapshot.getDesiredConcurrency() + Math.max(
+                    1,
+                    (int) (snapshot.getMaxConcurrency() * scaleUpMultiplier)
+            );
+        }
+
+        double factor = latency > targetLatency ? (double) targetLatency / latency : MAX_DECREASE_FACTOR;
+        return (int) (snapshot.getDesiredConcurrency() * Math.max(MAX_DECREASE_FACTOR, Math.min(1, factor)));
+    }
+
+    @Override
+    public String getReductionReason(ConcurrencySnapshot snapshot) {
+        long latency = snapshot.getTransactionLatency(percentile);
+        if (latency <= targetLatency) {
+            return ConcurrencyController.super.getReductionReason(snapshot);
+        }
+
+        return String.format(
+                "p%s transactions latency %dms above target %dms",
+                BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                latency,
+                targetLatency
+        );
+    }
+
+}
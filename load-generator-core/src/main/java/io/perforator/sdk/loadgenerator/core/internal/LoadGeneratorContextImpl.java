@@ -10,8 +10,8 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import io.perforator.sdk.api.okhttpgson.AnalyticsEventsSender;
 import io.perforator.sdk.api.okhttpgson.ApiClientParams;
-import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
 import io.perforator.sdk.api.okhttpgson.operations.*;
 import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
@@ -20,18 +20,22 @@ import org.asynchttpclient.AsyncHttpClient;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
 
 final class LoadGeneratorContextImpl {
 
     private final long startedAt;
     private final LoadGeneratorConfig loadGeneratorConfig;
     private final List<SuiteConfigContextImpl> suiteConfigContexts;
-    private final Queue<List<AnalyticsEvent>> eventsBuffer;
+    private final AnalyticsEventsDictionaryImpl eventsDictionary;
+    private final AnalyticsEventsBufferImpl eventsBuffer;
+    private final AnalyticsEventsRetryQueueImpl eventsRetryQueue;
     private final StatisticsContextImpl statisticsContext;
+    private final ActiveContextsIndexImpl activeContextsIndex;
     private final AtomicBoolean isLocalOnly = new AtomicBoolean(true);
+    private final ConcurrencyBudgetImpl concurrencyBudget;
+    private final SessionRateLimiterImpl sessionRateLimiter;
 
     private AsyncHttpClient httpClient;
     private ApiClientParams apiClientParams;
@@ -39,14 +43,34 @@ final class LoadGeneratorContextImpl {
     private ProjectsApi projectsApi;
     private ExecutionsApi executionsApi;
     private BrowserCloudsApi browserCloudsApi;
+    private AnalyticsEventsSender analyticsEventsSender;
+    private AnalyticsEventsCircuitBreakerImpl eventsCircuitBreaker;
     private BrowserCloudContextImpl browserCloudContext;
     private AtomicBoolean isFinished = new AtomicBoolean(false);
 
     LoadGeneratorContextImpl(long startedAt, LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs) {
+        this(startedAt, loadGeneratorConfig, suiteConfigs, System::currentTimeMillis);
+    }
+
+    LoadGeneratorContextImpl(TimeProvider timeProvider, LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs) {
+        this(timeProvider.getCurrentTime(), loadGeneratorConfig, suiteConfigs, timeProvider::getCurrentTime);
+    }
+
+    private LoadGeneratorContextImpl(long startedAt, LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs, LongSupplier clock) {
         this.startedAt = startedAt;
         this.loadGeneratorConfig = loadGeneratorConfig;
-        this.eventsBuffer = new ConcurrentLinkedQueue<>();
+        this.eventsDictionary = new AnalyticsEventsDictionaryImpl();
+        this.eventsBuffer = new AnalyticsEventsBufferImpl(
+                loadGeneratorConfig.getEventsBufferCapacity(),
+                loadGeneratorConfig.getEventsSpillDirectory(),
+                eventsDictionary,
+                clock
+        );
+        this.eventsRetryQueue = new AnalyticsEventsRetryQueueImpl(
+                Math.max(1, loadGeneratorConfig.getEventsFlushMaxAttempts())
+        );
         this.statisticsContext = new StatisticsContextImpl();
+        this.activeContextsIndex = new ActiveContextsIndexImpl();
         this.suiteConfigContexts = new ArrayList<>();
         for (SuiteConfig suiteConfig: suiteConfigs){
             this.suiteConfigContexts.add(
@@ -56,6 +80,58 @@ final class LoadGeneratorContextImpl {
                 isLocalOnly.set(false);
             }
         }
+        this.concurrencyBudget = buildConcurrencyBudget(
+                loadGeneratorConfig,
+                suiteConfigContexts
+        );
+        this.sessionRateLimiter = buildSessionRateLimiter(loadGeneratorConfig);
+    }
+
+    private static SessionRateLimiterImpl buildSessionRateLimiter(LoadGeneratorConfig loadGeneratorConfig) {
+        double rate = loadGeneratorConfig.getWebDriverSessionRate();
+        if (rate <= 0) {
+            return null;
+        }
+
+        int agentsCount = Math.max(1, loadGeneratorConfig.getAgentsCount());
+        return new SessionRateLimiterImpl(
+                rate / agentsCount,
+                Math.max(1, loadGeneratorConfig.getWebDriverSessionBurst() / agentsCount)
+        );
+    }
+
+    private static ConcurrencyBudgetImpl buildConcurrencyBudget(LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfigContextImpl> suiteConfigContexts) {
+        int budget = loadGeneratorConfig.getConcurrencyBudget();
+        if (budget <= 0) {
+            return null;
+        }
+
+        int agentsCount = Math.max(1, loadGeneratorConfig.getAgentsCount());
+        int agentBudget = budget / agentsCount;
+        if (loadGeneratorConfig.getAgentIndex() < budget % agentsCount) {
+            agentBudget++;
+        }
+
+        return new ConcurrencyBudgetImpl(
+                Math.max(1, agentBudget),
+                suiteConfigContexts
+        );
+    }
+
+    /**
+     * @return run-level concurrency budget shared by suites, or null if
+     * concurrency of suites isn't limited
+     */
+    public ConcurrencyBudgetImpl getConcurrencyBudget() {
+        return concurrencyBudget;
+    }
+
+    /**
+     * @return rate limiter of requests creating new browser sessions, or
+     * null if such requests aren't limited
+     */
+    public SessionRateLimiterImpl getSessionRateLimiter() {
+        return sessionRateLimiter;
     }
 
     public SuiteConfigContextImpl getSuiteConfigContext(SuiteConfig suiteConfig) {
@@ -79,14 +155,34 @@ final class LoadGeneratorContextImpl {
         return suiteConfigContexts;
     }
 
-    public Queue<List<AnalyticsEvent>> getEventsBuffer() {
+    public AnalyticsEventsDictionaryImpl getEventsDictionary() {
+        return eventsDictionary;
+    }
+
+    public AnalyticsEventsBufferImpl getEventsBuffer() {
         return eventsBuffer;
     }
 
+    public AnalyticsEventsRetryQueueImpl getEventsRetryQueue() {
+        return eventsRetryQueue;
+    }
+
+    public AnalyticsEventsCircuitBreakerImpl getEventsCircuitBreaker() {
+        return eventsCircuitBreaker;
+    }
+
+    public void setEventsCircuitBreaker(AnalyticsEventsCircuitBreakerImpl eventsCircuitBreaker) {
+        this.eventsCircuitBreaker = eventsCircuitBreaker;
+    }
+
     public StatisticsContextImpl getStatisticsContext() {
         return statisticsContext;
     }
 
+    public ActiveContextsIndexImpl getActiveContextsIndex() {
+        return activeContextsIndex;
+    }
+
     public AsyncHttpClient getAsyncHttpClient() {
         return httpClient;
     }
@@ -127,6 +223,14 @@ final class LoadGeneratorContextImpl {
         this.browserCloudsApi = browserCloudsApi;
     }
 
+    public AnalyticsEventsSender getAnalyticsEventsSender() {
+        return analyticsEventsSender;
+    }
+
+    public void setAnalyticsEventsSender(AnalyticsEventsSender analyticsEventsSender) {
+        this.analyticsEventsSender = analyticsEventsSender;
+    }
+
     public BrowserCloudContextImpl getBrowserCloudContext() {
         return browserCloudContext;
     }
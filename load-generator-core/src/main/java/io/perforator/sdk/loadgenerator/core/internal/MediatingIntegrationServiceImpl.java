@@ -38,7 +38,9 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
     private final LoggingContextManager loggingContextManager;
     private final SeleniumLoggingManager seleniumLoggingManager;
     private final ReportingManager reportingManager;
+    private final AgentReportingManager agentReportingManager;
     private final StatisticsManagerImpl statisticsManager;
+    private final ActiveContextsManager activeContextsManager;
     private final InfoMessagesManager infoMessagesManager;
     private final LoadGeneratorContextManagerImpl loadGeneratorContextManager;
 
@@ -47,7 +49,7 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
     MediatingIntegrationServiceImpl(LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs, Runnable shutdownHook) {
 
         this.eventsRouter = new EventsRouterImpl();
-        this.timeProvider = new TimeProviderImpl();
+        this.timeProvider = buildTimeProvider(loadGeneratorConfig);
         this.suiteManager = new SuiteManagerImpl(timeProvider, eventsRouter);
         this.apiClientManager = new ApiClientManagerImpl();
         this.httpClientsManager = new HttpClientsManagerImpl();
@@ -57,19 +59,21 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
         this.sleepManager = new SleepManagerImpl(timeProvider, eventsRouter);
         this.transactionsManager = new TransactionsManagerImpl(timeProvider, eventsRouter);
         this.transactionEventsAggregator = new TransactionEventsAggregatorImpl();
-        this.analyticsEventsFlusher = new AnalyticsEventsFlusherImpl();
+        this.analyticsEventsFlusher = new AnalyticsEventsFlusherImpl(timeProvider);
         this.concurrencyEventsAggregator = new ConcurrencyEventsAggregatorImpl();
         this.slowdownManager = new SlowdownManagerImpl();
         this.concurrencyManager = new ConcurrencyManagerImpl();
         this.loggingContextManager = new LoggingContextManagerImpl();
         this.seleniumLoggingManager = new SeleniumLoggingManagerImpl();
         this.reportingManager = new ReportingManagerImpl();
+        this.agentReportingManager = new AgentReportingManagerImpl();
         this.statisticsManager = new StatisticsManagerImpl();
+        this.activeContextsManager = new ActiveContextsManagerImpl();
         this.infoMessagesManager = new InfoMessagesManagerImpl();
         this.loadGeneratorContextManager = new LoadGeneratorContextManagerImpl();
 
         this.loadGeneratorContext = new LoadGeneratorContextImpl(
-                this.timeProvider.getCurrentTime(),
+                this.timeProvider,
                 loadGeneratorConfig,
                 suiteConfigs
         );
@@ -83,6 +87,7 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
                 heartbeatManager,
                 analyticsEventsFlusher,
                 reportingManager,
+                agentReportingManager,
                 seleniumLoggingManager,
                 infoMessagesManager
         ));
@@ -94,6 +99,7 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
                 httpClientsManager,
                 browserCloudManager,
                 reportingManager,
+                agentReportingManager,
                 analyticsEventsFlusher,
                 heartbeatManager,
                 transactionEventsAggregator,
@@ -121,24 +127,29 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
 
         eventsRouter.setTransactionStartedListeners(Arrays.asList(
                 statisticsManager,
+                activeContextsManager,
                 loggingContextManager,
                 transactionEventsAggregator
         ));
 
         eventsRouter.setTransactionFinishedListeners(Arrays.asList(
                 statisticsManager,
+                concurrencyManager,
+                activeContextsManager,
                 transactionEventsAggregator,
                 loggingContextManager
         ));
 
         eventsRouter.setRemoteWebDriverStartedListeners(Arrays.asList(
                 statisticsManager,
+                activeContextsManager,
                 loggingContextManager,
                 transactionEventsAggregator
         ));
 
         eventsRouter.setRemoteWebDriverFinishedListeners(Arrays.asList(
                 statisticsManager,
+                activeContextsManager,
                 transactionEventsAggregator,
                 loggingContextManager
         ));
@@ -148,10 +159,15 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
                 transactionEventsAggregator,
                 concurrencyEventsAggregator,
                 analyticsEventsFlusher,
-                reportingManager
+                reportingManager,
+                agentReportingManager
         ));
     }
 
+    LoadGeneratorContextImpl getLoadGeneratorContext() {
+        return loadGeneratorContext;
+    }
+
     @Override
     public void onLoadGeneratorStarted() {
         eventsRouter.onLoadGeneratorStarted(
@@ -162,11 +178,15 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
 
     @Override
     public void onLoadGeneratorFinished(Throwable loadGeneratorError) {
-        eventsRouter.onLoadGeneratorFinished(
-                getCurrentTime(),
-                loadGeneratorContext,
-                loadGeneratorError
-        );
+        try {
+            eventsRouter.onLoadGeneratorFinished(
+                    getCurrentTime(),
+                    loadGeneratorContext,
+                    loadGeneratorError
+            );
+        } finally {
+            timeProvider.close();
+        }
     }
 
     @Override
@@ -176,7 +196,53 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
 
     @Override
     public SuiteInstanceContextImpl onSuiteInstanceStarted(int workerID, SuiteConfigContextImpl suiteConfigContext) {
-        return suiteManager.startSuiteInstance(workerID, loadGeneratorContext, suiteConfigContext);
+        return onSuiteInstanceStarted(
+                workerID,
+                suiteConfigContext,
+                suiteConfigContext.getConcurrencyContext().acquirePermit()
+        );
+    }
+
+    @Override
+    public void onSuiteArrivalDropped(SuiteConfigContextImpl suiteConfigContext) {
+        loadGeneratorContext.getStatisticsContext().incrementArrivalsDropped();
+    }
+
+    @Override
+    public void onSuiteArrivalLate(SuiteConfigContextImpl suiteConfigContext) {
+        loadGeneratorContext.getStatisticsContext().incrementArrivalsLate();
+    }
+
+    @Override
+    public long tryAcquireSuiteInstancePermit(SuiteConfigContextImpl suiteConfigContext) {
+        return suiteConfigContext.getConcurrencyContext().tryAcquirePermit();
+    }
+
+    @Override
+    public void awaitSuiteInstancePermit(SuiteConfigContextImpl suiteConfigContext, long timeoutMillis) {
+        try {
+            suiteConfigContext.getConcurrencyContext().awaitPermit(
+                    timeProvider,
+                    timeoutMillis
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public SuiteInstanceContextImpl onSuiteInstanceStarted(int workerID, SuiteConfigContextImpl suiteConfigContext, long iterationNumber) {
+        try {
+            return suiteManager.startSuiteInstance(
+                    workerID,
+                    iterationNumber,
+                    loadGeneratorContext,
+                    suiteConfigContext
+            );
+        } catch (RuntimeException e) {
+            suiteConfigContext.getConcurrencyContext().releasePermit();
+            throw e;
+        }
     }
 
     @Override
@@ -254,6 +320,61 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
         return loadGeneratorContext.getStatisticsContext().getSessionsInProgress();
     }
 
+    @Override
+    public long getDroppedArrivalsCount() {
+        return loadGeneratorContext.getStatisticsContext().getArrivalsDropped();
+    }
+
+    @Override
+    public long getLateArrivalsCount() {
+        return loadGeneratorContext.getStatisticsContext().getArrivalsLate();
+    }
+
+    @Override
+    public long getRawTransactionLatency(String transactionName, double percentile) {
+        LatencyHistogramImpl histogram = loadGeneratorContext.getStatisticsContext().getRawTransactionLatencies(
+                transactionName
+        );
+        return histogram == null ? -1 : histogram.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getCorrectedTransactionLatency(String transactionName, double percentile) {
+        LatencyHistogramImpl histogram = loadGeneratorContext.getStatisticsContext().getCorrectedTransactionLatencies(
+                transactionName
+        );
+        return histogram == null ? -1 : histogram.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getEventsBufferDepth() {
+        return loadGeneratorContext.getEventsBuffer().getDepth();
+    }
+
+    @Override
+    public long getEventsSpilledBytes() {
+        return loadGeneratorContext.getEventsBuffer().getSpilledBytes();
+    }
+
+    @Override
+    public long getEventsReplayLag() {
+        return loadGeneratorContext.getEventsBuffer().getReplayLag();
+    }
+
+    @Override
+    public long getEventsRetryQueueDepth() {
+        return loadGeneratorContext.getEventsRetryQueue().getDepth();
+    }
+
+    @Override
+    public String getEventsFlusherState() {
+        AnalyticsEventsCircuitBreakerImpl circuitBreaker = loadGeneratorContext.getEventsCircuitBreaker();
+        if (circuitBreaker == null) {
+            return AnalyticsEventsCircuitBreakerImpl.State.closed.name();
+        }
+        return circuitBreaker.getState().name();
+    }
+
     @Override
     public int getCurrentConcurrency(SuiteConfigContextImpl suiteConfigContext) {
         return concurrencyManager.getCurrentConcurrency(suiteConfigContext);
@@ -284,8 +405,32 @@ final class MediatingIntegrationServiceImpl implements IntegrationService<SuiteC
         sleepManager.sleep(context, duration);
     }
 
-    private long getCurrentTime() {
+    @Override
+    public void sleep(long duration) {
+        timeProvider.sleep(duration);
+    }
+
+    @Override
+    public long getCurrentTime() {
         return timeProvider.getCurrentTime();
     }
 
+    @Override
+    public void enterClock() {
+        timeProvider.enter();
+    }
+
+    @Override
+    public void leaveClock() {
+        timeProvider.leave();
+    }
+
+    private static TimeProvider buildTimeProvider(LoadGeneratorConfig loadGeneratorConfig) {
+        if (loadGeneratorConfig.isVirtualTime()) {
+            return new VirtualTimeProviderImpl(System.currentTimeMillis(), true);
+        } else {
+            return new TimeProviderImpl();
+        }
+    }
+
 }
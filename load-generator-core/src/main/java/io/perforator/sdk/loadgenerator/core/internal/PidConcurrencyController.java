@@ -0,0 +1,68 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+import java.util.Locale;
+
+/**
+ * PID controller keeping the failure rate at the target.
+ * <br>
+ * The error is the distance in percent points between the target and the
+ * actual failure rate, and the controller runs in the incremental form, so
+ * the output is a change of concurrency(in percent of max concurrency)
+ * rather than concurrency itself, which avoids integral windup when
+ * concurrency is capped.
+ */
+final class PidConcurrencyController implements ConcurrencyController {
+
+    private static final double PROPORTIONAL_GAIN = 0.5;
+    private static final double INTEGRAL_GAIN = 0.2;
+    private static final double DERIVATIVE_GAIN = 0.1;
+
+    private final double targetErrorRate;
+    private double previousError = Double.NaN;
+    private double beforePreviousError = Double.NaN;
+
+    PidConcurrencyController(double targetErrorRate) {
+        this.targetErrorRate = targetErrorRate;
+    }
+
+    @Override
+    public int computeDesiredConcurrency(ConcurrencySnapshot snapshot) {
+        double error = targetErrorRate - snapshot.getFailureRate();
+        double previous = Double.isNaN(previousError) ? error : previousError;
+        double beforePrevious = Double.isNaN(beforePreviousError) ? previous : beforePreviousError;
+
+        double output = PROPORTIONAL_GAIN * (error - previous)
+                + INTEGRAL_GAIN * error
+                + DERIVATIVE_GAIN * (error - 2 * previous + beforePrevious);
+
+        beforePreviousError = previous;
+        previousError = error;
+
+        return snapshot.getDesiredConcurrency() + (int) Math.round(
+                output * snapshot.getMaxConcurrency() / 100
+        );
+    }
+
+    @Override
+    public String getReductionReason(ConcurrencySnapshot snapshot) {
+        return String.format(
+                Locale.ROOT,
+                "failure rate %.1f%% against target %.1f%%",
+                snapshot.getFailureRate(),
+                targetErrorRate
+        );
+    }
+
+}
@@ -13,28 +13,50 @@ package io.perforator.sdk.loadgenerator.core.internal;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandCodec;
 import org.openqa.selenium.remote.DriverCommand;
 import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.ResponseCodec;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
 
 final class RemoteWebDriverCommandExecutor extends HttpCommandExecutor {
     
-    private static final Field COMMAND_CODEC_FIELD = getCommandCodecField();
+    private static final Field COMMAND_CODEC_FIELD = getCodecField("commandCodec");
+    private static final Field RESPONSE_CODEC_FIELD = getCodecField("responseCodec");
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
 
     private final TimeProvider timeProvider;
     private final EventsRouter eventsRouter;
     private final SuiteInstanceContextImpl suiteInstanceContext;
+    private final RemoteWebDriverHttpClient client;
+    private final Executor quitListenersExecutor;
 
-    public RemoteWebDriverCommandExecutor(TimeProvider timeProvider, EventsRouter eventsRouter, SuiteInstanceContextImpl suiteInstanceContext) {
+    public RemoteWebDriverCommandExecutor(TimeProvider timeProvider, EventsRouter eventsRouter, SuiteInstanceContextImpl suiteInstanceContext, Executor quitListenersExecutor) {
+        this(
+                timeProvider, 
+                eventsRouter, 
+                suiteInstanceContext, 
+                new RemoteWebDriverHttpClient(timeProvider, eventsRouter, suiteInstanceContext),
+                quitListenersExecutor
+        );
+    }
+
+    private RemoteWebDriverCommandExecutor(TimeProvider timeProvider, EventsRouter eventsRouter, SuiteInstanceContextImpl suiteInstanceContext, RemoteWebDriverHttpClient client, Executor quitListenersExecutor) {
         super(
                 Collections.EMPTY_MAP, 
                 suiteInstanceContext.getLoadGeneratorContext().getBrowserCloudContext().getSeleniumHubURL(),
-                new RemoteWebDriverHttpClientFactory(suiteInstanceContext)
+                new RemoteWebDriverHttpClientFactory(client)
         );
         this.timeProvider = timeProvider;
         this.eventsRouter = eventsRouter;
         this.suiteInstanceContext = suiteInstanceContext;
+        this.client = client;
+        this.quitListenersExecutor = quitListenersExecutor;
     }
 
     @Override
@@ -78,13 +100,109 @@ final class RemoteWebDriverCommandExecutor extends HttpCommandExecutor {
         throw commandExecutionError;
     }
     
-    private static Field getCommandCodecField() {
+    /**
+     * Executes the command of an already created session without blocking
+     * the calling thread, the same way {@link #execute(Command)} does.
+     * <br>
+     * Errors reported by the browser are returned as the status of the
+     * response rather than thrown, since they are converted into exceptions
+     * by {@link org.openqa.selenium.remote.RemoteWebDriver} itself.
+     */
+    public CompletableFuture<Response> executeAsync(Command command) {
+        if (command.getName().equals(DriverCommand.NEW_SESSION)) {
+            return CompletableFuture.failedFuture(
+                    new UnsupportedOperationException(
+                            "Sessions can't be created asynchronously"
+                    )
+            );
+        }
+
+        CommandCodec<HttpRequest> commandCodec;
+        ResponseCodec<HttpResponse> responseCodec;
+        try {
+            commandCodec = (CommandCodec<HttpRequest>) COMMAND_CODEC_FIELD.get(this);
+            responseCodec = (ResponseCodec<HttpResponse>) RESPONSE_CODEC_FIELD.get(this);
+        } catch(ReflectiveOperationException e) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Can't access codecs of the session", e)
+            );
+        }
+
+        if (commandCodec == null || responseCodec == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Session is not created yet")
+            );
+        }
+
+        HttpRequest request = commandCodec.encode(command);
+        if (request.getHeader("Content-Type") == null) {
+            request.addHeader("Content-Type", JSON_CONTENT_TYPE);
+        }
+
+        CompletableFuture<Response> result = client.executeAsync(request).thenApply(httpResponse -> {
+            Response response = responseCodec.decode(httpResponse);
+            if (response.getSessionId() == null && command.getSessionId() != null) {
+                response.setSessionId(command.getSessionId().toString());
+            }
+            return response;
+        });
+
+        if (command.getName().equals(DriverCommand.QUIT)) {
+            result = dispatchQuit(command, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Notifies listeners about the finished session on a dedicated thread
+     * rather than on the IO thread of the http client, which completes the
+     * response, or on the thread of the time provider, which runs delayed
+     * tasks, so listeners never stall other requests or timers.
+     *
+     * @return future completed once listeners are notified
+     */
+    private CompletableFuture<Response> dispatchQuit(Command command, CompletableFuture<Response> response) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+
+        response.whenCompleteAsync(
+                (value, error) -> {
+                    try {
+                        RemoteWebDriverContextImpl remoteWebDriverContext = suiteInstanceContext.getDrivers().remove(
+                                command.getSessionId().toString()
+                        );
+
+                        if (remoteWebDriverContext != null) {
+                            eventsRouter.onRemoteWebDriverFinished(
+                                    timeProvider.getCurrentTime(),
+                                    remoteWebDriverContext,
+                                    error
+                            );
+                        }
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(error == null ? e : error);
+                        return;
+                    }
+
+                    if (error == null) {
+                        result.complete(value);
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                },
+                quitListenersExecutor
+        );
+
+        return result;
+    }
+    
+    private static Field getCodecField(String name) {
         try {
-            Field result = HttpCommandExecutor.class.getDeclaredField("commandCodec");
+            Field result = HttpCommandExecutor.class.getDeclaredField(name);
             result.setAccessible(true);
             return result;
         } catch(ReflectiveOperationException e) {
-            throw new RuntimeException("Can't expose commandCodec", e);
+            throw new RuntimeException("Can't expose " + name, e);
         }
     }
 
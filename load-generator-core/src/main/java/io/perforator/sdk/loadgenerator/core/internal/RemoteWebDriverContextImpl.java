@@ -11,9 +11,13 @@
 package io.perforator.sdk.loadgenerator.core.internal;
 
 import io.perforator.sdk.loadgenerator.core.context.RemoteWebDriverContext;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 final class RemoteWebDriverContextImpl implements RemoteWebDriverContext {
     
@@ -24,6 +28,7 @@ final class RemoteWebDriverContextImpl implements RemoteWebDriverContext {
     private final String browserName;
     private final String browserVersion;
     private final RemoteWebDriver remoteWebDriver;
+    private final AnalyticsEventsDictionaryImpl.SessionEntry eventsEntry;
 
     RemoteWebDriverContextImpl(long startedAt, SuiteInstanceContextImpl suiteInstanceContext, RemoteWebDriver remoteWebDriver) {
         this.startedAt = startedAt;
@@ -33,6 +38,11 @@ final class RemoteWebDriverContextImpl implements RemoteWebDriverContext {
         this.browserName = remoteWebDriver.getCapabilities().getBrowserName();
         this.browserVersion = remoteWebDriver.getCapabilities().getBrowserVersion();
         this.remoteWebDriver = remoteWebDriver;
+        this.eventsEntry = loadGeneratorContext.getEventsDictionary().createSessionEntry(
+                sessionID,
+                browserName,
+                browserVersion
+        );
     }
 
     @Override
@@ -63,11 +73,26 @@ final class RemoteWebDriverContextImpl implements RemoteWebDriverContext {
         return browserVersion;
     }
 
+    public AnalyticsEventsDictionaryImpl.SessionEntry getEventsEntry() {
+        return eventsEntry;
+    }
+
     @Override
     public RemoteWebDriver getRemoteWebDriver() {
         return remoteWebDriver;
     }
 
+    @Override
+    public CompletableFuture<Response> executeAsync(Command command) {
+        CommandExecutor commandExecutor = remoteWebDriver.getCommandExecutor();
+        if (commandExecutor instanceof RemoteWebDriverCommandExecutor) {
+            return ((RemoteWebDriverCommandExecutor) commandExecutor).executeAsync(command);
+        }
+
+        // local drivers don't have an async transport
+        return RemoteWebDriverContext.super.executeAsync(command);
+    }
+
     @Override
     public int hashCode() {
         int hash = 3;
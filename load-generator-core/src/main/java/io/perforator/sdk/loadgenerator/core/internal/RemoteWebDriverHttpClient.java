@@ -11,9 +11,13 @@
 package io.perforator.sdk.loadgenerator.core.internal;
 
 import io.perforator.sdk.loadgenerator.core.AbstractLoadGenerator;
+import io.perforator.sdk.loadgenerator.core.Perforator;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URL;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import org.asynchttpclient.AsyncHttpClient;
 import org.asynchttpclient.RequestBuilder;
@@ -26,8 +30,6 @@ import org.openqa.selenium.remote.http.WebSocket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static io.perforator.sdk.loadgenerator.core.Threaded.sleep;
-
 final class RemoteWebDriverHttpClient implements HttpClient {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(RemoteWebDriverHttpClient.class);
@@ -36,15 +38,21 @@ final class RemoteWebDriverHttpClient implements HttpClient {
     private static final long MIN_RETRY_DELAY = 250l;
     private static final long MAX_RETRY_DELAY = 5000l;
 
+    private final TimeProvider timeProvider;
+    private final EventsRouter eventsRouter;
     private final SuiteInstanceContextImpl suiteInstanceContext;
+    private final SessionRateLimiterImpl sessionRateLimiter;
     private final AsyncHttpClient client;
     private final URL baseUrl;
     private final String userAgent;
     private final long createSessionRetryTimeout;
     private final long deleteSessionRetryTimeout;
 
-    public RemoteWebDriverHttpClient(SuiteInstanceContextImpl suiteInstanceContext) {
+    public RemoteWebDriverHttpClient(TimeProvider timeProvider, EventsRouter eventsRouter, SuiteInstanceContextImpl suiteInstanceContext) {
+        this.timeProvider = timeProvider;
+        this.eventsRouter = eventsRouter;
         this.suiteInstanceContext = suiteInstanceContext;
+        this.sessionRateLimiter = suiteInstanceContext.getLoadGeneratorContext().getSessionRateLimiter();
         this.client = suiteInstanceContext.getLoadGeneratorContext().getAsyncHttpClient();
         this.baseUrl = suiteInstanceContext.getLoadGeneratorContext().getBrowserCloudContext().getSeleniumHubURL();
         this.userAgent = suiteInstanceContext.getLoadGeneratorContext().getApiClientParams().getUserAgent();
@@ -54,12 +62,62 @@ final class RemoteWebDriverHttpClient implements HttpClient {
 
     @Override
     public HttpResponse execute(HttpRequest request) throws UncheckedIOException {
+        CompletableFuture<HttpResponse> result = executeAsync(request);
+
+        try {
+            return result.get();
+        } catch(InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    AbstractLoadGenerator.TERMINATION_EXCEPTION_MESSAGE
+            );
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new RuntimeException(
+                        "Can't execute selenium request " + request.getMethod() + " => " + request.getUri(), 
+                        e.getCause()
+                );
+            }
+        }
+    }
+
+    /**
+     * Executes the request without blocking the calling thread, while
+     * requests creating and terminating sessions are retried on behalf of
+     * the caller via delayed tasks of the time provider.
+     *
+     * @return future of the response, which fails with
+     * {@link UncheckedIOException} on IO errors
+     */
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+        CompletableFuture<HttpResponse> result;
         if (isNewSessionRequest(request)) {
-            return processNewSessionRequest(request);
+            result = executeWithRetries(request, createSessionRetryTimeout, "creating session", false, sessionRateLimiter);
         } else if (isTerminateSessionRequest(request)) {
-            return processTerminateSessionRequest(request);
+            result = executeWithRetries(request, deleteSessionRetryTimeout, "terminating session", true, null);
+        } else {
+            result = executeInternal(request);
+        }
+        
+        result.thenAccept(this::trackHubErrorStatus);
+        return result;
+    }
+
+    /**
+     * Remembers statuses meaning the hub throttles requests or is
+     * unavailable, so failure of the suite instance can be attributed to the
+     * infrastructure rather than to the application under test. Any other
+     * response means the hub has recovered, so the status is cleared.
+     */
+    private void trackHubErrorStatus(HttpResponse response) {
+        int status = response.getStatus();
+        if (status == 429 || status == 502 || status == 503 || status == 504) {
+            suiteInstanceContext.setHubErrorStatus(status);
         } else {
-            return executeInternal(request);
+            suiteInstanceContext.setHubErrorStatus(0);
         }
     }
 
@@ -80,87 +138,139 @@ final class RemoteWebDriverHttpClient implements HttpClient {
         return "session".equals(segments[segments.length - 2]);
     }
 
-    private HttpResponse processNewSessionRequest(HttpRequest request) throws UncheckedIOException {
-        long maxRetryTime = System.currentTimeMillis() + createSessionRetryTimeout;
-        
-        while (true) {
-            try {
-                HttpResponse response = executeInternal(request);
+    private CompletableFuture<HttpResponse> executeWithRetries(HttpRequest request, long retryTimeout, String action, boolean notFoundIsSuccess, SessionRateLimiterImpl rateLimiter) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        executeAttempt(
+                request,
+                timeProvider.getCurrentTime() + retryTimeout,
+                action,
+                notFoundIsSuccess,
+                rateLimiter,
+                result
+        );
+        return result;
+    }
 
-                if (response.getStatus() < 400) {
-                    return response;
-                }
-                
-                if(System.currentTimeMillis() > maxRetryTime) {
-                    return response;
-                }
-                
-                long retryDelay = computeDelayFromResponse(response);
-                LOGGER.debug(
-                        "Unexpected response code {} received while creating session, retrying in {}ms",
-                        response.getStatus(),
-                        retryDelay
-                );
-                
-                sleep(retryDelay);
-            } catch (UncheckedIOException e) {
-                if(System.currentTimeMillis() > maxRetryTime) {
-                    throw e;
-                } else {
-                    if(LOGGER.isDebugEnabled()) {
-                        LOGGER.error(
-                                "IOException happened while creating session, retrying in {}ms",
-                                DEFAULT_RETRY_DELAY,
-                                e
-                        );
-                    }
-                    sleep(DEFAULT_RETRY_DELAY);
-                }
-            }
+    private void executeAttempt(HttpRequest request, long maxRetryTime, String action, boolean notFoundIsSuccess, SessionRateLimiterImpl rateLimiter, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        if (rateLimiter == null) {
+            sendAttempt(request, maxRetryTime, action, notFoundIsSuccess, null, result);
+            return;
         }
+
+        long timestamp = timeProvider.getCurrentTime();
+        long queueDelay = rateLimiter.reserve(timestamp);
+        TransactionContextImpl queueTransaction = startQueueTransaction(timestamp);
+
+        if (queueDelay <= 0) {
+            finishQueueTransaction(queueTransaction);
+            sendAttempt(request, maxRetryTime, action, notFoundIsSuccess, rateLimiter, result);
+            return;
+        }
+
+        timeProvider.schedule(
+                () -> {
+                    finishQueueTransaction(queueTransaction);
+                    sendAttempt(request, maxRetryTime, action, notFoundIsSuccess, rateLimiter, result);
+                },
+                queueDelay
+        );
     }
 
-    private HttpResponse processTerminateSessionRequest(HttpRequest request) throws UncheckedIOException {
-        long maxRetryTime = System.currentTimeMillis() + deleteSessionRetryTimeout;
-        
-        while (true) {
-            try {
-                HttpResponse response = executeInternal(request);
+    /**
+     * Reports time the request waits for the session rate limit as a
+     * transaction nested into the one opening the session.
+     */
+    private TransactionContextImpl startQueueTransaction(long timestamp) {
+        TransactionContextImpl queueTransaction = new TransactionContextImpl(
+                timestamp,
+                suiteInstanceContext,
+                suiteInstanceContext.getTransactions().peekFirst(),
+                UUID.randomUUID().toString(),
+                Perforator.OPEN_WEB_DRIVER_QUEUE_TRANSACTION_NAME
+        );
+        eventsRouter.onTransactionStarted(timestamp, queueTransaction);
+        return queueTransaction;
+    }
+
+    private void finishQueueTransaction(TransactionContextImpl queueTransaction) {
+        eventsRouter.onTransactionFinished(
+                timeProvider.getCurrentTime(),
+                queueTransaction,
+                null
+        );
+    }
+
+    private void sendAttempt(HttpRequest request, long maxRetryTime, String action, boolean notFoundIsSuccess, SessionRateLimiterImpl rateLimiter, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        executeInternal(request).whenComplete((response, error) -> {
+            if (error == null && rateLimiter != null) {
+                if (response.getStatus() == 429) {
+                    rateLimiter.onThrottled(
+                            timeProvider.getCurrentTime(),
+                            Math.max(0, parseRetryAfter(response))
+                    );
+                } else if (response.getStatus() < 400) {
+                    rateLimiter.onAccepted();
+                }
+            }
+
+            if (error == null) {
                 if (response.getStatus() < 400) {
-                    return response;
+                    result.complete(response);
+                    return;
                 }
 
-                if (response.getStatus() == 404) {
+                if (notFoundIsSuccess && response.getStatus() == 404) {
                     response.setStatus(200);
-                    return response;
+                    result.complete(response);
+                    return;
                 }
-                
-                if(System.currentTimeMillis() > maxRetryTime) {
-                    return response;
+
+                if(timeProvider.getCurrentTime() > maxRetryTime) {
+                    result.complete(response);
+                    return;
                 }
-                
+
                 long retryDelay = computeDelayFromResponse(response);
                 LOGGER.debug(
-                        "Unexpected response code {} received while terminating session, retrying in {}ms",
+                        "Unexpected response code {} received while {}, retrying in {}ms",
                         response.getStatus(),
+                        action,
                         retryDelay
                 );
-                sleep(retryDelay);
-            } catch (UncheckedIOException e) {
-                if(System.currentTimeMillis() > maxRetryTime) {
-                    throw e;
-                } else {
-                    if(LOGGER.isDebugEnabled()) {
-                        LOGGER.error(
-                                "IOException happened while terminating session, retrying in {}ms",
-                                DEFAULT_RETRY_DELAY,
-                                e
-                        );
-                    }
-                    sleep(DEFAULT_RETRY_DELAY);
-                }
+                timeProvider.schedule(
+                        () -> executeAttempt(request, maxRetryTime, action, notFoundIsSuccess, rateLimiter, result),
+                        retryDelay
+                );
+                return;
             }
-        }
+
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof UncheckedIOException) || timeProvider.getCurrentTime() > maxRetryTime) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            if(LOGGER.isDebugEnabled()) {
+                LOGGER.error(
+                        "IOException happened while {}, retrying in {}ms",
+                        action,
+                        DEFAULT_RETRY_DELAY,
+                        cause
+                );
+            }
+            timeProvider.schedule(
+                    () -> executeAttempt(request, maxRetryTime, action, notFoundIsSuccess, rateLimiter, result),
+                    DEFAULT_RETRY_DELAY
+            );
+        });
     }
     
     private long computeDelayFromResponse(HttpResponse response) {
@@ -168,15 +278,8 @@ final class RemoteWebDriverHttpClient implements HttpClient {
             return DEFAULT_RETRY_DELAY;
         }
         
-        String retryAfter = response.getHeader("Retry-After");
-        if(retryAfter == null || retryAfter.isBlank()) {
-            return DEFAULT_RETRY_DELAY;
-        }
-        
-        long delayFromHeader;
-        try {
-            delayFromHeader = Long.parseLong(retryAfter) * 1000l;
-        } catch(NumberFormatException e) {
+        long delayFromHeader = parseRetryAfter(response);
+        if(delayFromHeader < 0) {
             return DEFAULT_RETRY_DELAY;
         }
         
@@ -191,7 +294,24 @@ final class RemoteWebDriverHttpClient implements HttpClient {
         return delayFromHeader;
     }
     
-    private HttpResponse executeInternal(HttpRequest request) throws UncheckedIOException {
+    /**
+     * @return delay in milliseconds from Retry-After header, or -1 if it's
+     * missing or malformed
+     */
+    private static long parseRetryAfter(HttpResponse response) {
+        String retryAfter = response.getHeader("Retry-After");
+        if(retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000l);
+        } catch(NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private CompletableFuture<HttpResponse> executeInternal(HttpRequest request) {
         RequestBuilder builder = new RequestBuilder(request.getMethod().name());
 
         String rawUrl = getRawUrl(baseUrl, request.getUri());
@@ -221,30 +341,29 @@ final class RemoteWebDriverHttpClient implements HttpClient {
             builder.setBody(request.getContent().get());
         }
         
-        try {
-            return toSeleniumResponse(
-                    client.executeRequest(builder).toCompletableFuture().get()
-            );
-        } catch(InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(
-                    AbstractLoadGenerator.TERMINATION_EXCEPTION_MESSAGE
-            );
-        } catch(ExecutionException e) {
-            if(e.getCause() == null) {
-                throw new RuntimeException(
-                        "Can't execute selenium request " + request.getMethod() + " => " + rawUrl, 
-                        e
-                );
-            } else if(e.getCause() instanceof IOException) {
-                throw new UncheckedIOException((IOException) e.getCause());
+        return client.executeRequest(builder).toCompletableFuture().handle((response, error) -> {
+            if (error == null) {
+                return toSeleniumResponse(response);
+            }
+
+            Throwable cause = unwrap(error);
+            if(cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
             } else {
                 throw new RuntimeException(
                         "Can't execute selenium request " + request.getMethod() + " => " + rawUrl, 
-                        e.getCause()
+                        cause
                 );
             }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable result = error;
+        while ((result instanceof CompletionException || result instanceof ExecutionException) && result.getCause() != null) {
+            result = result.getCause();
         }
+        return result;
     }
 
     private static HttpResponse toSeleniumResponse(org.asynchttpclient.Response response) {
@@ -18,8 +18,8 @@ final class RemoteWebDriverHttpClientFactory implements HttpClient.Factory {
 
     private final RemoteWebDriverHttpClient client;
 
-    public RemoteWebDriverHttpClientFactory(SuiteInstanceContextImpl suiteInstanceContext) {
-        this.client = new RemoteWebDriverHttpClient(suiteInstanceContext);
+    public RemoteWebDriverHttpClientFactory(RemoteWebDriverHttpClient client) {
+        this.client = client;
     }
 
     @Override
@@ -14,6 +14,8 @@ import io.perforator.sdk.loadgenerator.core.RemoteWebDriverHelper;
 import io.perforator.sdk.loadgenerator.core.configs.ChromeMode;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
 import io.perforator.sdk.loadgenerator.core.configs.WebDriverMode;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.slf4j.Logger;
@@ -25,10 +27,17 @@ final class RemoteWebDriverManagerImpl implements RemoteWebDriverManager {
 
     private final TimeProvider timeProvider;
     private final EventsRouter eventsRouter;
+    // idle threads of the pool terminate on their own, so it's never shut down
+    private final ExecutorService quitListenersExecutor;
 
     public RemoteWebDriverManagerImpl(TimeProvider timeProvider, EventsRouter eventsRouter) {
         this.timeProvider = timeProvider;
         this.eventsRouter = eventsRouter;
+        this.quitListenersExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "perforator-quit-listeners");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -59,7 +68,8 @@ final class RemoteWebDriverManagerImpl implements RemoteWebDriverManager {
             RemoteWebDriverCommandExecutor commandExecutor = new RemoteWebDriverCommandExecutor(
                     timeProvider,
                     eventsRouter,
-                    suiteInstanceContext
+                    suiteInstanceContext,
+                    quitListenersExecutor
             );
             
             if(chromeOptions == null) {
@@ -85,20 +95,30 @@ final class RemoteWebDriverManagerImpl implements RemoteWebDriverManager {
                 chromeOptions.addArguments("--user-agent=" + webDriverUserAgent.trim());
             }
 
-            remoteWebDriver = new RemoteWebDriver(
-                    commandExecutor,
-                    chromeOptions
-            );
+            try {
+                remoteWebDriver = new RemoteWebDriver(
+                        commandExecutor,
+                        chromeOptions
+                );
+            } catch (RuntimeException e) {
+                suiteInstanceContext.getSuiteConfigContext().getConcurrencyContext().recordSessionCreationFailure();
+                throw e;
+            }
 
             RemoteWebDriverHelper.applyDefaults(
                     remoteWebDriver,
                     suiteConfig
             );
         } else if (suiteConfig.getWebDriverMode() == WebDriverMode.local) {
-            remoteWebDriver = RemoteWebDriverHelper.createLocalChromeDriver(
-                    chromeOptions,
-                    suiteConfig
-            );
+            try {
+                remoteWebDriver = RemoteWebDriverHelper.createLocalChromeDriver(
+                        chromeOptions,
+                        suiteConfig
+                );
+            } catch (RuntimeException e) {
+                suiteInstanceContext.getSuiteConfigContext().getConcurrencyContext().recordSessionCreationFailure();
+                throw e;
+            }
         } else {
             throw new RuntimeException(
                     "webDriverMode " + suiteConfig.getWebDriverMode() + " is not supported"
@@ -15,6 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.TreeSet;
 
 final class ReportingManagerImpl implements ReportingManager {
 
@@ -51,6 +52,7 @@ final class ReportingManagerImpl implements ReportingManager {
     public void onLoadGeneratorFinished(long timestamp, LoadGeneratorContextImpl loadGeneratorContext, Throwable error) {
         reportingEnabled = false;
         logStatistics(loadGeneratorContext.getStatisticsContext());
+        logTransactionLatencies(loadGeneratorContext.getStatisticsContext());
     }
 
     @Override
@@ -66,9 +68,42 @@ final class ReportingManagerImpl implements ReportingManager {
         lastReportingTimestamp = timestamp;
 
         logStatistics(loadGeneratorContext.getStatisticsContext());
+        logActiveTransactions(loadGeneratorContext.getActiveContextsIndex());
+    }
+
+    private static void logActiveTransactions(ActiveContextsIndexImpl activeContextsIndex) {
+        if (!LOGGER.isDebugEnabled()) {
+            return;
+        }
+
+        for (String transactionName : new TreeSet<>(activeContextsIndex.getTransactionNames())) {
+            LOGGER.debug(
+                    "transaction '{}': active = {}",
+                    transactionName,
+                    activeContextsIndex.getTransactionsCount(transactionName)
+            );
+        }
     }
 
     private static void logStatistics(StatisticsContextImpl statisticsContext) {
+        long arrivalsDropped = statisticsContext.getArrivalsDropped();
+        long arrivalsLate = statisticsContext.getArrivalsLate();
+
+        if (arrivalsDropped > 0 || arrivalsLate > 0) {
+            LOGGER.info(
+                    "suites: active = {}, failed = {}, successful = {}; arrivals: dropped = {}, late = {}; transactions: active = {}, failed = {}, successful = {}",
+                    statisticsContext.getSuiteInstancesInProgress(),
+                    statisticsContext.getSuiteInstancesFailed(),
+                    statisticsContext.getSuiteInstancesSuccessful(),
+                    arrivalsDropped,
+                    arrivalsLate,
+                    statisticsContext.getTransactionsInProgress(),
+                    statisticsContext.getTransactionsFailed(),
+                    statisticsContext.getTransactionsSuccessful()
+            );
+            return;
+        }
+
         LOGGER.info(
                 "suites: active = {}, failed = {}, successful = {}; transactions: active = {}, failed = {}, successful = {}",
                 statisticsContext.getSuiteInstancesInProgress(),
@@ -80,4 +115,31 @@ final class ReportingManagerImpl implements ReportingManager {
         );
     }
 
+    private static void logTransactionLatencies(StatisticsContextImpl statisticsContext) {
+        for (String transactionName : new TreeSet<>(statisticsContext.getTransactionNames())) {
+            LatencyHistogramImpl raw = statisticsContext.getRawTransactionLatencies(transactionName);
+            LatencyHistogramImpl corrected = statisticsContext.getCorrectedTransactionLatencies(transactionName);
+            if (raw == null || corrected == null) {
+                continue;
+            }
+
+            LOGGER.info(
+                    "transaction '{}' latency ms(raw/corrected): count = {}/{}, p50 = {}/{}, p90 = {}/{}, p99 = {}/{}, p99.9 = {}/{}, max = {}/{}",
+                    transactionName,
+                    raw.getTotalCount(),
+                    corrected.getTotalCount(),
+                    raw.getValueAtPercentile(50),
+                    corrected.getValueAtPercentile(50),
+                    raw.getValueAtPercentile(90),
+                    corrected.getValueAtPercentile(90),
+                    raw.getValueAtPercentile(99),
+                    corrected.getValueAtPercentile(99),
+                    raw.getValueAtPercentile(99.9),
+                    corrected.getValueAtPercentile(99.9),
+                    raw.getMaxValue(),
+                    corrected.getMaxValue()
+            );
+        }
+    }
+
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket shared by requests creating new browser sessions.
+ * <br>
+ * The bucket is implemented as generic cell rate algorithm, so the whole
+ * state is the theoretical arrival time of the next request, and every
+ * request reserves its slot with a single CAS getting how long it should
+ * be queued. The rate is halved at most once per second while the hub
+ * responds with 429, all queued requests are postponed till Retry-After,
+ * and every created session brings the rate back by 5% of the configured
+ * one.
+ */
+final class SessionRateLimiterImpl {
+
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    private static final long DECREASE_COOLDOWN = MICROS_PER_SECOND;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double INCREASE_STEP = 0.05;
+    private static final double MIN_RATE_FACTOR = 0.05;
+
+    private final double maxRate;
+    private final double minRate;
+    private final int burst;
+    private final AtomicLong rateBits;
+    private final AtomicLong theoreticalArrivalTime;
+    private final AtomicLong lastDecreaseTime;
+
+    /**
+     * @param rate sustained amount of requests per second
+     * @param burst amount of requests which can be sent at once
+     */
+    SessionRateLimiterImpl(double rate, int burst) {
+        this.maxRate = rate;
+        this.minRate = rate * MIN_RATE_FACTOR;
+        this.burst = Math.max(1, burst);
+        this.rateBits = new AtomicLong(Double.doubleToLongBits(rate));
+        this.theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+        this.lastDecreaseTime = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    public double getRate() {
+        return Double.longBitsToDouble(rateBits.get());
+    }
+
+    /**
+     * Reserves a slot for the next request.
+     *
+     * @return delay in milliseconds the request should wait before being
+     * sent
+     */
+    public long reserve(long timestamp) {
+        long now = timestamp * 1000;
+
+        while (true) {
+            long interval = getInterval();
+            long tolerance = (burst - 1) * interval;
+            long current = theoreticalArrivalTime.get();
+            long start = Math.max(current, now);
+
+            if (theoreticalArrivalTime.compareAndSet(current, start + interval)) {
+                long delay = start - tolerance - now;
+                return delay <= 0 ? 0 : (delay + 999) / 1000;
+            }
+        }
+    }
+
+    /**
+     * Slows down requests once the hub has responded with 429.
+     *
+     * @param retryAfter delay in milliseconds the hub has asked to wait
+     * for, or 0 if it's unknown
+     */
+    public void onThrottled(long timestamp, long retryAfter) {
+        long now = timestamp * 1000;
+
+        long lastDecrease = lastDecreaseTime.get();
+        if ((lastDecrease == Long.MIN_VALUE || now - lastDecrease >= DECREASE_COOLDOWN)
+                && lastDecreaseTime.compareAndSet(lastDecrease, now)) {
+            rateBits.getAndUpdate(bits -> Double.doubleToLongBits(
+                    Math.max(minRate, Double.longBitsToDouble(bits) * DECREASE_FACTOR)
+            ));
+        }
+
+        if (retryAfter > 0) {
+            long tolerance = (burst - 1) * getInterval();
+            theoreticalArrivalTime.accumulateAndGet(
+                    now + retryAfter * 1000 + tolerance,
+                    Math::max
+            );
+        }
+    }
+
+    /**
+     * Speeds requests up back to the configured rate once a session is
+     * created.
+     */
+    public void onAccepted() {
+        if (getRate() >= maxRate) {
+            return;
+        }
+
+        rateBits.getAndUpdate(bits -> Double.doubleToLongBits(
+                Math.min(maxRate, Double.longBitsToDouble(bits) + maxRate * INCREASE_STEP)
+        ));
+    }
+
+    private long getInterval() {
+        return Math.max(1, (long) (MICROS_PER_SECOND / getRate()));
+    }
+
+}
@@ -10,8 +10,6 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
-import io.perforator.sdk.loadgenerator.core.Threaded;
-
 final class SleepManagerImpl implements SleepManager {
 
     private static final int SLEEP_STEPS = 10;
@@ -32,7 +30,7 @@ final class SleepManagerImpl implements SleepManager {
             return;
         }
 
-        long maxTime = System.currentTimeMillis() + duration;
+        long maxTime = timeProvider.getCurrentTime() + duration;
         long step = duration / SLEEP_STEPS;
 
         if (step < SLEEP_STEP_MIN) {
@@ -41,19 +39,19 @@ final class SleepManagerImpl implements SleepManager {
             step = SLEEP_STEP_MAX;
         }
 
-        while (System.currentTimeMillis() < maxTime) {
+        while (timeProvider.getCurrentTime() < maxTime) {
             eventsRouter.onSuiteInstanceKeepAlive(
                     timeProvider.getCurrentTime(),
                     context
             );
 
-            long remaining = maxTime - System.currentTimeMillis();
+            long remaining = maxTime - timeProvider.getCurrentTime();
             if (remaining <= 0) {
-                Threaded.sleep(0);
+                timeProvider.sleep(0);
             } else if (remaining < step) {
-                Threaded.sleep(remaining);
+                timeProvider.sleep(remaining);
             } else {
-                Threaded.sleep(step);
+                timeProvider.sleep(step);
             }
         }
     }
@@ -0,0 +1,128 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counter of successes and failures over a sliding window of
+ * one second buckets.
+ * <br>
+ * Every bucket slot keeps the second it belongs to in the upper half of
+ * the same long as the count, so a slot is reused for a newer second and
+ * incremented by a single CAS without locks, allocations or a separate
+ * reset which could race with increments. Events older than the ring are
+ * dropped.
+ */
+final class SlidingWindowCounterImpl {
+
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int MAX_WINDOW_SECONDS = 3600;
+
+    private final long baseTime;
+    private final int windowSeconds;
+    private final AtomicLongArray successes;
+    private final AtomicLongArray failures;
+
+    /**
+     * @param baseTime time the counter starts from
+     * @param windowMillis duration of the window, rounded up to whole
+     * seconds
+     */
+    SlidingWindowCounterImpl(long baseTime, long windowMillis) {
+        this.baseTime = baseTime;
+        this.windowSeconds = (int) Math.max(1, Math.min(MAX_WINDOW_SECONDS, (windowMillis + 999) / 1000));
+        this.successes = new AtomicLongArray(windowSeconds);
+        this.failures = new AtomicLongArray(windowSeconds);
+    }
+
+    public void record(long timestamp, boolean failed) {
+        long second = toSecond(timestamp);
+        if (second < 0) {
+            return;
+        }
+
+        increment(failed ? failures : successes, second);
+    }
+
+    /**
+     * @return successes during the window ending at the timestamp
+     */
+    public long getSuccesses(long timestamp) {
+        return sum(successes, toSecond(timestamp));
+    }
+
+    /**
+     * @return failures during the window ending at the timestamp
+     */
+    public long getFailures(long timestamp) {
+        return sum(failures, toSecond(timestamp));
+    }
+
+    /**
+     * @return duration in milliseconds the window ending at the timestamp
+     * actually covers, i.e. the full seconds before the current one plus
+     * the elapsed part of the current second, which is shorter than the
+     * window right after the start
+     */
+    public long getCoveredDuration(long timestamp) {
+        long elapsed = timestamp - baseTime;
+        if (elapsed <= 0) {
+            return 0;
+        }
+
+        long windowStart = (elapsed / 1000 - windowSeconds + 1) * 1000;
+        return elapsed - Math.max(0, windowStart);
+    }
+
+    private long toSecond(long timestamp) {
+        return (timestamp - baseTime) / 1000;
+    }
+
+    private void increment(AtomicLongArray buckets, long second) {
+        int index = (int) (second % windowSeconds);
+
+        while (true) {
+            long current = buckets.get(index);
+            long bucketSecond = current >>> COUNT_BITS;
+
+            long updated;
+            if (bucketSecond == second) {
+                updated = current + 1;
+            } else if (bucketSecond < second) {
+                updated = (second << COUNT_BITS) | 1;
+            } else {
+                return;
+            }
+
+            if (buckets.compareAndSet(index, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private long sum(AtomicLongArray buckets, long second) {
+        long result = 0;
+
+        for (int i = 0; i < windowSeconds; i++) {
+            long current = buckets.get(i);
+            long bucketSecond = current >>> COUNT_BITS;
+
+            if (bucketSecond <= second && bucketSecond > second - windowSeconds) {
+                result += current & COUNT_MASK;
+            }
+        }
+
+        return result;
+    }
+
+}
@@ -14,11 +14,20 @@ final class SlowdownManagerImpl implements SlowdownManager {
     
     @Override
     public long getSlowdownTimeout(SuiteInstanceContextImpl suiteInstanceContext, Throwable suiteError) {
-        if(!suiteInstanceContext.isSlowDownEnabled() || suiteError == null) {
+        BackoffPolicyImpl backoffPolicy = suiteInstanceContext.getSuiteConfigContext().getBackoffPolicy();
+        
+        if(suiteError == null) {
+            backoffPolicy.reset(suiteInstanceContext.getWorkerID());
             return 0;
         }
         
-        return 500l + (long)(Math.random() * 500);
+        return backoffPolicy.nextBackoff(
+                suiteInstanceContext.getWorkerID(),
+                SuiteErrorCategory.classify(
+                        suiteError,
+                        suiteInstanceContext.getHubErrorStatus()
+                )
+        );
     }
 
 }
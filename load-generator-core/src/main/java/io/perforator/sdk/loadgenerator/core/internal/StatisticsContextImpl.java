@@ -10,10 +10,26 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 final class StatisticsContextImpl {
 
+    /**
+     * Maximum amount of transaction names which latencies are tracked, so
+     * names built from dynamic data, like URLs, can't exhaust the memory.
+     */
+    static final int MAX_TRANSACTION_NAMES = 256;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsContextImpl.class);
+
     private final AtomicLong suiteInstancesSuccessful = new AtomicLong(0);
     private final AtomicLong suiteInstancesFailed = new AtomicLong(0);
     private final AtomicLong suiteInstancesInProgress = new AtomicLong(0);
@@ -23,7 +39,12 @@ final class StatisticsContextImpl {
     private final AtomicLong topLevelTransactionsInProgress = new AtomicLong(0);
     private final AtomicLong nestedTransactionsInProgress = new AtomicLong(0);
     private final AtomicLong sessionsInProgress = new AtomicLong(0);
-
+    private final AtomicLong arrivalsDropped = new AtomicLong(0);
+    private final AtomicLong arrivalsLate = new AtomicLong(0);
+    private final AtomicLong suiteInstancesPacing = new AtomicLong(0);
+    private final ConcurrentMap<String, LatencyHistogramImpl> rawTransactionLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogramImpl> correctedTransactionLatencies = new ConcurrentHashMap<>();
+    private final AtomicBoolean transactionNamesExceeded = new AtomicBoolean(false);
 
     public long incrementSuiteInstancesSuccessful() {
         return suiteInstancesSuccessful.incrementAndGet();
@@ -133,4 +154,123 @@ final class StatisticsContextImpl {
         return sessionsInProgress.get();
     }
 
+    public long incrementArrivalsDropped() {
+        return arrivalsDropped.incrementAndGet();
+    }
+
+    public long getArrivalsDropped() {
+        return arrivalsDropped.get();
+    }
+
+    public long incrementArrivalsLate() {
+        return arrivalsLate.incrementAndGet();
+    }
+
+    public long getArrivalsLate() {
+        return arrivalsLate.get();
+    }
+
+    /**
+     * Smooths durations of successful suite instances, which is how often
+     * every worker starts a new suite instance when they run back to back.
+     */
+    public long recordSuiteInstanceDuration(long duration) {
+        return suiteInstancesPacing.accumulateAndGet(
+                Math.max(duration, 0),
+                (pacing, value) -> pacing == 0 ? value : pacing + (value - pacing) / 8
+        );
+    }
+
+    /**
+     * @return smoothed duration of successful suite instances in
+     * milliseconds or 0 if none of them has finished yet
+     */
+    public long getSuiteInstancesPacing() {
+        return suiteInstancesPacing.get();
+    }
+
+    /**
+     * @return snapshot of all counters by their names, which is how agents
+     * report their statistics to the coordinator
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        getCounterFields().forEach((name, counter) -> result.put(name, counter.get()));
+        return result;
+    }
+
+    /**
+     * Overrides counters with the values from the snapshot, while counters
+     * missing in the snapshot are left as is.
+     */
+    public void setCounters(Map<String, Long> counters) {
+        getCounterFields().forEach((name, counter) -> {
+            Long value = counters.get(name);
+            if (value != null) {
+                counter.set(value);
+            }
+        });
+    }
+
+    private Map<String, AtomicLong> getCounterFields() {
+        Map<String, AtomicLong> result = new LinkedHashMap<>();
+        result.put("suiteInstancesSuccessful", suiteInstancesSuccessful);
+        result.put("suiteInstancesFailed", suiteInstancesFailed);
+        result.put("suiteInstancesInProgress", suiteInstancesInProgress);
+        result.put("transactionsSuccessful", transactionsSuccessful);
+        result.put("transactionsFailed", transactionsFailed);
+        result.put("transactionsInProgress", transactionsInProgress);
+        result.put("topLevelTransactionsInProgress", topLevelTransactionsInProgress);
+        result.put("nestedTransactionsInProgress", nestedTransactionsInProgress);
+        result.put("sessionsInProgress", sessionsInProgress);
+        result.put("arrivalsDropped", arrivalsDropped);
+        result.put("arrivalsLate", arrivalsLate);
+        return result;
+    }
+
+    /**
+     * Records latency of the finished transaction both as is and corrected
+     * for coordinated omission against the expected interval, unless
+     * latencies of {@link #MAX_TRANSACTION_NAMES} other transactions are
+     * tracked already.
+     */
+    public void recordTransactionLatency(String transactionName, long latency, long expectedInterval) {
+        LatencyHistogramImpl rawLatencies = rawTransactionLatencies.get(transactionName);
+        if (rawLatencies == null) {
+            if (rawTransactionLatencies.size() >= MAX_TRANSACTION_NAMES) {
+                if (transactionNamesExceeded.compareAndSet(false, true)) {
+                    LOGGER.warn(
+                            "Latencies of more than {} transactions can't be tracked - ignoring latencies of {} and other new transactions",
+                            MAX_TRANSACTION_NAMES,
+                            transactionName
+                    );
+                }
+                return;
+            }
+
+            rawLatencies = rawTransactionLatencies.computeIfAbsent(
+                    transactionName,
+                    key -> new LatencyHistogramImpl()
+            );
+        }
+
+        rawLatencies.record(latency);
+        correctedTransactionLatencies.computeIfAbsent(
+                transactionName,
+                key -> new LatencyHistogramImpl()
+        ).recordWithExpectedInterval(latency, expectedInterval);
+    }
+
+    public Set<String> getTransactionNames() {
+        return rawTransactionLatencies.keySet();
+    }
+
+    public LatencyHistogramImpl getRawTransactionLatencies(String transactionName) {
+        return rawTransactionLatencies.get(transactionName);
+    }
+
+    public LatencyHistogramImpl getCorrectedTransactionLatencies(String transactionName) {
+        return correctedTransactionLatencies.get(transactionName);
+    }
+
 }
@@ -10,6 +10,8 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+
 final class StatisticsManagerImpl implements StatisticsManager {
 
     @Override
@@ -29,6 +31,9 @@ final class StatisticsManagerImpl implements StatisticsManager {
         if (error == null) {
             loadGeneratorContext.getStatisticsContext().incrementSuiteInstancesSuccessful();
             suiteConfigContext.getStatisticsContext().incrementSuiteInstancesSuccessful();
+            suiteConfigContext.getStatisticsContext().recordSuiteInstanceDuration(
+                    timestamp - context.getStartedAt()
+            );
         } else {
             loadGeneratorContext.getStatisticsContext().incrementSuiteInstancesFailed();
             suiteConfigContext.getStatisticsContext().incrementSuiteInstancesFailed();
@@ -67,6 +72,23 @@ final class StatisticsManagerImpl implements StatisticsManager {
             loadGeneratorContext.getStatisticsContext().incrementTransactionsFailed();
             suiteConfigContext.getStatisticsContext().incrementTransactionsFailed();
         }
+
+        long latency = timestamp - context.getStartedAt();
+        long expectedInterval = determineExpectedInterval(
+                suiteConfigContext.getSuiteConfig(),
+                suiteConfigContext.getStatisticsContext().getSuiteInstancesPacing()
+        );
+        loadGeneratorContext.getStatisticsContext().recordTransactionLatency(
+                context.getTransactionName(),
+                latency,
+                expectedInterval
+        );
+        suiteConfigContext.getStatisticsContext().recordTransactionLatency(
+                context.getTransactionName(),
+                latency,
+                expectedInterval
+        );
+
         if (context.isNested()) {
             loadGeneratorContext.getStatisticsContext().decrementNestedTransactionsInProgress();
             suiteConfigContext.getStatisticsContext().decrementNestedTransactionsInProgress();
@@ -76,6 +98,37 @@ final class StatisticsManagerImpl implements StatisticsManager {
         }
     }
 
+    /**
+     * Workers of closed model suites are expected to start suite instances
+     * according to the suite schedule, i.e. once per
+     * (duration - delay) * concurrency / iterations, or back to back once
+     * per observed suite instance duration when the schedule is shorter,
+     * like it is with default iterations. So a transaction taking longer
+     * than that delays the instances which should have been started
+     * meanwhile. Arrivals of open model suites are scheduled regardless of
+     * latencies, while late arrivals are reported on their own, so their
+     * latencies aren't corrected.
+     *
+     * @param observedPacing smoothed duration of suite instances in
+     * milliseconds or 0 if none of them has finished yet
+     *
+     * @return interval in milliseconds or 0 if latencies shouldn't be
+     * corrected
+     */
+    static long determineExpectedInterval(SuiteConfig suiteConfig, long observedPacing) {
+        if (suiteConfig.getArrivalRate() > 0) {
+            return 0;
+        }
+
+        long scheduledInterval = 0;
+        long scheduledDuration = suiteConfig.getDuration().minus(suiteConfig.getDelay()).toMillis();
+        if (scheduledDuration > 0 && suiteConfig.getIterations() > 0) {
+            scheduledInterval = (long) ((double) scheduledDuration * suiteConfig.getConcurrency() / suiteConfig.getIterations());
+        }
+
+        return Math.max(scheduledInterval, Math.max(observedPacing, 0));
+    }
+
     @Override
     public void onRemoteWebDriverStarted(long timestamp, RemoteWebDriverContextImpl context) {
         context.getLoadGeneratorContext().getStatisticsContext().incrementSessionsInProgress();
@@ -0,0 +1,47 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+
+/**
+ * Scales concurrency up or down by fixed steps depending on whether the
+ * failure rate is below the target.
+ */
+final class StepConcurrencyController implements ConcurrencyController {
+
+    private final double targetErrorRate;
+    private final double scaleUpMultiplier;
+    private final double scaleDownMultiplier;
+
+    StepConcurrencyController(double targetErrorRate, double scaleUpMultiplier, double scaleDownMultiplier) {
+        this.targetErrorRate = targetErrorRate;
+        this.scaleUpMultiplier = scaleUpMultiplier;
+        this.scaleDownMultiplier = scaleDownMultiplier;
+    }
+
+    @Override
+    public int computeDesiredConcurrency(ConcurrencySnapshot snapshot) {
+        if (snapshot.getFailureRate() < targetErrorRate) {
+            return snapshot.getDesiredConcurrency() + Math.max(
+                    1,
+                    (int) (snapshot.getMaxConcurrency() * scaleUpMultiplier)
+            );
+        } else {
+            return snapshot.getDesiredConcurrency() - Math.max(
+                    1,
+                    (int) (snapshot.getMaxConcurrency() * scaleDownMultiplier)
+            );
+        }
+    }
+
+}
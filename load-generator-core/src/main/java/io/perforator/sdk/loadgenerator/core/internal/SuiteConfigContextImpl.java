@@ -23,11 +23,14 @@ final class SuiteConfigContextImpl implements SuiteConfigContext {
     private final StatisticsContextImpl statisticsContext;
     private final Set<SuiteInstanceContextImpl> suiteInstanceContexts;
     private final ConcurrencyContextImpl concurrencyContext;
+    private final ActiveContextsIndexImpl activeContextsIndex;
+    private final BackoffPolicyImpl backoffPolicy;
 
     public SuiteConfigContextImpl(LoadGeneratorContextImpl loadGeneratorContext, SuiteConfig suiteConfig) {
         this.suiteConfig = suiteConfig;
         this.statisticsContext = new StatisticsContextImpl();
         this.suiteInstanceContexts = ConcurrentHashMap.newKeySet();
+        this.activeContextsIndex = new ActiveContextsIndexImpl();
         this.concurrencyContext = new ConcurrencyContextImpl(
                 suiteConfig,
                 suiteConfig.isConcurrencyAutoAdjustment(),
@@ -36,6 +39,7 @@ final class SuiteConfigContextImpl implements SuiteConfigContext {
                 suiteConfig.getConcurrencyScaleUpMultiplier(),
                 Long.MIN_VALUE
         );
+        this.backoffPolicy = new BackoffPolicyImpl(suiteConfig);
     }
 
     @Override
@@ -55,6 +59,14 @@ final class SuiteConfigContextImpl implements SuiteConfigContext {
         return concurrencyContext;
     }
 
+    public BackoffPolicyImpl getBackoffPolicy() {
+        return backoffPolicy;
+    }
+
+    public ActiveContextsIndexImpl getActiveContextsIndex() {
+        return activeContextsIndex;
+    }
+
     @Override
     public int hashCode() {
         int hash = 3;
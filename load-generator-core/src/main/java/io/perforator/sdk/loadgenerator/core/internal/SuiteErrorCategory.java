@@ -0,0 +1,120 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Category of the error a suite instance has failed with, determining how
+ * long its worker should back off.
+ */
+enum SuiteErrorCategory {
+
+    /**
+     * Selenium hub throttles creation of browser sessions.
+     */
+    SESSION_THROTTLING,
+    
+    /**
+     * Selenium hub is unavailable or overloaded.
+     */
+    HUB_ERROR,
+    
+    /**
+     * WebDriver command has timed out.
+     */
+    WEB_DRIVER_TIMEOUT,
+    
+    /**
+     * Any other error, e.g. failed assertion or script error, caused by the
+     * application under test.
+     */
+    APPLICATION_ERROR;
+
+    private static final int MAX_CAUSES = 16;
+
+    /**
+     * Lower-case fragments of messages selenium hubs refuse to create a
+     * session with when they are at capacity.
+     */
+    private static final String[] THROTTLING_MARKERS = new String[]{
+            "429",
+            "too many requests",
+            "throttl",
+            "rate limit",
+            "capacity",
+            "queue"
+    };
+
+    /**
+     * @param hubErrorStatus the last status code selenium hub has responded
+     * with to the suite instance, which indicates an infrastructure problem,
+     * or 0 if there were none
+     */
+    public static SuiteErrorCategory classify(Throwable error, int hubErrorStatus) {
+        if (hubErrorStatus == 429) {
+            return SESSION_THROTTLING;
+        }
+
+        if (hubErrorStatus >= 500) {
+            return HUB_ERROR;
+        }
+
+        Throwable cause = error;
+        for (int i = 0; i < MAX_CAUSES && cause != null; i++) {
+            if (cause instanceof SessionNotCreatedException
+                    && isThrottling((SessionNotCreatedException) cause)) {
+                return SESSION_THROTTLING;
+            }
+
+            if (cause instanceof TimeoutException
+                    || cause instanceof ScriptTimeoutException
+                    || cause instanceof java.util.concurrent.TimeoutException) {
+                return WEB_DRIVER_TIMEOUT;
+            }
+
+            if (cause instanceof UncheckedIOException || cause instanceof IOException) {
+                return HUB_ERROR;
+            }
+
+            cause = cause.getCause();
+        }
+
+        return APPLICATION_ERROR;
+    }
+
+    /**
+     * Session might be refused for other reasons as well, e.g. unsupported
+     * capabilities, which shouldn't slow workers down as throttling does.
+     */
+    private static boolean isThrottling(SessionNotCreatedException error) {
+        // raw message excludes build and system info selenium appends
+        String message = error.getRawMessage();
+        if (message == null) {
+            return false;
+        }
+
+        message = message.toLowerCase(Locale.ROOT);
+        for (String marker : THROTTLING_MARKERS) {
+            if (message.contains(marker)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -16,6 +16,7 @@ import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 final class SuiteInstanceContextImpl implements SuiteInstanceContext {
     
@@ -28,12 +29,12 @@ final class SuiteInstanceContextImpl implements SuiteInstanceContext {
     private final boolean logTransactionID;
     private final boolean logFailedTransactions;
     private final boolean rebuildLoggingContext;
-    private final boolean slowDownEnabled;
     private final String suiteInstanceID;
     private final LoadGeneratorContextImpl loadGeneratorContext;
     private final SuiteConfigContextImpl suiteConfigContext;
     private final ConcurrentLinkedDeque<TransactionContextImpl> transactions = new ConcurrentLinkedDeque<>();
     private final ConcurrentHashMap<String, RemoteWebDriverContextImpl> drivers = new ConcurrentHashMap<>();
+    private final AtomicInteger hubErrorStatus = new AtomicInteger(0);
 
     public SuiteInstanceContextImpl(int workerID, long startedAt, long iterationNumber, LoadGeneratorContextImpl loadGeneratorContext, SuiteConfigContextImpl suiteConfigContext) {
         this.workerID = workerID;
@@ -42,7 +43,6 @@ final class SuiteInstanceContextImpl implements SuiteInstanceContext {
         this.loadGeneratorContext = loadGeneratorContext;
         this.suiteInstanceID = UUID.randomUUID().toString();
         this.suiteConfigContext = suiteConfigContext;
-        this.slowDownEnabled = suiteConfigContext.getSuiteConfig().isConcurrencyAutoAdjustment();
         this.logWorkerID = suiteConfigContext.getSuiteConfig().isLogWorkerID();
         this.logSuiteInstanceID = suiteConfigContext.getSuiteConfig().isLogSuiteInstanceID();
         this.logRemoteWebDriverSessionID = suiteConfigContext.getSuiteConfig().isLogRemoteWebDriverSessionID();
@@ -87,8 +87,17 @@ final class SuiteInstanceContextImpl implements SuiteInstanceContext {
         return suiteConfigContext;
     }
 
-    public boolean isSlowDownEnabled() {
-        return slowDownEnabled;
+    /**
+     * @return the last status code selenium hub has responded with, which
+     * indicates throttling or unavailability of the hub, or 0 if there were
+     * none
+     */
+    public int getHubErrorStatus() {
+        return hubErrorStatus.get();
+    }
+
+    public void setHubErrorStatus(int status) {
+        hubErrorStatus.set(status);
     }
 
     public boolean isLogWorkerID() {
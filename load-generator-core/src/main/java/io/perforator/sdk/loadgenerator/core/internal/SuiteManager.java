@@ -12,7 +12,7 @@ package io.perforator.sdk.loadgenerator.core.internal;
 
 interface SuiteManager extends IntegrationListener {
 
-    SuiteInstanceContextImpl startSuiteInstance(int workerID, LoadGeneratorContextImpl loadGeneratorContext, SuiteConfigContextImpl suiteConfigContext);
+    SuiteInstanceContextImpl startSuiteInstance(int workerID, long iterationNumber, LoadGeneratorContextImpl loadGeneratorContext, SuiteConfigContextImpl suiteConfigContext);
 
     void stopSuiteInstance(SuiteInstanceContextImpl suiteContext, Throwable error);
 
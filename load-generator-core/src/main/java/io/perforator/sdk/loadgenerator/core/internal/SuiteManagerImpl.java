@@ -34,7 +34,7 @@ final class SuiteManagerImpl implements SuiteManager {
     }
 
     @Override
-    public SuiteInstanceContextImpl startSuiteInstance(int workerID, LoadGeneratorContextImpl loadGeneratorContext, SuiteConfigContextImpl suiteConfigContext) {
+    public SuiteInstanceContextImpl startSuiteInstance(int workerID, long iterationNumber, LoadGeneratorContextImpl loadGeneratorContext, SuiteConfigContextImpl suiteConfigContext) {
         if (suiteConfigContext == null) {
             throw new IllegalArgumentException(
                     "suiteConfigContext should not be null"
@@ -50,7 +50,7 @@ final class SuiteManagerImpl implements SuiteManager {
         SuiteInstanceContextImpl result = new SuiteInstanceContextImpl(
                 workerID,
                 timestamp,
-                suiteConfigContext.getConcurrencyContext().getAndIncrementIterationsCounter(),
+                iterationNumber,
                 loadGeneratorContext,
                 suiteConfigContext
         );
@@ -287,6 +287,92 @@ final class SuiteManagerImpl implements SuiteManager {
                             + ")"
             );
         }
+
+        if (suiteConfig.getArrivalRate() < 0 || Double.isNaN(suiteConfig.getArrivalRate())) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.arrivalRate
+                            + "(" + suiteConfig.getArrivalRate() + ")"
+                            + " should not be < 0"
+            );
+        }
+
+        if (suiteConfig.getArrivalLateThreshold() == null) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.arrivalLateThreshold
+                            + " should not be null"
+            );
+        }
+
+        if (suiteConfig.getArrivalLateThreshold().isNegative()) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.arrivalLateThreshold
+                            + "("
+                            + suiteConfig.getArrivalLateThreshold().toString().toLowerCase().replace("pt", "")
+                            + ")"
+                            + " should not be < 0 seconds"
+            );
+        }
+
+        if (suiteConfig.getConcurrencyWeight() <= 0) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.concurrencyWeight
+                            + "("
+                            + suiteConfig.getConcurrencyWeight()
+                            + ")"
+                            + " should be > 0"
+            );
+        }
+
+        if (suiteConfig.getConcurrencyMinShare() < 0) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.concurrencyMinShare
+                            + "("
+                            + suiteConfig.getConcurrencyMinShare()
+                            + ")"
+                            + " should not be < 0"
+            );
+        }
+
+        if (suiteConfig.getConcurrencyMaxShare() < 0) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.concurrencyMaxShare
+                            + "("
+                            + suiteConfig.getConcurrencyMaxShare()
+                            + ")"
+                            + " should not be < 0"
+            );
+        }
+
+        if (suiteConfig.getConcurrencyMaxShare() > 0
+                && suiteConfig.getConcurrencyMinShare() > suiteConfig.getConcurrencyMaxShare()) {
+            throw new IllegalArgumentException(
+                    SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.concurrencyMinShare
+                            + "("
+                            + suiteConfig.getConcurrencyMinShare()
+                            + ")"
+                            + " should not be > "
+                            + SuiteConfig.DEFAULTS_FIELD_PREFIX
+                            + "."
+                            + SuiteConfig.Fields.concurrencyMaxShare
+                            + "("
+                            + suiteConfig.getConcurrencyMaxShare()
+                            + ")"
+            );
+        }
     }
     
     private static Duration buildMinDuration() {
@@ -10,8 +10,71 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
-interface TimeProvider {
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+interface TimeProvider extends AutoCloseable {
 
     long getCurrentTime();
 
+    /**
+     * Blocks the current thread for the specified amount of provider time.
+     *
+     * @throws RuntimeException if the thread is interrupted
+     */
+    void sleep(long millis);
+
+    /**
+     * Makes the current thread a participant of the provider time, so the
+     * time doesn't move on while the thread is busy. Threads become
+     * participants on their first {@link #sleep(long)} or
+     * {@link #await(Lock, Condition, long)} as well.
+     */
+    default void enter() {
+    }
+
+    /**
+     * Stops the current thread from being a participant of the provider
+     * time till it enters it again, so the time doesn't wait for the thread
+     * while it blocks on something else or once it is done.
+     */
+    default void leave() {
+    }
+
+    /**
+     * Runs the task repeatedly with the specified delay between the end of
+     * a run and the start of the next one, the same way
+     * {@link java.util.Timer#schedule(java.util.TimerTask, long, long)} does.
+     */
+    ScheduledTask schedule(Runnable task, long delay, long period);
+
+    /**
+     * Runs the task once after the specified delay on a thread of the
+     * provider, so the task should be short and never block.
+     */
+    ScheduledTask schedule(Runnable task, long delay);
+
+    /**
+     * Waits till the condition is signalled, but no longer than the
+     * specified amount of provider time. The lock of the condition should be
+     * held by the current thread, the same way as for
+     * {@link Condition#awaitNanos(long)}.
+     *
+     * @return remaining provider time, or a value &lt;= 0 if the timeout
+     * has elapsed
+     */
+    long await(Lock lock, Condition condition, long millis) throws InterruptedException;
+
+    /**
+     * Cancels all scheduled tasks and stops threads of the provider.
+     */
+    @Override
+    void close();
+
+    interface ScheduledTask {
+
+        void cancel();
+
+    }
+
 }
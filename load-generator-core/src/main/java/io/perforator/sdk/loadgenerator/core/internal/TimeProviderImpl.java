@@ -10,10 +10,16 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
+import io.perforator.sdk.loadgenerator.core.Threaded;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import org.apache.commons.net.ntp.NTPUDPClient;
 import org.apache.commons.net.ntp.TimeInfo;
 import org.slf4j.Logger;
@@ -31,9 +37,11 @@ final class TimeProviderImpl implements TimeProvider {
     };
 
     private final long offsetTime;
+    private final Timer delayedTasksTimer;
 
     public TimeProviderImpl() {
         this.offsetTime = buildOffset();
+        this.delayedTasksTimer = new Timer("perforator-delayed-tasks", true);
     }
 
     private static long buildOffset() {
@@ -81,4 +89,55 @@ final class TimeProviderImpl implements TimeProvider {
         return System.currentTimeMillis() + offsetTime;
     }
 
+    @Override
+    public void sleep(long millis) {
+        Threaded.sleep(millis);
+    }
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay, long period) {
+        Timer timer = new Timer();
+        timer.schedule(
+                new TimerTask() {
+                    @Override
+                    public void run() {
+                        task.run();
+                    }
+                },
+                delay,
+                period
+        );
+        return timer::cancel;
+    }
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay) {
+        TimerTask timerTask = new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Delayed task failed", e);
+                }
+            }
+        };
+        delayedTasksTimer.schedule(timerTask, Math.max(0, delay));
+        return timerTask::cancel;
+    }
+
+    @Override
+    public long await(Lock lock, Condition condition, long millis) throws InterruptedException {
+        long remainingNanos = condition.awaitNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        if (remainingNanos <= 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    @Override
+    public void close() {
+        delayedTasksTimer.cancel();
+    }
+
 }
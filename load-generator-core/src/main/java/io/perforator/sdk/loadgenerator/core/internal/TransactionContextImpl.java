@@ -22,6 +22,8 @@ final class TransactionContextImpl implements TransactionContext {
     private final TransactionContextImpl parentTransactionContext;
     private final String transactionID;
     private final String transactionName;
+    private final AnalyticsEventsDictionaryImpl.TransactionEntry eventsEntry;
+    private volatile HashedTimingWheel.Timeout<TransactionContextImpl> heartbeatTimeout;
 
     TransactionContextImpl(long startedAt, SuiteInstanceContextImpl suiteContext, TransactionContextImpl parentTransactionContext, String transactionID, String transactionName) {
         this.startedAt = startedAt;
@@ -30,6 +32,13 @@ final class TransactionContextImpl implements TransactionContext {
         this.parentTransactionContext = parentTransactionContext;
         this.transactionID = transactionID;
         this.transactionName = transactionName;
+        this.eventsEntry = loadGeneratorContext.getEventsDictionary().createTransactionEntry(
+                suiteContext.getSuiteConfigContext().getSuiteConfig().getName(),
+                suiteContext.getSuiteInstanceID(),
+                transactionID,
+                transactionName,
+                parentTransactionContext == null ? null : parentTransactionContext.getEventsEntry()
+        );
     }
 
     @Override
@@ -65,6 +74,18 @@ final class TransactionContextImpl implements TransactionContext {
         return parentTransactionContext != null;
     }
 
+    public AnalyticsEventsDictionaryImpl.TransactionEntry getEventsEntry() {
+        return eventsEntry;
+    }
+
+    public HashedTimingWheel.Timeout<TransactionContextImpl> getHeartbeatTimeout() {
+        return heartbeatTimeout;
+    }
+
+    public void setHeartbeatTimeout(HashedTimingWheel.Timeout<TransactionContextImpl> heartbeatTimeout) {
+        this.heartbeatTimeout = heartbeatTimeout;
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
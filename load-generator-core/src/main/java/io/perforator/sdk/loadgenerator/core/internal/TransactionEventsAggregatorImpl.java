@@ -10,30 +10,88 @@
  */
 package io.perforator.sdk.loadgenerator.core.internal;
 
-import com.google.common.collect.Lists;
-import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
 import io.perforator.sdk.loadgenerator.core.configs.WebDriverMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 final class TransactionEventsAggregatorImpl implements TransactionEventsAggregator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionEventsAggregatorImpl.class);
     private static final int TRANSACTIONS_AGGREGATION_PER_THREAD = 1024;
+    private static final int FAILURE_MESSAGES_CACHE_SIZE = 1024;
 
     private ExecutorService aggregationExecutor;
+    private HashedTimingWheel<TransactionContextImpl> heartbeatWheel;
+    private long heartbeatInterval;
+    private FailureMessagesCacheImpl failureMessagesCache;
 
     @Override
     public void onLoadGeneratorStarted(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
         int concurrency = loadGeneratorContext.getSuiteConfigContexts().stream().mapToInt(s -> s.getSuiteConfig().getConcurrency()).sum();
         int aggregationThreads = concurrency * 2 / TRANSACTIONS_AGGREGATION_PER_THREAD + 1;
         aggregationExecutor = Executors.newFixedThreadPool(aggregationThreads);
+
+        LoadGeneratorConfig loadGeneratorConfig = loadGeneratorContext.getLoadGeneratorConfig();
+        long flushInterval = loadGeneratorConfig.getEventsFlushInterval().toMillis();
+        Duration heartbeatDuration = loadGeneratorConfig.getTransactionHeartbeatInterval();
+
+        if (heartbeatDuration == null || heartbeatDuration.toMillis() < flushInterval) {
+            LOGGER.warn(
+                    "{}.{} should be >= {}.{} - defaulting it to {}ms",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.transactionHeartbeatInterval,
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.eventsFlushInterval,
+                    flushInterval
+            );
+            heartbeatInterval = flushInterval;
+        } else {
+            heartbeatInterval = heartbeatDuration.toMillis();
+        }
+
+        heartbeatWheel = new HashedTimingWheel<>(timestamp, flushInterval, heartbeatInterval);
+        failureMessagesCache = new FailureMessagesCacheImpl(
+                FAILURE_MESSAGES_CACHE_SIZE,
+                getFailureMessageMaxDepth(loadGeneratorConfig),
+                getFailureMessageMaxLength(loadGeneratorConfig)
+        );
+    }
+
+    private static int getFailureMessageMaxDepth(LoadGeneratorConfig loadGeneratorConfig) {
+        if (loadGeneratorConfig.getFailureMessageMaxDepth() <= 0) {
+            LOGGER.warn(
+                    "{}.{} should be > 0 - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.failureMessageMaxDepth,
+                    LoadGeneratorConfig.DEFAULT_FAILURE_MESSAGE_MAX_DEPTH
+            );
+            return LoadGeneratorConfig.DEFAULT_FAILURE_MESSAGE_MAX_DEPTH;
+        }
+        return loadGeneratorConfig.getFailureMessageMaxDepth();
+    }
+
+    private static int getFailureMessageMaxLength(LoadGeneratorConfig loadGeneratorConfig) {
+        if (loadGeneratorConfig.getFailureMessageMaxLength() <= 0) {
+            LOGGER.warn(
+                    "{}.{} should be > 0 - defaulting it to {}",
+                    LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX,
+                    LoadGeneratorConfig.Fields.failureMessageMaxLength,
+                    LoadGeneratorConfig.DEFAULT_FAILURE_MESSAGE_MAX_LENGTH
+            );
+            return LoadGeneratorConfig.DEFAULT_FAILURE_MESSAGE_MAX_LENGTH;
+        }
+        return loadGeneratorConfig.getFailureMessageMaxLength();
     }
 
     @Override
@@ -57,6 +115,9 @@ final class TransactionEventsAggregatorImpl implements TransactionEventsAggregat
                         null
                 )
         );
+        context.setHeartbeatTimeout(
+                heartbeatWheel.schedule(context, timestamp + heartbeatInterval)
+        );
     }
 
     @Override
@@ -65,6 +126,11 @@ final class TransactionEventsAggregatorImpl implements TransactionEventsAggregat
             return;
         }
 
+        HashedTimingWheel.Timeout<TransactionContextImpl> heartbeatTimeout = context.getHeartbeatTimeout();
+        if (heartbeatTimeout != null) {
+            heartbeatTimeout.cancel();
+        }
+
         context.getLoadGeneratorContext().getEventsBuffer().add(
                 createTransactionEvents(
                         timestamp,
@@ -84,30 +150,17 @@ final class TransactionEventsAggregatorImpl implements TransactionEventsAggregat
             return;
         }
 
-        List<AnalyticsEvent> localBuffer = new ArrayList<>();
-        suiteContext.getTransactions().forEach(transaction -> {
-            AnalyticsEvent eventDto = new AnalyticsEvent();
-            eventDto.setTimestamp(timestamp);
-            eventDto.setSuiteName(suiteConfig.getName());
-            eventDto.setSuiteInstanceId(suiteContext.getSuiteInstanceID());
-
-            eventDto.setSessionId(driverContext.getSessionID());
-            eventDto.setBrowserName(driverContext.getBrowserName());
-            eventDto.setBrowserVersion(driverContext.getBrowserVersion());
-
-            eventDto.setTransactionId(transaction.getTransactionID());
-            eventDto.setTransactionName(transaction.getTransactionName());
-
-            TransactionContextImpl parentTransaction = transaction.getParentTransactionContext();
-            if (parentTransaction != null) {
-                eventDto.setParentTransactionId(parentTransaction.getTransactionID());
-                eventDto.setParentTransactionName(parentTransaction.getTransactionName());
-            }
-
-            eventDto.setEventType(EventType.transaction_heartbeat.name());
-
-            localBuffer.add(eventDto);
-        });
+        List<AnalyticsEventRecord> localBuffer = new ArrayList<>();
+        suiteContext.getTransactions().forEach(transaction -> localBuffer.add(
+                AnalyticsEventRecord.transaction(
+                        timestamp,
+                        EventType.transaction_heartbeat,
+                        transaction.getEventsEntry(),
+                        driverContext.getEventsEntry(),
+                        false,
+                        null
+                )
+        ));
 
         if (!localBuffer.isEmpty()) {
             suiteContext.getLoadGeneratorContext().getEventsBuffer().add(localBuffer);
@@ -123,29 +176,17 @@ final class TransactionEventsAggregatorImpl implements TransactionEventsAggregat
             return;
         }
 
-        List<AnalyticsEvent> localBuffer = new ArrayList<>();
-        suiteContext.getTransactions().forEach(transaction -> {
-            AnalyticsEvent eventDto = new AnalyticsEvent();
-            eventDto.setTimestamp(timestamp);
-            eventDto.setSuiteName(suiteConfig.getName());
-            eventDto.setSuiteInstanceId(suiteContext.getSuiteInstanceID());
-
-            eventDto.setSessionId(driverContext.getSessionID());
-            eventDto.setBrowserName(driverContext.getBrowserName());
-            eventDto.setBrowserVersion(driverContext.getBrowserVersion());
-
-            eventDto.setTransactionId(transaction.getTransactionID());
-            eventDto.setTransactionName(transaction.getTransactionName());
-
-            TransactionContextImpl parentTransaction = transaction.getParentTransactionContext();
-            if (parentTransaction != null) {
-                eventDto.setParentTransactionId(parentTransaction.getTransactionID());
-                eventDto.setParentTransactionName(parentTransaction.getTransactionName());
-            }
-
-            eventDto.setEventType(EventType.transaction_heartbeat.name());
-            localBuffer.add(eventDto);
-        });
+        List<AnalyticsEventRecord> localBuffer = new ArrayList<>();
+        suiteContext.getTransactions().forEach(transaction -> localBuffer.add(
+                AnalyticsEventRecord.transaction(
+                        timestamp,
+                        EventType.transaction_heartbeat,
+                        transaction.getEventsEntry(),
+                        driverContext.getEventsEntry(),
+                        false,
+                        null
+                )
+        ));
 
         if (!localBuffer.isEmpty()) {
             suiteContext.getLoadGeneratorContext().getEventsBuffer().add(localBuffer);
@@ -154,115 +195,117 @@ final class TransactionEventsAggregatorImpl implements TransactionEventsAggregat
 
     @Override
     public void onHeartbeat(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
-        List<TransactionContextImpl> transactions = new ArrayList<>();
-        for (SuiteConfigContextImpl suiteConfigContext: loadGeneratorContext.getSuiteConfigContexts()){
-            if(suiteConfigContext.getSuiteConfig().getWebDriverMode() != WebDriverMode.cloud){
-                continue;
-            }
-            for(SuiteInstanceContextImpl suiteInstanceContext: suiteConfigContext.getSuiteInstanceContexts()){
-                transactions.addAll(suiteInstanceContext.getTransactions());
-            }
+        if (heartbeatWheel == null) {
+            return;
         }
 
-        List<List<TransactionContextImpl>> partitions = Lists.partition(
-                transactions,
-                TRANSACTIONS_AGGREGATION_PER_THREAD
-        );
+        HeartbeatsPartitioner partitioner = new HeartbeatsPartitioner(timestamp, loadGeneratorContext);
+        heartbeatWheel.advance(timestamp, partitioner);
+        partitioner.flush();
+    }
 
-        for (List<TransactionContextImpl> partition : partitions) {
-            aggregationExecutor.submit(() -> {
-                List<AnalyticsEvent> localBuffer = new ArrayList<>();
+    private void submitHeartbeats(long timestamp, LoadGeneratorContextImpl loadGeneratorContext, List<TransactionContextImpl> partition) {
+        aggregationExecutor.submit(() -> {
+            ActiveContextsIndexImpl activeContextsIndex = loadGeneratorContext.getActiveContextsIndex();
+            List<AnalyticsEventRecord> localBuffer = new ArrayList<>();
 
-                for (TransactionContextImpl transaction : partition) {
-                    localBuffer.addAll(createTransactionEvents(
-                            timestamp,
-                            transaction,
-                            EventType.transaction_heartbeat,
-                            null
-                    ));
+            for (TransactionContextImpl transaction : partition) {
+                // transaction could finish after its heartbeat became due, so
+                // the heartbeat shouldn't follow its completion event
+                if (!activeContextsIndex.containsTransaction(transaction)) {
+                    continue;
                 }
 
-                if (!localBuffer.isEmpty()) {
-                    loadGeneratorContext.getEventsBuffer().add(localBuffer);
-                }
-            });
-        }
+                localBuffer.addAll(createTransactionEvents(
+                        timestamp,
+                        transaction,
+                        EventType.transaction_heartbeat,
+                        null
+                ));
+            }
+
+            if (!localBuffer.isEmpty()) {
+                loadGeneratorContext.getEventsBuffer().add(localBuffer);
+            }
+        });
     }
 
-    private List<AnalyticsEvent> createTransactionEvents(
+    private List<AnalyticsEventRecord> createTransactionEvents(
             long timestamp,
             TransactionContextImpl transaction,
             EventType eventType,
             Throwable error
     ) {
-        SuiteInstanceContextImpl suiteContext = transaction.getSuiteContext();
-        SuiteConfig suiteConfig = suiteContext.getSuiteConfigContext().getSuiteConfig();
-        Map<String, RemoteWebDriverContextImpl> suiteDriverContexts = suiteContext.getDrivers();
-
-        List<AnalyticsEvent> events = new ArrayList<>();
+        Map<String, RemoteWebDriverContextImpl> suiteDriverContexts = transaction.getSuiteContext().getDrivers();
+        String failureMessage = error == null ? null : failureMessagesCache.getFailureMessage(error);
 
         if (suiteDriverContexts == null || suiteDriverContexts.isEmpty()) {
-            AnalyticsEvent eventDto = new AnalyticsEvent();
-            eventDto.setTimestamp(timestamp);
-            eventDto.setSuiteName(suiteConfig.getName());
-            eventDto.setSuiteInstanceId(suiteContext.getSuiteInstanceID());
-            eventDto.setTransactionId(transaction.getTransactionID());
-            eventDto.setTransactionName(transaction.getTransactionName());
-
-            TransactionContextImpl parentTransaction = transaction.getParentTransactionContext();
-            if (parentTransaction != null) {
-                eventDto.setParentTransactionId(parentTransaction.getTransactionID());
-                eventDto.setParentTransactionName(parentTransaction.getTransactionName());
-            }
+            return Collections.singletonList(
+                    AnalyticsEventRecord.transaction(
+                            timestamp,
+                            eventType,
+                            transaction.getEventsEntry(),
+                            null,
+                            error != null,
+                            failureMessage
+                    )
+            );
+        }
 
-            eventDto.setEventType(eventType.name());
+        List<AnalyticsEventRecord> events = new ArrayList<>(suiteDriverContexts.size());
+        for (RemoteWebDriverContextImpl driverContext : suiteDriverContexts.values()) {
+            events.add(
+                    AnalyticsEventRecord.transaction(
+                            timestamp,
+                            eventType,
+                            transaction.getEventsEntry(),
+                            driverContext.getEventsEntry(),
+                            error != null,
+                            failureMessage
+                    )
+            );
+        }
+        return events;
+    }
 
-            String failureMessage = null;
+    /**
+     * Collects transactions with due heartbeats into partitions submitted
+     * for aggregation as soon as they are full.
+     */
+    private final class HeartbeatsPartitioner implements Consumer<TransactionContextImpl> {
 
-            if (error != null) {
-                StringWriter sw = new StringWriter();
-                error.printStackTrace(new PrintWriter(sw));
-                failureMessage = sw.toString().trim();
-            }
+        private final long timestamp;
+        private final LoadGeneratorContextImpl loadGeneratorContext;
+        private List<TransactionContextImpl> partition;
 
-            eventDto.setFailed(error != null);
-            eventDto.setFailureMessage(failureMessage);
-            events.add(eventDto);
-        } else {
-            suiteDriverContexts.values().forEach(driverContext -> {
-                AnalyticsEvent eventDto = new AnalyticsEvent();
-                eventDto.setTimestamp(timestamp);
-                eventDto.setSuiteName(suiteConfig.getName());
-                eventDto.setSuiteInstanceId(suiteContext.getSuiteInstanceID());
-
-                eventDto.setSessionId(driverContext.getSessionID());
-                eventDto.setBrowserName(driverContext.getBrowserName());
-                eventDto.setBrowserVersion(driverContext.getBrowserVersion());
-
-                eventDto.setTransactionId(transaction.getTransactionID());
-                eventDto.setTransactionName(transaction.getTransactionName());
-
-                TransactionContextImpl parentTransaction = transaction.getParentTransactionContext();
-                if (parentTransaction != null) {
-                    eventDto.setParentTransactionId(parentTransaction.getTransactionID());
-                    eventDto.setParentTransactionName(parentTransaction.getTransactionName());
-                }
+        private HeartbeatsPartitioner(long timestamp, LoadGeneratorContextImpl loadGeneratorContext) {
+            this.timestamp = timestamp;
+            this.loadGeneratorContext = loadGeneratorContext;
+        }
 
-                eventDto.setEventType(eventType.name());
+        @Override
+        public void accept(TransactionContextImpl transaction) {
+            if (partition == null) {
+                partition = new ArrayList<>(TRANSACTIONS_AGGREGATION_PER_THREAD);
+            }
 
-                String failureMessage = null;
+            partition.add(transaction);
 
-                if (error != null) {
-                    StringWriter sw = new StringWriter();
-                    error.printStackTrace(new PrintWriter(sw));
-                    failureMessage = sw.toString().trim();
-                }
+            if (partition.size() >= TRANSACTIONS_AGGREGATION_PER_THREAD) {
+                flush();
+            }
+        }
 
-                eventDto.setFailed(error != null);
-                eventDto.setFailureMessage(failureMessage);
-                events.add(eventDto);
-            });
+        /**
+         * Submits the partition collected so far, even if it's not full.
+         */
+        public void flush() {
+            if (partition != null) {
+                submitHeartbeats(timestamp, loadGeneratorContext, partition);
+                partition = null;
+            }
         }
-        return events;
+
     }
+
 }
@@ -0,0 +1,417 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simulated clock which doesn't flow on its own.
+ * <br>
+ * Time jumps straight to the earliest deadline of sleeping threads and
+ * scheduled tasks, either explicitly via {@link #advance(long)} or
+ * automatically as soon as no participating thread is busy. Threads
+ * participate from their first {@link #sleep(long)}, {@link #await} or
+ * {@link #enter()} till {@link #leave()}, and they are idle only while they
+ * sleep or await via the provider, so the time never moves on while a
+ * participant works or blocks on anything else. Deadlines expire one by one
+ * in the order of their time, and scheduled tasks run on the thread
+ * advancing the time, so the sequence of events matches the one of a real
+ * run.
+ */
+final class VirtualTimeProviderImpl implements TimeProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualTimeProviderImpl.class);
+
+    /**
+     * How often participants, which have terminated without leaving, are
+     * looked for while some participants are busy.
+     */
+    private static final long TERMINATED_PARTICIPANTS_CHECK_INTERVAL = 1000;
+
+    private final Object monitor = new Object();
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+    private final Set<Thread> participants = ConcurrentHashMap.newKeySet();
+    private final AtomicLong currentTime;
+    private final Thread ticker;
+    private volatile boolean closed = false;
+    private long sequence = 0;
+    // participants which neither sleep nor await via the provider, including
+    // expired sleepers which haven't resumed yet
+    private int busyParticipants = 0;
+
+    /**
+     * @param startTime initial time of the clock
+     * @param autoAdvance should the time be advanced automatically once all
+     * participating threads are idle
+     */
+    VirtualTimeProviderImpl(long startTime, boolean autoAdvance) {
+        this.currentTime = new AtomicLong(startTime);
+
+        if (autoAdvance) {
+            this.ticker = new Thread(this::tick, "virtual-time-ticker");
+            this.ticker.setDaemon(true);
+            this.ticker.start();
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    @Override
+    public long getCurrentTime() {
+        return currentTime.get();
+    }
+
+    @Override
+    public void enter() {
+        synchronized (monitor) {
+            if (participants.add(Thread.currentThread())) {
+                busyParticipants++;
+            }
+        }
+    }
+
+    @Override
+    public void leave() {
+        synchronized (monitor) {
+            if (participants.remove(Thread.currentThread())) {
+                onIdle();
+            }
+        }
+    }
+
+    @Override
+    public void sleep(long millis) {
+        if (millis <= 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException(new InterruptedException());
+            }
+            return;
+        }
+
+        synchronized (monitor) {
+            if (closed) {
+                // nothing advances the time once the provider is closed
+                return;
+            }
+
+            Deadline deadline = new Deadline(
+                    currentTime.get() + millis,
+                    sequence++,
+                    null,
+                    0
+            );
+            deadlines.add(deadline);
+            becomeIdle();
+            monitor.notifyAll();
+
+            try {
+                while (!deadline.expired) {
+                    monitor.wait();
+                }
+            } catch (InterruptedException e) {
+                if (!deadline.expired) {
+                    // the sleeper is counted as busy by the expiry otherwise
+                    deadlines.remove(deadline);
+                    busyParticipants++;
+                }
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay, long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period should be > 0");
+        }
+
+        synchronized (monitor) {
+            Deadline deadline = new Deadline(
+                    currentTime.get() + Math.max(0, delay),
+                    sequence++,
+                    task,
+                    period
+            );
+            deadlines.add(deadline);
+            monitor.notifyAll();
+            return deadline;
+        }
+    }
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay) {
+        synchronized (monitor) {
+            Deadline deadline = new Deadline(
+                    currentTime.get() + Math.max(0, delay),
+                    sequence++,
+                    task,
+                    0
+            );
+            deadlines.add(deadline);
+            monitor.notifyAll();
+            return deadline;
+        }
+    }
+
+    /**
+     * Waits on the condition without any real timeout, while a task
+     * scheduled at the deadline signals the condition, so the waiting thread
+     * stays idle and lets the time jump to the deadline.
+     */
+    @Override
+    public long await(Lock lock, Condition condition, long millis) throws InterruptedException {
+        long deadline = currentTime.get() + millis;
+        if (millis <= 0) {
+            return deadline - currentTime.get();
+        }
+
+        synchronized (monitor) {
+            if (closed) {
+                return deadline - currentTime.get();
+            }
+            becomeIdle();
+        }
+
+        // whoever wakes the thread up first counts it as busy again
+        AtomicBoolean woken = new AtomicBoolean(false);
+        ScheduledTask wakeUp = schedule(
+                () -> {
+                    if (!woken.compareAndSet(false, true)) {
+                        return;
+                    }
+                    onBusy();
+
+                    lock.lock();
+                    try {
+                        condition.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                },
+                millis
+        );
+
+        try {
+            condition.await();
+        } finally {
+            wakeUp.cancel();
+            if (woken.compareAndSet(false, true)) {
+                onBusy();
+            }
+        }
+
+        return deadline - currentTime.get();
+    }
+
+    /**
+     * Stops the ticker, drops scheduled tasks and wakes up sleeping threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        synchronized (monitor) {
+            for (Deadline deadline : deadlines) {
+                if (deadline.task == null) {
+                    deadline.expired = true;
+                    busyParticipants++;
+                } else {
+                    deadline.cancel();
+                }
+            }
+            deadlines.clear();
+            monitor.notifyAll();
+        }
+
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * Moves the time forward expiring all deadlines on the way.
+     */
+    public void advance(long millis) {
+        long targetTime = currentTime.get() + millis;
+
+        while (expireNext(targetTime)) {
+            // keep expiring deadlines till the target time
+        }
+
+        currentTime.accumulateAndGet(targetTime, Math::max);
+    }
+
+    /**
+     * Expires deadlines sharing the earliest time, if it's not after the
+     * limit.
+     *
+     * @return true if anything was expired
+     */
+    private boolean expireNext(long timeLimit) {
+        List<Deadline> dueTasks = new ArrayList<>();
+
+        synchronized (monitor) {
+            Deadline next = peekActive();
+            if (next == null || next.time > timeLimit) {
+                return false;
+            }
+
+            long time = next.time;
+            currentTime.accumulateAndGet(time, Math::max);
+
+            while ((next = peekActive()) != null && next.time == time) {
+                deadlines.poll();
+                if (next.task == null) {
+                    next.expired = true;
+                    busyParticipants++;
+                } else {
+                    dueTasks.add(next);
+                }
+            }
+
+            monitor.notifyAll();
+        }
+
+        for (Deadline task : dueTasks) {
+            try {
+                task.task.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Scheduled task failed at virtual time {}", currentTime.get(), e);
+            }
+
+            synchronized (monitor) {
+                if (!task.cancelled && task.period > 0) {
+                    task.time = currentTime.get() + task.period;
+                    task.sequence = sequence++;
+                    deadlines.add(task);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Drops cancelled deadlines from the head of the queue.
+     *
+     * @return the earliest active deadline without removing it
+     */
+    private Deadline peekActive() {
+        Deadline next;
+        while ((next = deadlines.peek()) != null && next.cancelled) {
+            deadlines.poll();
+        }
+        return next;
+    }
+
+    /**
+     * Counts the current thread as idle, registering it as a participant if
+     * it's not yet - the monitor should be held by the caller.
+     */
+    private void becomeIdle() {
+        if (!participants.add(Thread.currentThread())) {
+            onIdle();
+        }
+    }
+
+    private void onIdle() {
+        if (--busyParticipants == 0) {
+            monitor.notifyAll();
+        }
+    }
+
+    private void onBusy() {
+        synchronized (monitor) {
+            busyParticipants++;
+        }
+    }
+
+    /**
+     * Drops participants which have terminated without leaving, so they
+     * don't hold the time forever - the monitor should be held by the
+     * caller.
+     */
+    private void dropTerminatedParticipants() {
+        for (Thread participant : participants) {
+            if (!participant.isAlive() && participants.remove(participant)) {
+                onIdle();
+            }
+        }
+    }
+
+    /**
+     * Expires the next deadline every time all participants are idle, and
+     * waits for them otherwise.
+     */
+    private void tick() {
+        while (!closed) {
+            synchronized (monitor) {
+                try {
+                    while (!closed && (busyParticipants > 0 || peekActive() == null)) {
+                        if (busyParticipants > 0) {
+                            monitor.wait(TERMINATED_PARTICIPANTS_CHECK_INTERVAL);
+                            dropTerminatedParticipants();
+                        } else {
+                            monitor.wait();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            if (!closed) {
+                expireNext(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    private static final class Deadline implements Comparable<Deadline>, ScheduledTask {
+
+        private final Runnable task;
+        private final long period;
+        private long time;
+        private long sequence;
+        private boolean expired;
+        private volatile boolean cancelled;
+
+        private Deadline(long time, long sequence, Runnable task, long period) {
+            this.time = time;
+            this.sequence = sequence;
+            this.task = task;
+            this.period = period;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Deadline other) {
+            int result = Long.compare(time, other.time);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+
+    }
+
+}
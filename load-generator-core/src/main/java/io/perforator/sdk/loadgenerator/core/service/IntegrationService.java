@@ -10,6 +10,7 @@
  */
 package io.perforator.sdk.loadgenerator.core.service;
 
+import io.perforator.sdk.loadgenerator.core.Threaded;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
 import io.perforator.sdk.loadgenerator.core.context.RemoteWebDriverContext;
 import io.perforator.sdk.loadgenerator.core.context.SuiteConfigContext;
@@ -22,14 +23,119 @@ public interface IntegrationService<C extends SuiteConfigContext, S extends Suit
         SleepService<S>,
         StatisticsService {
 
+    /**
+     * Returned by {@link #tryAcquireSuiteInstancePermit} when the suite
+     * already runs at its desired concurrency.
+     */
+    long SUITE_INSTANCE_PERMIT_THROTTLED = -1;
+
+    /**
+     * Returned by {@link #tryAcquireSuiteInstancePermit} when all iterations
+     * of the suite are already started.
+     */
+    long SUITE_INSTANCE_PERMIT_EXHAUSTED = -2;
+
     void onLoadGeneratorStarted();
 
     void onLoadGeneratorFinished(Throwable loadGeneratorError);
 
+    /**
+     * @return current time of the clock driving the load generator, which
+     * is simulated when {@link io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig#isVirtualTime()}
+     * is enabled
+     */
+    default long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Blocks the current thread for the specified duration of the clock
+     * driving the load generator.
+     */
+    default void sleep(long duration) {
+        Threaded.sleep(duration);
+    }
+
+    /**
+     * Makes the current thread a participant of the clock driving the load
+     * generator, so the simulated clock doesn't move on while the thread is
+     * busy. Threads become participants on their first {@link #sleep(long)}
+     * as well.
+     */
+    default void enterClock() {
+    }
+
+    /**
+     * Stops the current thread from being a participant of the clock
+     * driving the load generator till it enters it again, so the simulated
+     * clock doesn't wait for the thread while it blocks on something else or
+     * once it is done.
+     */
+    default void leaveClock() {
+    }
+
     S onSuiteInstanceStarted(int workerID, C suiteConfigContext);
 
+    /**
+     * Atomically reserves a concurrency slot and an iteration number for a
+     * new suite instance, which should be started afterwards via
+     * {@link #onSuiteInstanceStarted(int, SuiteConfigContext, long)}.
+     *
+     * @return reserved iteration number,
+     * {@link #SUITE_INSTANCE_PERMIT_THROTTLED} or
+     * {@link #SUITE_INSTANCE_PERMIT_EXHAUSTED}
+     * <br>
+     * By default nothing is reserved and the permit is only checked against
+     * the current counters, so implementations should override it to be
+     * atomic.
+     */
+    default long tryAcquireSuiteInstancePermit(C suiteConfigContext) {
+        long iterationNumber = getIterationsCounter(suiteConfigContext);
+        if (iterationNumber >= getIterationsMax(suiteConfigContext)) {
+            return SUITE_INSTANCE_PERMIT_EXHAUSTED;
+        }
+        if (getCurrentConcurrency(suiteConfigContext) >= getDesiredConcurrency(suiteConfigContext)) {
+            return SUITE_INSTANCE_PERMIT_THROTTLED;
+        }
+        return iterationNumber;
+    }
+
+    default S onSuiteInstanceStarted(int workerID, C suiteConfigContext, long iterationNumber) {
+        return onSuiteInstanceStarted(workerID, suiteConfigContext);
+    }
+
+    /**
+     * Parks the current thread till a suite instance permit might become
+     * available, i.e. another suite instance is finished or desired
+     * concurrency is increased, but no longer than the specified timeout.
+     * <br>
+     * Returns immediately if the thread is interrupted, keeping its
+     * interrupted status.
+     */
+    default void awaitSuiteInstancePermit(C suiteConfigContext, long timeoutMillis) {
+        try {
+            Thread.sleep(Math.max(0, timeoutMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     long onSuiteInstanceFinished(S suiteContext, Throwable suiteError);
 
+    /**
+     * Records scheduled arrival of a suite instance which was not launched,
+     * since the suite already runs at its max concurrency.
+     */
+    default void onSuiteArrivalDropped(C suiteConfigContext) {
+    }
+
+    /**
+     * Records scheduled arrival of a suite instance which was launched later
+     * than {@link SuiteConfig#getArrivalLateThreshold()} allows.
+     */
+    default void onSuiteArrivalLate(C suiteConfigContext) {
+    }
+
     int getCurrentConcurrency(C suiteConfigContext);
 
     int getDesiredConcurrency(C suiteConfigContext);
@@ -23,4 +23,51 @@ public interface StatisticsService {
     long getActiveNestedTransactionsCount();
     long getActiveSessionsCount();
     
+    default long getDroppedArrivalsCount() {
+        return 0;
+    }
+
+    default long getLateArrivalsCount() {
+        return 0;
+    }
+    
+    /**
+     * @return latency of the transaction in milliseconds at the specified
+     * percentile(0-100) as it was measured, or -1 if the transaction never
+     * finished
+     */
+    default long getRawTransactionLatency(String transactionName, double percentile) {
+        return -1;
+    }
+    
+    /**
+     * @return latency of the transaction in milliseconds at the specified
+     * percentile(0-100) corrected for coordinated omission, i.e. including
+     * transactions which should have been started while workers were stuck,
+     * or -1 if the transaction never finished
+     */
+    default long getCorrectedTransactionLatency(String transactionName, double percentile) {
+        return -1;
+    }
+    
+    default long getEventsBufferDepth() {
+        return 0;
+    }
+
+    default long getEventsSpilledBytes() {
+        return 0;
+    }
+
+    default long getEventsReplayLag() {
+        return 0;
+    }
+
+    default long getEventsRetryQueueDepth() {
+        return 0;
+    }
+
+    default String getEventsFlusherState() {
+        return "closed";
+    }
+    
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.LoadProfile;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgentSharesTest {
+
+    @Test
+    public void verifySharesSumUpToTotal() {
+        SuiteConfig suiteConfig = SuiteConfig.builder()
+                .name("suite")
+                .concurrency(10)
+                .iterations(101)
+                .arrivalRate(5)
+                .webDriverConcurrency(4)
+                .loadProfile(LoadProfile.parse("stage(1m, 10), soak(1m)"))
+                .build();
+
+        int concurrency = 0;
+        long iterations = 0;
+        double arrivalRate = 0;
+        int webDriverConcurrency = 0;
+        for (int i = 0; i < 3; i++) {
+            List<SuiteConfig> shares = AgentShares.split(List.of(suiteConfig), i, 3);
+            assertEquals(1, shares.size());
+
+            SuiteConfig share = shares.get(0);
+            concurrency += share.getConcurrency();
+            iterations += share.getIterations();
+            arrivalRate += share.getArrivalRate();
+            webDriverConcurrency += share.getWebDriverConcurrency();
+            assertEquals(share.getConcurrency(), share.getLoadProfile().getMaxConcurrency());
+        }
+
+        assertEquals(10, concurrency);
+        assertEquals(101, iterations);
+        assertEquals(5, arrivalRate, 0.000001);
+        assertEquals(4, webDriverConcurrency);
+    }
+
+    @Test
+    public void verifySuitesWithoutShareAreOmitted() {
+        SuiteConfig suiteConfig = SuiteConfig.builder()
+                .name("suite")
+                .concurrency(2)
+                .build();
+
+        assertEquals(1, AgentShares.split(List.of(suiteConfig), 1, 3).size());
+        assertTrue(AgentShares.split(List.of(suiteConfig), 2, 3).isEmpty());
+        assertSame(suiteConfig, AgentShares.split(List.of(suiteConfig), 0, 1).get(0));
+    }
+
+}
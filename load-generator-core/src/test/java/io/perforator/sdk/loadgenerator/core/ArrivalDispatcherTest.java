@@ -0,0 +1,121 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.configs.WebDriverMode;
+import io.perforator.sdk.loadgenerator.core.context.SuiteInstanceContext;
+import io.perforator.sdk.loadgenerator.core.mock.IntegrationServiceMock;
+import io.perforator.sdk.loadgenerator.core.service.IntegrationService;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrivalDispatcherTest {
+
+    private static final double ARRIVAL_RATE = 50;
+    private static final Duration DURATION = Duration.ofSeconds(1);
+
+    @Test
+    public void arrivalsShouldBeEvenlySpacedWithoutRampUp() {
+        double rate = ARRIVAL_RATE / 1000;
+
+        for (long arrivalNumber = 0; arrivalNumber < 100; arrivalNumber++) {
+            assertEquals(arrivalNumber * 20, AbstractLoadGenerator.toArrivalOffset(arrivalNumber, rate, 0));
+        }
+    }
+
+    @Test
+    public void arrivalsShouldAccelerateDuringRampUp() {
+        double rate = ARRIVAL_RATE / 1000;
+        double rampUp = 10_000;
+
+        // rate grows linearly from 0, so half of the full rate arrivals happen during ramp-up
+        long rampUpArrivals = (long) (rate * rampUp / 2);
+        assertEquals(250, rampUpArrivals);
+
+        long previousOffset = -1;
+        long previousInterval = (long) rampUp;
+        for (long arrivalNumber = 1; arrivalNumber < rampUpArrivals; arrivalNumber++) {
+            long offset = AbstractLoadGenerator.toArrivalOffset(arrivalNumber, rate, rampUp);
+            assertTrue(offset > previousOffset);
+            assertTrue(offset < rampUp);
+
+            long interval = offset - previousOffset;
+            assertTrue(interval <= previousInterval + 1);
+            previousInterval = interval;
+            previousOffset = offset;
+        }
+
+        assertEquals((long) rampUp, AbstractLoadGenerator.toArrivalOffset(rampUpArrivals, rate, rampUp));
+        assertEquals((long) rampUp + 20, AbstractLoadGenerator.toArrivalOffset(rampUpArrivals + 1, rate, rampUp));
+    }
+
+    @Test
+    public void arrivalsShouldBeDispatchedAtConfiguredRate() {
+        IntegrationServiceMock mediator = new IntegrationServiceMock();
+        long startedAt = System.currentTimeMillis();
+
+        new ArrivalsGenerator(mediator, buildSuiteConfig(100), Duration.ZERO).run();
+
+        assertTrue(System.currentTimeMillis() - startedAt >= DURATION.toMillis() - 20);
+        assertEquals((long) ARRIVAL_RATE, mediator.getSuccessfulSuiteInstancesCount());
+        assertEquals(0, mediator.getFailedSuiteInstancesCount());
+        assertEquals(0, mediator.getDroppedArrivalsCount());
+        assertEquals(0, mediator.getActiveSuiteInstancesCount());
+    }
+
+    @Test
+    public void arrivalsExceedingConcurrencyShouldBeDropped() {
+        IntegrationServiceMock mediator = new IntegrationServiceMock();
+
+        new ArrivalsGenerator(mediator, buildSuiteConfig(1), Duration.ofMillis(100)).run();
+
+        assertTrue(mediator.getDroppedArrivalsCount() > 0);
+        assertEquals(
+                (long) ARRIVAL_RATE,
+                mediator.getSuccessfulSuiteInstancesCount() + mediator.getDroppedArrivalsCount()
+        );
+        assertEquals(0, mediator.getActiveSuiteInstancesCount());
+    }
+
+    private static SuiteConfig buildSuiteConfig(int concurrency) {
+        return SuiteConfig.builder()
+                .name("arrivals")
+                .concurrency(concurrency)
+                .arrivalRate(ARRIVAL_RATE)
+                .duration(DURATION)
+                .rampUp(Duration.ZERO)
+                .rampDown(Duration.ZERO)
+                .webDriverMode(WebDriverMode.local)
+                .build();
+    }
+
+    private static final class ArrivalsGenerator extends AbstractLoadGenerator {
+
+        private final Duration suiteDuration;
+
+        private ArrivalsGenerator(IntegrationService mediator, SuiteConfig suiteConfig, Duration suiteDuration) {
+            super(mediator, LoadGeneratorConfig.builder().build(), List.of(suiteConfig));
+            this.suiteDuration = suiteDuration;
+        }
+
+        @Override
+        protected void runSuite(SuiteInstanceContext suiteInstanceContext) {
+            Threaded.sleep(suiteDuration.toMillis());
+        }
+
+    }
+
+}
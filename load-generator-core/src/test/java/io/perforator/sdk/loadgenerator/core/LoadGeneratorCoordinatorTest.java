@@ -0,0 +1,115 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.configs.WebDriverMode;
+import io.perforator.sdk.loadgenerator.core.context.SuiteInstanceContext;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadGeneratorCoordinatorTest {
+
+    private static final String SUITE_MIN_DURATION_PROPERTY = "io.perforator.sdk.loadgenerator.core.internal.SuiteManagerImpl.minDuration";
+    private static final int AGENTS_COUNT = 2;
+    private static final int ITERATIONS = 5;
+
+    @Test
+    public void forkedAgentsShouldRunTheirSharesAndReportToCoordinator() {
+        LoadGeneratorCoordinator coordinator = new LoadGeneratorCoordinator(
+                buildLoadGeneratorConfig().toBuilder()
+                        .agentsCount(AGENTS_COUNT)
+                        .build(),
+                List.of(buildSuiteConfig()),
+                (agentIndex, agentProperties) -> {
+                    Map<String, String> properties = new LinkedHashMap<>(agentProperties);
+                    properties.put(SUITE_MIN_DURATION_PROPERTY, Duration.ofMillis(1).toString());
+
+                    return AgentLauncher.forkJvm(Agent.class.getName()).launch(
+                            agentIndex,
+                            properties
+                    );
+                }
+        );
+
+        coordinator.run();
+
+        assertEquals(ITERATIONS, coordinator.getStatistics().getSuccessfulSuiteInstancesCount());
+        assertEquals(0, coordinator.getStatistics().getFailedSuiteInstancesCount());
+        assertEquals(0, coordinator.getStatistics().getActiveSuiteInstancesCount());
+    }
+
+    @Test
+    public void coordinatorShouldBeRequiredOnlyForSeveralAgentsWithoutToken() {
+        LoadGeneratorConfig loadGeneratorConfig = buildLoadGeneratorConfig();
+
+        assertFalse(LoadGeneratorCoordinator.isRequired(loadGeneratorConfig));
+        assertTrue(
+                LoadGeneratorCoordinator.isRequired(
+                        loadGeneratorConfig.toBuilder()
+                                .agentsCount(AGENTS_COUNT)
+                                .build()
+                )
+        );
+        assertFalse(
+                LoadGeneratorCoordinator.isRequired(
+                        loadGeneratorConfig.toBuilder()
+                                .agentsCount(AGENTS_COUNT)
+                                .coordinatorToken("token")
+                                .build()
+                )
+        );
+    }
+
+    private static LoadGeneratorConfig buildLoadGeneratorConfig() {
+        return LoadGeneratorConfig.builder()
+                .eventsFlushInterval(Duration.ofMillis(100))
+                .build();
+    }
+
+    private static SuiteConfig buildSuiteConfig() {
+        return SuiteConfig.builder()
+                .name("coordinated")
+                .concurrency(AGENTS_COUNT)
+                .iterations(ITERATIONS)
+                .duration(Duration.ofMinutes(1))
+                .rampUp(Duration.ZERO)
+                .rampDown(Duration.ZERO)
+                .webDriverMode(WebDriverMode.local)
+                .build();
+    }
+
+    public static final class Agent extends AbstractLoadGenerator {
+
+        public Agent(LoadGeneratorConfig loadGeneratorConfig, List<SuiteConfig> suiteConfigs) {
+            super(loadGeneratorConfig, suiteConfigs);
+        }
+
+        @Override
+        protected void runSuite(SuiteInstanceContext suiteInstanceContext) {
+        }
+
+        public static void main(String[] args) {
+            new Agent(
+                    buildLoadGeneratorConfig().toBuilder().buildWithDefaults(),
+                    List.of(buildSuiteConfig())
+            ).run();
+        }
+
+    }
+
+}
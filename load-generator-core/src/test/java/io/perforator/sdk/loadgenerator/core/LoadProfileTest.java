@@ -0,0 +1,78 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core;
+
+import io.perforator.sdk.loadgenerator.core.configs.LoadProfile;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadProfileTest {
+
+    @Test
+    public void verifyStages() {
+        LoadProfile profile = LoadProfile.parse(
+                "stage(10s, 100), soak(10s); spike(5s, 300)\nstep(20s, 200, 4), stage(10s, 0)"
+        );
+
+        assertEquals(Duration.ofSeconds(55), profile.getDuration());
+        assertEquals(300, profile.getMaxConcurrency());
+
+        assertEquals(0, profile.getConcurrency(0));
+        assertEquals(50, profile.getConcurrency(5_000));
+        assertEquals(100, profile.getConcurrency(15_000));
+        assertEquals(300, profile.getConcurrency(22_000));
+        assertEquals(125, profile.getConcurrency(25_000));
+        assertEquals(150, profile.getConcurrency(30_000));
+        assertEquals(200, profile.getConcurrency(44_999));
+        assertEquals(100, profile.getConcurrency(50_000));
+        assertEquals(0, profile.getConcurrency(60_000));
+    }
+
+    @Test
+    public void verifySine() {
+        LoadProfile profile = LoadProfile.parse("sine(1m, 50, 150, 20s)");
+
+        assertEquals(50, profile.getConcurrency(0));
+        assertEquals(100, profile.getConcurrency(5_000));
+        assertEquals(150, profile.getConcurrency(10_000));
+        assertEquals(50, profile.getConcurrency(20_000));
+        assertEquals(150, profile.getMaxConcurrency());
+    }
+
+    @Test
+    public void verifyScale() {
+        LoadProfile profile = LoadProfile.parse(
+                "stage(1m, 100), soak(30s), step(1.5s, 200, 4), spike(5s, 300), sine(1m, 50, 150, 20s)"
+        ).scale(0.25);
+
+        assertEquals(
+                "stage(60s, 25), soak(30s), step(1.5s, 50, 4), spike(5s, 75), sine(60s, 13, 38, 20s)",
+                profile.toString()
+        );
+        assertEquals(Duration.ofMillis(156_500), profile.getDuration());
+        assertEquals(75, profile.getMaxConcurrency());
+        assertThrows(IllegalArgumentException.class, () -> profile.scale(-1));
+    }
+
+    @Test
+    public void verifyMalformedProfiles() {
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("stage(1m, 10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("ramp(1m, 10)"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("stage(1m)"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("stage(0s, 10)"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("stage(1m, -10)"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("sine(1m, 150, 50, 10s)"));
+    }
+
+}
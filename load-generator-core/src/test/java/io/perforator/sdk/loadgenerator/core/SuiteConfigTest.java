@@ -25,7 +25,8 @@ public class SuiteConfigTest extends AbstractConfigTest<SuiteConfig>{
         return Map.of(
                 SuiteConfig.Fields.name, UUID.randomUUID().toString(),
                 SuiteConfig.Fields.webDriverUseLocalFileDetector, !SuiteConfig.DEFAULT_WEB_DRIVER_USE_LOCAL_FILE_DETECTOR + "",
-                SuiteConfig.Fields.logWorkerID, !SuiteConfig.DEFAULT_LOG_WORKER_ID + ""
+                SuiteConfig.Fields.logWorkerID, !SuiteConfig.DEFAULT_LOG_WORKER_ID + "",
+                SuiteConfig.Fields.loadProfile, "stage(1m, 10), soak(5m), spike(30s, 20)"
         );
     }
     
@@ -0,0 +1,72 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveContextsManagerImplTest {
+
+    @Test
+    void transactionsShouldBeIndexedBySuiteAndName() {
+        SuiteConfig suiteConfig = SuiteConfig.builder().name("suite").concurrency(1).build();
+        LoadGeneratorContextImpl loadGeneratorContext = new LoadGeneratorContextImpl(
+                0,
+                LoadGeneratorConfig.builder().applyDefaults().build(),
+                List.of(suiteConfig)
+        );
+        SuiteConfigContextImpl suiteConfigContext = loadGeneratorContext.getSuiteConfigContexts().get(0);
+        SuiteInstanceContextImpl suiteInstanceContext = new SuiteInstanceContextImpl(
+                0,
+                0,
+                0,
+                loadGeneratorContext,
+                suiteConfigContext
+        );
+
+        TransactionContextImpl parent = new TransactionContextImpl(0, suiteInstanceContext, null, "parent", "open");
+        TransactionContextImpl nested = new TransactionContextImpl(0, suiteInstanceContext, parent, "nested", "click");
+        TransactionContextImpl sibling = new TransactionContextImpl(0, suiteInstanceContext, parent, "sibling", "click");
+
+        ActiveContextsManagerImpl manager = new ActiveContextsManagerImpl();
+        manager.onTransactionStarted(0, parent);
+        manager.onTransactionStarted(0, nested);
+        manager.onTransactionStarted(0, sibling);
+
+        for (ActiveContextsIndexImpl index : List.of(
+                loadGeneratorContext.getActiveContextsIndex(),
+                suiteConfigContext.getActiveContextsIndex()
+        )) {
+            assertEquals(1, index.getTopLevelTransactionsCount());
+            assertEquals(2, index.getNestedTransactionsCount());
+            assertEquals(3, index.getTransactionsCount());
+            assertEquals(2, index.getTransactionsCount("click"));
+            assertEquals(Set.of("open", "click"), index.getTransactionNames());
+            assertTrue(index.containsTransaction(nested));
+        }
+
+        manager.onTransactionFinished(0, nested, null);
+        manager.onTransactionFinished(0, sibling, null);
+
+        ActiveContextsIndexImpl index = suiteConfigContext.getActiveContextsIndex();
+        assertEquals(1, index.getTransactionsCount());
+        assertEquals(0, index.getTransactionsCount("click"));
+        assertEquals(Set.of("open"), index.getTransactionNames());
+        assertFalse(index.containsTransaction(nested));
+        assertTrue(index.containsTransaction(parent));
+    }
+
+}
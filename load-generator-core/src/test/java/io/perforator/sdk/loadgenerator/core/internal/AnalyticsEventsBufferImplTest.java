@@ -0,0 +1,196 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsBufferImplTest {
+
+    private final AnalyticsEventsDictionaryImpl dictionary = new AnalyticsEventsDictionaryImpl();
+
+    @Test
+    void eventsOverCapacityShouldBeSpilledAndReplayedInOrder() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-buffer");
+        try {
+            AnalyticsEventsBufferImpl buffer = new AnalyticsEventsBufferImpl(10, directory.toString(), dictionary);
+
+            assertTrue(buffer.add(createEvents(0, 4)));
+            assertTrue(buffer.add(createEvents(4, 4)));
+            assertFalse(buffer.add(createEvents(8, 4)));
+            assertFalse(buffer.add(createEvents(12, 4)));
+            assertFalse(buffer.add(createEvents(16, 4)));
+            assertEquals(20, buffer.getDepth());
+            assertTrue(buffer.getSpilledBytes() > 0);
+
+            List<AnalyticsEventRecord> submitted = new ArrayList<>();
+            while (!buffer.isEmpty()) {
+                submitted.addAll(buffer.poll());
+                buffer.replay();
+                assertTrue(buffer.getMemoryDepth() <= 10);
+            }
+
+            assertEquals(20, submitted.size());
+            for (int i = 0; i < submitted.size(); i++) {
+                assertEquals(i, submitted.get(i).getTimestamp());
+            }
+            assertEquals(0, buffer.getSpilledBytes());
+
+            buffer.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void replayShouldNotExceedCapacity() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-buffer");
+        try {
+            AnalyticsEventsBufferImpl buffer = new AnalyticsEventsBufferImpl(10, directory.toString(), dictionary);
+
+            assertTrue(buffer.add(createEvents(0, 8)));
+            assertFalse(buffer.add(createEvents(8, 4)));
+            assertFalse(buffer.add(createEvents(12, 3)));
+
+            assertEquals(0, buffer.replay());
+            assertEquals(15, buffer.getDepth());
+            assertEquals(8, buffer.poll().size());
+
+            assertEquals(7, buffer.replay());
+            assertEquals(0, buffer.getSpilledBytes());
+            assertEquals(7, buffer.getDepth());
+
+            buffer.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void recordOverCapacityShouldBeReplayedIntoEmptyBuffer() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-buffer");
+        try {
+            AnalyticsEventsBufferImpl buffer = new AnalyticsEventsBufferImpl(2, directory.toString(), dictionary);
+
+            assertTrue(buffer.add(createEvents(0, 1)));
+            assertFalse(buffer.add(createEvents(1, 5)));
+
+            assertEquals(0, buffer.replay());
+            assertEquals(1, buffer.poll().size());
+            assertEquals(5, buffer.replay());
+            assertEquals(5, buffer.poll().size());
+            assertTrue(buffer.isEmpty());
+
+            buffer.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void eventsShouldBeSpilledWhileSpilledEventsAreNotReplayed() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-buffer");
+        try {
+            AnalyticsEventsBufferImpl buffer = new AnalyticsEventsBufferImpl(10, directory.toString(), dictionary);
+
+            assertTrue(buffer.add(createEvents(0, 8)));
+            assertFalse(buffer.add(createEvents(8, 4)));
+            assertEquals(8, buffer.poll().size());
+
+            // there is a room in memory, but older events are still on disk
+            assertFalse(buffer.add(createEvents(12, 2)));
+            assertEquals(6, buffer.replay());
+
+            List<AnalyticsEventRecord> submitted = new ArrayList<>();
+            List<AnalyticsEventRecord> batch;
+            while ((batch = buffer.poll()) != null) {
+                submitted.addAll(batch);
+            }
+
+            assertEquals(6, submitted.size());
+            for (int i = 0; i < submitted.size(); i++) {
+                assertEquals(8 + i, submitted.get(i).getTimestamp());
+            }
+            assertTrue(buffer.add(createEvents(14, 2)));
+
+            buffer.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void corruptedSpilledRecordShouldBeSkipped() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-buffer");
+        try {
+            AnalyticsEventsBufferImpl buffer = new AnalyticsEventsBufferImpl(4, directory.toString(), dictionary);
+
+            assertTrue(buffer.add(createEvents(0, 4)));
+            assertFalse(buffer.add(createEvents(4, 2)));
+            assertFalse(buffer.add(createEvents(6, 2)));
+
+            Path spillFile;
+            try (Stream<Path> files = Files.list(directory)) {
+                spillFile = files.findFirst().orElseThrow();
+            }
+            // overwrite the beginning of the first payload, keeping its header
+            try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap("}}}}".getBytes(StandardCharsets.UTF_8)), 16);
+            }
+
+            assertEquals(4, buffer.poll().size());
+            assertEquals(2, buffer.replay());
+            assertEquals(6, buffer.poll().get(0).getTimestamp());
+            assertTrue(buffer.isEmpty());
+            assertEquals(0, buffer.getSpilledBytes());
+
+            buffer.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private List<AnalyticsEventRecord> createEvents(int offset, int count) {
+        List<AnalyticsEventRecord> events = new ArrayList<>(count);
+        for (int i = offset; i < offset + count; i++) {
+            events.add(AnalyticsEventRecord.transaction(
+                    i,
+                    EventType.transaction_heartbeat,
+                    dictionary.createTransactionEntry("suite", "instance", "transaction-" + i, "Transaction", null),
+                    null,
+                    false,
+                    null
+            ));
+        }
+        return events;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsCircuitBreakerImplTest {
+
+    @Test
+    void circuitShouldOpenAfterConsecutiveFailures() {
+        AnalyticsEventsCircuitBreakerImpl circuitBreaker = new AnalyticsEventsCircuitBreakerImpl(3);
+
+        assertTrue(circuitBreaker.tryAcquire(0));
+        assertFalse(circuitBreaker.onFailure(0, 1000, 0));
+        assertFalse(circuitBreaker.onFailure(0, 1000, 0));
+        assertEquals(AnalyticsEventsCircuitBreakerImpl.State.closed, circuitBreaker.getState());
+
+        circuitBreaker.onSuccess();
+        assertFalse(circuitBreaker.onFailure(0, 1000, 0));
+        assertFalse(circuitBreaker.onFailure(0, 1000, 0));
+        assertTrue(circuitBreaker.onFailure(0, 1000, 0));
+        assertEquals(AnalyticsEventsCircuitBreakerImpl.State.open, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire(999));
+    }
+
+    @Test
+    void retryAfterShouldOpenCircuitImmediately() {
+        AnalyticsEventsCircuitBreakerImpl circuitBreaker = new AnalyticsEventsCircuitBreakerImpl(3);
+
+        assertTrue(circuitBreaker.onFailure(0, 1000, 5000));
+        assertFalse(circuitBreaker.tryAcquire(4999));
+        assertTrue(circuitBreaker.tryAcquire(5000));
+        assertEquals(AnalyticsEventsCircuitBreakerImpl.State.half_open, circuitBreaker.getState());
+    }
+
+    @Test
+    void singleProbeShouldCloseOrReopenCircuit() {
+        AnalyticsEventsCircuitBreakerImpl circuitBreaker = new AnalyticsEventsCircuitBreakerImpl(1);
+
+        assertTrue(circuitBreaker.onFailure(0, 1000, 0));
+        assertTrue(circuitBreaker.tryAcquire(1000));
+        assertFalse(circuitBreaker.tryAcquire(1000));
+
+        assertTrue(circuitBreaker.onFailure(1000, 2000, 0));
+        assertEquals(AnalyticsEventsCircuitBreakerImpl.State.open, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire(2999));
+        assertTrue(circuitBreaker.tryAcquire(3000));
+
+        circuitBreaker.onSuccess();
+        assertEquals(AnalyticsEventsCircuitBreakerImpl.State.closed, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getConsecutiveFailures());
+        assertTrue(circuitBreaker.tryAcquire(3000));
+        assertTrue(circuitBreaker.tryAcquire(3000));
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.google.gson.reflect.TypeToken;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsDictionaryImplTest {
+
+    private static final String EVENTS_JSON = "[{\"eventType\":\"unknown\",\"timestamp\":1},"
+            + "{\"eventType\":\"concurrency\",\"timestamp\":2,\"concurrencyType\":\"unknown\",\"concurrencyValue\":1},"
+            + "{\"eventType\":\"concurrency\",\"timestamp\":3,\"concurrencyType\":\"concurrent_transactions\",\"concurrencyValue\":5,\"suiteName\":\"suite\"}]";
+
+    private final AnalyticsEventsDictionaryImpl dictionary = new AnalyticsEventsDictionaryImpl();
+
+    @Test
+    void eventsOfUnknownTypesShouldBeSkipped() {
+        AnalyticsEvent unknownEvent = new AnalyticsEvent();
+        unknownEvent.setEventType("unknown");
+        assertNull(dictionary.fromDto(unknownEvent));
+        assertNull(dictionary.fromDto(new AnalyticsEvent()));
+
+        AnalyticsEvent unknownConcurrency = new AnalyticsEvent();
+        unknownConcurrency.setEventType(EventType.concurrency.name());
+        unknownConcurrency.setConcurrencyType("unknown");
+        assertNull(dictionary.fromDto(unknownConcurrency));
+    }
+
+    @Test
+    void eventsOfUnknownTypesShouldBeSkippedWhileReadingLists() {
+        List<AnalyticsEventRecord> events = dictionary.getGson().fromJson(
+                EVENTS_JSON,
+                new TypeToken<List<AnalyticsEventRecord>>() {}.getType()
+        );
+
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getTimestamp());
+        assertEquals(EventType.concurrency, events.get(0).getEventType());
+    }
+
+}
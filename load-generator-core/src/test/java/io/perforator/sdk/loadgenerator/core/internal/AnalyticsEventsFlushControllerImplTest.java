@@ -0,0 +1,125 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsFlushControllerImplTest {
+
+    @Test
+    void fastResponsesShouldGrowSlotsAndBatchSizeUpToBounds() {
+        AnalyticsEventsFlushControllerImpl controller = new AnalyticsEventsFlushControllerImpl(1, 4, 1, 100, 1000, 500);
+        assertEquals(1, controller.getSlots());
+        assertEquals(1000, controller.getBatchSize());
+
+        controller.onResponse(100, false);
+        assertEquals(2, controller.getSlots());
+
+        for (int i = 0; i < 100; i++) {
+            controller.onResponse(100, false);
+        }
+        assertEquals(4, controller.getSlots());
+        assertEquals(1000, controller.getBatchSize());
+        assertEquals(100, controller.getLastLatency());
+    }
+
+    @Test
+    void slowResponsesAndFailuresShouldShrinkSlotsAndBatchSizeDownToBounds() {
+        AnalyticsEventsFlushControllerImpl controller = new AnalyticsEventsFlushControllerImpl(1, 8, 8, 100, 1000, 500);
+
+        controller.onResponse(1000, false);
+        assertEquals(6, controller.getSlots());
+        assertEquals(750, controller.getBatchSize());
+
+        controller.onResponse(100, true);
+        assertEquals(4, controller.getSlots());
+        assertEquals(562, controller.getBatchSize());
+
+        controller.onFailure();
+        assertEquals(2, controller.getSlots());
+        assertEquals(281, controller.getBatchSize());
+
+        for (int i = 0; i < 10; i++) {
+            controller.onFailure();
+        }
+        assertEquals(1, controller.getSlots());
+        assertEquals(100, controller.getBatchSize());
+
+        controller.onResponse(100, false);
+        assertEquals(190, controller.getBatchSize());
+    }
+
+    @Test
+    void slotsShouldNotBeAcquiredOverLimit() {
+        AnalyticsEventsFlushControllerImpl controller = new AnalyticsEventsFlushControllerImpl(2, 2, 2, 1, 1, 500);
+
+        assertTrue(controller.tryAcquire());
+        assertTrue(controller.tryAcquire());
+        assertFalse(controller.tryAcquire());
+        assertEquals(2, controller.getInflightRequests());
+
+        controller.acquire();
+        assertEquals(3, controller.getInflightRequests());
+        controller.release();
+        assertFalse(controller.tryAcquire());
+
+        controller.release();
+        assertTrue(controller.tryAcquire());
+    }
+
+    @Test
+    void concurrentRequestsShouldNotExceedSlots() throws Exception {
+        int slots = 3;
+        AnalyticsEventsFlushControllerImpl controller = new AnalyticsEventsFlushControllerImpl(slots, slots, slots, 1, 1, 500);
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 10_000; j++) {
+                        if (!controller.tryAcquire()) {
+                            continue;
+                        }
+                        maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+                        inProgress.decrementAndGet();
+                        controller.release();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maxInProgress.get() <= slots);
+        assertEquals(0, controller.getInflightRequests());
+    }
+
+}
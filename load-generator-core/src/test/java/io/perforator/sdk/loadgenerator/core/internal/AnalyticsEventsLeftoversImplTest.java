@@ -0,0 +1,241 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.api.okhttpgson.invoker.ApiException;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEvent;
+import io.perforator.sdk.api.okhttpgson.model.AnalyticsEventsSubmissionResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsLeftoversImplTest {
+
+    private final AnalyticsEventsDictionaryImpl dictionary = new AnalyticsEventsDictionaryImpl();
+    private final BrowserCloudContextImpl browserCloudContext = new BrowserCloudContextImpl(
+            "project",
+            "execution",
+            "browser-cloud"
+    );
+
+    @Test
+    void allEventsShouldBeSubmittedOnce() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-leftovers");
+        try {
+            AnalyticsEventsLeftoversImpl leftovers = new AnalyticsEventsLeftoversImpl(directory.toString(), dictionary);
+            assertEquals(25, persist(leftovers, 10, 10, 5));
+
+            List<Path> files = leftovers.find();
+            assertEquals(1, files.size());
+
+            RecordingSender sender = new RecordingSender();
+            assertEquals(25, submit(leftovers, files.get(0), sender, 4));
+            assertEquals(25, sender.submittedIds.size());
+            assertEquals(25, new HashSet<>(sender.submittedIds).size());
+            assertTrue(leftovers.find().isEmpty());
+            assertEquals(0, countFiles(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void claimedFileShouldNotBeSubmittedByAnotherRun() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-leftovers");
+        try {
+            AnalyticsEventsLeftoversImpl leftovers = new AnalyticsEventsLeftoversImpl(directory.toString(), dictionary);
+            persist(leftovers, 10);
+            Path file = leftovers.find().get(0);
+
+            RecordingSender concurrentSender = new RecordingSender();
+            RecordingSender sender = new RecordingSender() {
+                @Override
+                AnalyticsEventsSubmissionResult onSend(List<AnalyticsEventRecord> events) throws ApiException {
+                    assertTrue(leftovers.find().isEmpty());
+                    try {
+                        assertEquals(0, submit(leftovers, file, concurrentSender, 4));
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                    return super.onSend(events);
+                }
+            };
+
+            assertEquals(10, submit(leftovers, file, sender, 4));
+            assertEquals(10, sender.submittedIds.size());
+            assertTrue(concurrentSender.submittedIds.isEmpty());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void failedSubmissionShouldKeepOnlyUnsentEvents() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-leftovers");
+        try {
+            AnalyticsEventsLeftoversImpl leftovers = new AnalyticsEventsLeftoversImpl(directory.toString(), dictionary);
+            persist(leftovers, 10, 10, 5);
+
+            RecordingSender failingSender = new RecordingSender() {
+                @Override
+                AnalyticsEventsSubmissionResult onSend(List<AnalyticsEventRecord> events) throws ApiException {
+                    if (submittedIds.size() >= 9) {
+                        throw new ApiException("Service unavailable");
+                    }
+                    return super.onSend(events);
+                }
+            };
+
+            assertThrows(ApiException.class, () -> submit(leftovers, leftovers.find().get(0), failingSender, 3));
+            assertEquals(11, failingSender.submittedIds.size());
+
+            List<Path> files = leftovers.find();
+            assertEquals(1, files.size());
+
+            RecordingSender sender = new RecordingSender();
+            assertEquals(14, submit(leftovers, files.get(0), sender, 3));
+
+            Set<String> allIds = new HashSet<>(failingSender.submittedIds);
+            allIds.addAll(sender.submittedIds);
+            assertEquals(25, allIds.size());
+            assertEquals(25, failingSender.submittedIds.size() + sender.submittedIds.size());
+            assertEquals(0, countFiles(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void retryableEventsShouldBeKeptForNextRun() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-leftovers");
+        try {
+            AnalyticsEventsLeftoversImpl leftovers = new AnalyticsEventsLeftoversImpl(directory.toString(), dictionary);
+            persist(leftovers, 10);
+
+            RecordingSender throttledSender = new RecordingSender() {
+                @Override
+                AnalyticsEventsSubmissionResult onSend(List<AnalyticsEventRecord> events) throws ApiException {
+                    AnalyticsEventsSubmissionResult result = super.onSend(events);
+                    if (submittedIds.size() > 4) {
+                        List<AnalyticsEvent> retryableEvents = new ArrayList<>();
+                        for (AnalyticsEventRecord event : events.subList(0, 2)) {
+                            retryableEvents.add(event.toDto());
+                            submittedIds.remove(event.getEventId());
+                        }
+                        result.setRetryableEvents(retryableEvents);
+                    }
+                    return result;
+                }
+            };
+
+            assertEquals(6, submit(leftovers, leftovers.find().get(0), throttledSender, 4));
+
+            List<Path> files = leftovers.find();
+            assertEquals(1, files.size());
+
+            RecordingSender sender = new RecordingSender();
+            assertEquals(4, submit(leftovers, files.get(0), sender, 4));
+
+            Set<String> allIds = new HashSet<>(throttledSender.submittedIds);
+            allIds.addAll(sender.submittedIds);
+            assertEquals(10, allIds.size());
+            assertEquals(0, countFiles(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private long persist(AnalyticsEventsLeftoversImpl leftovers, int... batchSizes) throws IOException {
+        List<List<AnalyticsEventRecord>> batches = new ArrayList<>();
+        int offset = 0;
+        for (int batchSize : batchSizes) {
+            List<AnalyticsEventRecord> batch = new ArrayList<>(batchSize);
+            for (int i = offset; i < offset + batchSize; i++) {
+                batch.add(AnalyticsEventRecord.transaction(
+                        i,
+                        EventType.transaction_completed,
+                        dictionary.createTransactionEntry("suite", "instance", "transaction-" + i, "Transaction", null),
+                        null,
+                        false,
+                        null
+                ));
+            }
+            batches.add(batch);
+            offset += batchSize;
+        }
+
+        Iterator<List<AnalyticsEventRecord>> iterator = batches.iterator();
+        return leftovers.persist(browserCloudContext, () -> iterator.hasNext() ? iterator.next() : null);
+    }
+
+    /**
+     * Submits the file batch by batch, the same way the flusher does it.
+     */
+    private static long submit(AnalyticsEventsLeftoversImpl leftovers, Path file, RecordingSender sender, int batchSize) throws IOException, ApiException {
+        AnalyticsEventsLeftoversImpl.Submission submission = leftovers.open(file);
+        if (submission == null) {
+            return 0;
+        }
+
+        try {
+            assertEquals("project", submission.getProjectKey());
+            assertEquals("execution", submission.getExecutionKey());
+            assertEquals("browser-cloud", submission.getBrowserCloudKey());
+
+            for (List<AnalyticsEventRecord> batch; (batch = submission.nextBatch(batchSize)) != null; ) {
+                if (!submission.onSubmitted(batch, sender.onSend(batch))) {
+                    break;
+                }
+            }
+            return submission.getSubmitted();
+        } finally {
+            submission.close();
+        }
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static class RecordingSender {
+
+        final List<String> submittedIds = new ArrayList<>();
+
+        AnalyticsEventsSubmissionResult onSend(List<AnalyticsEventRecord> events) throws ApiException {
+            for (AnalyticsEventRecord event : events) {
+                submittedIds.add(event.getEventId());
+            }
+            return new AnalyticsEventsSubmissionResult();
+        }
+
+    }
+
+}
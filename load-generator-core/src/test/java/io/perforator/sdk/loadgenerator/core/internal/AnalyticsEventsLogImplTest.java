@@ -0,0 +1,234 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsLogImplTest {
+
+    private static final String EXECUTION_KEY = "execution";
+    private static final int SEGMENT_SIZE = 4 * 1024;
+    private static final long RUNNING_OWNER = ProcessHandle.current().pid();
+    private static final long FINISHED_OWNER = Long.MAX_VALUE;
+
+    private final AnalyticsEventsDictionaryImpl dictionary = new AnalyticsEventsDictionaryImpl();
+
+    @Test
+    void acknowledgedSegmentsShouldBeRemoved() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-log");
+        try {
+            AnalyticsEventsLogImpl log = createLog(directory, 1);
+
+            List<List<AnalyticsEventRecord>> batches = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                List<AnalyticsEventRecord> batch = createEvents(i * 10, 10);
+                batches.add(batch);
+                log.append(batch);
+            }
+
+            assertEquals(400, log.getPendingEvents());
+            assertTrue(log.getSegmentsCount() > 1);
+            assertEquals(log.getSegmentsCount(), countSegments(directory));
+
+            for (List<AnalyticsEventRecord> batch : batches.subList(0, 39)) {
+                log.acknowledge(batch);
+            }
+
+            assertEquals(10, log.getPendingEvents());
+            assertEquals(1, log.getSegmentsCount());
+            assertEquals(1, countSegments(directory));
+
+            log.close();
+            assertEquals(0, countSegments(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void eventsShouldBeAcknowledgedByEventId() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-log");
+        try {
+            AnalyticsEventsLogImpl log = createLog(directory, 1);
+            List<AnalyticsEventRecord> events = createEvents(0, 3);
+            log.append(events);
+
+            // events read back from JSON are new instances
+            String json = dictionary.getGson().toJson(events.get(0), AnalyticsEventRecord.class);
+            log.acknowledge(List.of(dictionary.getGson().fromJson(json, AnalyticsEventRecord.class)));
+            log.acknowledge(List.of(dictionary.fromDto(events.get(1).toDto())));
+            assertEquals(1, log.getPendingEvents());
+
+            log.acknowledge(createEvents(100, 1));
+            assertEquals(1, log.getPendingEvents());
+
+            log.acknowledge(events.subList(2, 3));
+            assertEquals(0, log.getPendingEvents());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void unacknowledgedEventsShouldBeReplayedByNextRun() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-log");
+        try {
+            AnalyticsEventsLogImpl crashedLog = createLog(directory, FINISHED_OWNER, 1);
+            List<AnalyticsEventRecord> acknowledged = createEvents(0, 5);
+            List<AnalyticsEventRecord> pending = createEvents(5, 5);
+            crashedLog.append(acknowledged);
+            crashedLog.append(pending);
+            crashedLog.acknowledge(acknowledged);
+            crashedLog.acknowledge(pending.subList(0, 2));
+
+            AnalyticsEventsLogImpl otherExecutionLog = new AnalyticsEventsLogImpl(
+                    directory.toString(),
+                    "other-execution",
+                    RUNNING_OWNER,
+                    3,
+                    dictionary,
+                    SEGMENT_SIZE
+            );
+            assertEquals(0, otherExecutionLog.replay(events -> fail("Unexpected events")));
+
+            AnalyticsEventsLogImpl nextLog = createLog(directory, RUNNING_OWNER, 2);
+            List<AnalyticsEventRecord> replayed = new ArrayList<>();
+            assertEquals(5, nextLog.replay(replayed::addAll));
+
+            assertEquals(5, replayed.size());
+            for (int i = 0; i < replayed.size(); i++) {
+                assertEquals(pending.get(i).getEventId(), replayed.get(i).getEventId());
+            }
+            assertEquals(0, countSegments(directory));
+            assertEquals(0, nextLog.replay(events -> fail("Unexpected events")));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void segmentsOfRunningProcessesShouldNotBeReplayed() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-log");
+        try {
+            // agents of the same execution share its key
+            AnalyticsEventsLogImpl agentLog = createLog(directory, RUNNING_OWNER, 1);
+            agentLog.append(createEvents(0, 5));
+
+            AnalyticsEventsLogImpl nextLog = createLog(directory, FINISHED_OWNER, 2);
+            assertEquals(0, nextLog.replay(events -> fail("Unexpected events")));
+            assertEquals(1, countSegments(directory));
+            assertEquals(5, agentLog.getPendingEvents());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void tornRecordShouldEndSegment() throws Exception {
+        Path directory = Files.createTempDirectory("perforator-events-log");
+        try {
+            AnalyticsEventsLogImpl crashedLog = createLog(directory, FINISHED_OWNER, 1);
+            List<AnalyticsEventRecord> complete = createEvents(0, 5);
+            crashedLog.append(complete);
+            crashedLog.append(createEvents(5, 5));
+            crashedLog.append(createEvents(10, 5));
+
+            Path segment;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                segment = stream.iterator().next();
+            }
+
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+                channel.read(length, 0);
+                length.flip();
+
+                long secondPayload = 2L * AnalyticsEventsLogImpl.RECORD_HEADER_SIZE + length.getInt();
+                channel.write(ByteBuffer.wrap("}}}}".getBytes(StandardCharsets.UTF_8)), secondPayload);
+            }
+
+            AnalyticsEventsLogImpl nextLog = createLog(directory, RUNNING_OWNER, 2);
+            List<AnalyticsEventRecord> replayed = new ArrayList<>();
+            assertEquals(5, nextLog.replay(replayed::addAll));
+
+            for (int i = 0; i < replayed.size(); i++) {
+                assertEquals(complete.get(i).getEventId(), replayed.get(i).getEventId());
+            }
+            assertEquals(0, countSegments(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private AnalyticsEventsLogImpl createLog(Path directory, long startedAt) {
+        return createLog(directory, RUNNING_OWNER, startedAt);
+    }
+
+    private AnalyticsEventsLogImpl createLog(Path directory, long owner, long startedAt) {
+        return new AnalyticsEventsLogImpl(
+                directory.toString(),
+                EXECUTION_KEY,
+                owner,
+                startedAt,
+                dictionary,
+                SEGMENT_SIZE
+        );
+    }
+
+    private List<AnalyticsEventRecord> createEvents(int offset, int count) {
+        List<AnalyticsEventRecord> events = new ArrayList<>(count);
+        for (int i = offset; i < offset + count; i++) {
+            events.add(AnalyticsEventRecord.transaction(
+                    i,
+                    EventType.transaction_heartbeat,
+                    dictionary.createTransactionEntry("suite", "instance", "transaction-" + i, "Transaction", null),
+                    null,
+                    false,
+                    null
+            ));
+        }
+        return events;
+    }
+
+    private static int countSegments(Path directory) throws IOException {
+        int result = 0;
+        String pattern = AnalyticsEventsLogImpl.FILE_PREFIX + "*" + AnalyticsEventsLogImpl.FILE_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            for (Path ignored : stream) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+}
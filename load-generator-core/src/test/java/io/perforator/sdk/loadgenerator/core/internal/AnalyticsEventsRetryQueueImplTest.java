@@ -0,0 +1,71 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsEventsRetryQueueImplTest {
+
+    private final AnalyticsEventsDictionaryImpl dictionary = new AnalyticsEventsDictionaryImpl();
+
+    @Test
+    void batchesShouldBePolledOnceDue() {
+        AnalyticsEventsRetryQueueImpl retryQueue = new AnalyticsEventsRetryQueueImpl(5);
+
+        assertTrue(retryQueue.add(createEvents(0, 2), 2, 3000));
+        assertTrue(retryQueue.add(createEvents(2, 3), 3, 1000));
+        assertTrue(retryQueue.add(List.of(), 2, 0));
+        assertEquals(5, retryQueue.getDepth());
+
+        assertNull(retryQueue.pollDue(999));
+
+        AnalyticsEventsRetryQueueImpl.RetryBatch batch = retryQueue.pollDue(1000);
+        assertEquals(3, batch.getAttempt());
+        assertEquals(3, batch.getEvents().size());
+        assertNull(retryQueue.pollDue(2999));
+
+        batch = retryQueue.pollDue(Long.MAX_VALUE);
+        assertEquals(2, batch.getAttempt());
+        assertEquals(0, retryQueue.getDepth());
+        assertTrue(retryQueue.isEmpty());
+    }
+
+    @Test
+    void batchesShouldBeDroppedAfterMaxAttempts() {
+        AnalyticsEventsRetryQueueImpl retryQueue = new AnalyticsEventsRetryQueueImpl(3);
+
+        assertTrue(retryQueue.add(createEvents(0, 2), 3, 0));
+        assertFalse(retryQueue.add(createEvents(2, 2), 4, 0));
+        assertEquals(2, retryQueue.getDepth());
+
+        assertThrows(IllegalArgumentException.class, () -> new AnalyticsEventsRetryQueueImpl(0));
+    }
+
+    private List<AnalyticsEventRecord> createEvents(int offset, int count) {
+        List<AnalyticsEventRecord> events = new ArrayList<>(count);
+        for (int i = offset; i < offset + count; i++) {
+            events.add(AnalyticsEventRecord.transaction(
+                    i,
+                    EventType.transaction_heartbeat,
+                    dictionary.createTransactionEntry("suite", "instance", "transaction-" + i, "Transaction", null),
+                    null,
+                    false,
+                    null
+            ));
+        }
+        return events;
+    }
+
+}
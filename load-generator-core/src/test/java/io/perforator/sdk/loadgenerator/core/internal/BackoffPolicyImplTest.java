@@ -0,0 +1,98 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackoffPolicyImplTest {
+
+    @Test
+    void errorsShouldBeClassified() {
+        RuntimeException assertion = new RuntimeException(new AssertionError("title"));
+
+        assertEquals(SuiteErrorCategory.APPLICATION_ERROR, SuiteErrorCategory.classify(assertion, 0));
+        assertEquals(SuiteErrorCategory.SESSION_THROTTLING, SuiteErrorCategory.classify(assertion, 429));
+        assertEquals(SuiteErrorCategory.HUB_ERROR, SuiteErrorCategory.classify(assertion, 503));
+        assertEquals(
+                SuiteErrorCategory.SESSION_THROTTLING,
+                SuiteErrorCategory.classify(new RuntimeException(new SessionNotCreatedException("Too Many Requests")), 0)
+        );
+        assertEquals(
+                SuiteErrorCategory.APPLICATION_ERROR,
+                SuiteErrorCategory.classify(new SessionNotCreatedException("unsupported browserVersion"), 0)
+        );
+        assertEquals(
+                SuiteErrorCategory.WEB_DRIVER_TIMEOUT,
+                SuiteErrorCategory.classify(new TimeoutException("page load"), 0)
+        );
+    }
+
+    @Test
+    void backoffShouldEscalateTillSuccess() {
+        BackoffPolicyImpl backoffPolicy = new BackoffPolicyImpl(
+                SuiteConfig.builder()
+                        .applyDefaults()
+                        .slowdownSessionThrottling(Duration.ofSeconds(1))
+                        .slowdownApplicationError(Duration.ZERO)
+                        .slowdownMax(Duration.ofSeconds(20))
+                        .build()
+        );
+
+        assertEquals(0, backoffPolicy.nextBackoff(0, SuiteErrorCategory.APPLICATION_ERROR));
+
+        long previous = 0;
+        long max = 0;
+        for (int i = 0; i < 50; i++) {
+            long backoff = backoffPolicy.nextBackoff(0, SuiteErrorCategory.SESSION_THROTTLING);
+            assertTrue(backoff >= 1000);
+            assertTrue(backoff <= 20_000);
+            assertTrue(backoff <= Math.max(1000, previous) * 3);
+            previous = backoff;
+            max = Math.max(max, backoff);
+        }
+        assertTrue(max > 3000);
+
+        backoffPolicy.reset(0);
+        assertTrue(backoffPolicy.nextBackoff(0, SuiteErrorCategory.SESSION_THROTTLING) <= 3000);
+        assertTrue(backoffPolicy.nextBackoff(1, SuiteErrorCategory.SESSION_THROTTLING) <= 3000);
+    }
+
+    @Test
+    void backoffShouldBeTrackedPerConcurrencySlot() {
+        BackoffPolicyImpl backoffPolicy = new BackoffPolicyImpl(
+                SuiteConfig.builder()
+                        .applyDefaults()
+                        .concurrency(2)
+                        .slowdownSessionThrottling(Duration.ofSeconds(1))
+                        .slowdownMax(Duration.ofSeconds(20))
+                        .build()
+        );
+
+        long previous = 0;
+        for (int i = 0; i < 10; i++) {
+            previous = backoffPolicy.nextBackoff(0, SuiteErrorCategory.SESSION_THROTTLING);
+        }
+        assertTrue(previous >= 1000);
+
+        long next = backoffPolicy.nextBackoff(2, SuiteErrorCategory.SESSION_THROTTLING);
+        assertTrue(next <= previous * 3);
+
+        backoffPolicy.reset(4);
+        assertTrue(backoffPolicy.nextBackoff(0, SuiteErrorCategory.SESSION_THROTTLING) <= 3000);
+    }
+
+}
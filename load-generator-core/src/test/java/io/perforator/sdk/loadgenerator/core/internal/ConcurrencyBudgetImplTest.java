@@ -0,0 +1,96 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyBudgetImplTest {
+
+    @Test
+    void competingSuitesShouldShareBudgetByWeights() {
+        int[] shares = ConcurrencyBudgetImpl.allocate(
+                90,
+                new int[]{0, 0},
+                new int[]{0, 0},
+                new double[]{2, 1},
+                new int[]{100, 100},
+                new int[]{100, 100}
+        );
+
+        assertEquals(60, shares[0]);
+        assertEquals(30, shares[1]);
+    }
+
+    @Test
+    void unusedSlotsShouldBeMovedToOtherSuites() {
+        int[] shares = ConcurrencyBudgetImpl.allocate(
+                100,
+                new int[]{0, 0, 0},
+                new int[]{0, 0, 0},
+                new double[]{1, 1, 1},
+                new int[]{10, 100, 100},
+                new int[]{10, 100, 100}
+        );
+
+        assertEquals(10, shares[0]);
+        assertEquals(45, shares[1]);
+        assertEquals(45, shares[2]);
+    }
+
+    @Test
+    void minSharesShouldBeGuaranteed() {
+        int[] shares = ConcurrencyBudgetImpl.allocate(
+                50,
+                new int[]{0, 20},
+                new int[]{0, 0},
+                new double[]{9, 1},
+                new int[]{100, 100},
+                new int[]{100, 100}
+        );
+
+        assertEquals(27, shares[0]);
+        assertEquals(23, shares[1]);
+    }
+
+    @Test
+    void idleBudgetShouldBeSpreadUpToLimits() {
+        int[] shares = ConcurrencyBudgetImpl.allocate(
+                10,
+                new int[]{0, 0, 0},
+                new int[]{0, 0, 0},
+                new double[]{1, 1, 1},
+                new int[]{0, 0, 2},
+                new int[]{3, 20, 20}
+        );
+
+        assertEquals(10, shares[0] + shares[1] + shares[2]);
+        assertTrue(shares[0] <= 3);
+        assertTrue(shares[2] >= 2);
+    }
+
+    @Test
+    void maxSharesShouldNotBeExceeded() {
+        int[] shares = ConcurrencyBudgetImpl.allocate(
+                100,
+                new int[]{0, 0},
+                new int[]{20, 0},
+                new double[]{3, 1},
+                new int[]{100, 10},
+                new int[]{100, 100}
+        );
+
+        assertEquals(20, shares[0]);
+        assertEquals(80, shares[1]);
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.service.IntegrationService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares CAS-based suite permits with the lock they replaced, when many
+ * workers compete for a few permits.
+ * <br>
+ * It isn't a part of the default test run, use
+ * <code>mvn test -P benchmarks -Dtest=ConcurrencyContextImplBenchmark</code>
+ * to run it.
+ */
+class ConcurrencyContextImplBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyContextImplBenchmark.class);
+
+    private static final int THREADS = 32;
+    private static final int CONCURRENCY = 8;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASUREMENT_ROUNDS = 5;
+
+    @Test
+    void casPermitsVersusLockUnderContention() throws Exception {
+        long[] lockDurations = measure(this::runLockPermits);
+        long[] casDurations = measure(this::runCasPermits);
+
+        LOGGER.info(
+                "{} permits by {} threads for concurrency {}: lock - median {}ms {}, cas - median {}ms {}",
+                ITERATIONS,
+                THREADS,
+                CONCURRENCY,
+                median(lockDurations),
+                Arrays.toString(lockDurations),
+                median(casDurations),
+                Arrays.toString(casDurations)
+        );
+    }
+
+    private long[] measure(Round round) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+
+        long[] result = new long[MEASUREMENT_ROUNDS];
+        for (int i = 0; i < MEASUREMENT_ROUNDS; i++) {
+            result[i] = round.run();
+        }
+        return result;
+    }
+
+    /**
+     * Checks the limits and takes the permit under the single lock, the
+     * way suite instances were started before CAS-based permits.
+     */
+    private long runLockPermits() throws Exception {
+        ConcurrencyContextImpl context = buildContext();
+        ReentrantLock lock = new ReentrantLock();
+
+        long duration = runContended(() -> {
+            while (true) {
+                lock.lock();
+                try {
+                    if (context.getIterationsCounter() >= context.getMaxIterations()) {
+                        return;
+                    }
+                    if (context.getCurrentConcurrency() >= context.getDesiredConcurrency()) {
+                        continue;
+                    }
+                    context.acquirePermit();
+                } finally {
+                    lock.unlock();
+                }
+                context.releasePermit();
+            }
+        });
+
+        assertEquals(ITERATIONS, context.getIterationsCounter());
+        return duration;
+    }
+
+    private long runCasPermits() throws Exception {
+        ConcurrencyContextImpl context = buildContext();
+
+        long duration = runContended(() -> {
+            while (true) {
+                long iteration = context.tryAcquirePermit();
+                if (iteration == IntegrationService.SUITE_INSTANCE_PERMIT_EXHAUSTED) {
+                    return;
+                }
+                if (iteration >= 0) {
+                    context.releasePermit();
+                }
+            }
+        });
+
+        assertEquals(ITERATIONS, context.getIterationsCounter());
+        return duration;
+    }
+
+    private static long runContended(Runnable task) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        Throwable[] errors = new Throwable[THREADS];
+
+        for (int i = 0; i < THREADS; i++) {
+            int threadNumber = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    task.run();
+                } catch (Throwable e) {
+                    errors[threadNumber] = e;
+                }
+            });
+            threads[i].start();
+        }
+
+        long startedAt = System.nanoTime();
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long duration = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        for (Throwable error : errors) {
+            if (error != null) {
+                fail(error);
+            }
+        }
+
+        return duration;
+    }
+
+    private static long median(long[] durations) {
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static ConcurrencyContextImpl buildContext() {
+        return new ConcurrencyContextImpl(
+                SuiteConfig.builder()
+                        .applyDefaults()
+                        .concurrency(CONCURRENCY)
+                        .iterations(ITERATIONS)
+                        .build(),
+                false,
+                null,
+                0,
+                0,
+                Long.MAX_VALUE
+        );
+    }
+
+    @FunctionalInterface
+    private interface Round {
+
+        long run() throws Exception;
+
+    }
+
+}
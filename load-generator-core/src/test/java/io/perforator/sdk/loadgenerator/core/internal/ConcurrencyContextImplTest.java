@@ -0,0 +1,146 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import io.perforator.sdk.loadgenerator.core.service.IntegrationService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyContextImplTest {
+
+    private static final int THREADS = 32;
+    private static final int CONCURRENCY = 8;
+
+    @Test
+    void permitsShouldRespectConcurrencyAndIterations() throws Exception {
+        ConcurrencyContextImpl context = buildContext(CONCURRENCY, 100_000);
+        ConcurrentHashMap<Long, Boolean> iterations = new ConcurrentHashMap<>();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        runContended(() -> {
+            while (true) {
+                long iteration = context.tryAcquirePermit();
+                if (iteration == IntegrationService.SUITE_INSTANCE_PERMIT_EXHAUSTED) {
+                    return;
+                }
+                if (iteration == IntegrationService.SUITE_INSTANCE_PERMIT_THROTTLED) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                assertNull(iterations.put(iteration, Boolean.TRUE));
+                active.decrementAndGet();
+                context.releasePermit();
+            }
+        });
+
+        assertEquals(100_000, iterations.size());
+        assertTrue(maxActive.get() <= CONCURRENCY);
+        assertEquals(0, context.getCurrentConcurrency());
+        assertEquals(100_000, context.getIterationsCounter());
+    }
+
+    @Test
+    void parkedWorkersShouldWakeUpOnReleaseAndScaleUp() throws Exception {
+        ConcurrencyContextImpl context = buildContext(1, 100);
+        assertEquals(0, context.tryAcquirePermit());
+        assertEquals(IntegrationService.SUITE_INSTANCE_PERMIT_THROTTLED, context.tryAcquirePermit());
+
+        Thread waiter = startWaiter(context);
+        context.releasePermit();
+        waiter.join(5_000);
+        assertFalse(waiter.isAlive());
+
+        context.setProfileConcurrency(0);
+        assertEquals(IntegrationService.SUITE_INSTANCE_PERMIT_THROTTLED, context.tryAcquirePermit());
+
+        waiter = startWaiter(context);
+        context.setProfileConcurrency(1);
+        waiter.join(5_000);
+        assertFalse(waiter.isAlive());
+        assertEquals(1, context.tryAcquirePermit());
+    }
+
+    private static Thread startWaiter(ConcurrencyContextImpl context) throws Exception {
+        int waiters = context.getPermitWaiters();
+        Thread result = new Thread(() -> {
+            try {
+                context.awaitPermit(new VirtualTimeProviderImpl(0, false), 60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        result.start();
+
+        // the waiter is counted before it checks the permit, so a permit
+        // released afterwards either is seen by the check or signals it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (context.getPermitWaiters() == waiters && result.isAlive()) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.onSpinWait();
+        }
+        return result;
+    }
+
+    private static void runContended(Runnable task) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        Throwable[] errors = new Throwable[THREADS];
+
+        for (int i = 0; i < THREADS; i++) {
+            int threadNumber = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    task.run();
+                } catch (Throwable e) {
+                    errors[threadNumber] = e;
+                }
+            });
+            threads[i].start();
+        }
+
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Throwable error : errors) {
+            if (error != null) {
+                fail(error);
+            }
+        }
+    }
+
+    private static ConcurrencyContextImpl buildContext(int concurrency, int iterations) {
+        return new ConcurrencyContextImpl(
+                SuiteConfig.builder()
+                        .applyDefaults()
+                        .concurrency(concurrency)
+                        .iterations(iterations)
+                        .build(),
+                false,
+                null,
+                0,
+                0,
+                Long.MAX_VALUE
+        );
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.ConcurrencyController;
+import io.perforator.sdk.loadgenerator.core.ConcurrencySnapshot;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyControllersTest {
+
+    @Test
+    void controllersShouldBeSelectedByName() {
+        assertTrue(create("step") instanceof StepConcurrencyController);
+        assertTrue(create("AIMD") instanceof AimdConcurrencyController);
+        assertTrue(create("pid") instanceof PidConcurrencyController);
+        assertTrue(create("latency") instanceof LatencyTargetConcurrencyController);
+        assertTrue(create("com.example.MissingController") instanceof StepConcurrencyController);
+    }
+
+    @Test
+    void aimdShouldGrowAdditivelyAndShrinkByHalf() {
+        ConcurrencyController controller = create("aimd");
+
+        assertEquals(125, controller.computeDesiredConcurrency(snapshot(100, 99, 1, -1)));
+        assertEquals(50, controller.computeDesiredConcurrency(snapshot(100, 80, 20, -1)));
+    }
+
+    @Test
+    void pidShouldMoveTowardsTargetErrorRate() {
+        ConcurrencyController controller = create("pid");
+
+        int desiredConcurrency = controller.computeDesiredConcurrency(snapshot(500, 100, 0, -1));
+        assertTrue(desiredConcurrency > 500);
+
+        desiredConcurrency = controller.computeDesiredConcurrency(snapshot(desiredConcurrency, 60, 40, -1));
+        assertTrue(desiredConcurrency < 500);
+    }
+
+    @Test
+    void latencyControllerShouldShrinkProportionallyToExcess() {
+        ConcurrencyController controller = create("latency");
+
+        assertEquals(100, controller.computeDesiredConcurrency(snapshot(100, 100, 0, -1)));
+        assertEquals(125, controller.computeDesiredConcurrency(snapshot(100, 100, 0, 900)));
+        assertEquals(80, controller.computeDesiredConcurrency(snapshot(100, 100, 0, 1250)));
+        assertEquals(50, controller.computeDesiredConcurrency(snapshot(100, 100, 0, 10_000)));
+    }
+
+    @Test
+    void reductionReasonShouldBeSuppliedByController() {
+        assertEquals(
+                "20 suite fails out of 100 during last 30000ms",
+                create("aimd").getReductionReason(snapshot(100, 80, 20, -1))
+        );
+        assertTrue(
+                create("latency").getReductionReason(snapshot(100, 100, 0, 1250)).contains(
+                        "latency 1250ms above target 1000ms"
+                )
+        );
+        assertEquals(
+                "20 suite fails out of 100 during last 30000ms",
+                create("latency").getReductionReason(snapshot(100, 80, 20, 900))
+        );
+    }
+
+    private static ConcurrencyController create(String name) {
+        SuiteConfig suiteConfig = SuiteConfig.builder()
+                .name("suite")
+                .concurrency(1000)
+                .concurrencyController(name)
+                .concurrencyTargetLatency(Duration.ofSeconds(1))
+                .build();
+
+        return ConcurrencyControllers.create(suiteConfig, 0.05, 0.025);
+    }
+
+    private static ConcurrencySnapshot snapshot(int desiredConcurrency, long successful, long failed, long latency) {
+        return new ConcurrencySnapshot(
+                "suite",
+                30_000,
+                25,
+                1000,
+                desiredConcurrency,
+                desiredConcurrency,
+                successful,
+                failed,
+                successful,
+                failed,
+                0,
+                percentile -> latency
+        );
+    }
+
+}
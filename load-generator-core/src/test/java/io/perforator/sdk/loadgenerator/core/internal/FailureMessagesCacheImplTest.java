@@ -0,0 +1,75 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailureMessagesCacheImplTest {
+
+    @Test
+    void sameFailuresShouldShareRenderedMessage() {
+        FailureMessagesCacheImpl cache = new FailureMessagesCacheImpl(16, 8, 4096);
+        IllegalStateException[] failures = createFailures(
+                "first line\nsecond line",
+                "first line\nanother line"
+        );
+
+        String message = cache.getFailureMessage(failures[0]);
+        assertSame(message, cache.getFailureMessage(failures[1]));
+        assertEquals(1, cache.size());
+        assertTrue(message.startsWith(IllegalStateException.class.getName() + ": first line\n\tat "));
+        assertFalse(message.contains("second line"));
+    }
+
+    @Test
+    void leastRecentlyUsedFailuresShouldBeEvicted() {
+        FailureMessagesCacheImpl cache = new FailureMessagesCacheImpl(2, 8, 4096);
+        IllegalStateException[] failures = createFailures("first", "second", "third");
+
+        String first = cache.getFailureMessage(failures[0]);
+        String second = cache.getFailureMessage(failures[1]);
+        assertSame(first, cache.getFailureMessage(failures[0]));
+
+        cache.getFailureMessage(failures[2]);
+        assertEquals(2, cache.size());
+        assertSame(first, cache.getFailureMessage(failures[0]));
+
+        String renderedAgain = cache.getFailureMessage(failures[1]);
+        assertEquals(second, renderedAgain);
+        assertFalse(second == renderedAgain);
+    }
+
+    @Test
+    void renderedMessagesShouldBeLimited() {
+        FailureMessagesCacheImpl cache = new FailureMessagesCacheImpl(16, 1, 64);
+
+        String message = cache.getFailureMessage(
+                new RuntimeException("outer", createFailures("inner")[0])
+        );
+        assertTrue(message.length() <= 64);
+        assertNull(cache.getFailureMessage(null));
+    }
+
+    /**
+     * Failures are created at the same place, so they have the same stack
+     * traces and differ only by messages.
+     */
+    private static IllegalStateException[] createFailures(String... messages) {
+        IllegalStateException[] result = new IllegalStateException[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            result[i] = new IllegalStateException(messages[i]);
+        }
+        return result;
+    }
+
+}
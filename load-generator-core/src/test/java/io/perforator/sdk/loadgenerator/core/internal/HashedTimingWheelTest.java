@@ -0,0 +1,80 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK_DURATION = 10;
+    private static final long PERIOD = 40;
+
+    @Test
+    void timeoutsShouldBeRescheduledAcrossWheelRollovers() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, TICK_DURATION, PERIOD);
+        wheel.schedule("item", PERIOD);
+
+        List<Long> expirations = new ArrayList<>();
+        for (long timestamp = 0; timestamp <= 1000; timestamp += TICK_DURATION) {
+            long now = timestamp;
+            wheel.advance(now, item -> expirations.add(now));
+        }
+
+        // the wheel has 16 buckets of 10ms, so it rolls over every 160ms
+        assertEquals(25, expirations.size());
+        for (int i = 0; i < expirations.size(); i++) {
+            assertEquals((i + 1) * PERIOD, (long) expirations.get(i));
+        }
+    }
+
+    @Test
+    void timeoutsBeyondWheelShouldNotExpireEarly() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, TICK_DURATION, PERIOD);
+        wheel.schedule("item", 500);
+
+        for (long timestamp = 0; timestamp < 500; timestamp += TICK_DURATION) {
+            assertEquals(0, wheel.advance(timestamp, item -> fail("expired at " + item)));
+        }
+
+        assertEquals(1, wheel.advance(500, item -> {}));
+    }
+
+    @Test
+    void cancelledTimeoutsShouldNotExpire() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, TICK_DURATION, PERIOD);
+        HashedTimingWheel.Timeout<String> pending = wheel.schedule("pending", PERIOD);
+        HashedTimingWheel.Timeout<String> scheduled = wheel.schedule("scheduled", PERIOD);
+        pending.cancel();
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(PERIOD, expired::add);
+        assertEquals(List.of("scheduled"), expired);
+
+        scheduled.cancel();
+        wheel.advance(10 * PERIOD, expired::add);
+        assertEquals(List.of("scheduled"), expired);
+    }
+
+    @Test
+    void timeoutsShouldExpireOnceAfterLongPause() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, TICK_DURATION, PERIOD);
+        wheel.schedule("item", PERIOD);
+
+        assertEquals(1, wheel.advance(10_000, item -> {}));
+        assertEquals(0, wheel.advance(10_000 + PERIOD - TICK_DURATION, item -> {}));
+        assertEquals(1, wheel.advance(10_000 + PERIOD, item -> {}));
+    }
+
+}
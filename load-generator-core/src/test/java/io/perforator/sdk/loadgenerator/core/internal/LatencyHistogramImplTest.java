@@ -0,0 +1,79 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramImplTest {
+
+    @Test
+    void percentilesShouldStayWithinPrecision() {
+        LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        assertEquals(-1, histogram.getValueAtPercentile(50));
+
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100_000, histogram.getTotalCount());
+        assertEquals(100_000, histogram.getMaxValue());
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 * 0.02);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 * 0.02);
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+        assertEquals(100, histogram.getValueAtPercentile(0.1));
+    }
+
+    @Test
+    void stallShouldBeBackFilledWithExpectedInterval() {
+        LatencyHistogramImpl raw = new LatencyHistogramImpl();
+        LatencyHistogramImpl corrected = new LatencyHistogramImpl();
+
+        for (int i = 0; i < 1000; i++) {
+            raw.record(10);
+            corrected.recordWithExpectedInterval(10, 10);
+        }
+        raw.record(10_000);
+        corrected.recordWithExpectedInterval(10_000, 10);
+
+        assertEquals(1001, raw.getTotalCount());
+        assertEquals(2000, corrected.getTotalCount());
+        assertEquals(10, raw.getValueAtPercentile(99));
+        assertEquals(10_000, raw.getMaxValue());
+        assertEquals(10_000, corrected.getMaxValue());
+        assertTrue(corrected.getValueAtPercentile(75) > 4_000);
+    }
+
+    @Test
+    void backFillShouldMatchRecordingOfEveryMissingValue() {
+        long[][] cases = {{10_000, 10}, {123_457, 7}, {5_000, 1}, {99, 100}, {1_000_000, 333}};
+
+        for (long[] c : cases) {
+            LatencyHistogramImpl expected = new LatencyHistogramImpl();
+            LatencyHistogramImpl actual = new LatencyHistogramImpl();
+
+            expected.record(c[0]);
+            for (long missingValue = c[0] - c[1]; missingValue >= c[1]; missingValue -= c[1]) {
+                expected.record(missingValue);
+            }
+            actual.recordWithExpectedInterval(c[0], c[1]);
+
+            assertEquals(expected.getTotalCount(), actual.getTotalCount());
+            assertEquals(expected.getMaxValue(), actual.getMaxValue());
+            assertEquals(expected.getMean(), actual.getMean(), 0.000001);
+            for (double percentile = 0; percentile <= 100; percentile += 0.5) {
+                assertEquals(expected.getValueAtPercentile(percentile), actual.getValueAtPercentile(percentile));
+            }
+        }
+    }
+
+}
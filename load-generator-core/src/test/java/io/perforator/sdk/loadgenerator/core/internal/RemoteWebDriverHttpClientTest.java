@@ -0,0 +1,191 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import com.sun.net.httpserver.HttpServer;
+import io.perforator.sdk.api.okhttpgson.ApiClientParams;
+import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.Dsl;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteWebDriverHttpClientTest {
+
+    private static final long RETRY_TIMEOUT = 10_000;
+
+    @Test
+    void newSessionRequestShouldBeRetriedTillSuccess() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+
+        try (Hub hub = new Hub(requests, attempt -> attempt < 3 ? 503 : 200)) {
+            CompletableFuture<HttpResponse> result = hub.client.executeAsync(newSessionRequest());
+            HttpResponse response = awaitWhileAdvancing(hub.timeProvider, result);
+
+            assertEquals(200, response.getStatus());
+            assertEquals(3, requests.get());
+            assertEquals(0, hub.suiteInstanceContext.getHubErrorStatus());
+        }
+    }
+
+    @Test
+    void newSessionRequestShouldGiveUpAfterRetryTimeout() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+
+        try (Hub hub = new Hub(requests, attempt -> 503)) {
+            long startedAt = hub.timeProvider.getCurrentTime();
+            CompletableFuture<HttpResponse> result = hub.client.executeAsync(newSessionRequest());
+            HttpResponse response = awaitWhileAdvancing(hub.timeProvider, result);
+
+            assertEquals(503, response.getStatus());
+            assertTrue(hub.timeProvider.getCurrentTime() - startedAt > RETRY_TIMEOUT);
+            assertTrue(requests.get() > 1);
+            assertEquals(503, hub.suiteInstanceContext.getHubErrorStatus());
+        }
+    }
+
+    @Test
+    void cancelledRequestShouldNotBeRetried() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+
+        try (Hub hub = new Hub(requests, attempt -> 503)) {
+            CompletableFuture<HttpResponse> result = hub.client.executeAsync(newSessionRequest());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (requests.get() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, requests.get());
+
+            result.cancel(false);
+            for (int i = 0; i < 50; i++) {
+                hub.timeProvider.advance(1000);
+                Thread.sleep(10);
+            }
+
+            assertTrue(result.isCancelled());
+            assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    void missingSessionShouldBeTerminatedWithoutRetries() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+
+        try (Hub hub = new Hub(requests, attempt -> 404)) {
+            CompletableFuture<HttpResponse> result = hub.client.executeAsync(
+                    new HttpRequest(HttpMethod.DELETE, "/session/1234")
+            );
+            HttpResponse response = awaitWhileAdvancing(hub.timeProvider, result);
+
+            assertEquals(200, response.getStatus());
+            assertEquals(1, requests.get());
+        }
+    }
+
+    private static HttpRequest newSessionRequest() {
+        HttpRequest result = new HttpRequest(HttpMethod.POST, "/session");
+        result.setContent(Contents.utf8String("{}"));
+        return result;
+    }
+
+    /**
+     * Moves virtual time forward in small steps till the response is
+     * received, so retries scheduled after each response are executed.
+     */
+    private static HttpResponse awaitWhileAdvancing(VirtualTimeProviderImpl timeProvider, CompletableFuture<HttpResponse> result) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!result.isDone() && System.nanoTime() < deadline) {
+            timeProvider.advance(100);
+            Thread.sleep(5);
+        }
+        return result.get(1, TimeUnit.SECONDS);
+    }
+
+    private static final class Hub implements AutoCloseable {
+
+        private final HttpServer server;
+        private final AsyncHttpClient httpClient;
+        private final VirtualTimeProviderImpl timeProvider;
+        private final SuiteInstanceContextImpl suiteInstanceContext;
+        private final RemoteWebDriverHttpClient client;
+
+        private Hub(AtomicInteger requests, IntUnaryOperator statuses) throws Exception {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            this.server.createContext("/", exchange -> {
+                int status = statuses.applyAsInt(requests.incrementAndGet());
+                exchange.getRequestBody().readAllBytes();
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            });
+            this.server.start();
+
+            this.httpClient = Dsl.asyncHttpClient();
+            this.timeProvider = new VirtualTimeProviderImpl(0, false);
+
+            SuiteConfig suiteConfig = SuiteConfig.builder()
+                    .applyDefaults()
+                    .webDriverCreateSessionRetryTimeout(Duration.ofMillis(RETRY_TIMEOUT))
+                    .webDriverDeleteSessionRetryTimeout(Duration.ofMillis(RETRY_TIMEOUT))
+                    .build();
+            LoadGeneratorContextImpl loadGeneratorContext = new LoadGeneratorContextImpl(
+                    0,
+                    LoadGeneratorConfig.builder().applyDefaults().build(),
+                    List.of(suiteConfig)
+            );
+            loadGeneratorContext.setAsyncHttpClient(httpClient);
+            loadGeneratorContext.setApiClientParams(ApiClientParams.builder().build());
+            loadGeneratorContext.setBrowserCloudContext(new BrowserCloudContextImpl(
+                    null,
+                    null,
+                    null,
+                    new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()),
+                    null
+            ));
+
+            this.suiteInstanceContext = new SuiteInstanceContextImpl(
+                    0,
+                    0,
+                    0,
+                    loadGeneratorContext,
+                    loadGeneratorContext.getSuiteConfigContext(suiteConfig)
+            );
+            this.client = new RemoteWebDriverHttpClient(
+                    timeProvider,
+                    new EventsRouterImpl(),
+                    suiteInstanceContext
+            );
+        }
+
+        @Override
+        public void close() throws Exception {
+            timeProvider.close();
+            httpClient.close();
+            server.stop(0);
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRateLimiterImplTest {
+
+    @Test
+    void requestsAboveBurstShouldBeQueuedAtSustainedRate() {
+        SessionRateLimiterImpl rateLimiter = new SessionRateLimiterImpl(10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.reserve(1000));
+        }
+        assertEquals(100, rateLimiter.reserve(1000));
+        assertEquals(200, rateLimiter.reserve(1000));
+
+        assertEquals(0, rateLimiter.reserve(10_000));
+    }
+
+    @Test
+    void throttlingShouldSlowDownTillSessionsAreAccepted() {
+        SessionRateLimiterImpl rateLimiter = new SessionRateLimiterImpl(10, 1);
+
+        rateLimiter.onThrottled(1000, 3000);
+        rateLimiter.onThrottled(1100, 3000);
+        assertEquals(5, rateLimiter.getRate(), 0.001);
+        assertEquals(3100, rateLimiter.reserve(1000));
+
+        rateLimiter.onThrottled(2100, 0);
+        assertEquals(2.5, rateLimiter.getRate(), 0.001);
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.onAccepted();
+        }
+        assertEquals(10, rateLimiter.getRate(), 0.001);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterImplTest {
+
+    @Test
+    void onlyEventsWithinWindowShouldBeCounted() {
+        SlidingWindowCounterImpl counter = new SlidingWindowCounterImpl(1000, 10_000);
+        assertEquals(0, counter.getCoveredDuration(1000));
+
+        for (int second = 0; second < 20; second++) {
+            counter.record(1000 + second * 1000 + 500, false);
+            counter.record(1000 + second * 1000 + 700, second % 2 == 0);
+        }
+
+        assertEquals(2_500, counter.getCoveredDuration(3_500));
+        assertEquals(9_000, counter.getCoveredDuration(21_000));
+        assertEquals(9_700, counter.getCoveredDuration(21_700));
+        assertEquals(15, counter.getSuccesses(20_999));
+        assertEquals(5, counter.getFailures(20_999));
+        assertEquals(8, counter.getSuccesses(25_000));
+        assertEquals(2, counter.getFailures(25_000));
+        assertEquals(0, counter.getSuccesses(40_000));
+
+        counter.record(5_000, true);
+        counter.record(500, true);
+        assertEquals(5, counter.getFailures(20_999));
+    }
+
+    @Test
+    void concurrentEventsShouldNotBeLost() throws Exception {
+        SlidingWindowCounterImpl counter = new SlidingWindowCounterImpl(0, 60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                boolean failed = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100_000; j++) {
+                        counter.record(j % 30_000, failed);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(400_000, counter.getSuccesses(59_999));
+        assertEquals(400_000, counter.getFailures(59_999));
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsManagerImplTest {
+
+    @Test
+    void closedModelSuitesShouldBeCorrectedAgainstTheirSchedule() {
+        SuiteConfig suiteConfig = SuiteConfig.builder()
+                .name("closed")
+                .concurrency(10)
+                .iterations(600)
+                .duration(Duration.ofMinutes(2))
+                .delay(Duration.ofMinutes(1))
+                .build();
+
+        assertEquals(1000, StatisticsManagerImpl.determineExpectedInterval(suiteConfig, 0));
+        assertEquals(1000, StatisticsManagerImpl.determineExpectedInterval(suiteConfig, 300));
+        assertEquals(1500, StatisticsManagerImpl.determineExpectedInterval(suiteConfig, 1500));
+    }
+
+    @Test
+    void closedModelSuitesWithDefaultIterationsShouldBeCorrectedAgainstObservedPacing() {
+        SuiteConfig suiteConfig = SuiteConfig.builder()
+                .name("closed")
+                .concurrency(10)
+                .build();
+        assertEquals(SuiteConfig.DEFAULT_ITERATIONS, suiteConfig.getIterations());
+
+        StatisticsContextImpl statisticsContext = new StatisticsContextImpl();
+        assertEquals(0, StatisticsManagerImpl.determineExpectedInterval(
+                suiteConfig,
+                statisticsContext.getSuiteInstancesPacing()
+        ));
+
+        statisticsContext.recordSuiteInstanceDuration(2000);
+        for (int i = 0; i < 100; i++) {
+            statisticsContext.recordSuiteInstanceDuration(4000);
+        }
+
+        long expectedInterval = StatisticsManagerImpl.determineExpectedInterval(
+                suiteConfig,
+                statisticsContext.getSuiteInstancesPacing()
+        );
+        assertTrue(expectedInterval > 3900 && expectedInterval <= 4000);
+    }
+
+    @Test
+    void openModelSuitesShouldNotBeCorrected() {
+        SuiteConfig suiteConfig = SuiteConfig.builder()
+                .name("open")
+                .concurrency(10)
+                .iterations(600)
+                .arrivalRate(5)
+                .build();
+
+        assertEquals(0, StatisticsManagerImpl.determineExpectedInterval(suiteConfig, 1000));
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright Perforator, Inc. and contributors. All rights reserved.
+ *
+ * Use of this software is governed by the Business Source License
+ * included in the LICENSE file.
+ *
+ * As of the Change Date specified in that file, in accordance with
+ * the Business Source License, use of this software will be governed
+ * by the Apache License, Version 2.0.
+ */
+package io.perforator.sdk.loadgenerator.core.internal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualTimeProviderImplTest {
+
+    @Test
+    void scheduledTasksShouldFollowManuallyAdvancedTime() {
+        VirtualTimeProviderImpl timeProvider = new VirtualTimeProviderImpl(0, false);
+        List<Long> runs = new CopyOnWriteArrayList<>();
+
+        TimeProvider.ScheduledTask task = timeProvider.schedule(
+                () -> runs.add(timeProvider.getCurrentTime()),
+                1000,
+                1000
+        );
+
+        timeProvider.advance(5500);
+        assertEquals(List.of(1000L, 2000L, 3000L, 4000L, 5000L), runs);
+        assertEquals(5500, timeProvider.getCurrentTime());
+
+        task.cancel();
+        timeProvider.advance(5000);
+        assertEquals(5, runs.size());
+        assertEquals(10500, timeProvider.getCurrentTime());
+    }
+
+    @Test
+    void hourOfSleepingWorkersShouldBeSimulatedInSeconds() throws Exception {
+        VirtualTimeProviderImpl timeProvider = new VirtualTimeProviderImpl(0, true);
+        List<Long> heartbeats = new CopyOnWriteArrayList<>();
+        TimeProvider.ScheduledTask heartbeat = timeProvider.schedule(
+                () -> heartbeats.add(timeProvider.getCurrentTime()),
+                60_000,
+                60_000
+        );
+
+        long[] steps = new long[]{1000, 2000, 3000, 4000, 5000, 6000, 8000, 9000};
+        ExecutorService executor = Executors.newFixedThreadPool(steps.length);
+        long startedAt = System.nanoTime();
+        try {
+            List<Future<Long>> workers = new ArrayList<>();
+            CountDownLatch started = new CountDownLatch(steps.length);
+            // the time is held till every worker takes part in it
+            timeProvider.enter();
+            for (long step : steps) {
+                workers.add(executor.submit(() -> {
+                    timeProvider.enter();
+                    started.countDown();
+                    long workerStartedAt = timeProvider.getCurrentTime();
+                    try {
+                        while (timeProvider.getCurrentTime() - workerStartedAt < 3_600_000) {
+                            timeProvider.sleep(step);
+                        }
+                        return timeProvider.getCurrentTime() - workerStartedAt;
+                    } finally {
+                        timeProvider.leave();
+                    }
+                }));
+            }
+            started.await(10, TimeUnit.SECONDS);
+            timeProvider.leave();
+
+            for (Future<Long> worker : workers) {
+                assertEquals(3_600_000, worker.get(60, TimeUnit.SECONDS).longValue());
+            }
+        } finally {
+            heartbeat.cancel();
+            executor.shutdownNow();
+            timeProvider.close();
+        }
+
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(30));
+        assertTrue(heartbeats.size() >= 59);
+        for (int i = 0; i < heartbeats.size(); i++) {
+            assertEquals(60_000 * (i + 1), heartbeats.get(i).longValue());
+        }
+    }
+
+    @Test
+    void awaitShouldTimeOutAtVirtualDeadline() throws Exception {
+        VirtualTimeProviderImpl timeProvider = new VirtualTimeProviderImpl(0, true);
+        ReentrantLock lock = new ReentrantLock();
+        Condition condition = lock.newCondition();
+        long startedAt = System.nanoTime();
+
+        try {
+            long remaining = 3_600_000;
+            lock.lock();
+            try {
+                while (remaining > 0) {
+                    remaining = timeProvider.await(lock, condition, remaining);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            assertEquals(3_600_000, timeProvider.getCurrentTime());
+            assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(10));
+        } finally {
+            timeProvider.close();
+        }
+    }
+
+    @Test
+    void timeShouldWaitForBusyParticipants() throws Exception {
+        VirtualTimeProviderImpl timeProvider = new VirtualTimeProviderImpl(0, true);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        List<Long> runs = new CopyOnWriteArrayList<>();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> participant = executor.submit(() -> {
+                timeProvider.enter();
+                try {
+                    entered.countDown();
+                    released.await();
+                } finally {
+                    timeProvider.leave();
+                }
+                return null;
+            });
+
+            entered.await(10, TimeUnit.SECONDS);
+            timeProvider.schedule(() -> runs.add(timeProvider.getCurrentTime()), 1000);
+            Thread.sleep(100);
+            assertTrue(runs.isEmpty());
+            assertEquals(0, timeProvider.getCurrentTime());
+
+            released.countDown();
+            participant.get(10, TimeUnit.SECONDS);
+            while (runs.isEmpty()) {
+                Thread.sleep(1);
+            }
+            assertEquals(List.of(1000L), runs);
+        } finally {
+            executor.shutdownNow();
+            timeProvider.close();
+        }
+    }
+
+    @Test
+    void closeShouldStopTickerAndWakeUpSleepers() throws Exception {
+        Set<Thread> tickers = findTickers();
+        VirtualTimeProviderImpl timeProvider = new VirtualTimeProviderImpl(0, true);
+        tickers = difference(findTickers(), tickers);
+        assertEquals(1, tickers.size());
+
+        List<Long> runs = new CopyOnWriteArrayList<>();
+        timeProvider.schedule(() -> runs.add(timeProvider.getCurrentTime()), 1000, 1000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> sleeper = executor.submit(() -> timeProvider.sleep(Long.MAX_VALUE / 2));
+
+            while (runs.size() < 100) {
+                Thread.sleep(10);
+            }
+            timeProvider.close();
+
+            for (Thread ticker : tickers) {
+                ticker.join(10_000);
+                assertFalse(ticker.isAlive());
+            }
+
+            int runsAfterClose = runs.size();
+            Thread.sleep(100);
+            assertEquals(runsAfterClose, runs.size());
+            sleeper.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Set<Thread> findTickers() {
+        Set<Thread> result = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("virtual-time-ticker")) {
+                result.add(thread);
+            }
+        }
+        return result;
+    }
+
+    private static Set<Thread> difference(Set<Thread> left, Set<Thread> right) {
+        Set<Thread> result = new HashSet<>(left);
+        result.removeAll(right);
+        return result;
+    }
+
+}
@@ -37,6 +37,8 @@ public class IntegrationServiceMock implements IntegrationService<SuiteConfigCon
     private final AtomicInteger topLevelTransactionsInProgress = new AtomicInteger(0);
     private final AtomicInteger nestedTransactionsInProgress = new AtomicInteger(0);
     private final AtomicInteger sessionsInProgress = new AtomicInteger(0);
+    private final AtomicLong arrivalsDropped = new AtomicLong(0);
+    private final AtomicLong arrivalsLate = new AtomicLong(0);
     private final ConcurrentHashMap<String, TransactionContextMock> transactionsActive = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, TransactionContextMock> transactionsSuccessful = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, TransactionContextMock> transactionsFailed = new ConcurrentHashMap<>();
@@ -62,6 +64,63 @@ public class IntegrationServiceMock implements IntegrationService<SuiteConfigCon
         return new SuiteInstanceContextMock(workerID, iterationNumber, new SuiteConfigContextMock(suiteConfig));
     }
 
+    @Override
+    public void onSuiteArrivalDropped(SuiteConfigContextMock suiteConfigContext) {
+        arrivalsDropped.incrementAndGet();
+    }
+
+    @Override
+    public void onSuiteArrivalLate(SuiteConfigContextMock suiteConfigContext) {
+        arrivalsLate.incrementAndGet();
+    }
+
+    @Override
+    public long tryAcquireSuiteInstancePermit(SuiteConfigContextMock suiteConfigContext) {
+        SuiteConfig suiteConfig = suiteConfigContext.getSuiteConfig();
+        AtomicLong iterationsCounter = getIterationsCounter(suiteConfig);
+
+        while (true) {
+            if (iterationsCounter.get() >= suiteConfig.getIterations()) {
+                return SUITE_INSTANCE_PERMIT_EXHAUSTED;
+            }
+
+            int active = suiteInstancesActive.get();
+            if (active >= suiteConfig.getConcurrency()) {
+                return SUITE_INSTANCE_PERMIT_THROTTLED;
+            }
+
+            if (!suiteInstancesActive.compareAndSet(active, active + 1)) {
+                continue;
+            }
+
+            long iterationNumber = iterationsCounter.getAndIncrement();
+            if (iterationNumber >= suiteConfig.getIterations()) {
+                suiteInstancesActive.decrementAndGet();
+                return SUITE_INSTANCE_PERMIT_EXHAUSTED;
+            }
+
+            return iterationNumber;
+        }
+    }
+
+    @Override
+    public void awaitSuiteInstancePermit(SuiteConfigContextMock suiteConfigContext, long timeoutMillis) {
+        try {
+            Thread.sleep(Math.max(1, Math.min(timeoutMillis, 10)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public SuiteInstanceContextMock onSuiteInstanceStarted(int workerID, SuiteConfigContextMock suiteConfigContext, long iterationNumber) {
+        return new SuiteInstanceContextMock(
+                workerID,
+                iterationNumber,
+                new SuiteConfigContextMock(suiteConfigContext.getSuiteConfig())
+        );
+    }
+
     @Override
     public long onSuiteInstanceFinished(SuiteInstanceContextMock suiteContext, Throwable suiteError) {
         suiteInstancesActive.decrementAndGet();
@@ -195,6 +254,51 @@ public class IntegrationServiceMock implements IntegrationService<SuiteConfigCon
         return sessionsInProgress.get();
     }
 
+    @Override
+    public long getDroppedArrivalsCount() {
+        return arrivalsDropped.get();
+    }
+
+    @Override
+    public long getLateArrivalsCount() {
+        return arrivalsLate.get();
+    }
+
+    @Override
+    public long getRawTransactionLatency(String transactionName, double percentile) {
+        return -1;
+    }
+
+    @Override
+    public long getCorrectedTransactionLatency(String transactionName, double percentile) {
+        return -1;
+    }
+
+    @Override
+    public long getEventsBufferDepth() {
+        return 0;
+    }
+
+    @Override
+    public long getEventsSpilledBytes() {
+        return 0;
+    }
+
+    @Override
+    public long getEventsReplayLag() {
+        return 0;
+    }
+
+    @Override
+    public long getEventsRetryQueueDepth() {
+        return 0;
+    }
+
+    @Override
+    public String getEventsFlusherState() {
+        return "closed";
+    }
+
     public Collection<TransactionContextMock> getActiveTransactions() {
         return transactionsActive.values();
     }
@@ -242,6 +346,16 @@ public class IntegrationServiceMock implements IntegrationService<SuiteConfigCon
     public void sleep(SuiteInstanceContextMock context, long duration) {
         Threaded.sleep(duration);
     }
+
+    @Override
+    public void sleep(long duration) {
+        Threaded.sleep(duration);
+    }
+
+    @Override
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
     
     private AtomicLong getIterationsCounter(SuiteConfig suiteConfig) {
         return counters.computeIfAbsent(
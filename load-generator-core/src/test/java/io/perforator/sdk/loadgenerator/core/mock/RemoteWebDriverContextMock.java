@@ -11,7 +11,12 @@
 package io.perforator.sdk.loadgenerator.core.mock;
 
 import io.perforator.sdk.loadgenerator.core.context.RemoteWebDriverContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import org.openqa.selenium.remote.Command;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
 
 public class RemoteWebDriverContextMock implements RemoteWebDriverContext {
     
@@ -53,5 +58,16 @@ public class RemoteWebDriverContextMock implements RemoteWebDriverContext {
     public RemoteWebDriver getRemoteWebDriver() {
         return remoteWebDriver;
     }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(Command command) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return remoteWebDriver.getCommandExecutor().execute(command);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
     
 }
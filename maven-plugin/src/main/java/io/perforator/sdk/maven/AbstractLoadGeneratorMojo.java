@@ -10,6 +10,7 @@
  */
 package io.perforator.sdk.maven;
 
+import io.perforator.sdk.loadgenerator.core.LoadGeneratorAgent;
 import io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig;
 import io.perforator.sdk.loadgenerator.core.configs.SuiteConfig;
 import org.apache.maven.artifact.Artifact;
@@ -21,6 +22,8 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -29,10 +32,14 @@ import java.lang.reflect.Modifier;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -278,7 +285,28 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
     protected String eventsFlushInterval;
 
     /**
-     * How many transaction events should be sent to API per one request?<br/>
+     * Interval on how often to report every active transaction as still
+     * alive.<br/>
+     * <b>Note</b>: heartbeats can't be sent more often than eventsFlushInterval.<br/>
+     * <b>Expected format</b>: 's' symbol after the number represents seconds.<br/>
+     * <b>Examples</b>:
+     * <ul>
+     * <li>0.25s</li>
+     * <li>1s</li>
+     * <li>5s</li>
+     * </ul>
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_TRANSACTION_HEARTBEAT_INTERVAL_S,
+            alias = LoadGeneratorConfig.Fields.transactionHeartbeatInterval,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.transactionHeartbeatInterval
+    )
+    protected String transactionHeartbeatInterval;
+
+    /**
+     * How many transaction events at most should be sent to API per one
+     * request?<br/>
      * <b>Note</b>: this value might be as high as 2000, everything else on top 
      * will be rejected on API end.
      */
@@ -290,6 +318,212 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
     )
     protected String eventsFlushThreshold;
 
+    /**
+     * The smallest amount of transaction events per one request to API.<br/>
+     * Batch size is adjusted between this value and eventsFlushThreshold
+     * according to observed API latency and errors.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MIN_THRESHOLD_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushMinThreshold,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushMinThreshold
+    )
+    protected String eventsFlushMinThreshold;
+
+    /**
+     * The smallest amount of parallel requests sending transaction events
+     * to API.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MIN_PARALLELISM_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushMinParallelism,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushMinParallelism
+    )
+    protected String eventsFlushMinParallelism;
+
+    /**
+     * The largest amount of parallel requests sending transaction events
+     * to API.<br/>
+     * Amount of parallel requests is adjusted between
+     * eventsFlushMinParallelism and this value according to observed API
+     * latency and errors.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MAX_PARALLELISM_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushMaxParallelism,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushMaxParallelism
+    )
+    protected String eventsFlushMaxParallelism;
+
+    /**
+     * Expected round trip of a request sending transaction events to API.<br/>
+     * Slower responses reduce parallelism and batch size, while faster
+     * ones let them grow.<br/>
+     * <b>Expected format</b>: 's' symbol after the number represents seconds.<br/>
+     * <b>Examples</b>:
+     * <ul>
+     * <li>0.5s</li>
+     * <li>1s</li>
+     * <li>2s</li>
+     * </ul>
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_LATENCY_TARGET_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushLatencyTarget,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushLatencyTarget
+    )
+    protected String eventsFlushLatencyTarget;
+
+    /**
+     * Upper bound of the pause before failed transaction events are
+     * resubmitted to API.<br/>
+     * The pause starts from eventsFlushInterval and is doubled, with random
+     * jitter, after every failed attempt.<br/>
+     * <b>Expected format</b>: 's' symbol after the number represents seconds.<br/>
+     * <b>Examples</b>:
+     * <ul>
+     * <li>30s</li>
+     * <li>60s</li>
+     * </ul>
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MAX_BACKOFF_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushMaxBackoff,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushMaxBackoff
+    )
+    protected String eventsFlushMaxBackoff;
+
+    /**
+     * How many consecutive failed submissions of transaction events should
+     * pause flushing until API recovers?<br/>
+     * Once the pause is over, a single request probes API before flushing
+     * is resumed.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_FAILURE_THRESHOLD_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushFailureThreshold,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushFailureThreshold
+    )
+    protected String eventsFlushFailureThreshold;
+
+    /**
+     * How many times should a batch of transaction events be submitted
+     * before its events are dropped?<br/>
+     * Batches waiting while flushing is paused don't spend their attempts.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_FLUSH_MAX_ATTEMPTS_S,
+            alias = LoadGeneratorConfig.Fields.eventsFlushMaxAttempts,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsFlushMaxAttempts
+    )
+    protected String eventsFlushMaxAttempts;
+
+    /**
+     * How many transaction events can be kept in memory while awaiting
+     * submission to API?<br/>
+     * Events on top of this limit are spilled to a local file and submitted
+     * later, so a slow or unavailable API doesn't exhaust the heap.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_BUFFER_CAPACITY_S,
+            alias = LoadGeneratorConfig.Fields.eventsBufferCapacity,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsBufferCapacity
+    )
+    protected String eventsBufferCapacity;
+
+    /**
+     * Directory where transaction events are spilled once
+     * eventsBufferCapacity is exceeded, and where events still pending
+     * after eventsDrainTimeout are saved for the next run.<br/>
+     * System temporary directory is used if it is not specified.
+     */
+    @Parameter(
+            required = false,
+            alias = LoadGeneratorConfig.Fields.eventsSpillDirectory,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsSpillDirectory
+    )
+    protected String eventsSpillDirectory;
+
+    /**
+     * How long to wait for pending transaction events to be sent to API
+     * when the load generator is finished?<br/>
+     * Events which are still pending after this timeout are saved to
+     * eventsSpillDirectory and submitted by the next run.<br/>
+     * <b>Expected format</b>: 's' symbol after the number represents seconds.<br/>
+     * <b>Examples</b>:
+     * <ul>
+     * <li>30s</li>
+     * <li>60s</li>
+     * <li>300s</li>
+     * </ul>
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_DRAIN_TIMEOUT_S,
+            alias = LoadGeneratorConfig.Fields.eventsDrainTimeout,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsDrainTimeout
+    )
+    protected String eventsDrainTimeout;
+
+    /**
+     * Should transaction events be appended to a memory-mapped write-ahead
+     * log in eventsSpillDirectory before they are sent to API?<br/>
+     * Events which weren't accepted by API before the process was killed
+     * are replayed by the next run of the same executionKey.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_LOG_ENABLED_S,
+            alias = LoadGeneratorConfig.Fields.eventsLogEnabled,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsLogEnabled
+    )
+    protected String eventsLogEnabled;
+
+    /**
+     * Should batches of analytics events be compressed with gzip while
+     * they are sent to API? Disabled by default, since API has to accept
+     * gzip encoded requests.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_EVENTS_GZIP_ENABLED_S,
+            alias = LoadGeneratorConfig.Fields.eventsGzipEnabled,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.eventsGzipEnabled
+    )
+    protected String eventsGzipEnabled;
+
+    /**
+     * How many stack frames per exception should be included into failure
+     * message of transaction event?
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_FAILURE_MESSAGE_MAX_DEPTH_S,
+            alias = LoadGeneratorConfig.Fields.failureMessageMaxDepth,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.failureMessageMaxDepth
+    )
+    protected String failureMessageMaxDepth;
+
+    /**
+     * Maximum length of failure message of transaction event - longer stack
+     * traces are truncated.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_FAILURE_MESSAGE_MAX_LENGTH_S,
+            alias = LoadGeneratorConfig.Fields.failureMessageMaxLength,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.failureMessageMaxLength
+    )
+    protected String failureMessageMaxLength;
+
     /**
      * How often progress statistics should be reported in the log? You can turn
      * off progress reporting by specifying this value as <b>0s<b/>.<br/>
@@ -385,6 +619,164 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
     )
     protected String concurrencyScaleUpMultiplier;
 
+    /**
+     * Strategy of concurrency auto adjustment: step, aimd, pid, latency, or
+     * fully qualified name of a class implementing ConcurrencyController with
+     * a public no-arg constructor.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_CONTROLLER_S,
+            alias = SuiteConfig.Fields.concurrencyController,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyController
+    )
+    protected String concurrencyController;
+
+    /**
+     * Percent of failed suite instances concurrency auto adjustment should
+     * stay below.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_TARGET_ERROR_RATE_S,
+            alias = SuiteConfig.Fields.concurrencyTargetErrorRate,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyTargetErrorRate
+    )
+    protected String concurrencyTargetErrorRate;
+
+    /**
+     * Transactions latency the latency concurrency controller should stay
+     * below.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_TARGET_LATENCY_S,
+            alias = SuiteConfig.Fields.concurrencyTargetLatency,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyTargetLatency
+    )
+    protected String concurrencyTargetLatency;
+
+    /**
+     * Percentile(0-100) of transactions latency compared with
+     * concurrencyTargetLatency by the latency concurrency controller.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_TARGET_LATENCY_PERCENTILE_S,
+            alias = SuiteConfig.Fields.concurrencyTargetLatencyPercentile,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyTargetLatencyPercentile
+    )
+    protected String concurrencyTargetLatencyPercentile;
+
+    /**
+     * Sliding window of suite instances statistics used by concurrency auto
+     * adjustment, with 1 second precision and up to 1 hour.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_STATISTICS_WINDOW_S,
+            alias = SuiteConfig.Fields.concurrencyStatisticsWindow,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyStatisticsWindow
+    )
+    protected String concurrencyStatisticsWindow;
+
+    /**
+     * Relative share of concurrencyBudget this suite gets when suites
+     * compete for browsers.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_WEIGHT_S,
+            alias = SuiteConfig.Fields.concurrencyWeight,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyWeight
+    )
+    protected String concurrencyWeight;
+
+    /**
+     * Amount of concurrencyBudget slots guaranteed to this suite regardless
+     * of weights of other suites.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_MIN_SHARE_S,
+            alias = SuiteConfig.Fields.concurrencyMinShare,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyMinShare
+    )
+    protected String concurrencyMinShare;
+
+    /**
+     * Maximum amount of concurrencyBudget slots this suite can take even
+     * when other suites don't need them, zero means no limit.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_CONCURRENCY_MAX_SHARE_S,
+            alias = SuiteConfig.Fields.concurrencyMaxShare,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.concurrencyMaxShare
+    )
+    protected String concurrencyMaxShare;
+
+    /**
+     * Base pause of a worker after its suite instance failed because the
+     * selenium hub throttled creation of browser sessions, zero, the default,
+     * disables it.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_SLOWDOWN_SESSION_THROTTLING_S,
+            alias = SuiteConfig.Fields.slowdownSessionThrottling,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.slowdownSessionThrottling
+    )
+    protected String slowdownSessionThrottling;
+
+    /**
+     * Base pause of a worker after its suite instance failed because the
+     * selenium hub was unavailable, zero, the default, disables it.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_SLOWDOWN_HUB_ERROR_S,
+            alias = SuiteConfig.Fields.slowdownHubError,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.slowdownHubError
+    )
+    protected String slowdownHubError;
+
+    /**
+     * Base pause of a worker after its suite instance failed due to a
+     * WebDriver timeout, zero, the default, disables it.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_SLOWDOWN_WEB_DRIVER_TIMEOUT_S,
+            alias = SuiteConfig.Fields.slowdownWebDriverTimeout,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.slowdownWebDriverTimeout
+    )
+    protected String slowdownWebDriverTimeout;
+
+    /**
+     * Base pause of a worker after its suite instance failed due to an
+     * application error, e.g. failed assertion, zero disables it.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_SLOWDOWN_APPLICATION_ERROR_S,
+            alias = SuiteConfig.Fields.slowdownApplicationError,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.slowdownApplicationError
+    )
+    protected String slowdownApplicationError;
+
+    /**
+     * Maximum pause of a worker after consecutive failures of its suite
+     * instances.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_SLOWDOWN_MAX_S,
+            alias = SuiteConfig.Fields.slowdownMax,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.slowdownMax
+    )
+    protected String slowdownMax;
+
     /**
      * All the suites are processed concurrently via multiple thread workers.
      * Every thread worker has a dedicated ID.<br/>
@@ -457,6 +849,176 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
             property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.failOnSuiteErrors
     )
     protected String failOnSuiteErrors;
+
+    /**
+     * Should every suite worker run on a virtual thread instead of a platform
+     * one?<br/>
+     * <b>Note</b>: virtual threads require Java 21+, platform threads are used
+     * on older runtimes regardless of this flag.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_VIRTUAL_THREADS_S,
+            alias = LoadGeneratorConfig.Fields.virtualThreads,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.virtualThreads
+    )
+    protected String virtualThreads;
+
+    /**
+     * Stack size in bytes of platform threads running suite workers.<br/>
+     * 0 means the default stack size of the JVM.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_WORKER_STACK_SIZE_S,
+            alias = LoadGeneratorConfig.Fields.workerStackSize,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.workerStackSize
+    )
+    protected String workerStackSize;
+
+    /**
+     * Should platform threads running suite workers be daemon threads?
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_WORKER_DAEMON_S,
+            alias = LoadGeneratorConfig.Fields.workerDaemon,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.workerDaemon
+    )
+    protected String workerDaemon;
+
+    /**
+     * Priority(1-10) of platform threads running suite workers.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_WORKER_PRIORITY_S,
+            alias = LoadGeneratorConfig.Fields.workerPriority,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.workerPriority
+    )
+    protected String workerPriority;
+
+    /**
+     * Should the load generator run on a simulated clock instead of the wall
+     * clock?<br/>
+     * Simulated time jumps straight to the next scheduled event whenever all
+     * workers are idle, so long load profiles against mocked browsers complete
+     * in seconds while ramp up, concurrency adjustment and heartbeats behave
+     * the same way they do in real time.<br/>
+     * <b>Note</b>: intended for validating configurations, not for real load
+     * tests.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_VIRTUAL_TIME_S,
+            alias = LoadGeneratorConfig.Fields.virtualTime,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.virtualTime
+    )
+    protected String virtualTime;
+
+    /**
+     * Key of an already created browser cloud to use instead of creating a
+     * new one.<br/>
+     * Requires executionKey of the execution the browser cloud belongs to.
+     * Such browser cloud is not terminated once the load generator is finished,
+     * since it's owned by whoever has created it, e.g. by a coordinator running
+     * several agents.
+     */
+    @Parameter(
+            required = false,
+            alias = LoadGeneratorConfig.Fields.browserCloudKey,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.browserCloudKey
+    )
+    protected String browserCloudKey;
+
+    /**
+     * Address(host:port) of the coordinator which should receive statistics
+     * of this load generator running as one of its agents.<br/>
+     * When it's specified for the coordinator itself, statistics of agents
+     * are accepted only on the host and port of this address.
+     */
+    @Parameter(
+            required = false,
+            alias = LoadGeneratorConfig.Fields.coordinatorAddress,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.coordinatorAddress
+    )
+    protected String coordinatorAddress;
+
+    /**
+     * Zero based index of this load generator among agentsCount agents
+     * sharing the same load.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_AGENT_INDEX_S,
+            alias = LoadGeneratorConfig.Fields.agentIndex,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.agentIndex
+    )
+    protected String agentIndex;
+
+    /**
+     * How many agents share the load of every suite?<br/>
+     * Every agent runs only its own share of concurrency, iterations and
+     * arrival rate of each suite, so all agents together produce the
+     * configured load.<br/>
+     * When it's more than one and coordinatorToken isn't specified, the
+     * plugin runs as a coordinator forking agents as local JVM processes.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_AGENTS_COUNT_S,
+            alias = LoadGeneratorConfig.Fields.agentsCount,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.agentsCount
+    )
+    protected String agentsCount;
+
+    /**
+     * Secret shared by the coordinator and its agents, generated by the
+     * coordinator unless it's specified.
+     */
+    @Parameter(
+            required = false,
+            alias = LoadGeneratorConfig.Fields.coordinatorToken,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.coordinatorToken
+    )
+    protected String coordinatorToken;
+
+    /**
+     * Maximum amount of suite instances running concurrently across all
+     * suites, shared according to concurrencyWeight of suites, zero means
+     * unlimited.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_CONCURRENCY_BUDGET_S,
+            alias = LoadGeneratorConfig.Fields.concurrencyBudget,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.concurrencyBudget
+    )
+    protected String concurrencyBudget;
+
+    /**
+     * Sustained rate(per second) of requests creating new browser sessions,
+     * zero means unlimited.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_WEB_DRIVER_SESSION_RATE_S,
+            alias = LoadGeneratorConfig.Fields.webDriverSessionRate,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.webDriverSessionRate
+    )
+    protected String webDriverSessionRate;
+
+    /**
+     * Amount of requests creating new browser sessions which can be sent at
+     * once above webDriverSessionRate.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = LoadGeneratorConfig.DEFAULT_WEB_DRIVER_SESSION_BURST_S,
+            alias = LoadGeneratorConfig.Fields.webDriverSessionBurst,
+            property = LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + "." + LoadGeneratorConfig.Fields.webDriverSessionBurst
+    )
+    protected String webDriverSessionBurst;
     
     /**
      * Should a performance test fail at the end of the execution in case of any
@@ -739,6 +1301,70 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
     )
     protected String rampDown;
 
+    /**
+     * Target arrival rate of new suite instances per second.<br/>
+     * When it is > 0, suite instances are launched on schedule regardless of
+     * how long previous ones take (open model), instead of being processed back
+     * to back by a fixed set of workers. The rate grows linearly from 0 during
+     * rampUp period, and concurrency caps how many suite instances are allowed
+     * to run at the same time - arrivals exceeding the cap are dropped.<br/>
+     * The value 0 keeps the closed model with concurrency workers.
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_ARRIVAL_RATE_S,
+            alias = SuiteConfig.Fields.arrivalRate,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.arrivalRate
+    )
+    protected String arrivalRate;
+
+    /**
+     * How much later than scheduled a suite instance can be launched before
+     * its arrival is reported as late.<br/>
+     * Applicable only when arrivalRate is > 0.<br/>
+     * <b>Expected format</b>: 'm' symbol represents a minute, 
+     * 's' symbol represents a second.<br/>
+     * <b>Examples</b>:
+     * <ul>
+     * <li>1s</li>
+     * <li>2s</li>
+     * </ul>
+     */
+    @Parameter(
+            required = false,
+            defaultValue = SuiteConfig.DEFAULT_ARRIVAL_LATE_THRESHOLD_S,
+            alias = SuiteConfig.Fields.arrivalLateThreshold,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.arrivalLateThreshold
+    )
+    protected String arrivalLateThreshold;
+
+    /**
+     * Shape of suite concurrency over time.<br/>
+     * Desired concurrency follows the profile starting once the delay is
+     * elapsed, while concurrency stays the upper bound for any stage. The
+     * profile replaces the linear rampUp of workers.<br/>
+     * <b>Expected format</b>: stages separated by commas or semicolons:
+     * <ul>
+     * <li>stage(duration, target) - linear change up to the target</li>
+     * <li>step(duration, target, steps) - change up to the target in equal steps</li>
+     * <li>spike(duration, target) - temporary jump to the target</li>
+     * <li>soak(duration) - keep the previous level</li>
+     * <li>sine(duration, min, max, period) - oscillation between min and max</li>
+     * </ul>
+     * <b>Examples</b>:
+     * <ul>
+     * <li>stage(5m, 100), soak(30m), stage(5m, 0)</li>
+     * <li>step(20m, 200, 4); spike(1m, 400); sine(1h, 50, 150, 10m)</li>
+     * </ul>
+     */
+    @Parameter(
+            required = false,
+            defaultValue = "",
+            alias = SuiteConfig.Fields.loadProfile,
+            property = SuiteConfig.DEFAULTS_FIELD_PREFIX + "." + SuiteConfig.Fields.loadProfile
+    )
+    protected String loadProfile;
+
     /**
      * The mode of launching browsers for the test suite.
      * <b>Available modes</b>:
@@ -998,12 +1624,13 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
         
         preprocessAutowiredParameters();
 
-        ClassLoader classLoader = buildClassLoader(project, pluginDependencies);
+        List<String> classPath = buildClassPath(project, pluginDependencies);
+        ClassLoader classLoader = buildClassLoader(classPath);
         AtomicReference<Exception> runnerException = new AtomicReference<>();
         Thread runnerThread = new Thread(() -> {
             Runnable loadGenerator;
             try {
-                loadGenerator = buildLoadGenerator(classLoader);
+                loadGenerator = buildLoadGenerator(classLoader, classPath);
             } catch (MojoFailureException e) {
                 runnerException.set(e);
                 return;
@@ -1058,54 +1685,194 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
         }
     }
 
-    protected Runnable buildLoadGenerator(ClassLoader classLoader) throws MojoFailureException {
+    protected Runnable buildLoadGenerator(ClassLoader classLoader, List<String> classPath) throws MojoFailureException {
         List<SUITE_PARAMS_TYPE> suitesParams = getSuitesParams();
         Class loadGeneratorClass = buildLoadGeneratorClass(classLoader);
+        Class loadGeneratorConfigClass = buildLoadGeneratorConfigClass(classLoader);
+        Object loadGeneratorConfigValue = buildLoadGeneratorConfig(loadGeneratorConfigClass);
+        Class suiteConfigClass = buildSuiteConfigClass(classLoader);
         
-        Class[] loadGeneratorConstructorArgTypes;
-        Object[] loadGeneratorConstructorArgValues;
-        
+        List suiteConfigs = new ArrayList<>();
         if(suitesParams != null && !suitesParams.isEmpty()) {
-            Class loadGeneratorConfigClass = buildLoadGeneratorConfigClass(classLoader);
-            Object loadGeneratorConfigValue = buildLoadGeneratorConfig(loadGeneratorConfigClass);
-            
-            Class suiteConfigClass = buildSuiteConfigClass(classLoader);
-            List suiteConfigs = new ArrayList<>();
             for (SUITE_PARAMS_TYPE suite : suitesParams) {
                 suiteConfigs.add(
                         buildSuiteConfigInstance(suiteConfigClass, suite)
                 );
             }
-            
-            loadGeneratorConstructorArgTypes = new Class[]{
-                loadGeneratorConfigClass, List.class
-            };
-            loadGeneratorConstructorArgValues = new Object[]{
-                loadGeneratorConfigValue,
-                suiteConfigs
-            };
         } else {
-            Class loadGeneratorConfigClass = buildLoadGeneratorConfigClass(classLoader);
-            Object loadGeneratorConfigValue = buildLoadGeneratorConfig(loadGeneratorConfigClass);
-            Class suiteConfigClass = buildSuiteConfigClass(classLoader);
-            Object suiteConfig = buildSuiteConfigInstance(suiteConfigClass, null);
-            
-            loadGeneratorConstructorArgTypes = new Class[]{
-                loadGeneratorConfigClass, List.class
-            };
-            loadGeneratorConstructorArgValues = new Object[]{
-                loadGeneratorConfigValue,
-                List.of(suiteConfig)
-            };
+            suiteConfigs.add(
+                    buildSuiteConfigInstance(suiteConfigClass, null)
+            );
+        }
+        
+        if(isCoordinatorRequired(classLoader, loadGeneratorConfigClass, loadGeneratorConfigValue)) {
+            return buildCoordinator(
+                    classLoader,
+                    classPath,
+                    loadGeneratorClass,
+                    loadGeneratorConfigClass,
+                    loadGeneratorConfigValue,
+                    suiteConfigClass,
+                    suiteConfigs,
+                    suitesParams
+            );
         }
         
         return (Runnable) newInstance(
                 loadGeneratorClass, 
-                loadGeneratorConstructorArgTypes, 
-                loadGeneratorConstructorArgValues
+                new Class[]{
+                    loadGeneratorConfigClass, List.class
+                }, 
+                new Object[]{
+                    loadGeneratorConfigValue,
+                    suiteConfigs
+                }
         );
     }
     
+    protected boolean isCoordinatorRequired(ClassLoader classLoader, Class loadGeneratorConfigClass, Object loadGeneratorConfigValue) throws MojoFailureException {
+        try {
+            return (Boolean) loadClass(
+                    classLoader, 
+                    ClassNames.LOAD_GENERATOR_COORDINATOR
+            ).getMethod(
+                    "isRequired", 
+                    loadGeneratorConfigClass
+            ).invoke(
+                    null, 
+                    loadGeneratorConfigValue
+            );
+        } catch(ReflectiveOperationException e) {
+            throw new MojoFailureException(
+                    "Can't determine if coordinator is required",
+                    e
+            );
+        }
+    }
+    
+    protected Runnable buildCoordinator(ClassLoader classLoader, List<String> classPath, Class loadGeneratorClass, Class loadGeneratorConfigClass, Object loadGeneratorConfigValue, Class suiteConfigClass, List suiteConfigs, List<SUITE_PARAMS_TYPE> suitesParams) throws MojoFailureException {
+        Path agentProperties = writeAgentProperties(suitesParams);
+        Class agentLauncherClass = loadClass(classLoader, ClassNames.AGENT_LAUNCHER);
+        
+        Object agentLauncher;
+        try {
+            agentLauncher = agentLauncherClass.getMethod(
+                    "forkJvm", 
+                    List.class, 
+                    String.class, 
+                    String[].class
+            ).invoke(
+                    null,
+                    classPath,
+                    ClassNames.LOAD_GENERATOR_AGENT,
+                    new String[]{
+                        loadGeneratorClass.getName(),
+                        loadGeneratorConfigClass.getName(),
+                        suiteConfigClass.getName(),
+                        agentProperties.toString()
+                    }
+            );
+        } catch(ReflectiveOperationException e) {
+            deleteAgentProperties(agentProperties);
+            throw new MojoFailureException(
+                    "Can't create agent launcher",
+                    e
+            );
+        }
+        
+        Runnable coordinator;
+        try {
+            coordinator = (Runnable) newInstanceViaConstructor(
+                    loadClass(classLoader, ClassNames.LOAD_GENERATOR_COORDINATOR),
+                    new Class[]{
+                        loadGeneratorConfigClass, List.class, agentLauncherClass
+                    },
+                    new Object[]{
+                        loadGeneratorConfigValue,
+                        suiteConfigs,
+                        agentLauncher
+                    }
+            );
+        } catch(MojoFailureException e) {
+            deleteAgentProperties(agentProperties);
+            throw e;
+        }
+        
+        return () -> {
+            try {
+                coordinator.run();
+            } finally {
+                deleteAgentProperties(agentProperties);
+            }
+        };
+    }
+    
+    protected Path writeAgentProperties(List<SUITE_PARAMS_TYPE> suitesParams) throws MojoFailureException {
+        Properties properties = new Properties();
+        
+        for (Class clazz : new Class[]{getClass(), getClass().getSuperclass()}) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if(field.getType() != String.class || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                
+                String value = resolveParameter(field.getName());
+                if(value != null) {
+                    properties.putIfAbsent(field.getName(), value);
+                }
+            }
+        }
+        
+        if(suitesParams != null) {
+            for (int i = 0; i < suitesParams.size(); i++) {
+                if(!(suitesParams.get(i) instanceof Map)) {
+                    throw new MojoFailureException(
+                            "Suites of " + getClass().getSimpleName() + " can't be passed to agents"
+                    );
+                }
+                
+                String prefix = LoadGeneratorAgent.SUITES_PREFIX + i + ".";
+                ((Map<?, ?>) suitesParams.get(i)).forEach((key, value) -> {
+                    if(key != null && value != null) {
+                        properties.put(prefix + key, value.toString());
+                    }
+                });
+            }
+        }
+        
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if(name.startsWith(LoadGeneratorConfig.DEFAULTS_FIELD_PREFIX + ".") 
+                    || name.startsWith(SuiteConfig.DEFAULTS_FIELD_PREFIX + ".")
+                    || (systemProperties != null && systemProperties.containsKey(name))) {
+                properties.put(
+                        LoadGeneratorAgent.SYSTEM_PROPERTIES_PREFIX + name, 
+                        System.getProperty(name)
+                );
+            }
+        }
+        
+        try {
+            Path result = Files.createTempFile("perforator-agent-", ".properties");
+            try (Writer writer = Files.newBufferedWriter(result, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            return result;
+        } catch(IOException e) {
+            throw new MojoFailureException(
+                    "Can't write properties of agents",
+                    e
+            );
+        }
+    }
+    
+    protected void deleteAgentProperties(Path agentProperties) {
+        try {
+            Files.deleteIfExists(agentProperties);
+        } catch(IOException e) {
+            getLog().warn("Can't delete properties of agents " + agentProperties, e);
+        }
+    }
+    
     protected Class buildLoadGeneratorConfigClass(ClassLoader classLoader) throws MojoFailureException  {
         return loadClass(classLoader, ClassNames.LOAD_GENERATOR_CONFIG);
     }
@@ -1330,7 +2097,7 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
         return null;
     }
 
-    protected ClassLoader buildClassLoader(MavenProject project, List<Artifact> pluginDependencies) throws MojoExecutionException {
+    protected List<String> buildClassPath(MavenProject project, List<Artifact> pluginDependencies) throws MojoExecutionException {
         LinkedHashSet<String> paths = new LinkedHashSet<>();
 
         try {
@@ -1348,6 +2115,10 @@ abstract class AbstractLoadGeneratorMojo<SUITE_PARAMS_TYPE> extends AbstractMojo
             }
         }
 
+        return new ArrayList<>(paths);
+    }
+
+    protected ClassLoader buildClassLoader(List<String> paths) throws MojoExecutionException {
         List<URL> urls = new ArrayList<>();
         for (String path : paths) {
             try {
@@ -13,6 +13,9 @@ package io.perforator.sdk.maven;
 class ClassNames {
     
     static final String LOAD_GENERATOR_CONFIG = "io.perforator.sdk.loadgenerator.core.configs.LoadGeneratorConfig";
+    static final String LOAD_GENERATOR_COORDINATOR = "io.perforator.sdk.loadgenerator.core.LoadGeneratorCoordinator";
+    static final String LOAD_GENERATOR_AGENT = "io.perforator.sdk.loadgenerator.core.LoadGeneratorAgent";
+    static final String AGENT_LAUNCHER = "io.perforator.sdk.loadgenerator.core.AgentLauncher";
     
     static final String EMBEDDED_LOAD_GENERATOR = "io.perforator.sdk.loadgenerator.embedded.EmbeddedLoadGenerator";
     static final String EMBEDDED_SUITE_CONFIG = "io.perforator.sdk.loadgenerator.embedded.EmbeddedSuiteConfig";